@@ -0,0 +1,94 @@
+package edu.yacoubi.crm.jmh;
+
+import edu.yacoubi.crm.model.Customer;
+import edu.yacoubi.crm.model.Employee;
+import edu.yacoubi.crm.model.InteractionType;
+import edu.yacoubi.crm.model.Note;
+import edu.yacoubi.crm.repository.CustomerRepository;
+import edu.yacoubi.crm.repository.EmployeeRepository;
+import edu.yacoubi.crm.repository.NoteRepository;
+import org.springframework.context.ApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic test data shared by the benchmarks.
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static Employee employee(final Long id, final int index) {
+        return Employee.builder()
+                .id(id)
+                .firstName("First" + index)
+                .lastName("Last" + index)
+                .email("employee" + index + "@example.com")
+                .department(index % 2 == 0 ? "Sales" : "Support")
+                .build();
+    }
+
+    static Customer customer(final Long id, final int index, final Employee employee) {
+        return Customer.builder()
+                .id(id)
+                .firstName("First" + index)
+                .lastName("Last" + index)
+                .email("customer" + index + "@example.com")
+                .phone(String.format("0%09d", index))
+                .address(index + " Main St")
+                .lastInteractionDate(LocalDate.of(2024, 1, 1).plusDays(index % 365))
+                .employee(employee)
+                .build();
+    }
+
+    static Note note(final Long id, final int index, final Customer customer) {
+        return Note.builder()
+                .id(id)
+                .content("Follow-up call number " + index + " about the current offer")
+                .date(LocalDate.of(2024, 1, 1).plusDays(index % 365))
+                .interactionType(InteractionType.values()[index % InteractionType.values().length])
+                .customer(customer)
+                .build();
+    }
+
+    /**
+     * Saves {@code employees} employees, {@code customers} customers spread evenly over the employees and
+     * {@code notesPerCustomer} notes per customer.
+     *
+     * @return the IDs of the saved employees and customers, in creation order
+     */
+    static Seeded seed(final ApplicationContext context, final int employees, final int customers,
+                       final int notesPerCustomer) {
+        final List<Employee> employeeList = new ArrayList<>(employees);
+        for (int i = 0; i < employees; i++) {
+            employeeList.add(employee(null, i));
+        }
+        final List<Employee> savedEmployees = context.getBean(EmployeeRepository.class).saveAll(employeeList);
+
+        final List<Customer> customerList = new ArrayList<>(customers);
+        for (int i = 0; i < customers; i++) {
+            customerList.add(customer(null, i, savedEmployees.get(i % employees)));
+        }
+        final List<Customer> savedCustomers = context.getBean(CustomerRepository.class).saveAll(customerList);
+
+        final List<Note> notes = new ArrayList<>(customers * notesPerCustomer);
+        for (int i = 0; i < customers * notesPerCustomer; i++) {
+            notes.add(note(null, i, savedCustomers.get(i % customers)));
+        }
+        context.getBean(NoteRepository.class).saveAll(notes);
+
+        return new Seeded(
+                savedEmployees.stream().map(Employee::getId).toList(),
+                savedCustomers.stream().map(Customer::getId).toList()
+        );
+    }
+
+    /**
+     * IDs of the seeded rows.
+     */
+    record Seeded(List<Long> employeeIds, List<Long> customerIds) {
+    }
+}
@@ -0,0 +1,143 @@
+package edu.yacoubi.crm.jmh;
+
+import edu.yacoubi.crm.Main;
+import edu.yacoubi.crm.dto.customer.CustomerResponseDTO;
+import edu.yacoubi.crm.dto.employee.EmployeeResponseDTO;
+import edu.yacoubi.crm.dto.note.NoteResponseDTO;
+import edu.yacoubi.crm.repository.CustomerRepository;
+import edu.yacoubi.crm.repository.EmployeeRepository;
+import edu.yacoubi.crm.repository.NoteRepository;
+import edu.yacoubi.crm.util.EntityTransformer;
+import edu.yacoubi.crm.util.TransformerUtil;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation of the list endpoints: managed entities copied with {@link EntityTransformer} ({@code *Entities})
+ * versus response DTOs selected with a projection query ({@code *Projection}).
+ *
+ * <p>Each operation runs in its own transaction, like a request with an open persistence context, so the
+ * entity variants pay for the managed instances, their dirty-checking snapshots and the eagerly fetched
+ * customers of notes. Compare {@code gc.alloc.rate.norm} (bytes per operation) of the pairs:</p>
+ * <pre>
+ * mvn -Pjmh -DskipTests verify -Djmh.args="-f 1 -wi 3 -i 5 -prof gc ProjectionBenchmark"
+ * </pre>
+ *
+ * <p>Seeded like {@link RepositoryBenchmark}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-jmh.xml")
+public class ProjectionBenchmark {
+    private static final int PAGE_SIZE = 100;
+
+    private ConfigurableApplicationContext context;
+    private CustomerRepository customerRepository;
+    private EmployeeRepository employeeRepository;
+    private NoteRepository noteRepository;
+    private TransactionTemplate transactionTemplate;
+
+    private List<Long> employeeIds;
+    private List<Long> customerIds;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(Main.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=test",
+                        "--spring.datasource.url=jdbc:h2:mem:jmh-projection;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                        "--logging.config=classpath:logback-jmh.xml");
+        customerRepository = context.getBean(CustomerRepository.class);
+        employeeRepository = context.getBean(EmployeeRepository.class);
+        noteRepository = context.getBean(NoteRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        final BenchmarkData.Seeded seeded = BenchmarkData.seed(context, RepositoryBenchmark.EMPLOYEES,
+                RepositoryBenchmark.CUSTOMERS, RepositoryBenchmark.NOTES_PER_CUSTOMER);
+        employeeIds = seeded.employeeIds();
+        customerIds = seeded.customerIds();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<CustomerResponseDTO> customerPageEntities() {
+        final PageRequest pageRequest = customerPage();
+        return transactionTemplate.execute(status -> customerRepository.findAll(pageRequest).map(
+                customer -> TransformerUtil.transform(EntityTransformer.customerToCustomerResponseDto, customer)
+        ));
+    }
+
+    @Benchmark
+    public Page<CustomerResponseDTO> customerPageProjection() {
+        final PageRequest pageRequest = customerPage();
+        return transactionTemplate.execute(status -> customerRepository.findAllResponses(pageRequest));
+    }
+
+    @Benchmark
+    public List<CustomerResponseDTO> customersOfEmployeeEntities() {
+        final Long employeeId = employeeIds.get(nextIndex(employeeIds.size()));
+        return transactionTemplate.execute(status -> customerRepository.findByEmployeeId(employeeId).stream()
+                .map(customer -> TransformerUtil.transform(EntityTransformer.customerToCustomerResponseDto, customer))
+                .toList());
+    }
+
+    @Benchmark
+    public List<CustomerResponseDTO> customersOfEmployeeProjection() {
+        final Long employeeId = employeeIds.get(nextIndex(employeeIds.size()));
+        return transactionTemplate.execute(status -> customerRepository.findResponsesByEmployeeId(employeeId));
+    }
+
+    @Benchmark
+    public List<NoteResponseDTO> notesOfCustomerEntities() {
+        final Long customerId = customerIds.get(nextIndex(customerIds.size()));
+        return transactionTemplate.execute(status -> noteRepository.findAllByCustomerId(customerId).stream()
+                .map(note -> TransformerUtil.transform(EntityTransformer.noteToNoteResponseDto, note))
+                .toList());
+    }
+
+    @Benchmark
+    public List<NoteResponseDTO> notesOfCustomerProjection() {
+        final Long customerId = customerIds.get(nextIndex(customerIds.size()));
+        return transactionTemplate.execute(status -> noteRepository.findResponsesByCustomerId(customerId));
+    }
+
+    @Benchmark
+    public Page<EmployeeResponseDTO> employeePageEntities() {
+        final PageRequest pageRequest = PageRequest.of(0, employeeIds.size());
+        return transactionTemplate.execute(status -> employeeRepository.findAll(pageRequest).map(
+                employee -> TransformerUtil.transform(EntityTransformer.employeeToEmployeeResponseDto, employee)
+        ));
+    }
+
+    @Benchmark
+    public Page<EmployeeResponseDTO> employeePageProjection() {
+        final PageRequest pageRequest = PageRequest.of(0, employeeIds.size());
+        return transactionTemplate.execute(status -> employeeRepository.findAllResponses(pageRequest));
+    }
+
+    private PageRequest customerPage() {
+        return PageRequest.of(nextIndex(customerIds.size() / PAGE_SIZE), PAGE_SIZE);
+    }
+
+    private int nextIndex(final int bound) {
+        next = (next + 1) % bound;
+        return next;
+    }
+}
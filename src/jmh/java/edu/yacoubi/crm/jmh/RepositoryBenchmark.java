@@ -0,0 +1,105 @@
+package edu.yacoubi.crm.jmh;
+
+import edu.yacoubi.crm.Main;
+import edu.yacoubi.crm.model.Customer;
+import edu.yacoubi.crm.model.Note;
+import edu.yacoubi.crm.repository.CustomerRepository;
+import edu.yacoubi.crm.repository.INoteCustomRepository;
+import edu.yacoubi.crm.repository.NoteRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Main {@link CustomerRepository} and {@link NoteRepository} queries against a seeded embedded H2 database.
+ *
+ * <p>The application context is started once per fork with the {@code test} profile and without web server;
+ * the database holds {@value #EMPLOYEES} employees, {@value #CUSTOMERS} customers and
+ * {@value #NOTES_PER_CUSTOMER} notes per customer. The queries cycle through the seeded rows.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-jmh.xml")
+public class RepositoryBenchmark {
+    static final int EMPLOYEES = 50;
+    static final int CUSTOMERS = 10_000;
+    static final int NOTES_PER_CUSTOMER = 3;
+    private static final int PAGE_SIZE = 100;
+
+    private ConfigurableApplicationContext context;
+    private CustomerRepository customerRepository;
+    private NoteRepository noteRepository;
+    private INoteCustomRepository noteCustomRepository;
+
+    private List<Long> employeeIds;
+    private List<Long> customerIds;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(Main.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=test",
+                        "--spring.datasource.url=jdbc:h2:mem:jmh;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                        "--logging.config=classpath:logback-jmh.xml");
+        customerRepository = context.getBean(CustomerRepository.class);
+        noteRepository = context.getBean(NoteRepository.class);
+        noteCustomRepository = context.getBean(INoteCustomRepository.class);
+        final BenchmarkData.Seeded seeded = BenchmarkData.seed(context, EMPLOYEES, CUSTOMERS, NOTES_PER_CUSTOMER);
+        employeeIds = seeded.employeeIds();
+        customerIds = seeded.customerIds();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Customer> customerFindAllPage() {
+        return customerRepository.findAll(PageRequest.of(nextIndex(CUSTOMERS / PAGE_SIZE), PAGE_SIZE));
+    }
+
+    @Benchmark
+    public Optional<Customer> customerFindByEmail() {
+        return customerRepository.findByEmail("customer" + nextIndex(CUSTOMERS) + "@example.com");
+    }
+
+    @Benchmark
+    public List<Customer> customerFindByEmployeeId() {
+        return customerRepository.findByEmployeeId(employeeIds.get(nextIndex(EMPLOYEES)));
+    }
+
+    @Benchmark
+    public Page<Customer> customerFindByFirstNameOrEmail() {
+        final String term = "first" + nextIndex(CUSTOMERS);
+        return customerRepository.findByFirstNameContainingIgnoreCaseOrEmailContainingIgnoreCase(
+                term, term, PageRequest.of(0, 10)
+        );
+    }
+
+    @Benchmark
+    public List<Note> noteFindAllByCustomerId() {
+        return noteRepository.findAllByCustomerId(customerIds.get(nextIndex(CUSTOMERS)));
+    }
+
+    @Benchmark
+    public List<Note> noteFindFirstKeysetPage() {
+        return noteCustomRepository.findNotesAfter(null, null, PAGE_SIZE + 1);
+    }
+
+    private int nextIndex(final int bound) {
+        next = (next + 1) % bound;
+        return next;
+    }
+}
@@ -0,0 +1,91 @@
+package edu.yacoubi.crm.jmh;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.yacoubi.crm.dto.APIResponse;
+import edu.yacoubi.crm.dto.customer.CustomerResponseDTO;
+import edu.yacoubi.crm.model.Customer;
+import edu.yacoubi.crm.model.Employee;
+import edu.yacoubi.crm.util.ApiResponseHelper;
+import edu.yacoubi.crm.util.EntityTransformer;
+import edu.yacoubi.crm.util.TransformerUtil;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Steps of a customer list response: transforming the page, wrapping it into an {@link APIResponse}
+ * and serializing it, once with {@link EntityTransformer#jsonAsString} and once with a Jackson
+ * {@link ObjectMapper} configured like the one of Spring MVC.
+ *
+ * <p>The page sizes cover the default page (10) up to the large pages of the customer list (1000).</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-jmh.xml")
+public class ResponseBuildingBenchmark {
+    private static final String COMPLETED = "Operation completed";
+    private static final String SUCCESS = "Success";
+
+    @Param({"10", "100", "1000"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Page<Customer> customerPage;
+    private Page<CustomerResponseDTO> dtoPage;
+    private APIResponse<Page<CustomerResponseDTO>> response;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        final Employee employee = BenchmarkData.employee(1L, 1);
+        final List<Customer> customers = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            customers.add(BenchmarkData.customer((long) i + 1, i, employee));
+        }
+        customerPage = new PageImpl<>(customers, PageRequest.of(0, pageSize), 10_000);
+        dtoPage = transformPage();
+        response = buildPageResponse();
+    }
+
+    @Benchmark
+    public Page<CustomerResponseDTO> transformPage() {
+        return customerPage.map(
+                customer -> TransformerUtil.transform(EntityTransformer.customerToCustomerResponseDto, customer)
+        );
+    }
+
+    @Benchmark
+    public APIResponse<Page<CustomerResponseDTO>> buildPageResponse() {
+        return ApiResponseHelper.getPageAPIResponse(COMPLETED, SUCCESS, HttpStatus.OK, dtoPage);
+    }
+
+    @Benchmark
+    public String jsonAsString() {
+        return EntityTransformer.jsonAsString(response);
+    }
+
+    @Benchmark
+    public byte[] jacksonSerialization() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] transformBuildAndSerialize() throws JsonProcessingException {
+        final Page<CustomerResponseDTO> page = transformPage();
+        return objectMapper.writeValueAsBytes(
+                ApiResponseHelper.getPageAPIResponse(COMPLETED, SUCCESS, HttpStatus.OK, page)
+        );
+    }
+}
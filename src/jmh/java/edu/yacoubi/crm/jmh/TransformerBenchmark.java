@@ -0,0 +1,50 @@
+package edu.yacoubi.crm.jmh;
+
+import edu.yacoubi.crm.dto.customer.CustomerResponseDTO;
+import edu.yacoubi.crm.dto.employee.EmployeeResponseDTO;
+import edu.yacoubi.crm.dto.note.NoteResponseDTO;
+import edu.yacoubi.crm.model.Customer;
+import edu.yacoubi.crm.model.Employee;
+import edu.yacoubi.crm.model.Note;
+import edu.yacoubi.crm.util.EntityTransformer;
+import edu.yacoubi.crm.util.TransformerUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one entity-to-DTO transformation through {@link TransformerUtil#transform}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-jmh.xml")
+public class TransformerBenchmark {
+    private Employee employee;
+    private Customer customer;
+    private Note note;
+
+    @Setup
+    public void setUp() {
+        employee = BenchmarkData.employee(1L, 1);
+        customer = BenchmarkData.customer(1L, 1, employee);
+        note = BenchmarkData.note(1L, 1, customer);
+    }
+
+    @Benchmark
+    public CustomerResponseDTO customerToCustomerResponseDto() {
+        return TransformerUtil.transform(EntityTransformer.customerToCustomerResponseDto, customer);
+    }
+
+    @Benchmark
+    public EmployeeResponseDTO employeeToEmployeeResponseDto() {
+        return TransformerUtil.transform(EntityTransformer.employeeToEmployeeResponseDto, employee);
+    }
+
+    @Benchmark
+    public NoteResponseDTO noteToNoteResponseDto() {
+        return TransformerUtil.transform(EntityTransformer.noteToNoteResponseDto, note);
+    }
+}
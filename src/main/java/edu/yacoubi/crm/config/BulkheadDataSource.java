@@ -0,0 +1,88 @@
+package edu.yacoubi.crm.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Data source that takes a {@link DatabaseBulkhead} permit before borrowing a connection and returns it
+ * when the connection is closed (i.e. given back to the pool).
+ *
+ * @author A. El Yacoubi
+ */
+public class BulkheadDataSource extends DelegatingDataSource {
+    private final DatabaseBulkhead bulkhead;
+
+    public BulkheadDataSource(final DataSource targetDataSource, final DatabaseBulkhead bulkhead) {
+        super(targetDataSource);
+        this.bulkhead = bulkhead;
+    }
+
+    /**
+     * @return the bulkhead guarding the connections
+     */
+    public DatabaseBulkhead bulkhead() {
+        return bulkhead;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        bulkhead.acquire();
+        return borrow(() -> super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        bulkhead.acquire();
+        return borrow(() -> super.getConnection(username, password));
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection get() throws SQLException;
+    }
+
+    private Connection borrow(final ConnectionSource source) throws SQLException {
+        final Connection connection;
+        try {
+            connection = source.get();
+        } catch (SQLException | RuntimeException exception) {
+            bulkhead.release();
+            throw exception;
+        }
+
+        final AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                BulkheadDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                        try {
+                            connection.close();
+                        } finally {
+                            // close may be called more than once, the permit is returned once
+                            if (released.compareAndSet(false, true)) {
+                                bulkhead.release();
+                            }
+                        }
+                        return null;
+                    }
+                    if ("equals".equals(method.getName()) && method.getParameterCount() == 1) {
+                        return proxy == args[0];
+                    }
+                    if ("hashCode".equals(method.getName()) && method.getParameterCount() == 0) {
+                        return System.identityHashCode(proxy);
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException exception) {
+                        throw exception.getTargetException();
+                    }
+                });
+    }
+}
@@ -0,0 +1,185 @@
+package edu.yacoubi.crm.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limits the number of threads holding a database connection at the same time.
+ *
+ * <p>With virtual threads the number of concurrent requests is no longer capped by the Tomcat pool,
+ * thousands of requests may ask for one of the few pooled connections at once. The bulkhead lets as
+ * many threads through as the pool has connections and queues the others fairly; a thread that waits
+ * longer than {@code maxWait}, or arrives while {@code maxQueued} threads are already waiting, is
+ * rejected instead of piling up in the pool.</p>
+ *
+ * <p>Metrics (once bound to a registry):</p>
+ * <ul>
+ *     <li>{@code crm.db.bulkhead.wait} - time spent waiting for a permit, timed out attempts included,</li>
+ *     <li>{@code crm.db.bulkhead.rejections{reason=timeout|queue-full}} - rejected attempts,</li>
+ *     <li>{@code crm.db.bulkhead.permits.available}, {@code crm.db.bulkhead.queued} - current state.</li>
+ * </ul>
+ *
+ * @author A. El Yacoubi
+ */
+public class DatabaseBulkhead implements MeterBinder {
+    private final Semaphore permits;
+    private final int maxPermits;
+    private final Duration maxWait;
+    private final int maxQueued;
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private volatile Timer waitTimer;
+    private volatile Counter timeoutRejections;
+    private volatile Counter queueFullRejections;
+
+    public DatabaseBulkhead(final int maxPermits, final Duration maxWait, final int maxQueued) {
+        if (maxPermits < 1) {
+            throw new IllegalArgumentException("The bulkhead needs at least one permit");
+        }
+        if (maxWait.isNegative()) {
+            throw new IllegalArgumentException("crm.db.bulkhead.max-wait must not be negative");
+        }
+        if (maxQueued < 0) {
+            throw new IllegalArgumentException("crm.db.bulkhead.max-queued must not be negative");
+        }
+        this.permits = new Semaphore(maxPermits, true);
+        this.maxPermits = maxPermits;
+        this.maxWait = maxWait;
+        this.maxQueued = maxQueued;
+    }
+
+    /**
+     * Waits for a permit; every successful call must be followed by one {@link #release()}.
+     *
+     * @throws SQLTransientConnectionException if the queue is full, the wait timed out or the thread was
+     *                                         interrupted
+     */
+    public void acquire() throws SQLTransientConnectionException {
+        final long start = System.nanoTime();
+        try {
+            // fast path, fair: succeeds only if nobody is waiting
+            if (permits.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+                record(start);
+                return;
+            }
+        } catch (InterruptedException exception) {
+            throw interrupted(exception);
+        }
+
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            increment(queueFullRejections);
+            throw new SQLTransientConnectionException(
+                    "Database bulkhead full, " + maxQueued + " threads are already waiting for a connection");
+        }
+
+        final boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException exception) {
+            throw interrupted(exception);
+        } finally {
+            queued.decrementAndGet();
+            record(start);
+        }
+
+        if (!acquired) {
+            increment(timeoutRejections);
+            throw new SQLTransientConnectionException(
+                    "Database bulkhead timeout, no connection available within " + maxWait.toMillis() + " ms");
+        }
+    }
+
+    /**
+     * Returns a permit taken by {@link #acquire()}.
+     */
+    public void release() {
+        permits.release();
+    }
+
+    /**
+     * @return the number of permits, i.e. of threads that may hold a connection at the same time
+     */
+    public int maxPermits() {
+        return maxPermits;
+    }
+
+    /**
+     * @return the number of permits currently not taken
+     */
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    /**
+     * @return the number of threads currently waiting for a permit
+     */
+    public int queued() {
+        return queued.get();
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        bindTo(registry, Tags.empty());
+    }
+
+    /**
+     * Registers the metrics with additional tags, e.g. to tell the bulkheads of several pools apart.
+     *
+     * @param registry the registry to bind to
+     * @param tags     the tags added to every metric
+     */
+    public void bindTo(final MeterRegistry registry, final Iterable<Tag> tags) {
+        waitTimer = Timer.builder("crm.db.bulkhead.wait")
+                .description("Time spent waiting for a database connection permit")
+                .tags(tags)
+                .register(registry);
+        timeoutRejections = rejections(registry, tags, "timeout");
+        queueFullRejections = rejections(registry, tags, "queue-full");
+        Gauge.builder("crm.db.bulkhead.permits.available", this, DatabaseBulkhead::availablePermits)
+                .description("Database connection permits currently not taken")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder("crm.db.bulkhead.queued", this, DatabaseBulkhead::queued)
+                .description("Threads currently waiting for a database connection permit")
+                .tags(tags)
+                .register(registry);
+    }
+
+    private static Counter rejections(final MeterRegistry registry, final Iterable<Tag> tags, final String reason) {
+        return Counter.builder("crm.db.bulkhead.rejections")
+                .description("Rejected requests for a database connection permit")
+                .tags(tags)
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    private void record(final long start) {
+        final Timer timer = waitTimer;
+        if (timer != null) {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static SQLTransientConnectionException interrupted(final InterruptedException exception) {
+        Thread.currentThread().interrupt();
+        return new SQLTransientConnectionException("Interrupted while waiting for a database connection", exception);
+    }
+
+    private static void increment(final Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+}
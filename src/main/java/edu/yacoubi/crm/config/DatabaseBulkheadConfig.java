@@ -0,0 +1,66 @@
+package edu.yacoubi.crm.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Puts the pooled data source behind a {@link DatabaseBulkhead} with one permit per pool connection.
+ *
+ * <p>Enabled with {@code crm.db.bulkhead.enabled}, by default together with the virtual threads
+ * ({@code spring.threads.virtual.enabled}). With a read replica ({@link ReadWriteRoutingConfig}) each
+ * pool gets its own bulkhead; the metrics carry the bean name of the pool as tag {@code datasource}.</p>
+ *
+ * @author A. El Yacoubi
+ */
+@Configuration
+@ConditionalOnProperty(name = "crm.db.bulkhead.enabled", havingValue = "true")
+@Slf4j
+public class DatabaseBulkheadConfig {
+    // maximum-pool-size of HikariCP if not configured, the pool reports -1 until it is started
+    private static final int HIKARI_DEFAULT_POOL_SIZE = 10;
+
+    @Bean
+    public static BeanPostProcessor databaseBulkheadPostProcessor(final Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+                if (!(bean instanceof HikariDataSource hikari)) {
+                    return bean;
+                }
+                // the pool is configured by now, spring.datasource.hikari.* is bound before initialization
+                final int poolSize = hikari.getMaximumPoolSize() > 0
+                        ? hikari.getMaximumPoolSize()
+                        : HIKARI_DEFAULT_POOL_SIZE;
+                final DatabaseBulkhead bulkhead = new DatabaseBulkhead(
+                        poolSize,
+                        environment.getProperty("crm.db.bulkhead.max-wait", Duration.class, Duration.ofSeconds(5)),
+                        environment.getProperty("crm.db.bulkhead.max-queued", Integer.class, 1000));
+                if (log.isInfoEnabled()) {
+                    log.info("::databaseBulkheadPostProcessor guarding data source {} with {} permits",
+                            beanName, bulkhead.maxPermits());
+                }
+                return new BulkheadDataSource(hikari, bulkhead);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder databaseBulkheadMetrics(final Map<String, DataSource> dataSources) {
+        return registry -> dataSources.forEach((name, dataSource) -> {
+            if (dataSource instanceof BulkheadDataSource bulkheadDataSource) {
+                bulkheadDataSource.bulkhead().bindTo(registry, Tags.of("datasource", name));
+            }
+        });
+    }
+}
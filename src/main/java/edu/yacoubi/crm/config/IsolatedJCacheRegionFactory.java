@@ -0,0 +1,41 @@
+package edu.yacoubi.crm.config;
+
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.ehcache.xml.XmlConfiguration;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Region factory of the Hibernate second-level cache (JCache with Ehcache 3).
+ *
+ * <p>The regions and their limits are configured in {@code ehcache.xml}. The default factory resolves
+ * the cache manager by the URI of the configuration, so all session factories of a JVM (e.g. the
+ * application contexts of the tests) would share one cache manager, and the first one to shut down would
+ * close it for all others. This factory gives every session factory its own cache manager, which is
+ * closed together with the session factory.</p>
+ */
+public class IsolatedJCacheRegionFactory extends JCacheRegionFactory {
+    private static final String CONFIGURATION = "/ehcache.xml";
+
+    @Override
+    protected CacheManager resolveCacheManager(
+            final SessionFactoryOptions settings, final Map<String, Object> properties) {
+        final EhcacheCachingProvider cachingProvider = (EhcacheCachingProvider) Caching.getCachingProvider(
+                EhcacheCachingProvider.class.getName()
+        );
+        final XmlConfiguration configuration = new XmlConfiguration(
+                IsolatedJCacheRegionFactory.class.getResource(CONFIGURATION),
+                IsolatedJCacheRegionFactory.class.getClassLoader()
+        );
+        return cachingProvider.getCacheManager(
+                URI.create("urn:crm:hibernate-cache:" + UUID.randomUUID()),
+                configuration
+        );
+    }
+}
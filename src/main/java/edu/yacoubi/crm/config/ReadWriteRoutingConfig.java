@@ -0,0 +1,103 @@
+package edu.yacoubi.crm.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Two connection pools, the primary and a read replica, behind a {@link ReadWriteRoutingDataSource}.
+ *
+ * <p>Enabled with {@code crm.datasource.replica.enabled}. The primary is configured as usual with
+ * {@code spring.datasource.*} and {@code spring.datasource.hikari.*}, the replica with
+ * {@code crm.datasource.replica.url}, {@code .username}, {@code .password} and
+ * {@code crm.datasource.replica.hikari.*}. The pools are named {@code primary} and {@code replica}
+ * (tag {@code pool} of the {@code hikaricp.*} metrics).</p>
+ *
+ * @author A. El Yacoubi
+ */
+@Configuration
+@ConditionalOnProperty(name = "crm.datasource.replica.enabled", havingValue = "true")
+@Slf4j
+public class ReadWriteRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(final DataSourceProperties properties) {
+        final HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("crm.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(final Environment environment) {
+        final DataSourceProperties properties = Binder.get(environment)
+                .bind("crm.datasource.replica", DataSourceProperties.class)
+                .orElseGet(DataSourceProperties::new);
+        if (!StringUtils.hasText(properties.getUrl())) {
+            throw new IllegalStateException("crm.datasource.replica.url must be set if the replica is enabled");
+        }
+
+        final HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(
+            final @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            final @Value("${crm.datasource.replica.lag-query}") String lagQuery,
+            final @Value("${crm.datasource.replica.max-lag:5s}") Duration maxLag,
+            final @Value("${crm.datasource.replica.lag-check-interval:PT5S}") Duration checkInterval,
+            final @Value("${crm.datasource.replica.lag-check-timeout:1s}") Duration timeout) {
+        return new ReplicaLagMonitor(replicaDataSource, lagQuery, maxLag, checkInterval, timeout);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            final @Qualifier("primaryDataSource") DataSource primaryDataSource,
+            final @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            final ReplicaLagMonitor replicaLagMonitor) {
+        final ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(
+                primaryDataSource, replicaDataSource, replicaLagMonitor);
+        routingDataSource.afterPropertiesSet();
+        if (log.isInfoEnabled()) {
+            log.info("::dataSource routing read-only transactions to the replica");
+        }
+        // the route is decided on the first statement, after the transaction has been marked read-only
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public MeterBinder readWriteRoutingMetrics(final DataSource dataSource) {
+        return registry -> {
+            try {
+                dataSource.unwrap(ReadWriteRoutingDataSource.class).bindTo(registry);
+            } catch (SQLException exception) {
+                log.warn("::readWriteRoutingMetrics routing data source not found", exception);
+            }
+        };
+    }
+}
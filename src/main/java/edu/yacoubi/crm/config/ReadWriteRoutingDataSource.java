@@ -0,0 +1,91 @@
+package edu.yacoubi.crm.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sends the connections of read-only transactions to the read replica and all others to the primary.
+ *
+ * <p>The route is decided when a connection is borrowed, so this data source has to sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction manager
+ * opens its connection before the transaction is marked read-only, the lazy proxy only borrows the
+ * real connection on the first statement. Read-only transactions fall back to the primary while the
+ * {@link ReplicaLagMonitor} does not consider the replica usable.</p>
+ *
+ * <p>Metric (once bound to a registry): {@code crm.db.routing.connections{route=primary|replica,reason}}
+ * - borrowed connections, {@code reason} is {@code read-write}, {@code read-only} or why a read-only
+ * transaction fell back to the primary ({@code replica-lagging}, {@code replica-unavailable},
+ * {@code replica-unchecked}).</p>
+ *
+ * @author A. El Yacoubi
+ */
+public final class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements MeterBinder {
+
+    /**
+     * The pools a connection can be borrowed from.
+     */
+    public enum Route {
+        PRIMARY, REPLICA;
+
+        /**
+         * @return the value of the {@code route} tag of the routing metric
+         */
+        public String tag() {
+            return name().toLowerCase();
+        }
+    }
+
+    private static final String READ_WRITE = "read-write";
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    private volatile MeterRegistry registry;
+
+    public ReadWriteRoutingDataSource(final DataSource primary, final DataSource replica,
+                                      final ReplicaLagMonitor lagMonitor) {
+        this.lagMonitor = lagMonitor;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        // an unknown key is a bug, not a reason to fall back silently
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            count(Route.PRIMARY, READ_WRITE);
+            return Route.PRIMARY;
+        }
+
+        final ReplicaLagMonitor.State state = lagMonitor.state();
+        final Route route = state == ReplicaLagMonitor.State.USABLE ? Route.REPLICA : Route.PRIMARY;
+        count(route, state.reason());
+        return route;
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    private void count(final Route route, final String reason) {
+        final MeterRegistry meterRegistry = registry;
+        if (meterRegistry == null) {
+            return;
+        }
+        counters.computeIfAbsent(route.tag() + '|' + reason, key -> Counter.builder("crm.db.routing.connections")
+                        .description("Connections borrowed per route")
+                        .tag("route", route.tag())
+                        .tag("reason", reason)
+                        .register(meterRegistry))
+                .increment();
+    }
+}
@@ -0,0 +1,194 @@
+package edu.yacoubi.crm.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Measures in the background how far the read replica lags behind the primary.
+ *
+ * <p>The replica is only used while the last check succeeded and reported a lag of at most
+ * {@code maxLag}; until the first check, while the replica lags and while it cannot be reached,
+ * read-only transactions fall back to the primary.</p>
+ *
+ * <p>A check waits at most {@code timeout} for a connection of the replica pool and the answer of the
+ * query, a slower check counts as unavailable. The result of a successful check is only trusted for
+ * {@code 2 * checkInterval + timeout}: if the checks stall, e.g. because the scheduler threads are busy,
+ * the state falls back to {@link State#UNKNOWN} and the primary is used.</p>
+ *
+ * <p>Metrics (once bound to a registry): {@code crm.db.replica.lag} - the last measured lag in seconds
+ * (NaN if unknown), {@code crm.db.replica.usable} - 1 while read-only transactions are routed to the
+ * replica, 0 otherwise.</p>
+ *
+ * @author A. El Yacoubi
+ */
+@Slf4j
+public class ReplicaLagMonitor implements MeterBinder {
+
+    /**
+     * Why read-only transactions are (not) routed to the replica.
+     */
+    public enum State {
+        /**
+         * Not checked yet, or the last successful check is too old.
+         */
+        UNKNOWN("replica-unchecked"),
+        USABLE("read-only"),
+        LAGGING("replica-lagging"),
+        UNAVAILABLE("replica-unavailable");
+
+        private final String reason;
+
+        State(final String reason) {
+            this.reason = reason;
+        }
+
+        /**
+         * @return the value of the {@code reason} tag of the routing metric
+         */
+        public String reason() {
+            return reason;
+        }
+    }
+
+    private final JdbcTemplate replica;
+    private final String lagQuery;
+    private final double maxLagSeconds;
+    private final Duration timeout;
+    private final Duration staleAfter;
+    private final Clock clock;
+    // runs the query, so that the scheduler thread stops waiting after the timeout
+    private final ThreadPoolExecutor checker = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1), runnable -> {
+                final Thread thread = new Thread(runnable, "replica-lag-check");
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.DiscardOldestPolicy());
+
+    private volatile State state = State.UNKNOWN;
+    private volatile double lagSeconds = Double.NaN;
+    private volatile Instant checkedAt;
+
+    /**
+     * @param replicaDataSource the replica pool, queried directly and not through the routing data source
+     * @param lagQuery          a query returning the replication lag in seconds as a single number
+     * @param maxLag            the largest lag at which the replica is still used
+     * @param checkInterval     the interval of the checks
+     * @param timeout           how long a check waits for a connection and the answer of the query
+     */
+    public ReplicaLagMonitor(final DataSource replicaDataSource, final String lagQuery, final Duration maxLag,
+                             final Duration checkInterval, final Duration timeout) {
+        this(replicaDataSource, lagQuery, maxLag, checkInterval, timeout, Clock.systemUTC());
+    }
+
+    ReplicaLagMonitor(final DataSource replicaDataSource, final String lagQuery, final Duration maxLag,
+                      final Duration checkInterval, final Duration timeout, final Clock clock) {
+        if (maxLag.isNegative()) {
+            throw new IllegalArgumentException("crm.datasource.replica.max-lag must not be negative");
+        }
+        if (!checkInterval.isPositive() || !timeout.isPositive()) {
+            throw new IllegalArgumentException(
+                    "crm.datasource.replica.lag-check-interval and lag-check-timeout must be positive");
+        }
+        this.replica = new JdbcTemplate(replicaDataSource);
+        // the query timeout of JDBC only knows whole seconds
+        this.replica.setQueryTimeout((int) Math.max(1, timeout.toSeconds()));
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        this.timeout = timeout;
+        this.staleAfter = checkInterval.multipliedBy(2).plus(timeout);
+        this.clock = clock;
+    }
+
+    /**
+     * @return the result of the last check, {@link State#UNKNOWN} if the last successful check is too old
+     */
+    public State state() {
+        final State last = state;
+        if (last == State.USABLE || last == State.LAGGING) {
+            final Instant at = checkedAt;
+            if (at == null || Duration.between(at, clock.instant()).compareTo(staleAfter) > 0) {
+                return State.UNKNOWN;
+            }
+        }
+        return last;
+    }
+
+    /**
+     * @return the last measured lag in seconds, NaN if unknown
+     */
+    public double lagSeconds() {
+        return lagSeconds;
+    }
+
+    /**
+     * Queries the lag of the replica and decides whether it is used.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${crm.datasource.replica.lag-check-interval:PT5S}")
+    public void check() {
+        final State previous = state();
+        final Future<Number> result = checker.submit(() -> replica.queryForObject(lagQuery, Number.class));
+        try {
+            final Number lag = result.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            lagSeconds = lag == null ? 0 : lag.doubleValue();
+            state = lagSeconds <= maxLagSeconds ? State.USABLE : State.LAGGING;
+            checkedAt = clock.instant();
+        } catch (TimeoutException exception) {
+            // interrupts the wait for a connection of the pool or the query
+            result.cancel(true);
+            unavailable(previous, "no answer within " + timeout.toMillis() + " ms");
+        } catch (ExecutionException exception) {
+            unavailable(previous, exception.getCause() instanceof DataAccessException
+                    ? exception.getCause().getMessage() : exception.getCause().toString());
+        } catch (InterruptedException exception) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        if (state != previous && log.isInfoEnabled()) {
+            log.info("::check replica state changed from {} to {}, lag {} s", previous, state, lagSeconds);
+        }
+    }
+
+    /**
+     * Stops the thread running the checks.
+     */
+    public void close() {
+        checker.shutdownNow();
+    }
+
+    private void unavailable(final State previous, final String reason) {
+        lagSeconds = Double.NaN;
+        state = State.UNAVAILABLE;
+        if (previous != State.UNAVAILABLE) {
+            log.warn("::check replica not reachable: {}", reason);
+        }
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        Gauge.builder("crm.db.replica.lag", this, ReplicaLagMonitor::lagSeconds)
+                .description("Replication lag of the read replica")
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder("crm.db.replica.usable", this, monitor -> monitor.state() == State.USABLE ? 1 : 0)
+                .description("Whether read-only transactions are routed to the read replica")
+                .register(registry);
+    }
+}
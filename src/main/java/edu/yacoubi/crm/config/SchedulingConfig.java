@@ -0,0 +1,12 @@
+package edu.yacoubi.crm.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the {@code @Scheduled} background jobs, e.g. the refresh of the health checks.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
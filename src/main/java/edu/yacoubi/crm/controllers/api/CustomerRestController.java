@@ -1,28 +1,48 @@
 package edu.yacoubi.crm.controllers.api;
 
 import edu.yacoubi.crm.dto.APIResponse;
+import edu.yacoubi.crm.dto.BulkImportSummary;
+import edu.yacoubi.crm.dto.BulkLineResult;
+import edu.yacoubi.crm.dto.CursorPage;
+import edu.yacoubi.crm.dto.ExportFilter;
+import edu.yacoubi.crm.dto.customer.CustomerOverviewDTO;
 import edu.yacoubi.crm.dto.customer.CustomerPatchDTO;
 import edu.yacoubi.crm.dto.customer.CustomerRequestDTO;
 import edu.yacoubi.crm.dto.customer.CustomerResponseDTO;
+import edu.yacoubi.crm.logging.PayloadLogger;
 import edu.yacoubi.crm.model.Customer;
+import edu.yacoubi.crm.service.IBulkImportService;
 import edu.yacoubi.crm.service.ICustomerService;
 import edu.yacoubi.crm.service.IEntityOrchestratorService;
+import edu.yacoubi.crm.service.IExportService;
+import edu.yacoubi.crm.service.ISearchService;
+import edu.yacoubi.crm.service.export.ExportFormat;
 import edu.yacoubi.crm.util.ApiResponseHelper;
 import edu.yacoubi.crm.util.EntityTransformer;
+import edu.yacoubi.crm.util.NdjsonLineWriter;
 import edu.yacoubi.crm.util.TransformerUtil;
+import edu.yacoubi.crm.util.VersionETags;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
-
-import static edu.yacoubi.crm.util.EntityTransformer.jsonAsString;
+import java.util.Optional;
 
 /**
  * REST controller for managing customer resources in the CRM system.
@@ -54,12 +74,37 @@ public class CustomerRestController {
      */
     private final IEntityOrchestratorService entityOrchestratorService;
 
+    /**
+     * Service for the customer search.
+     */
+    private final ISearchService searchService;
+
+    /**
+     * Logger for the request and response payloads (sampled, disabled by default).
+     */
+    private final PayloadLogger payloadLogger;
+
+    /**
+     * Service for NDJSON bulk uploads.
+     */
+    private final IBulkImportService bulkImportService;
+
+    /**
+     * Serializes the line results of the bulk uploads.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Service for the streaming exports.
+     */
+    private final IExportService exportService;
+
     /**
      * Retrieve a list of all customers in the CRM system with pagination and optional search.
      *
      * @param page   the page number to retrieve, default is 0
      * @param size   the size of the page to retrieve, default is 10
-     * @param search an optional search parameter to filter customers by first name or email
+     * @param search an optional search parameter to filter customers by first name, last name or email
      * @return a paginated list of all customers wrapped in an APIResponse
      */
     @Operation(
@@ -75,19 +120,89 @@ public class CustomerRestController {
             log.info("::getAllEmployees started with: page: {}, size: {}, search: {}", page, size, search);
         }
 
-        final Page<Customer> customersPage = getCustomerPage(page, size, search);
+        final Page<CustomerResponseDTO> customerResponseDTOPage = getCustomerPage(page, size, search);
 
-        final Page<CustomerResponseDTO> customerResponseDTOPage = customersPage.map(
-                customer -> TransformerUtil.transform(EntityTransformer.customerToCustomerResponseDto, customer)
+        final APIResponse<Page<CustomerResponseDTO>> response = ApiResponseHelper.getPageAPIResponse(
+                COMPLETED, SUCCESS, HttpStatus.OK, customerResponseDTOPage
         );
 
-        final APIResponse<Page<CustomerResponseDTO>> response = ApiResponseHelper.getPageAPIResponse(
+        if (log.isInfoEnabled()) {
+            log.info("::getAllCustomers completed successfully");
+        }
+        payloadLogger.log("::getAllCustomers", response);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    /**
+     * Retrieve customers with keyset (cursor) pagination and optional search.
+     *
+     * <p>Customers are ordered by last name and ID. The response contains no total count;
+     * the {@code nextCursor} of a page is passed as {@code cursor} to fetch the next one.</p>
+     *
+     * @param cursor the continuation token of the previous page, omitted for the first page
+     * @param size   the size of the page to retrieve, default is 10
+     * @param search an optional search parameter to filter customers by first name or email
+     * @return a page of customers with the token for the next page wrapped in an APIResponse
+     */
+    @Operation(
+            summary = "Scroll through customers",
+            description = "Retrieve customers with cursor-based pagination (no total count) and optional search."
+    )
+    @GetMapping("/scroll")
+    public ResponseEntity<APIResponse<CursorPage<CustomerResponseDTO>>> getCustomersByCursor(
+            final @RequestParam(required = false) String cursor,
+            final @RequestParam(defaultValue = "10") int size,
+            final @RequestParam(required = false) String search) {
+        if (log.isInfoEnabled()) {
+            log.info("::getCustomersByCursor started with: cursor: {}, size: {}, search: {}", cursor, size, search);
+        }
+
+        final CursorPage<CustomerResponseDTO> customerResponseDTOPage = customerService
+                .getCustomersAfterCursor(cursor, size, search)
+                .map(customer -> TransformerUtil.transform(EntityTransformer.customerToCustomerResponseDto, customer));
+
+        final APIResponse<CursorPage<CustomerResponseDTO>> response = ApiResponseHelper.getDTOAPIResponse(
                 COMPLETED, SUCCESS, HttpStatus.OK, customerResponseDTOPage
         );
 
         if (log.isInfoEnabled()) {
-            log.info("::getAllCustomers completed successfully with: response {}", jsonAsString(response));
+            log.info("::getCustomersByCursor completed successfully");
+        }
+        payloadLogger.log("::getCustomersByCursor", response);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    /**
+     * Type-ahead suggestions for the customer search box.
+     *
+     * @param search the text typed so far, matched against first name, last name, email and phone
+     * @param limit  the maximum number of suggestions, default is 10
+     * @return the best matching customers wrapped in an APIResponse
+     */
+    @Operation(
+            summary = "Suggest customers",
+            description = "Type-ahead suggestions by first name, last name, email or phone, best matches first."
+    )
+    @GetMapping("/suggest")
+    public ResponseEntity<APIResponse<List<CustomerResponseDTO>>> suggestCustomers(
+            final @RequestParam String search,
+            final @RequestParam(defaultValue = "10") int limit) {
+        if (log.isInfoEnabled()) {
+            log.info("::suggestCustomers started with: search: {}, limit: {}", search, limit);
+        }
+
+        final List<CustomerResponseDTO> customerResponseDTOs = searchService.suggestCustomers(search, limit).stream()
+                .map(customer -> TransformerUtil.transform(EntityTransformer.customerToCustomerResponseDto, customer))
+                .toList();
+
+        final APIResponse<List<CustomerResponseDTO>> response = ApiResponseHelper.getDTOAPIResponse(
+                COMPLETED, SUCCESS, HttpStatus.OK, customerResponseDTOs
+        );
+
+        if (log.isInfoEnabled()) {
+            log.info("::suggestCustomers completed successfully");
         }
+        payloadLogger.log("::suggestCustomers", response);
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
@@ -108,19 +223,16 @@ public class CustomerRestController {
             log.info("::getCustomersByEmployeeId started with: employeeId: {}", employeeId);
         }
 
-        List<Customer> customers = customerService.getCustomersByEmployeeId(employeeId);
-
-        final List<CustomerResponseDTO> customerResponseDTO = customers.stream().map(
-                customer -> TransformerUtil.transform(EntityTransformer.customerToCustomerResponseDto, customer)
-        ).collect(Collectors.toList());
+        final List<CustomerResponseDTO> customerResponseDTO = customerService.getCustomerResponsesByEmployeeId(employeeId);
 
         final APIResponse<List<CustomerResponseDTO>> response = ApiResponseHelper.getDTOAPIResponse(
                 COMPLETED, SUCCESS, HttpStatus.OK, customerResponseDTO
         );
 
         if (log.isInfoEnabled()) {
-            log.info("::getCustomersByEmployeeId completed successfully with: response {}", jsonAsString(response));
+            log.info("::getCustomersByEmployeeId completed successfully");
         }
+        payloadLogger.log("::getCustomersByEmployeeId", response);
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
@@ -128,6 +240,7 @@ public class CustomerRestController {
      * Retrieve a customer by their unique ID.
      *
      * @param customerId the unique ID of the customer to retrieve
+     * @param ifNoneMatch the ETag of the customer the client has cached, answered with 304 if still current
      * @return the customer details wrapped in an APIResponse
      */
     @Operation(
@@ -136,11 +249,25 @@ public class CustomerRestController {
     )
     @GetMapping("/{customerId}")
     public ResponseEntity<APIResponse<CustomerResponseDTO>> getCustomerById(
-            final @PathVariable Long customerId) {
+            final @PathVariable Long customerId,
+            final @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         if (log.isInfoEnabled()) {
             log.info("::getCustomerById started with: customerId {}", customerId);
         }
 
+        if (ifNoneMatch != null) {
+            // version-only lookup, a current copy is answered without loading and serializing the customer
+            final Optional<Long> currentVersion = customerService.getCustomerVersion(customerId);
+            if (currentVersion.isPresent() && VersionETags.matches(ifNoneMatch, currentVersion.get())) {
+                if (log.isInfoEnabled()) {
+                    log.info("::getCustomerById completed successfully: not modified");
+                }
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(VersionETags.of(currentVersion.get()))
+                        .build();
+            }
+        }
+
         final Customer existingCustomer = customerService.getCustomerById(customerId).get();
 
         final CustomerResponseDTO customerResponseDTO = TransformerUtil.transform(
@@ -153,9 +280,46 @@ public class CustomerRestController {
         );
 
         if (log.isInfoEnabled()) {
-            log.info("::getCustomerById completed successfully with: response {}", jsonAsString(response));
+            log.info("::getCustomerById completed successfully");
         }
-        return ResponseEntity.ok(response);
+        payloadLogger.log("::getCustomerById", response);
+        return ResponseEntity.ok()
+                .eTag(VersionETags.of(existingCustomer.getVersion()))
+                .body(response);
+    }
+
+    /**
+     * Retrieve the 360° overview of a customer: the customer, its employee, the number of notes per
+     * interaction type and the latest notes.
+     *
+     * @param customerId the unique ID of the customer
+     * @param notes      the number of latest notes to include, default is 5, at most 50
+     * @return the customer overview wrapped in an APIResponse
+     */
+    @Operation(
+            summary = "Get customer overview",
+            description = "Customer, employee, note counts per interaction type and the latest notes, "
+                    + "loaded with a fixed number of queries."
+    )
+    @GetMapping("/{customerId}/overview")
+    public ResponseEntity<APIResponse<CustomerOverviewDTO>> getCustomerOverview(
+            final @PathVariable Long customerId,
+            final @RequestParam(defaultValue = "5") int notes) {
+        if (log.isInfoEnabled()) {
+            log.info("::getCustomerOverview started with: customerId {}, notes {}", customerId, notes);
+        }
+
+        final CustomerOverviewDTO overview = customerService.getCustomerOverview(customerId, notes);
+
+        final APIResponse<CustomerOverviewDTO> response = ApiResponseHelper.getDTOAPIResponse(
+                COMPLETED, SUCCESS, HttpStatus.OK, overview
+        );
+
+        if (log.isInfoEnabled()) {
+            log.info("::getCustomerOverview completed successfully");
+        }
+        payloadLogger.log("::getCustomerOverview", response);
+        return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
     /**
@@ -175,7 +339,7 @@ public class CustomerRestController {
             final @RequestParam Long employeeId) {
         if (log.isInfoEnabled()) {
             log.info("::createCustomerForEmployee started with: customerRequestDTO {}, employeeId {}",
-                    jsonAsString(customerRequestDTO), employeeId);
+                    customerRequestDTO, employeeId);
         }
 
         final Customer customerRequest = TransformerUtil.transform(
@@ -197,16 +361,100 @@ public class CustomerRestController {
         );
 
         if (log.isInfoEnabled()) {
-            log.info("::createCustomerForEmployee completed successfully with: response {}", jsonAsString(response));
+            log.info("::createCustomerForEmployee completed successfully");
         }
+        payloadLogger.log("::createCustomerForEmployee", response);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    /**
+     * Creates the customers of an NDJSON upload of customer requests for an employee.
+     *
+     * <p>The request body is read line by line and written in chunks; for every line a result
+     * ({@code CREATED}, {@code UPDATED}, {@code REJECTED} or {@code FAILED}) is streamed back as NDJSON
+     * once its chunk is committed.</p>
+     *
+     * @param employeeId the unique ID of the employee the created customers are assigned to
+     * @param upsert     if true, customers with an existing email are updated instead of created
+     * @param request    the request, its body is the NDJSON upload
+     * @param response   the response the line results are streamed into
+     * @throws IOException if the upload cannot be read
+     */
+    @Operation(
+            summary = "Bulk create customers",
+            description = "Creates the customers of an NDJSON upload of customer requests for an employee."
+    )
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public void bulkCreateCustomers(
+            final @RequestParam Long employeeId,
+            final @RequestParam(defaultValue = "false") boolean upsert,
+            final HttpServletRequest request,
+            final HttpServletResponse response) throws IOException {
+        if (log.isInfoEnabled()) {
+            log.info("::bulkCreateCustomers started with: employeeId {}, upsert {}", employeeId, upsert);
+        }
+
+        final NdjsonLineWriter<BulkLineResult> results = new NdjsonLineWriter<>(objectMapper, response);
+        final BulkImportSummary summary = bulkImportService.importCustomers(request.getInputStream(), employeeId, upsert, results);
+        results.finish();
+
+        if (log.isInfoEnabled()) {
+            log.info("::bulkCreateCustomers completed successfully with: {}", summary);
+        }
+    }
+
+    /**
+     * Exports all customers matching the filter as NDJSON or CSV, ordered by ID.
+     *
+     * <p>The rows are streamed from a database cursor straight into the response, so the export needs the
+     * same memory for a hundred and for millions of customers.</p>
+     *
+     * @param format     the output format, {@code ndjson} (default) or {@code csv}
+     * @param employeeId only customers of this employee, optional
+     * @param department only customers of employees in this department, optional
+     * @param from       only customers with their last interaction on or after this date, optional
+     * @param to         only customers with their last interaction on or before this date, optional
+     * @return the streamed export as attachment
+     */
+    @Operation(
+            summary = "Export customers",
+            description = "Streams all customers matching the filter as NDJSON or CSV."
+    )
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportCustomers(
+            final @RequestParam(defaultValue = "ndjson") String format,
+            final @RequestParam(required = false) Long employeeId,
+            final @RequestParam(required = false) String department,
+            final @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            final @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (log.isInfoEnabled()) {
+            log.info("::exportCustomers started with: format {}, employeeId {}, department {}, from {}, to {}",
+                    format, employeeId, department, from, to);
+        }
+
+        // validated before the response is committed, invalid requests are answered with 400
+        final ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        final ExportFilter filter = new ExportFilter(employeeId, department, from, to);
+
+        final StreamingResponseBody body = outputStream -> exportService.exportCustomers(filter, exportFormat, outputStream);
+
+        if (log.isInfoEnabled()) {
+            log.info("::exportCustomers completed successfully: streaming started");
+        }
+        return ResponseEntity.ok()
+                .contentType(exportFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("customers." + exportFormat.fileExtension())
+                        .build().toString())
+                .body(body);
+    }
+
     /**
      * Full update of an existing customer by their unique ID.
      *
      * @param customerId         the unique ID of the customer to update
      * @param customerRequestDTO the customer request data transfer object containing the updated details of the customer
+     * @param ifMatch the ETag of the customer the update is based on, optional
      * @return the updated customer details wrapped in an APIResponse
      */
     @Operation(
@@ -216,14 +464,16 @@ public class CustomerRestController {
     @PutMapping("/{customerId}")
     public ResponseEntity<APIResponse<CustomerResponseDTO>> updateCustomer(
             final @PathVariable Long customerId,
-            final @Valid @RequestBody CustomerRequestDTO customerRequestDTO) {
+            final @Valid @RequestBody CustomerRequestDTO customerRequestDTO,
+            final @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         if (log.isInfoEnabled()) {
             log.info("::updateCustomer started with: customerId {}, customerRequestDTO {}",
-                    customerId, jsonAsString(customerRequestDTO));
+                    customerId, customerRequestDTO);
         }
 
         final Customer updatedCustomer = customerService.updateCustomer(customerId, TransformerUtil.transform(
-                EntityTransformer.customerRequestDtoToCustomer, customerRequestDTO)
+                EntityTransformer.customerRequestDtoToCustomer, customerRequestDTO),
+                VersionETags.parseIfMatch(ifMatch)
         );
 
         final CustomerResponseDTO customerResponseDTO = TransformerUtil.transform(
@@ -236,9 +486,12 @@ public class CustomerRestController {
         );
 
         if (log.isInfoEnabled()) {
-            log.info("::updateCustomer completed successfully with: response {}", jsonAsString(response));
+            log.info("::updateCustomer completed successfully");
         }
-        return ResponseEntity.ok(response);
+        payloadLogger.log("::updateCustomer", response);
+        return ResponseEntity.ok()
+                .eTag(VersionETags.of(updatedCustomer.getVersion()))
+                .body(response);
     }
 
     /**
@@ -246,6 +499,7 @@ public class CustomerRestController {
      *
      * @param customerId       the unique ID of the customer to update
      * @param customerPatchDTO the customer patch data transfer object containing the partial updates of the customer
+     * @param ifMatch the ETag of the customer the update is based on, optional
      * @return the updated customer details wrapped in an APIResponse
      */
     @Operation(
@@ -255,13 +509,14 @@ public class CustomerRestController {
     @PatchMapping("/{customerId}")
     public ResponseEntity<APIResponse<CustomerResponseDTO>> patchCustomer(
             final @PathVariable Long customerId,
-            final @Valid @RequestBody CustomerPatchDTO customerPatchDTO) {
+            final @Valid @RequestBody CustomerPatchDTO customerPatchDTO,
+            final @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         if (log.isInfoEnabled()) {
             log.info("::patchCustomer started with: customerId {}, customerPatchDTO {}",
-                    customerId, jsonAsString(customerPatchDTO));
+                    customerId, customerPatchDTO);
         }
 
-        customerService.partialUpdateCustomer(customerId, customerPatchDTO);
+        customerService.partialUpdateCustomer(customerId, customerPatchDTO, VersionETags.parseIfMatch(ifMatch));
 
         final Customer updatedCustomer = customerService.getCustomerById(customerId).get();
 
@@ -275,9 +530,12 @@ public class CustomerRestController {
         );
 
         if (log.isInfoEnabled()) {
-            log.info("::patchCustomer completed successfully with: response {}", jsonAsString(response));
+            log.info("::patchCustomer completed successfully");
         }
-        return ResponseEntity.ok(response);
+        payloadLogger.log("::patchCustomer", response);
+        return ResponseEntity.ok()
+                .eTag(VersionETags.of(updatedCustomer.getVersion()))
+                .body(response);
     }
 
     /**
@@ -303,8 +561,9 @@ public class CustomerRestController {
         );
 
         if (log.isInfoEnabled()) {
-            log.info("::deleteCustomer completed successfully with: response {}", jsonAsString(response));
+            log.info("::deleteCustomer completed successfully");
         }
+        payloadLogger.log("::deleteCustomer", response);
         return ResponseEntity.ok(response);
     }
 
@@ -312,17 +571,21 @@ public class CustomerRestController {
     /**
      * Retrieves a page of customers, optionally filtered by a search term.
      *
+     * <p>Without search term the page is loaded with a projection query directly as response DTOs.</p>
+     *
      * @param page   the page number to retrieve
      * @param size   the size of the page to retrieve
      * @param search an optional search parameter to filter customers by first name or email
      * @return a page of customers matching the search criteria
      */
-    private Page<Customer> getCustomerPage(int page, int size, String search) {
-        Page<Customer> customersPage;
-        if (search != null && !search.isEmpty()) {
-            customersPage = customerService.getCustomersByFirstNameOrEmail(search, page, size);
+    private Page<CustomerResponseDTO> getCustomerPage(int page, int size, String search) {
+        Page<CustomerResponseDTO> customersPage;
+        if (search != null && !search.isBlank()) {
+            customersPage = searchService.searchCustomers(search, page, size).map(
+                    customer -> TransformerUtil.transform(EntityTransformer.customerToCustomerResponseDto, customer)
+            );
         } else {
-            customersPage = customerService.getCustomersWithPagination(page, size);
+            customersPage = customerService.getCustomerResponsesWithPagination(page, size);
         }
         return customersPage;
     }
@@ -1,30 +1,44 @@
 package edu.yacoubi.crm.controllers.api;
 
 import edu.yacoubi.crm.dto.APIResponse;
+import edu.yacoubi.crm.dto.BulkImportSummary;
+import edu.yacoubi.crm.dto.BulkLineResult;
+import edu.yacoubi.crm.dto.employee.DepartmentHeadCountDTO;
 import edu.yacoubi.crm.dto.employee.EmployeePatchDTO;
 import edu.yacoubi.crm.dto.employee.EmployeeRequestDTO;
 import edu.yacoubi.crm.dto.employee.EmployeeResponseDTO;
+import edu.yacoubi.crm.logging.PayloadLogger;
 import edu.yacoubi.crm.model.Employee;
+import edu.yacoubi.crm.service.IBulkImportService;
 import edu.yacoubi.crm.service.IEmployeeService;
 import edu.yacoubi.crm.service.IEntityOrchestratorService;
+import edu.yacoubi.crm.service.ISearchService;
+import edu.yacoubi.crm.service.registry.DepartmentRegistry;
 import edu.yacoubi.crm.util.EntityTransformer;
+import edu.yacoubi.crm.util.NdjsonLineWriter;
 import edu.yacoubi.crm.util.TransformerUtil;
+import edu.yacoubi.crm.util.VersionETags;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Collections;
+import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 
 import static edu.yacoubi.crm.util.ApiResponseHelper.getDTOAPIResponse;
 import static edu.yacoubi.crm.util.ApiResponseHelper.getPageAPIResponse;
-import static edu.yacoubi.crm.util.EntityTransformer.jsonAsString;
 
 /**
  * REST controller for managing employee resources in the CRM system.
@@ -57,12 +71,32 @@ public class EmployeeRestController {
      */
     private final IEntityOrchestratorService orchestratorSvc;
 
+    /**
+     * Service for the employee search.
+     */
+    private final ISearchService searchService;
+
+    /**
+     * Logger for the request and response payloads (sampled, disabled by default).
+     */
+    private final PayloadLogger payloadLogger;
+
+    /**
+     * Service for NDJSON bulk uploads.
+     */
+    private final IBulkImportService bulkImportService;
+
+    /**
+     * Serializes the line results of the bulk uploads.
+     */
+    private final ObjectMapper objectMapper;
+
     /**
      * Retrieve a list of all employees in the CRM system with pagination and optional search.
      *
      * @param page   the page number to retrieve, default is 0
      * @param size   the size of the page to retrieve, default is 10
-     * @param search an optional search parameter to filter employees by first name or department
+     * @param search an optional search parameter to filter employees by first name, last name or department
      * @return a paginated list of all employees wrapped in an APIResponse
      */
     @Operation(
@@ -78,18 +112,15 @@ public class EmployeeRestController {
             log.info("::getAllEmployees started with: page: {}, size: {}, search: {}", page, size, search);
         }
 
-        final Page<Employee> employeesPage = getEmployeePage(page, size, search);
-
-        final Page<EmployeeResponseDTO> empRespDTO = employeesPage.map(
-                employee -> TransformerUtil.transform(EntityTransformer.employeeToEmployeeResponseDto, employee)
-        );
+        final Page<EmployeeResponseDTO> empRespDTO = getEmployeePage(page, size, search);
 
         final APIResponse<Page<EmployeeResponseDTO>> response =
                 getPageAPIResponse(COMPLETED, SUCCESS, HttpStatus.OK, empRespDTO);
 
         if (log.isInfoEnabled()) {
-            log.info("::getAllEmployees completed successfully with: response {}", jsonAsString(response));
+            log.info("::getAllEmployees completed successfully");
         }
+        payloadLogger.log("::getAllEmployees", response);
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
@@ -97,6 +128,7 @@ public class EmployeeRestController {
      * Retrieve an employee by their unique ID.
      *
      * @param employeeId the unique ID of the employee to retrieve
+     * @param ifNoneMatch the ETag of the employee the client has cached, answered with 304 if still current
      * @return the employee details wrapped in an APIResponse
      */
     @Operation(
@@ -105,11 +137,25 @@ public class EmployeeRestController {
     )
     @GetMapping("/{employeeId}")
     public ResponseEntity<APIResponse<EmployeeResponseDTO>> getEmployeeById(
-            final @PathVariable Long employeeId) {
+            final @PathVariable Long employeeId,
+            final @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         if (log.isInfoEnabled()) {
             log.info("::getEmployeeById started with: employeeId {}", employeeId);
         }
 
+        if (ifNoneMatch != null) {
+            // version-only lookup, a current copy is answered without loading and serializing the employee
+            final Optional<Long> currentVersion = employeeService.getEmployeeVersion(employeeId);
+            if (currentVersion.isPresent() && VersionETags.matches(ifNoneMatch, currentVersion.get())) {
+                if (log.isInfoEnabled()) {
+                    log.info("::getEmployeeById completed successfully: not modified");
+                }
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(VersionETags.of(currentVersion.get()))
+                        .build();
+            }
+        }
+
         // Exception handling is done in the service and caught by the global handler
         final Employee existingEmployee = employeeService.getEmployeeById(employeeId).get();
 
@@ -122,9 +168,12 @@ public class EmployeeRestController {
                 getDTOAPIResponse(COMPLETED, SUCCESS, HttpStatus.OK, empResDTO);
 
         if (log.isInfoEnabled()) {
-            log.info("::getEmployeeById completed successfully with: response {}", jsonAsString(response));
+            log.info("::getEmployeeById completed successfully");
         }
-        return ResponseEntity.ok(response);
+        payloadLogger.log("::getEmployeeById", response);
+        return ResponseEntity.ok()
+                .eTag(VersionETags.of(existingEmployee.getVersion()))
+                .body(response);
     }
 
     /**
@@ -141,7 +190,7 @@ public class EmployeeRestController {
     public ResponseEntity<APIResponse<EmployeeResponseDTO>> createEmployee(
             final @Valid @RequestBody EmployeeRequestDTO empReqDTO) {
         if (log.isInfoEnabled()) {
-            log.info("::createEmployee started with: employeeRequestDTO {}", jsonAsString(empReqDTO));
+            log.info("::createEmployee started with: employeeRequestDTO {}", empReqDTO);
         }
 
         final Employee employeeRequest = TransformerUtil.transform(
@@ -160,16 +209,52 @@ public class EmployeeRestController {
                 getDTOAPIResponse(COMPLETED, SUCCESS, HttpStatus.CREATED, empRespDTO);
 
         if (log.isInfoEnabled()) {
-            log.info("::createEmployee completed successfully with: response {}", jsonAsString(response));
+            log.info("::createEmployee completed successfully");
         }
+        payloadLogger.log("::createEmployee", response);
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Creates the employees of an NDJSON upload of employee requests.
+     *
+     * <p>The request body is read line by line and written in chunks; for every line a result
+     * ({@code CREATED}, {@code UPDATED}, {@code REJECTED} or {@code FAILED}) is streamed back as NDJSON
+     * once its chunk is committed.</p>
+     *
+     * @param upsert     if true, employees with an existing email are updated instead of created
+     * @param request    the request, its body is the NDJSON upload
+     * @param response   the response the line results are streamed into
+     * @throws IOException if the upload cannot be read
+     */
+    @Operation(
+            summary = "Bulk create employees",
+            description = "Creates the employees of an NDJSON upload of employee requests."
+    )
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public void bulkCreateEmployees(
+            final @RequestParam(defaultValue = "false") boolean upsert,
+            final HttpServletRequest request,
+            final HttpServletResponse response) throws IOException {
+        if (log.isInfoEnabled()) {
+            log.info("::bulkCreateEmployees started with: upsert {}", upsert);
+        }
+
+        final NdjsonLineWriter<BulkLineResult> results = new NdjsonLineWriter<>(objectMapper, response);
+        final BulkImportSummary summary = bulkImportService.importEmployees(request.getInputStream(), upsert, results);
+        results.finish();
+
+        if (log.isInfoEnabled()) {
+            log.info("::bulkCreateEmployees completed successfully with: {}", summary);
+        }
+    }
+
     /**
      * Update the details of an existing employee by their unique ID.
      *
      * @param employeeId the unique ID of the employee to update
      * @param empReqDTO  the employee request data transfer object containing the updated details of the employee
+     * @param ifMatch the ETag of the employee the update is based on, optional
      * @return the updated employee details wrapped in an APIResponse
      */
     @Operation(
@@ -179,10 +264,11 @@ public class EmployeeRestController {
     @PutMapping("/{employeeId}")
     public ResponseEntity<APIResponse<EmployeeResponseDTO>> updateEmployee(
             final @PathVariable Long employeeId,
-            final @Valid @RequestBody EmployeeRequestDTO empReqDTO) {
+            final @Valid @RequestBody EmployeeRequestDTO empReqDTO,
+            final @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         if (log.isInfoEnabled()) {
             log.info("::updateEmployee started with: employeeId {}, employeeRequestDTO {}",
-                    employeeId, jsonAsString(empReqDTO)
+                    employeeId, empReqDTO
             );
         }
 
@@ -191,7 +277,7 @@ public class EmployeeRestController {
                 empReqDTO
         );
 
-        final Employee updatedEmployee = employeeService.updateEmployee(employeeId, employeeRequest);
+        final Employee updatedEmployee = employeeService.updateEmployee(employeeId, employeeRequest, VersionETags.parseIfMatch(ifMatch));
 
         final EmployeeResponseDTO empRespDTO = TransformerUtil.transform(
                 EntityTransformer.employeeToEmployeeResponseDto,
@@ -202,9 +288,12 @@ public class EmployeeRestController {
                 getDTOAPIResponse(COMPLETED, SUCCESS, HttpStatus.OK, empRespDTO);
 
         if (log.isInfoEnabled()) {
-            log.info("::updateEmployee completed successfully with: response {}", jsonAsString(response));
+            log.info("::updateEmployee completed successfully");
         }
-        return ResponseEntity.ok(response);
+        payloadLogger.log("::updateEmployee", response);
+        return ResponseEntity.ok()
+                .eTag(VersionETags.of(updatedEmployee.getVersion()))
+                .body(response);
     }
 
     /**
@@ -212,6 +301,7 @@ public class EmployeeRestController {
      *
      * @param employeeId       the unique ID of the employee to partially update
      * @param employeePatchDTO the employee patch data transfer object containing the partial update details of the employee
+     * @param ifMatch the ETag of the employee the update is based on, optional
      * @return the updated employee details wrapped in an APIResponse
      */
     @Operation(
@@ -221,13 +311,14 @@ public class EmployeeRestController {
     @PatchMapping("/{employeeId}")
     public ResponseEntity<APIResponse<EmployeeResponseDTO>> patchEmployee(
             final @PathVariable Long employeeId,
-            final @Valid @RequestBody EmployeePatchDTO employeePatchDTO) {
+            final @Valid @RequestBody EmployeePatchDTO employeePatchDTO,
+            final @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         if (log.isInfoEnabled()) {
             log.info("::patchEmployee started with: employeeId {}, employeePatchDTO {}",
-                    employeeId, jsonAsString(employeePatchDTO));
+                    employeeId, employeePatchDTO);
         }
 
-        employeeService.partialUpdateEmployee(employeeId, employeePatchDTO);
+        employeeService.partialUpdateEmployee(employeeId, employeePatchDTO, VersionETags.parseIfMatch(ifMatch));
 
         final Employee updatedEmployee = employeeService.getEmployeeById(employeeId).get();
 
@@ -240,9 +331,12 @@ public class EmployeeRestController {
                 getDTOAPIResponse(COMPLETED, SUCCESS, HttpStatus.OK, empRespDTO);
 
         if (log.isInfoEnabled()) {
-            log.info("::patchEmployee completed successfully with: response {}", jsonAsString(response));
+            log.info("::patchEmployee completed successfully");
         }
-        return ResponseEntity.ok(response);
+        payloadLogger.log("::patchEmployee", response);
+        return ResponseEntity.ok()
+                .eTag(VersionETags.of(updatedEmployee.getVersion()))
+                .body(response);
     }
 
     /**
@@ -274,14 +368,18 @@ public class EmployeeRestController {
                         HttpStatus.OK, null);
 
         if (log.isInfoEnabled()) {
-            log.info("::reassignAndDeleteEmployee completed successfully with: response {}", jsonAsString(response));
+            log.info("::reassignAndDeleteEmployee completed successfully");
         }
+        payloadLogger.log("::reassignAndDeleteEmployee", response);
         return ResponseEntity.ok(response);
     }
 
     /**
      * Get all departments in the CRM system.
      *
+     * <p>Served from memory with a strong ETag; a request with a matching {@code If-None-Match}
+     * header is answered with 304 Not Modified.</p>
+     *
      * @return a list of all departments wrapped in an APIResponse
      */
     @Operation(
@@ -294,16 +392,53 @@ public class EmployeeRestController {
             log.info("::getAllDepartments started");
         }
 
-        final List<String> allDepartments = employeeService.getAllDepartments()
-                .orElse(Collections.emptyList());
+        final DepartmentRegistry.Snapshot departments = employeeService.getDepartmentSnapshot();
 
         final APIResponse<List<String>> response = getDTOAPIResponse(
-                "All departments retrieved successfully", "success", HttpStatus.OK, allDepartments);
+                "All departments retrieved successfully", "success", HttpStatus.OK, departments.names());
 
         if (log.isInfoEnabled()) {
-            log.info("::getAllDepartments completed successfully with: response {}", jsonAsString(response));
+            log.info("::getAllDepartments completed successfully");
         }
-        return new ResponseEntity<>(response, HttpStatus.OK);
+        payloadLogger.log("::getAllDepartments", response);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(departments.namesETag())
+                .body(response);
+    }
+
+    /**
+     * Get all departments with their number of employees and customers.
+     *
+     * <p>Served from memory with a strong ETag; a request with a matching {@code If-None-Match}
+     * header is answered with 304 Not Modified.</p>
+     *
+     * @return the departments with their head counts wrapped in an APIResponse
+     */
+    @Operation(
+            summary = "Get department head counts",
+            description = "Get all departments with their number of employees and assigned customers."
+    )
+    @GetMapping(value = "/departments/head-counts", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<APIResponse<List<DepartmentHeadCountDTO>>> getDepartmentHeadCounts() {
+        if (log.isInfoEnabled()) {
+            log.info("::getDepartmentHeadCounts started");
+        }
+
+        final DepartmentRegistry.Snapshot departments = employeeService.getDepartmentSnapshot();
+
+        final APIResponse<List<DepartmentHeadCountDTO>> response = getDTOAPIResponse(
+                "Department head counts retrieved successfully", "success", HttpStatus.OK,
+                departments.departments());
+
+        if (log.isInfoEnabled()) {
+            log.info("::getDepartmentHeadCounts completed successfully");
+        }
+        payloadLogger.log("::getDepartmentHeadCounts", response);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(departments.headCountsETag())
+                .body(response);
     }
 
     /**
@@ -314,10 +449,11 @@ public class EmployeeRestController {
      * @param search an optional search parameter to filter employees by first name or department
      * @return a page of employees matching the search criteria
      */
-    private Page<Employee> getEmployeePage(
+    private Page<EmployeeResponseDTO> getEmployeePage(
             final int page, final int size, final String search) {
-        return (search != null && !search.isEmpty())
-                ? employeeService.getEmployeesByFirstNameOrDepartment(search, page, size)
-                : employeeService.getEmployeesWithPagination(page, size);
+        return (search != null && !search.isBlank())
+                ? searchService.searchEmployees(search, page, size).map(
+                        employee -> TransformerUtil.transform(EntityTransformer.employeeToEmployeeResponseDto, employee))
+                : employeeService.getEmployeeResponsesWithPagination(page, size);
     }
 }
\ No newline at end of file
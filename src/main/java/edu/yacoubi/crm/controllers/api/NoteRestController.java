@@ -1,27 +1,50 @@
 package edu.yacoubi.crm.controllers.api;
 
 import edu.yacoubi.crm.dto.APIResponse;
+import edu.yacoubi.crm.dto.BulkImportSummary;
+import edu.yacoubi.crm.dto.BulkLineResult;
+import edu.yacoubi.crm.dto.CursorPage;
+import edu.yacoubi.crm.dto.ExportFilter;
+import edu.yacoubi.crm.dto.NoteImportReport;
 import edu.yacoubi.crm.dto.note.NotePatchDTO;
 import edu.yacoubi.crm.dto.note.NoteRequestDTO;
 import edu.yacoubi.crm.dto.note.NoteResponseDTO;
+import edu.yacoubi.crm.dto.note.NoteSearchCriteria;
+import edu.yacoubi.crm.dto.note.NoteSummaryDTO;
+import edu.yacoubi.crm.logging.PayloadLogger;
+import edu.yacoubi.crm.model.InteractionType;
 import edu.yacoubi.crm.model.Note;
+import edu.yacoubi.crm.service.IBulkImportService;
+import edu.yacoubi.crm.service.IExportService;
+import edu.yacoubi.crm.service.INoteImportService;
 import edu.yacoubi.crm.service.INoteOrchestratorService;
 import edu.yacoubi.crm.service.INoteService;
+import edu.yacoubi.crm.service.export.ExportFormat;
 import edu.yacoubi.crm.util.ApiResponseHelper;
 import edu.yacoubi.crm.util.EntityTransformer;
+import edu.yacoubi.crm.util.NdjsonLineWriter;
 import edu.yacoubi.crm.util.TransformerUtil;
+import edu.yacoubi.crm.util.VersionETags;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
-
-import static edu.yacoubi.crm.util.EntityTransformer.jsonAsString;
+import java.util.Optional;
 
 /**
  * REST controller for managing note resources in the CRM system.
@@ -54,10 +77,127 @@ public class NoteRestController {
      */
     private final INoteOrchestratorService noteOrchestratorService;
 
+    /**
+     * Logger for the request and response payloads (sampled, disabled by default).
+     */
+    private final PayloadLogger payloadLogger;
+
+    /**
+     * Service for NDJSON bulk uploads.
+     */
+    private final IBulkImportService bulkImportService;
+
+    /**
+     * Serializes the line results of the bulk uploads.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Service for the streaming exports.
+     */
+    private final IExportService exportService;
+
+    /**
+     * Service for the CSV import of historical notes.
+     */
+    private final INoteImportService noteImportService;
+
+    /**
+     * Retrieve notes with keyset (cursor) pagination, newest first.
+     *
+     * <p>The response contains no total count; the {@code nextCursor} of a page is passed
+     * as {@code cursor} to fetch the next one.</p>
+     *
+     * @param cursor     the continuation token of the previous page, omitted for the first page
+     * @param size       the size of the page to retrieve, default is 10
+     * @param customerId an optional customer ID to list only the notes of this customer
+     * @return a page of notes with the token for the next page wrapped in an APIResponse
+     */
+    @Operation(
+            summary = "Scroll through notes",
+            description = "Retrieve notes, newest first, with cursor-based pagination (no total count)."
+    )
+    @GetMapping("/scroll")
+    public ResponseEntity<APIResponse<CursorPage<NoteResponseDTO>>> getNotesByCursor(
+            final @RequestParam(required = false) String cursor,
+            final @RequestParam(defaultValue = "10") int size,
+            final @RequestParam(required = false) Long customerId) {
+        if (log.isInfoEnabled()) {
+            log.info("::getNotesByCursor started with: cursor {}, size {}, customerId {}", cursor, size, customerId);
+        }
+
+        final CursorPage<NoteResponseDTO> noteResponseDTOPage = noteService
+                .getNotesAfterCursor(cursor, size, customerId)
+                .map(note -> TransformerUtil.transform(EntityTransformer.noteToNoteResponseDto, note));
+
+        final APIResponse<CursorPage<NoteResponseDTO>> response = ApiResponseHelper.getDTOAPIResponse(
+                COMPLETED, SUCCESS, HttpStatus.OK, noteResponseDTOPage
+        );
+
+        if (log.isInfoEnabled()) {
+            log.info("::getNotesByCursor completed successfully");
+        }
+        payloadLogger.log("::getNotesByCursor", response);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Search notes by their content, best matches first, with keyset (cursor) pagination.
+     *
+     * @param q               the search query
+     * @param interactionType an optional interaction type to filter by
+     * @param from            an optional start date (inclusive)
+     * @param to              an optional end date (inclusive)
+     * @param employeeId      an optional employee ID to search only the notes of the employee's customers
+     * @param cursor          the continuation token of the previous page, omitted for the first page
+     * @param size            the size of the page to retrieve, default is 10
+     * @return a page of matching notes with the token for the next page wrapped in an APIResponse
+     */
+    @Operation(
+            summary = "Search notes",
+            description = "Full-text search over the note content, ranked by relevance, with cursor-based pagination."
+    )
+    @GetMapping("/search")
+    public ResponseEntity<APIResponse<CursorPage<NoteResponseDTO>>> searchNotes(
+            final @RequestParam String q,
+            final @RequestParam(required = false) InteractionType interactionType,
+            final @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            final @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            final @RequestParam(required = false) Long employeeId,
+            final @RequestParam(required = false) String cursor,
+            final @RequestParam(defaultValue = "10") int size) {
+        if (log.isInfoEnabled()) {
+            log.info("::searchNotes started with: q {}, interactionType {}, from {}, to {}, employeeId {}, cursor {}, size {}",
+                    q, interactionType, from, to, employeeId, cursor, size);
+        }
+
+        final NoteSearchCriteria criteria = NoteSearchCriteria.builder()
+                .query(q)
+                .interactionType(interactionType)
+                .from(from)
+                .to(to)
+                .employeeId(employeeId)
+                .build();
+        final CursorPage<NoteResponseDTO> noteResponseDTOPage = noteService
+                .searchNotes(criteria, cursor, size)
+                .map(note -> TransformerUtil.transform(EntityTransformer.noteToNoteResponseDto, note));
+
+        final APIResponse<CursorPage<NoteResponseDTO>> response = ApiResponseHelper.getDTOAPIResponse(
+                COMPLETED, SUCCESS, HttpStatus.OK, noteResponseDTOPage
+        );
+
+        if (log.isInfoEnabled()) {
+            log.info("::searchNotes completed successfully");
+        }
+        payloadLogger.log("::searchNotes", response);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Retrieve a note by its unique ID.
      *
      * @param noteId the unique ID of the note to retrieve
+     * @param ifNoneMatch the ETag of the note the client has cached, answered with 304 if still current
      * @return the retrieved note details wrapped in an APIResponse
      */
     @Operation(
@@ -66,11 +206,25 @@ public class NoteRestController {
     )
     @GetMapping("/{noteId}")
     public ResponseEntity<APIResponse<NoteResponseDTO>> getNoteById(
-            final @PathVariable Long noteId) {
+            final @PathVariable Long noteId,
+            final @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         if (log.isInfoEnabled()) {
             log.info("::getNoteById started with: noteId {}", noteId);
         }
 
+        if (ifNoneMatch != null) {
+            // version-only lookup, a current copy is answered without loading and serializing the note
+            final Optional<Long> currentVersion = noteService.getNoteVersion(noteId);
+            if (currentVersion.isPresent() && VersionETags.matches(ifNoneMatch, currentVersion.get())) {
+                if (log.isInfoEnabled()) {
+                    log.info("::getNoteById completed successfully: not modified");
+                }
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(VersionETags.of(currentVersion.get()))
+                        .build();
+            }
+        }
+
         final Note existingNote = noteService.getNoteById(noteId).get();
 
         final NoteResponseDTO noteResponseDTO = TransformerUtil.transform(
@@ -83,9 +237,12 @@ public class NoteRestController {
         );
 
         if (log.isInfoEnabled()) {
-            log.info("::getNoteById completed successfully with: response {}", jsonAsString(response));
+            log.info("::getNoteById completed successfully");
         }
-        return ResponseEntity.ok(response);
+        payloadLogger.log("::getNoteById", response);
+        return ResponseEntity.ok()
+                .eTag(VersionETags.of(existingNote.getVersion()))
+                .body(response);
     }
 
     /**
@@ -105,7 +262,7 @@ public class NoteRestController {
             final @RequestParam Long customerId) {
         if (log.isInfoEnabled()) {
             log.info("::createNoteForCustomer started with: noteRequestDTO {}, customerId {}",
-                    jsonAsString(noteRequestDTO), customerId);
+                    noteRequestDTO, customerId);
         }
 
         final Note noteRequest = TransformerUtil.transform(
@@ -125,16 +282,131 @@ public class NoteRestController {
         );
 
         if (log.isInfoEnabled()) {
-            log.info("::createNoteForCustomer completed successfully with: response {}", jsonAsString(response));
+            log.info("::createNoteForCustomer completed successfully");
         }
+        payloadLogger.log("::createNoteForCustomer", response);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    /**
+     * Creates the notes of an NDJSON upload of note requests, each with its customer ID.
+     *
+     * <p>The request body is read line by line and written in chunks; for every line a result
+     * ({@code CREATED}, {@code UPDATED}, {@code REJECTED} or {@code FAILED}) is streamed back as NDJSON
+     * once its chunk is committed.</p>
+     *
+     * @param request  the request, its body is the NDJSON upload
+     * @param response the response the line results are streamed into
+     * @throws IOException if the upload cannot be read
+     */
+    @Operation(
+            summary = "Bulk create notes",
+            description = "Creates the notes of an NDJSON upload of note requests, each with its customer ID."
+    )
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public void bulkCreateNotes(
+            final HttpServletRequest request,
+            final HttpServletResponse response) throws IOException {
+        if (log.isInfoEnabled()) {
+            log.info("::bulkCreateNotes started");
+        }
+
+        final NdjsonLineWriter<BulkLineResult> results = new NdjsonLineWriter<>(objectMapper, response);
+        final BulkImportSummary summary = bulkImportService.importNotes(request.getInputStream(), results);
+        results.finish();
+
+        if (log.isInfoEnabled()) {
+            log.info("::bulkCreateNotes completed successfully with: {}", summary);
+        }
+    }
+
+    /**
+     * Imports historical interactions from a CSV upload.
+     *
+     * <p>The upload needs a header row with the columns {@code customerId}, {@code date},
+     * {@code interactionType} and {@code content}; a note export can be imported again. Invalid rows and
+     * rows of unknown customers are reported as rejected, the other rows are imported.</p>
+     *
+     * @param request the request, its body is the CSV upload
+     * @return the totals and the rejected rows wrapped in an APIResponse
+     * @throws IOException if the upload cannot be read
+     */
+    @Operation(
+            summary = "Import notes",
+            description = "Imports historical interactions from a CSV upload, reporting the rejected rows."
+    )
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<APIResponse<NoteImportReport>> importNotes(
+            final HttpServletRequest request) throws IOException {
+        if (log.isInfoEnabled()) {
+            log.info("::importNotes started");
+        }
+
+        final NoteImportReport report = noteImportService.importNotes(request.getInputStream());
+
+        final APIResponse<NoteImportReport> response = ApiResponseHelper.getDTOAPIResponse(
+                COMPLETED, SUCCESS, HttpStatus.OK, report
+        );
+
+        if (log.isInfoEnabled()) {
+            log.info("::importNotes completed successfully");
+        }
+        payloadLogger.log("::importNotes", response);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Exports all notes matching the filter as NDJSON or CSV, ordered by ID.
+     *
+     * <p>The rows are streamed from a database cursor straight into the response, so the export needs the
+     * same memory for a hundred and for millions of notes.</p>
+     *
+     * @param format     the output format, {@code ndjson} (default) or {@code csv}
+     * @param employeeId only notes of this employee, optional
+     * @param department only notes of employees in this department, optional
+     * @param from       only notes dated on or after this date, optional
+     * @param to         only notes dated on or before this date, optional
+     * @return the streamed export as attachment
+     */
+    @Operation(
+            summary = "Export notes",
+            description = "Streams all notes matching the filter as NDJSON or CSV."
+    )
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportNotes(
+            final @RequestParam(defaultValue = "ndjson") String format,
+            final @RequestParam(required = false) Long employeeId,
+            final @RequestParam(required = false) String department,
+            final @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            final @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (log.isInfoEnabled()) {
+            log.info("::exportNotes started with: format {}, employeeId {}, department {}, from {}, to {}",
+                    format, employeeId, department, from, to);
+        }
+
+        // validated before the response is committed, invalid requests are answered with 400
+        final ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        final ExportFilter filter = new ExportFilter(employeeId, department, from, to);
+
+        final StreamingResponseBody body = outputStream -> exportService.exportNotes(filter, exportFormat, outputStream);
+
+        if (log.isInfoEnabled()) {
+            log.info("::exportNotes completed successfully: streaming started");
+        }
+        return ResponseEntity.ok()
+                .contentType(exportFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("notes." + exportFormat.fileExtension())
+                        .build().toString())
+                .body(body);
+    }
+
     /**
      * Full update of an existing note by its unique ID.
      *
      * @param noteId         the unique ID of the note to update
      * @param noteRequestDTO the note request data transfer object containing the details of the note to be updated
+     * @param ifMatch the ETag of the note the update is based on, optional
      * @return the updated note details wrapped in an APIResponse
      */
     @Operation(
@@ -144,7 +416,8 @@ public class NoteRestController {
     @PutMapping("/{noteId}")
     public ResponseEntity<APIResponse<NoteResponseDTO>> updateNote(
             final @PathVariable Long noteId,
-            final @Valid @RequestBody NoteRequestDTO noteRequestDTO) {
+            final @Valid @RequestBody NoteRequestDTO noteRequestDTO,
+            final @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         if (log.isInfoEnabled()) {
             log.info("::updateNote started with: noteId {}, noteRequestDTO {}", noteId, noteRequestDTO);
         }
@@ -154,12 +427,8 @@ public class NoteRestController {
                 EntityTransformer.noteRequestDtoToNote, noteRequestDTO
         );
 
-        // TODO: Auslagerung in den Service-Layer
-        final Note existingNote = noteService.getNoteById(noteId).get();
-        noteRequest.setId(noteId);
-        noteRequest.setCustomer(existingNote.getCustomer());
-
-        final Note updatedNote = noteService.updateNote(noteId, noteRequest);
+        // The service loads the existing note once and keeps its customer
+        final Note updatedNote = noteService.updateNote(noteId, noteRequest, VersionETags.parseIfMatch(ifMatch));
 
         final NoteResponseDTO noteResponseDTO = TransformerUtil.transform(
                 EntityTransformer.noteToNoteResponseDto,
@@ -171,9 +440,12 @@ public class NoteRestController {
         );
 
         if (log.isInfoEnabled()) {
-            log.info("::updateNote completed successfully with: response {}", jsonAsString(response));
+            log.info("::updateNote completed successfully");
         }
-        return ResponseEntity.ok(response);
+        payloadLogger.log("::updateNote", response);
+        return ResponseEntity.ok()
+                .eTag(VersionETags.of(updatedNote.getVersion()))
+                .body(response);
     }
 
     /**
@@ -181,6 +453,7 @@ public class NoteRestController {
      *
      * @param noteId       the unique ID of the note to update
      * @param notePatchDTO the note patch data transfer object containing the partial updates of the note
+     * @param ifMatch the ETag of the note the update is based on, optional
      * @return the updated note details wrapped in an APIResponse
      */
     @Operation(
@@ -190,12 +463,13 @@ public class NoteRestController {
     @PatchMapping("/{noteId}")
     public ResponseEntity<APIResponse<NoteResponseDTO>> patchNote(
             final @PathVariable Long noteId,
-            final @Valid @RequestBody NotePatchDTO notePatchDTO) {
+            final @Valid @RequestBody NotePatchDTO notePatchDTO,
+            final @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         if (log.isInfoEnabled()) {
-            log.info("::patchNote started with: noteId {}, notePatchDTO {}", noteId, jsonAsString(notePatchDTO));
+            log.info("::patchNote started with: noteId {}, notePatchDTO {}", noteId, notePatchDTO);
         }
 
-        noteService.partialUpdateNote(noteId, notePatchDTO);
+        noteService.partialUpdateNote(noteId, notePatchDTO, VersionETags.parseIfMatch(ifMatch));
 
         final Note updatedNote = noteService.getNoteById(noteId).get();
 
@@ -209,9 +483,12 @@ public class NoteRestController {
         );
 
         if (log.isInfoEnabled()) {
-            log.info("::patchNote completed successfully with: response {}", jsonAsString(response));
+            log.info("::patchNote completed successfully");
         }
-        return ResponseEntity.ok(response);
+        payloadLogger.log("::patchNote", response);
+        return ResponseEntity.ok()
+                .eTag(VersionETags.of(updatedNote.getVersion()))
+                .body(response);
     }
 
     /**
@@ -238,20 +515,26 @@ public class NoteRestController {
         );
 
         if (log.isInfoEnabled()) {
-            log.info("::deleteNote completed successfully with: response {}", jsonAsString(response));
+            log.info("::deleteNote completed successfully");
         }
+        payloadLogger.log("::deleteNote", response);
         return ResponseEntity.status(HttpStatus.NO_CONTENT).body(response);
     }
 
     /**
      * Retrieves a list of notes by the customer's ID.
      *
+     * <p>Returns all notes of the customer in one response; use {@link #getNoteTimeline} for customers
+     * with many notes.</p>
+     *
      * @param customerId the ID of the customer whose notes to retrieve
      * @return a list of notes assigned to the customer
      */
     @Operation(
             summary = "Get notes by customer ID",
-            description = "Retrieve a list of notes for a customer in the CRM system."
+            description = "Retrieve all notes of a customer in one unbounded list. "
+                    + "Prefer the paginated /api/notes/for/{customerId}/timeline.",
+            deprecated = true
     )
     @GetMapping("/for/{customerId}")
     public ResponseEntity<APIResponse<List<NoteResponseDTO>>> getNotesByCustomerId(
@@ -260,19 +543,58 @@ public class NoteRestController {
             log.info("::getNotesByCustomerId started with: customerId {}", customerId);
         }
 
-        List<Note> notes = noteService.getNotesByCustomerId(customerId);
-
-        final List<NoteResponseDTO> noteResponseDTOs = notes.stream().map(
-                note -> TransformerUtil.transform(EntityTransformer.noteToNoteResponseDto, note)
-        ).collect(Collectors.toList());
+        final List<NoteResponseDTO> noteResponseDTOs = noteService.getNoteResponsesByCustomerId(customerId);
 
         final APIResponse<List<NoteResponseDTO>> response = ApiResponseHelper.getDTOAPIResponse(
                 COMPLETED, SUCCESS, HttpStatus.OK, noteResponseDTOs
         );
 
         if (log.isInfoEnabled()) {
-            log.info("::getNotesByCustomerId completed successfully with: response {}", jsonAsString(response));
+            log.info("::getNotesByCustomerId completed successfully");
         }
+        payloadLogger.log("::getNotesByCustomerId", response);
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
-}
\ No newline at end of file
+
+    /**
+     * Retrieves the timeline of a customer with keyset (cursor) pagination, newest first.
+     *
+     * <p>The response contains no total count; the {@code nextCursor} of a page is passed
+     * as {@code cursor} to fetch the next one.</p>
+     *
+     * @param customerId      the ID of the customer whose notes to retrieve
+     * @param interactionType an optional interaction type to filter by
+     * @param cursor          the continuation token of the previous page, omitted for the first page
+     * @param size            the size of the page to retrieve, default is 20
+     * @return a page of notes with the token for the next page wrapped in an APIResponse
+     */
+    @Operation(
+            summary = "Get the note timeline of a customer",
+            description = "Retrieve the notes of a customer ordered by date, newest first, "
+                    + "with cursor-based pagination (no total count)."
+    )
+    @GetMapping("/for/{customerId}/timeline")
+    public ResponseEntity<APIResponse<CursorPage<NoteSummaryDTO>>> getNoteTimeline(
+            final @PathVariable Long customerId,
+            final @RequestParam(required = false) InteractionType interactionType,
+            final @RequestParam(required = false) String cursor,
+            final @RequestParam(defaultValue = "20") int size) {
+        if (log.isInfoEnabled()) {
+            log.info("::getNoteTimeline started with: customerId {}, interactionType {}, cursor {}, size {}",
+                    customerId, interactionType, cursor, size);
+        }
+
+        final CursorPage<NoteSummaryDTO> timeline = noteService
+                .getNoteTimeline(customerId, interactionType, cursor, size);
+
+        final APIResponse<CursorPage<NoteSummaryDTO>> response = ApiResponseHelper.getDTOAPIResponse(
+                COMPLETED, SUCCESS, HttpStatus.OK, timeline
+        );
+
+        if (log.isInfoEnabled()) {
+            log.info("::getNoteTimeline completed successfully");
+        }
+        payloadLogger.log("::getNoteTimeline", response);
+        return ResponseEntity.ok(response);
+    }
+}
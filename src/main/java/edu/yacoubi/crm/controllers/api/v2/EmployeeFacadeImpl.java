@@ -1,27 +1,32 @@
 package edu.yacoubi.crm.controllers.api.v2;
 
 import edu.yacoubi.crm.dto.APIResponse;
+import edu.yacoubi.crm.dto.CursorPage;
 import edu.yacoubi.crm.dto.employee.EmployeePatchDTO;
 import edu.yacoubi.crm.dto.employee.EmployeeRequestDTO;
 import edu.yacoubi.crm.dto.employee.EmployeeResponseDTO;
+import edu.yacoubi.crm.logging.PayloadLogger;
 import edu.yacoubi.crm.model.Employee;
 import edu.yacoubi.crm.service.IEmployeeService;
 import edu.yacoubi.crm.service.IEntityOrchestratorService;
+import edu.yacoubi.crm.service.ISearchService;
+import edu.yacoubi.crm.service.registry.DepartmentRegistry;
 import edu.yacoubi.crm.util.EntityTransformer;
 import edu.yacoubi.crm.util.TransformerUtil;
+import edu.yacoubi.crm.util.VersionETags;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 import static edu.yacoubi.crm.util.ApiResponseHelper.getDTOAPIResponse;
 import static edu.yacoubi.crm.util.ApiResponseHelper.getPageAPIResponse;
-import static edu.yacoubi.crm.util.EntityTransformer.jsonAsString;
 
 @Service
 @RequiredArgsConstructor
@@ -32,40 +37,71 @@ public class EmployeeFacadeImpl implements IEmployeeFacade {
 
     private final IEmployeeService employeeService;
     private final IEntityOrchestratorService orchestratorService;
+    private final ISearchService searchService;
+    private final PayloadLogger payloadLogger;
 
 
     @Override
     public ResponseEntity<APIResponse<Page<EmployeeResponseDTO>>> getAllEmployees(
             final int page, final int size, final String search) {
         if (log.isInfoEnabled()) {
-            log.info("::getAllEmployees started with: page: {}, size: {}, search: {}",
-                    page, size, search);
+            log.info("::getAllEmployees started with: page: {}, size: {}, search: {}", page, size, search);
         }
 
-        final Page<Employee> employeesPage = getEmployeePage(page, size, search);
+        final Page<EmployeeResponseDTO> empRespDTO = getEmployeePage(page, size, search);
 
-        final Page<EmployeeResponseDTO> empRespDTO = employeesPage.map(
-                employee -> TransformerUtil.transform(
+        final APIResponse<Page<EmployeeResponseDTO>> response =
+                getPageAPIResponse(COMPLETED, SUCCESS, HttpStatus.OK, empRespDTO);
+
+        if (log.isInfoEnabled()) {
+            log.info("::getAllEmployees completed successfully");
+        }
+        payloadLogger.log("::getAllEmployees", response);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @Override
+    public ResponseEntity<APIResponse<CursorPage<EmployeeResponseDTO>>> getEmployeesByCursor(
+            final String cursor, final int size, final String search) {
+        if (log.isInfoEnabled()) {
+            log.info("::getEmployeesByCursor started with: cursor: {}, size: {}, search: {}", cursor, size, search);
+        }
+
+        final CursorPage<EmployeeResponseDTO> empRespDTO = employeeService
+                .getEmployeesAfterCursor(cursor, size, search)
+                .map(employee -> TransformerUtil.transform(
                         EntityTransformer.employeeToEmployeeResponseDto,
                         employee
-                )
-        );
+                ));
 
-        final APIResponse<Page<EmployeeResponseDTO>> response =
-                getPageAPIResponse(COMPLETED, SUCCESS, HttpStatus.OK, empRespDTO);
+        final APIResponse<CursorPage<EmployeeResponseDTO>> response =
+                getDTOAPIResponse(COMPLETED, SUCCESS, HttpStatus.OK, empRespDTO);
 
         if (log.isInfoEnabled()) {
-            log.info("::getAllEmployees completed successfully with: response {}",
-                    jsonAsString(response));
+            log.info("::getEmployeesByCursor completed successfully");
         }
+        payloadLogger.log("::getEmployeesByCursor", response);
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
     @Override
     public ResponseEntity<APIResponse<EmployeeResponseDTO>> getEmployeeById(
-            final Long employeeId) {
+            final Long employeeId, final String ifNoneMatch) {
         if (log.isInfoEnabled()) {
-            log.info("::getEmployeeById started with: employeeId: {}", employeeId);
+            log.info("::getEmployeeById started with: employeeId: {}, ifNoneMatch: {}", employeeId, ifNoneMatch);
+        }
+
+        if (ifNoneMatch != null) {
+            // version-only lookup, a current copy is answered without loading and serializing the employee
+            final Optional<Long> currentVersion = employeeService.getEmployeeVersion(employeeId);
+            if (currentVersion.isPresent() && VersionETags.matches(ifNoneMatch, currentVersion.get())) {
+                if (log.isInfoEnabled()) {
+                    log.info("::getEmployeeById completed successfully: not modified");
+                }
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(VersionETags.of(currentVersion.get()))
+                        .build();
+            }
         }
 
         // Exception handling is done in the service and caught by the global handler
@@ -80,18 +116,19 @@ public class EmployeeFacadeImpl implements IEmployeeFacade {
                 getDTOAPIResponse(COMPLETED, SUCCESS, HttpStatus.OK, empResDTO);
 
         if (log.isInfoEnabled()) {
-            log.info("::getEmployeeById completed successfully with: response {}",
-                    jsonAsString(response));
+            log.info("::getEmployeeById completed successfully");
         }
-        return ResponseEntity.ok(response);
+        payloadLogger.log("::getEmployeeById", response);
+        return ResponseEntity.ok()
+                .eTag(VersionETags.of(existingEmployee.getVersion()))
+                .body(response);
     }
 
     @Override
     public ResponseEntity<APIResponse<EmployeeResponseDTO>> createEmployee(
             final EmployeeRequestDTO empReqDTO) {
         if (log.isInfoEnabled()) {
-            log.info("::createEmployee started with: employeeRequestDTO {}",
-                    jsonAsString(empReqDTO));
+            log.info("::createEmployee started with: employeeRequestDTO {}", empReqDTO);
         }
 
         final Employee employeeRequest = TransformerUtil.transform(
@@ -110,18 +147,18 @@ public class EmployeeFacadeImpl implements IEmployeeFacade {
                 getDTOAPIResponse(COMPLETED, SUCCESS, HttpStatus.CREATED, empRespDTO);
 
         if (log.isInfoEnabled()) {
-            log.info("::createEmployee completed successfully with: response {}",
-                    jsonAsString(response));
+            log.info("::createEmployee completed successfully");
         }
+        payloadLogger.log("::createEmployee", response);
         return ResponseEntity.ok(response);
     }
 
     @Override
     public ResponseEntity<APIResponse<EmployeeResponseDTO>> updateEmployee(
-            final Long employeeId, final EmployeeRequestDTO empReqDTO) {
+            final Long employeeId, final EmployeeRequestDTO empReqDTO, final String ifMatch) {
         if (log.isInfoEnabled()) {
             log.info("::updateEmployee started with: employeeId {}, employeeRequestDTO {}",
-                    employeeId, jsonAsString(empReqDTO)
+                    employeeId, empReqDTO
             );
         }
 
@@ -130,7 +167,8 @@ public class EmployeeFacadeImpl implements IEmployeeFacade {
                 empReqDTO
         );
 
-        final Employee updatedEmployee = employeeService.updateEmployee(employeeId, employeeRequest);
+        final Employee updatedEmployee = employeeService.updateEmployee(
+                employeeId, employeeRequest, VersionETags.parseIfMatch(ifMatch));
 
         final EmployeeResponseDTO empRespDTO = TransformerUtil.transform(
                 EntityTransformer.employeeToEmployeeResponseDto,
@@ -141,21 +179,23 @@ public class EmployeeFacadeImpl implements IEmployeeFacade {
                 getDTOAPIResponse(COMPLETED, SUCCESS, HttpStatus.OK, empRespDTO);
 
         if (log.isInfoEnabled()) {
-            log.info("::updateEmployee completed successfully with: response {}",
-                    jsonAsString(response));
+            log.info("::updateEmployee completed successfully");
         }
-        return ResponseEntity.ok(response);
+        payloadLogger.log("::updateEmployee", response);
+        return ResponseEntity.ok()
+                .eTag(VersionETags.of(updatedEmployee.getVersion()))
+                .body(response);
     }
 
     @Override
     public ResponseEntity<APIResponse<EmployeeResponseDTO>> patchEmployee(
-            final Long employeeId, final EmployeePatchDTO employeePatchDTO) {
+            final Long employeeId, final EmployeePatchDTO employeePatchDTO, final String ifMatch) {
         if (log.isInfoEnabled()) {
             log.info("::patchEmployee started with: employeeId: {}, employeePatchDTO: {}",
                     employeeId, employeePatchDTO);
         }
 
-        employeeService.partialUpdateEmployee(employeeId, employeePatchDTO);
+        employeeService.partialUpdateEmployee(employeeId, employeePatchDTO, VersionETags.parseIfMatch(ifMatch));
 
         final Employee updatedEmployee = employeeService.getEmployeeById(employeeId).get();
 
@@ -168,10 +208,12 @@ public class EmployeeFacadeImpl implements IEmployeeFacade {
                 getDTOAPIResponse(COMPLETED, SUCCESS, HttpStatus.OK, empRespDTO);
 
         if (log.isInfoEnabled()) {
-            log.info("::patchEmployee completed successfully with: response {}",
-                    jsonAsString(response));
+            log.info("::patchEmployee completed successfully");
         }
-        return ResponseEntity.ok(response);
+        payloadLogger.log("::patchEmployee", response);
+        return ResponseEntity.ok()
+                .eTag(VersionETags.of(updatedEmployee.getVersion()))
+                .body(response);
     }
 
     @Override
@@ -188,9 +230,9 @@ public class EmployeeFacadeImpl implements IEmployeeFacade {
                 getDTOAPIResponse(COMPLETED, "success", HttpStatus.OK, null);
 
         if (log.isInfoEnabled()) {
-            log.info("::reassignAndDeleteEmployee completed successfully with: response {}",
-                    jsonAsString(response));
+            log.info("::reassignAndDeleteEmployee completed successfully");
         }
+        payloadLogger.log("::reassignAndDeleteEmployee", response);
         return ResponseEntity.ok(response);
     }
 
@@ -200,24 +242,27 @@ public class EmployeeFacadeImpl implements IEmployeeFacade {
             log.info("::getAllDepartments started");
         }
 
-        final List<String> allDepartments = employeeService.getAllDepartments()
-                .orElse(Collections.emptyList());
+        final DepartmentRegistry.Snapshot departments = employeeService.getDepartmentSnapshot();
 
         final APIResponse<List<String>> response = getDTOAPIResponse(
-                COMPLETED, "success", HttpStatus.OK, allDepartments);
+                COMPLETED, "success", HttpStatus.OK, departments.names());
 
         if (log.isInfoEnabled()) {
-            log.info("::getAllDepartments completed successfully with: response {}",
-                    jsonAsString(response));
+            log.info("::getAllDepartments completed successfully");
         }
-        return new ResponseEntity<>(response, HttpStatus.OK);
+        payloadLogger.log("::getAllDepartments", response);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(departments.namesETag())
+                .body(response);
     }
 
-    private Page<Employee> getEmployeePage(
+    private Page<EmployeeResponseDTO> getEmployeePage(
             final int page, final int size, final String search) {
-        return (search != null && !search.isEmpty())
-                ? employeeService.getEmployeesByFirstNameOrDepartment(search, page, size)
-                : employeeService.getEmployeesWithPagination(page, size);
+        return (search != null && !search.isBlank())
+                ? searchService.searchEmployees(search, page, size).map(
+                        employee -> TransformerUtil.transform(EntityTransformer.employeeToEmployeeResponseDto, employee))
+                : employeeService.getEmployeeResponsesWithPagination(page, size);
     }
 }
 
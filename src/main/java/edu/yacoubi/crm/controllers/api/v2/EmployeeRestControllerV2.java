@@ -1,6 +1,7 @@
 package edu.yacoubi.crm.controllers.api.v2;
 
 import edu.yacoubi.crm.dto.APIResponse;
+import edu.yacoubi.crm.dto.CursorPage;
 import edu.yacoubi.crm.dto.employee.EmployeePatchDTO;
 import edu.yacoubi.crm.dto.employee.EmployeeRequestDTO;
 import edu.yacoubi.crm.dto.employee.EmployeeResponseDTO;
@@ -9,14 +10,13 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 
-import static edu.yacoubi.crm.util.EntityTransformer.jsonAsString;
-
 /**
  * REST controller (v2) for managing employee resources in the CRM system.
  *
@@ -45,16 +45,47 @@ public class EmployeeRestControllerV2 {
             final @RequestParam(value = "size", defaultValue = "10") int size,
             final @RequestParam(value = "search", required = false) String search) {
         if (log.isInfoEnabled()) {
-            log.info("::getAllEmployees started with: page: {}, size: {}, search: {}",
-                    page, size, search);
+            log.info("::getAllEmployees started with: page: {}, size: {}, search: {}", page, size, search);
         }
 
         final ResponseEntity<APIResponse<Page<EmployeeResponseDTO>>> response = employeeFacade
                 .getAllEmployees(page, size, search);
 
         if (log.isInfoEnabled()) {
-            log.info("::getAllEmployees completed successfully with: response {}",
-                    jsonAsString(response));
+            log.info("::getAllEmployees completed successfully");
+        }
+        return response;
+    }
+
+    /**
+     * Retrieve employees (v2) with keyset (cursor) pagination and optional search.
+     *
+     * @param cursor the continuation token of the previous page, omitted for the first page
+     * @param size   the size of the page to retrieve, default is 10
+     * @param search an optional search parameter to filter employees by first name or department
+     * @return a page of employees with the token for the next page wrapped in an APIResponse
+     */
+    @Operation(
+            summary = "Scroll through employees (v2)",
+            description = """
+                    Retrieve employees ordered by last name with cursor-based pagination (no total count).
+                    Pass the returned nextCursor as cursor to fetch the next page.
+                    """
+    )
+    @GetMapping("/scroll")
+    public ResponseEntity<APIResponse<CursorPage<EmployeeResponseDTO>>> getEmployeesByCursor(
+            final @RequestParam(value = "cursor", required = false) String cursor,
+            final @RequestParam(value = "size", defaultValue = "10") int size,
+            final @RequestParam(value = "search", required = false) String search) {
+        if (log.isInfoEnabled()) {
+            log.info("::getEmployeesByCursor started with: cursor: {}, size: {}, search: {}", cursor, size, search);
+        }
+
+        final ResponseEntity<APIResponse<CursorPage<EmployeeResponseDTO>>> response = employeeFacade
+                .getEmployeesByCursor(cursor, size, search);
+
+        if (log.isInfoEnabled()) {
+            log.info("::getEmployeesByCursor completed successfully");
         }
         return response;
     }
@@ -62,7 +93,8 @@ public class EmployeeRestControllerV2 {
     /**
      * Retrieve an employee (v2) by their unique ID.
      *
-     * @param employeeId the unique ID of the employee to retrieve
+     * @param employeeId  the unique ID of the employee to retrieve
+     * @param ifNoneMatch the ETag of the employee the client has cached, answered with 304 if still current
      * @return the employee details wrapped in an APIResponse
      */
     @Operation(
@@ -71,18 +103,17 @@ public class EmployeeRestControllerV2 {
     )
     @GetMapping("/{employeeId}")
     public ResponseEntity<APIResponse<EmployeeResponseDTO>> getEmployeeById(
-            final @PathVariable Long employeeId) {
+            final @PathVariable Long employeeId,
+            final @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         if (log.isInfoEnabled()) {
-            log.info("::getEmployeeById started with: id: {}",
-                    employeeId);
+            log.info("::getEmployeeById started with: id: {}", employeeId);
         }
 
         final ResponseEntity<APIResponse<EmployeeResponseDTO>> response = employeeFacade
-                .getEmployeeById(employeeId);
+                .getEmployeeById(employeeId, ifNoneMatch);
 
         if (log.isInfoEnabled()) {
-            log.info("::getEmployeeById completed successfully with: response {}",
-                    jsonAsString(response));
+            log.info("::getEmployeeById completed successfully");
         }
         return response;
     }
@@ -103,16 +134,14 @@ public class EmployeeRestControllerV2 {
     public ResponseEntity<APIResponse<EmployeeResponseDTO>> createEmployee(
             final @Valid @RequestBody EmployeeRequestDTO empReqDTO) {
         if (log.isInfoEnabled()) {
-            log.info("::createEmployee started with: employeeRequestDTO {}",
-                    jsonAsString(empReqDTO));
+            log.info("::createEmployee started with: employeeRequestDTO {}", empReqDTO);
         }
 
         final ResponseEntity<APIResponse<EmployeeResponseDTO>> response =
                 employeeFacade.createEmployee(empReqDTO);
 
         if (log.isInfoEnabled()) {
-            log.info("::createEmployee completed successfully with: response {}",
-                    jsonAsString(response));
+            log.info("::createEmployee completed successfully");
         }
         return response;
     }
@@ -122,6 +151,7 @@ public class EmployeeRestControllerV2 {
      *
      * @param employeeId the unique ID of the employee to update
      * @param empReqDTO  the employee request data transfer object containing the updated details of the employee
+     * @param ifMatch    the ETag of the employee the update is based on, optional
      * @return the updated employee details wrapped in an APIResponse
      */
     @Operation(
@@ -131,18 +161,17 @@ public class EmployeeRestControllerV2 {
     @PutMapping("/{employeeId}")
     public ResponseEntity<APIResponse<EmployeeResponseDTO>> updateEmployee(
             final @PathVariable Long employeeId,
-            final @Valid @RequestBody EmployeeRequestDTO empReqDTO) {
+            final @Valid @RequestBody EmployeeRequestDTO empReqDTO,
+            final @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         if (log.isInfoEnabled()) {
-            log.info("::updateEmployee started with: id: {}, employeeRequestDTO {}",
-                    employeeId, jsonAsString(empReqDTO));
+            log.info("::updateEmployee started with: id: {}, employeeRequestDTO {}", employeeId, empReqDTO);
         }
 
         ResponseEntity<APIResponse<EmployeeResponseDTO>> response = employeeFacade
-                .updateEmployee(employeeId, empReqDTO);
+                .updateEmployee(employeeId, empReqDTO, ifMatch);
 
         if (log.isInfoEnabled()) {
-            log.info("::updateEmployee completed successfully with: response {}",
-                    jsonAsString(response));
+            log.info("::updateEmployee completed successfully");
         }
         return response;
     }
@@ -152,6 +181,7 @@ public class EmployeeRestControllerV2 {
      *
      * @param employeeId       the unique ID of the employee to partially update
      * @param employeePatchDTO the employee patch data transfer object containing the partial update details of the employee
+     * @param ifMatch          the ETag of the employee the update is based on, optional
      * @return the updated employee details wrapped in an APIResponse
      */
     @Operation(
@@ -161,18 +191,17 @@ public class EmployeeRestControllerV2 {
     @PatchMapping("/{employeeId}")
     public ResponseEntity<APIResponse<EmployeeResponseDTO>> patchEmployee(
             @PathVariable Long employeeId,
-            @Valid @RequestBody EmployeePatchDTO employeePatchDTO) {
+            @Valid @RequestBody EmployeePatchDTO employeePatchDTO,
+            final @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         if (log.isInfoEnabled()) {
-            log.info("::patchEmployee started with: id: {}, dto: {}",
-                    employeeId, jsonAsString(employeePatchDTO));
+            log.info("::patchEmployee started with: id: {}, dto: {}", employeeId, employeePatchDTO);
         }
 
         ResponseEntity<APIResponse<EmployeeResponseDTO>> response = employeeFacade
-                .patchEmployee(employeeId, employeePatchDTO);
+                .patchEmployee(employeeId, employeePatchDTO, ifMatch);
 
         if (log.isInfoEnabled()) {
-            log.info("::patchEmployee completed successfully with: response {}",
-                    jsonAsString(response));
+            log.info("::patchEmployee completed successfully");
         }
         return response;
     }
@@ -193,16 +222,14 @@ public class EmployeeRestControllerV2 {
             @PathVariable Long employeeId,
             @RequestParam("newEmployeeId") Long newEmployeeId) {
         if (log.isInfoEnabled()) {
-            log.info("::reassignAndDeleteEmployee started with: id: {}, newEmployeeId: {}",
-                    employeeId, newEmployeeId);
+            log.info("::reassignAndDeleteEmployee started with: id: {}, newEmployeeId: {}", employeeId, newEmployeeId);
         }
 
         ResponseEntity<APIResponse<Void>> response = employeeFacade
                 .reassignAndDeleteEmployee(employeeId, newEmployeeId);
 
         if (log.isInfoEnabled()) {
-            log.info("::reassignAndDeleteEmployee completed successfully with: response {}",
-                    jsonAsString(response));
+            log.info("::reassignAndDeleteEmployee completed successfully");
         }
         return response;
     }
@@ -225,8 +252,7 @@ public class EmployeeRestControllerV2 {
         ResponseEntity<APIResponse<List<String>>> response = employeeFacade.getAllDepartments();
 
         if (log.isInfoEnabled()) {
-            log.info("::getAllDepartments completed successfully with: response {}",
-                    jsonAsString(response));
+            log.info("::getAllDepartments completed successfully");
         }
         return response;
     }
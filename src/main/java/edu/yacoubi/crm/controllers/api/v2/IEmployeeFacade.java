@@ -1,6 +1,7 @@
 package edu.yacoubi.crm.controllers.api.v2;
 
 import edu.yacoubi.crm.dto.APIResponse;
+import edu.yacoubi.crm.dto.CursorPage;
 import edu.yacoubi.crm.dto.employee.EmployeePatchDTO;
 import edu.yacoubi.crm.dto.employee.EmployeeRequestDTO;
 import edu.yacoubi.crm.dto.employee.EmployeeResponseDTO;
@@ -12,13 +13,15 @@ import java.util.List;
 public interface IEmployeeFacade {
     ResponseEntity<APIResponse<Page<EmployeeResponseDTO>>> getAllEmployees(int page, int size, String search);
 
-    ResponseEntity<APIResponse<EmployeeResponseDTO>> getEmployeeById(Long employeeId);
+    ResponseEntity<APIResponse<CursorPage<EmployeeResponseDTO>>> getEmployeesByCursor(String cursor, int size, String search);
+
+    ResponseEntity<APIResponse<EmployeeResponseDTO>> getEmployeeById(Long employeeId, String ifNoneMatch);
 
     ResponseEntity<APIResponse<EmployeeResponseDTO>> createEmployee(EmployeeRequestDTO empReqDTO);
 
-    ResponseEntity<APIResponse<EmployeeResponseDTO>> updateEmployee(Long employeeId, EmployeeRequestDTO empReqDTO);
+    ResponseEntity<APIResponse<EmployeeResponseDTO>> updateEmployee(Long employeeId, EmployeeRequestDTO empReqDTO, String ifMatch);
 
-    ResponseEntity<APIResponse<EmployeeResponseDTO>> patchEmployee(Long employeeId, EmployeePatchDTO employeePatchDTO);
+    ResponseEntity<APIResponse<EmployeeResponseDTO>> patchEmployee(Long employeeId, EmployeePatchDTO employeePatchDTO, String ifMatch);
 
     ResponseEntity<APIResponse<Void>> reassignAndDeleteEmployee(Long employeeId, Long newEmployeeId);
 
@@ -3,6 +3,7 @@ package edu.yacoubi.crm.controllers.toviews;
 import edu.yacoubi.crm.model.Customer;
 import edu.yacoubi.crm.service.ICustomerService;
 import edu.yacoubi.crm.service.IEmployeeService;
+import edu.yacoubi.crm.service.ISearchService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Controller;
@@ -21,6 +22,9 @@ public class CustomerViewController {
     @Autowired
     private IEmployeeService employeeService;
 
+    @Autowired
+    private ISearchService searchService;
+
     @GetMapping("/customers/new")
     public String showCreateCustomerForm(Model model) {
         model.addAttribute("customer", new Customer());
@@ -44,9 +48,9 @@ public class CustomerViewController {
 
         Page<Customer> customersPage;
 
-        if (search!= null && !search.isEmpty()) {
-            // Filtere nach Vorname oder E-Mail, falls ein Suchbegriff vorhanden ist
-            customersPage = customerService.getCustomersByFirstNameOrEmail(search, page, size);
+        if (search != null && !search.isBlank()) {
+            // Suche nach Vorname, Nachname oder E-Mail, falls ein Suchbegriff vorhanden ist
+            customersPage = searchService.searchCustomers(search, page, size);
         } else {
             // Keine Filterung, nur Paging
             customersPage = customerService.getCustomersWithPagination(page, size);
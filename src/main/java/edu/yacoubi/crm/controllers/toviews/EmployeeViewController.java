@@ -2,6 +2,7 @@ package edu.yacoubi.crm.controllers.toviews;
 
 import edu.yacoubi.crm.model.Employee;
 import edu.yacoubi.crm.service.IEmployeeService;
+import edu.yacoubi.crm.service.ISearchService;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -18,6 +19,9 @@ public class EmployeeViewController {
     @Autowired
     private IEmployeeService employeeService;
 
+    @Autowired
+    private ISearchService searchService;
+
     // Initialisiert Testdaten
     //@PostConstruct
     public void initTestData() {
@@ -56,9 +60,9 @@ public class EmployeeViewController {
 
         Page<Employee> employeesPage;
 
-        if (search != null && !search.isEmpty()) {
-            // Filtere nach Vorname oder Abteilung, falls ein Suchbegriff vorhanden ist
-            employeesPage = employeeService.getEmployeesByFirstNameOrDepartment(search, page, size);
+        if (search != null && !search.isBlank()) {
+            // Suche nach Vorname, Nachname oder Abteilung, falls ein Suchbegriff vorhanden ist
+            employeesPage = searchService.searchEmployees(search, page, size);
         } else {
             // Keine Filterung, nur Paging
             employeesPage = employeeService.getEmployeesWithPagination(page, size);
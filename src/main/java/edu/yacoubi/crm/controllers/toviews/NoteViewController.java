@@ -1,6 +1,9 @@
 package edu.yacoubi.crm.controllers.toviews;
 
+import edu.yacoubi.crm.dto.CursorPage;
+import edu.yacoubi.crm.dto.note.NoteSummaryDTO;
 import edu.yacoubi.crm.model.Customer;
+import edu.yacoubi.crm.model.InteractionType;
 import edu.yacoubi.crm.model.Note;
 import edu.yacoubi.crm.service.ICustomerService;
 import edu.yacoubi.crm.service.INoteOrchestratorService;
@@ -12,6 +15,7 @@ import org.springframework.web.bind.annotation.*;
 
 @Controller
 public class NoteViewController {
+    private static final int PAGE_SIZE = 50;
 
     @Autowired
     private INoteService noteService;
@@ -22,13 +26,20 @@ public class NoteViewController {
     @Autowired
     private ICustomerService customerService;
 
-    // Notizencontroller
+    // Notizencontroller: Zeitleiste seitenweise laden, nicht alle Notizen des Kunden
     @GetMapping("/customers/{customerId}/notes")
-    public String listNotes(@PathVariable Long customerId, Model model) {
-        Customer customer = customerService.getCustomerWithNotes(customerId);
-                //.orElseThrow(() -> new IllegalArgumentException("Ungültige Kunden-ID: " + customerId));
+    public String listNotes(@PathVariable Long customerId,
+                            @RequestParam(required = false) InteractionType interactionType,
+                            @RequestParam(required = false) String cursor,
+                            Model model) {
+        Customer customer = customerService.getCustomerById(customerId)
+                .orElseThrow(() -> new IllegalArgumentException("Ungültige Kunden-ID: " + customerId));
+        CursorPage<NoteSummaryDTO> timeline = noteService.getNoteTimeline(customerId, interactionType, cursor, PAGE_SIZE);
         model.addAttribute("customer", customer);
-        model.addAttribute("notes", customer.getNotes());
+        model.addAttribute("notes", timeline.getContent());
+        model.addAttribute("nextCursor", timeline.getNextCursor());
+        model.addAttribute("interactionType", interactionType);
+        model.addAttribute("interactionTypes", InteractionType.values());
         return "note/note-list"; // Rückgabe der Notizenliste für den Kunden
     }
 
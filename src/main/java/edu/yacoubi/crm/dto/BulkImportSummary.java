@@ -0,0 +1,13 @@
+package edu.yacoubi.crm.dto;
+
+/**
+ * Totals of an NDJSON bulk upload.
+ *
+ * @param lines    the number of non-blank lines read
+ * @param created  the number of created entities
+ * @param updated  the number of entities updated in upsert mode
+ * @param rejected the number of lines rejected as malformed or invalid
+ * @param failed   the number of lines the database refused
+ */
+public record BulkImportSummary(long lines, long created, long updated, long rejected, long failed) {
+}
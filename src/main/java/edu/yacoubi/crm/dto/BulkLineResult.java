@@ -0,0 +1,37 @@
+package edu.yacoubi.crm.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Result of one line of an NDJSON bulk upload.
+ *
+ * @param line   the line number in the upload, starting with 1
+ * @param status what happened to the line
+ * @param id     the ID of the created or updated entity, null for rejected and failed lines
+ * @param errors the validation or database errors, null for written lines
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkLineResult(long line, Status status, Long id, List<ValidationError> errors) {
+
+    public enum Status {
+        CREATED, UPDATED, REJECTED, FAILED
+    }
+
+    public static BulkLineResult created(final long line, final Long id) {
+        return new BulkLineResult(line, Status.CREATED, id, null);
+    }
+
+    public static BulkLineResult updated(final long line, final Long id) {
+        return new BulkLineResult(line, Status.UPDATED, id, null);
+    }
+
+    public static BulkLineResult rejected(final long line, final List<ValidationError> errors) {
+        return new BulkLineResult(line, Status.REJECTED, null, errors);
+    }
+
+    public static BulkLineResult failed(final long line, final String message) {
+        return new BulkLineResult(line, Status.FAILED, null, List.of(new ValidationError("Line", message)));
+    }
+}
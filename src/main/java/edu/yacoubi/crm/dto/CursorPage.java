@@ -0,0 +1,77 @@
+package edu.yacoubi.crm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A page of a keyset (cursor) paginated result.
+ *
+ * <p>Unlike {@link org.springframework.data.domain.Page} it carries no total count, so no
+ * COUNT query is needed. Clients pass {@code nextCursor} back to fetch the following page.</p>
+ *
+ * @param <T> the type of the content
+ * @author A. El Yacoubi
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CursorPage<T> {
+    /**
+     * Largest page size a client may request.
+     */
+    public static final int MAX_SIZE = 100;
+
+    private List<T> content;
+    private int size;
+    private String nextCursor;
+    private boolean hasNext;
+
+    /**
+     * Checks a requested page size.
+     *
+     * @param size the requested page size
+     * @throws IllegalArgumentException if the size is not between 1 and {@link #MAX_SIZE}
+     */
+    public static void validateSize(final int size) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_SIZE);
+        }
+    }
+
+    /**
+     * Builds a page from rows fetched with a limit of {@code size + 1}.
+     *
+     * <p>The extra row only signals that there is a next page; it is not part of the content.</p>
+     *
+     * @param rows     the fetched rows, at most {@code size + 1}
+     * @param size     the requested page size
+     * @param cursorOf creates the continuation token for a row
+     * @param <T>      the type of the rows
+     * @return the page
+     */
+    public static <T> CursorPage<T> of(final List<T> rows, final int size, final Function<T, String> cursorOf) {
+        final boolean hasNext = rows.size() > size;
+        final List<T> content = hasNext ? List.copyOf(rows.subList(0, size)) : List.copyOf(rows);
+        final String nextCursor = hasNext ? cursorOf.apply(content.get(content.size() - 1)) : null;
+
+        return new CursorPage<>(content, size, nextCursor, hasNext);
+    }
+
+    /**
+     * Converts the content of this page, keeping the cursor information.
+     *
+     * @param mapper the conversion function
+     * @param <R>    the target type
+     * @return the converted page
+     */
+    public <R> CursorPage<R> map(final Function<? super T, ? extends R> mapper) {
+        final List<R> mapped = content.stream().<R>map(mapper).toList();
+        return new CursorPage<>(mapped, size, nextCursor, hasNext);
+    }
+}
@@ -0,0 +1,23 @@
+package edu.yacoubi.crm.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Filter of a streaming export, all criteria are optional.
+ *
+ * @param employeeId only rows of customers assigned to this employee
+ * @param department only rows of customers whose employee works in this department
+ * @param from       only rows dated on or after this day (customers: last interaction, notes: note date)
+ * @param to         only rows dated on or before this day
+ */
+public record ExportFilter(Long employeeId, String department, LocalDate from, LocalDate to) {
+
+    public ExportFilter {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (department != null && department.isBlank()) {
+            department = null;
+        }
+    }
+}
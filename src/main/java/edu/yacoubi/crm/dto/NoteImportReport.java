@@ -0,0 +1,20 @@
+package edu.yacoubi.crm.dto;
+
+import java.util.List;
+
+/**
+ * Result of a CSV note import.
+ *
+ * @param method     how the notes were loaded, {@code COPY} or {@code BATCH}
+ * @param rows       the number of data rows in the upload
+ * @param imported   the number of created notes
+ * @param rejected   the number of rejected rows
+ * @param rejections the rejected rows ordered by line, at most {@code crm.import.notes.max-reported-rejections}
+ */
+public record NoteImportReport(
+        String method,
+        long rows,
+        long imported,
+        long rejected,
+        List<BulkLineResult> rejections) {
+}
@@ -0,0 +1,23 @@
+package edu.yacoubi.crm.dto.customer;
+
+import edu.yacoubi.crm.dto.employee.EmployeeSummaryDTO;
+import edu.yacoubi.crm.dto.note.NoteSummaryDTO;
+import edu.yacoubi.crm.model.InteractionType;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The 360° view of a customer: the customer, its employee, the number of notes per interaction type and
+ * the latest notes.
+ *
+ * @param customer    the customer
+ * @param employee    the assigned employee, or null if the customer is not assigned
+ * @param totalNotes  the number of notes of the customer
+ * @param notesByType the number of notes per interaction type, every type is listed
+ * @param latestNotes the latest notes, newest first
+ * @author A. El Yacoubi
+ */
+public record CustomerOverviewDTO(CustomerResponseDTO customer, EmployeeSummaryDTO employee, long totalNotes,
+                                  Map<InteractionType, Long> notesByType, List<NoteSummaryDTO> latestNotes) {
+}
@@ -0,0 +1,28 @@
+package edu.yacoubi.crm.dto.customer;
+
+import java.time.LocalDate;
+
+/**
+ * The columns of a customer and of its employee, loaded in one row without the entities to build the
+ * customer overview.
+ *
+ * @param id                  the customer ID
+ * @param version             the version of the customer
+ * @param firstName           the first name
+ * @param lastName            the last name
+ * @param email               the email
+ * @param phone               the phone number
+ * @param address             the address
+ * @param lastInteractionDate the date of the last interaction
+ * @param employeeId          the ID of the assigned employee
+ * @param employeeFirstName   the first name of the employee
+ * @param employeeLastName    the last name of the employee
+ * @param employeeEmail       the email of the employee
+ * @param employeeDepartment  the department of the employee
+ * @author A. El Yacoubi
+ */
+public record CustomerOverviewRowDTO(Long id, Long version, String firstName, String lastName, String email,
+                                     String phone, String address, LocalDate lastInteractionDate,
+                                     Long employeeId, String employeeFirstName, String employeeLastName,
+                                     String employeeEmail, String employeeDepartment) {
+}
@@ -1,5 +1,6 @@
 package edu.yacoubi.crm.dto.customer;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
@@ -7,6 +8,7 @@ import java.time.LocalDate;
 
 @Data
 @Builder
+@AllArgsConstructor
 public class CustomerResponseDTO {
     private Long id;
     private String firstName;
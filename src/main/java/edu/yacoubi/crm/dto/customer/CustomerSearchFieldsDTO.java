@@ -0,0 +1,14 @@
+package edu.yacoubi.crm.dto.customer;
+
+/**
+ * The searchable columns of a customer, loaded without the entity to build the in-memory search index.
+ *
+ * @param id        the customer ID
+ * @param firstName the first name
+ * @param lastName  the last name
+ * @param email     the email
+ * @param phone     the phone number
+ * @author A. El Yacoubi
+ */
+public record CustomerSearchFieldsDTO(Long id, String firstName, String lastName, String email, String phone) {
+}
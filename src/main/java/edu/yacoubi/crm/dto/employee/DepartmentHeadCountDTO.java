@@ -0,0 +1,12 @@
+package edu.yacoubi.crm.dto.employee;
+
+/**
+ * Number of employees and of their assigned customers in one department.
+ *
+ * @param department the department name
+ * @param employees  the number of employees in the department
+ * @param customers  the number of customers assigned to these employees
+ * @author A. El Yacoubi
+ */
+public record DepartmentHeadCountDTO(String department, long employees, long customers) {
+}
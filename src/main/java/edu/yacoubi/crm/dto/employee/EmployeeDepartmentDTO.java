@@ -0,0 +1,12 @@
+package edu.yacoubi.crm.dto.employee;
+
+/**
+ * Department and customer count of an employee, loaded without the entity to build the department registry.
+ *
+ * @param id         the employee ID
+ * @param department the department of the employee
+ * @param customers  the number of customers assigned to the employee
+ * @author A. El Yacoubi
+ */
+public record EmployeeDepartmentDTO(Long id, String department, Long customers) {
+}
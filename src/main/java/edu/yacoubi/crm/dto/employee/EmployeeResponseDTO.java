@@ -1,10 +1,12 @@
 package edu.yacoubi.crm.dto.employee;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
 @Data
 @Builder
+@AllArgsConstructor
 public class EmployeeResponseDTO {
     private Long id;
     private String firstName;
@@ -0,0 +1,14 @@
+package edu.yacoubi.crm.dto.employee;
+
+/**
+ * Compact view of an employee, e.g. as the contact person in the customer overview.
+ *
+ * @param id         the employee ID
+ * @param firstName  the first name
+ * @param lastName   the last name
+ * @param email      the email
+ * @param department the department
+ * @author A. El Yacoubi
+ */
+public record EmployeeSummaryDTO(Long id, String firstName, String lastName, String email, String department) {
+}
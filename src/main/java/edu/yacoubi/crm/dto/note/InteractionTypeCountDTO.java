@@ -0,0 +1,13 @@
+package edu.yacoubi.crm.dto.note;
+
+import edu.yacoubi.crm.model.InteractionType;
+
+/**
+ * Number of notes of one interaction type, counted in the database.
+ *
+ * @param interactionType the type of the interaction
+ * @param count           the number of notes
+ * @author A. El Yacoubi
+ */
+public record InteractionTypeCountDTO(InteractionType interactionType, Long count) {
+}
@@ -1,6 +1,7 @@
 package edu.yacoubi.crm.dto.note;
 
 import edu.yacoubi.crm.model.InteractionType;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
@@ -8,6 +9,7 @@ import java.time.LocalDate;
 
 @Data
 @Builder
+@AllArgsConstructor
 public class NoteResponseDTO {
     private Long id;
     private String content;
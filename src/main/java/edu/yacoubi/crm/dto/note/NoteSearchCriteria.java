@@ -0,0 +1,22 @@
+package edu.yacoubi.crm.dto.note;
+
+import edu.yacoubi.crm.model.InteractionType;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Query and filters of a full-text note search.
+ *
+ * <p>All filters are optional; {@code from} and {@code to} are inclusive.</p>
+ */
+@Data
+@Builder
+public class NoteSearchCriteria {
+    private String query;
+    private InteractionType interactionType;
+    private LocalDate from;
+    private LocalDate to;
+    private Long employeeId;
+}
@@ -0,0 +1,17 @@
+package edu.yacoubi.crm.dto.note;
+
+import edu.yacoubi.crm.model.InteractionType;
+
+import java.time.LocalDate;
+
+/**
+ * A note of a customer, loaded without the entity, e.g. for the latest notes of the customer overview.
+ *
+ * @param id              the note ID
+ * @param date            the date of the interaction
+ * @param interactionType the type of the interaction
+ * @param content         the content
+ * @author A. El Yacoubi
+ */
+public record NoteSummaryDTO(Long id, LocalDate date, InteractionType interactionType, String content) {
+}
@@ -2,8 +2,11 @@ package edu.yacoubi.crm.exception;
 
 import edu.yacoubi.crm.dto.APIResponse;
 import edu.yacoubi.crm.dto.ValidationError;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -62,4 +65,40 @@ public class GlobalExceptionHandler {
 
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<APIResponse<Object>> handlePreconditionFailedException(PreconditionFailedException ex) {
+        List<ValidationError> errors = List.of(new ValidationError("If-Match", ex.getMessage()));
+
+        APIResponse<Object> response = getDTOAPIResponse("Precondition failed", "error",
+                HttpStatus.PRECONDITION_FAILED, errors);
+
+        return new ResponseEntity<>(response, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<APIResponse<Object>> handleOptimisticLockingFailureException(
+            ObjectOptimisticLockingFailureException ex) {
+        List<ValidationError> errors = List.of(
+                new ValidationError("Version", "The resource was modified concurrently, reload and retry")
+        );
+
+        APIResponse<Object> response = getDTOAPIResponse("Conflict", "error",
+                HttpStatus.CONFLICT, errors);
+
+        return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+    }
+
+    // no connection within the bulkhead or pool timeout
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<APIResponse<Object>> handleDatabaseUnavailableException(Exception ex) {
+        List<ValidationError> errors = List.of(
+                new ValidationError("Database", "The database is busy or not available, retry later")
+        );
+
+        APIResponse<Object> response = getDTOAPIResponse("Service unavailable", "error",
+                HttpStatus.SERVICE_UNAVAILABLE, errors);
+
+        return new ResponseEntity<>(response, HttpStatus.SERVICE_UNAVAILABLE);
+    }
 }
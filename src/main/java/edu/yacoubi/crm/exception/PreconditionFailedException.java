@@ -0,0 +1,10 @@
+package edu.yacoubi.crm.exception;
+
+/**
+ * Thrown when the version given with {@code If-Match} is not the current version of the entity.
+ */
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
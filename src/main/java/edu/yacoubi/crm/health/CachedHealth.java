@@ -0,0 +1,62 @@
+package edu.yacoubi.crm.health;
+
+import org.springframework.boot.actuate.health.Health;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Letztes Ergebnis einer im Hintergrund ausgeführten Prüfung.
+ *
+ * <p>Der Health-Endpunkt liefert nur noch dieses Ergebnis, ergänzt um Zeitpunkt ({@code checkedAt}) und
+ * Alter ({@code ageMs}) der Prüfung. Ist das Ergebnis älter als {@code staleAfter}, hängt die Prüfung
+ * offenbar; dann wird {@code DOWN} gemeldet. Vor der ersten Prüfung ist der Status {@code UNKNOWN}.</p>
+ *
+ * @author A. El Yacoubi
+ */
+public final class CachedHealth {
+    private final Clock clock;
+    private final Duration staleAfter;
+
+    private volatile Health health;
+    private volatile Instant checkedAt;
+
+    public CachedHealth(final Clock clock, final Duration staleAfter) {
+        this.clock = clock;
+        this.staleAfter = staleAfter;
+    }
+
+    /**
+     * Speichert das Ergebnis einer Prüfung.
+     *
+     * @param result das Ergebnis
+     */
+    public void update(final Health result) {
+        health = result;
+        checkedAt = clock.instant();
+    }
+
+    /**
+     * Liefert das letzte Ergebnis mit Zeitpunkt und Alter.
+     *
+     * @return das gespeicherte Ergebnis, {@code UNKNOWN} vor der ersten und {@code DOWN} bei veralteter Prüfung
+     */
+    public Health get() {
+        final Health last = health;
+        final Instant at = checkedAt;
+        if (last == null || at == null) {
+            return Health.unknown().withDetail("checkedAt", "pending").build();
+        }
+
+        final long ageMs = Duration.between(at, clock.instant()).toMillis();
+        final Health.Builder builder = ageMs > staleAfter.toMillis()
+                ? Health.down().withDetail("error", "Last check is older than " + staleAfter.toMillis() + " ms")
+                : Health.status(last.getStatus());
+        return builder
+                .withDetails(last.getDetails())
+                .withDetail("checkedAt", at.toString())
+                .withDetail("ageMs", ageMs)
+                .build();
+    }
+}
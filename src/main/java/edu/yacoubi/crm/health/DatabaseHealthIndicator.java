@@ -1,32 +1,74 @@
 package edu.yacoubi.crm.health;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.beans.factory.annotation.Autowired;
+
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
 
+/**
+ * HealthIndicator für die Erreichbarkeit der Datenbank.
+ *
+ * <p>Die Verbindung wird im Hintergrund alle {@code crm.health.refresh-interval} geprüft (höchstens
+ * {@code crm.health.database.timeout} lang); der Health-Endpunkt liefert das letzte Ergebnis und belegt
+ * selbst keine Verbindung aus dem Pool.</p>
+ *
+ * @author A. El Yacoubi
+ */
 @Component
+@Slf4j
 public class DatabaseHealthIndicator implements HealthIndicator {
+    private final DataSource dataSource;
+    private final int timeoutSeconds;
+    private final CachedHealth cachedHealth;
 
     @Autowired
-    private DataSource dataSource;
+    public DatabaseHealthIndicator(
+            final DataSource dataSource,
+            final @Value("${crm.health.database.timeout:1s}") Duration timeout,
+            final @Value("${crm.health.stale-after:60s}") Duration staleAfter) {
+        this(dataSource, timeout, new CachedHealth(Clock.systemUTC(), staleAfter));
+    }
+
+    DatabaseHealthIndicator(final DataSource dataSource, final Duration timeout, final CachedHealth cachedHealth) {
+        this.dataSource = dataSource;
+        // Connection.isValid kennt nur ganze Sekunden
+        this.timeoutSeconds = (int) Math.max(1, timeout.toSeconds());
+        this.cachedHealth = cachedHealth;
+    }
 
     @Override
     public Health health() {
+        return cachedHealth.get();
+    }
+
+    /**
+     * Prüft die Datenbank und speichert das Ergebnis.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${crm.health.refresh-interval:PT15S}")
+    public void refresh() {
+        cachedHealth.update(check());
+    }
+
+    private Health check() {
         try (Connection connection = dataSource.getConnection()) {
-            if (connection.isValid(1)) {
+            if (connection.isValid(timeoutSeconds)) {
                 return Health.up().build();
-            } else {
-                return Health.down()
-                        .withDetail("Error", "Database is not responding")
-                        .build();
             }
-        } catch (SQLException e) {
+            return Health.down()
+                    .withDetail("Error", "Database is not responding")
+                    .build();
+        } catch (SQLException | RuntimeException e) {
+            log.warn("::refresh database check failed: {}", e.getMessage());
             return Health.down(e).build();
         }
     }
 }
-
@@ -1,38 +1,88 @@
 package edu.yacoubi.crm.health;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Clock;
+import java.time.Duration;
+
 /**
  * HealthIndicator für die Überprüfung der Verfügbarkeit eines externen Services.
  *
  * <p>Diese Klasse dient als Beispiel, wie das CRM-System auf eine externe API zugreifen kann,
- * um deren Verfügbarkeit zu überprüfen. Der HealthIndicator führt eine GET-Anfrage an eine
- * Beispiel-URL aus und gibt den Gesundheitsstatus des externen Services zurück.</p>
+ * um deren Verfügbarkeit zu überprüfen. Der HealthIndicator führt eine GET-Anfrage an
+ * {@code crm.health.external.url} aus und gibt den Gesundheitsstatus des externen Services zurück.</p>
+ *
+ * <p>Die Anfrage läuft im Hintergrund alle {@code crm.health.refresh-interval}, mit Verbindungs- und
+ * Lese-Timeout {@code crm.health.external.timeout}; der Health-Endpunkt liefert das letzte Ergebnis,
+ * ein langsamer Service blockiert ihn also nicht.</p>
  *
- * <p>In diesem Fall wird die JSONPlaceholder API verwendet, die Testdaten zur Verfügung stellt.</p>
+ * <p>Standardmäßig wird die JSONPlaceholder API verwendet, die Testdaten zur Verfügung stellt.</p>
  *
  * @author A. El Yacoubi
  */
 @Component
+@Slf4j
 public class ExternalServiceHealthIndicator implements HealthIndicator {
 
     private final RestTemplate restTemplate;
+    private final String url;
+    private final CachedHealth cachedHealth;
+
+    @Autowired
+    public ExternalServiceHealthIndicator(
+            final RestTemplateBuilder restTemplateBuilder,
+            final @Value("${crm.health.external.url:https://jsonplaceholder.typicode.com/posts}") String url,
+            final @Value("${crm.health.external.timeout:2s}") Duration timeout,
+            final @Value("${crm.health.stale-after:60s}") Duration staleAfter) {
+        this(restTemplateBuilder, url, timeout, new CachedHealth(Clock.systemUTC(), staleAfter));
+    }
 
-    public ExternalServiceHealthIndicator() {
-        this.restTemplate = new RestTemplate();
+    ExternalServiceHealthIndicator(
+            final RestTemplateBuilder restTemplateBuilder,
+            final String url,
+            final Duration timeout,
+            final CachedHealth cachedHealth) {
+        this.restTemplate = restTemplateBuilder
+                .setConnectTimeout(timeout)
+                .setReadTimeout(timeout)
+                .build();
+        this.url = url;
+        this.cachedHealth = cachedHealth;
     }
 
     @Override
     public Health health() {
-        final String url = "https://jsonplaceholder.typicode.com/posts"; // Beispiel-URL der Placeholder API
+        return cachedHealth.get();
+    }
+
+    /**
+     * Fragt den externen Service ab und speichert das Ergebnis.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${crm.health.refresh-interval:PT15S}")
+    public void refresh() {
+        cachedHealth.update(check());
+    }
+
+    private Health check() {
         try {
-            restTemplate.getForObject(url, String.class);
-            return Health.up().build();
+            // nur der Status zählt, der Body wird nicht gelesen
+            restTemplate.execute(url, HttpMethod.GET, null, response -> null);
+            return Health.up().withDetail("url", url).build();
         } catch (Exception e) {
-            return Health.down().withDetail("Error", "Cannot reach external service").build();
+            log.warn("::refresh external service check failed: {}", e.getMessage());
+            return Health.down()
+                    .withDetail("url", url)
+                    .withDetail("Error", "Cannot reach external service")
+                    .build();
         }
     }
 }
@@ -0,0 +1,105 @@
+package edu.yacoubi.crm.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+
+import java.util.Iterator;
+
+/**
+ * {@link AsyncAppender} that leaves the formatting of the message to its worker thread.
+ *
+ * <p>The standard {@code AsyncAppender} formats every event on the logging thread before queueing it, so
+ * a {@link PayloadLogger} payload would be serialized on the request thread, even if the full queue then
+ * drops the event. Here only the thread name and the MDC, which belong to the logging thread, are captured;
+ * the message and with it the payload are rendered when the worker writes the event, a dropped event is
+ * never rendered.</p>
+ *
+ * <p>Unlike the standard {@code AsyncAppender}, several appenders can be attached (e.g. {@code CONSOLE} and
+ * {@code FILE}); the worker writes every event to all of them, rendering the message only once.</p>
+ *
+ * <p>Only suitable for messages whose arguments are not modified after logging, like the responses logged by
+ * {@link PayloadLogger}.</p>
+ *
+ * @author A. El Yacoubi
+ */
+public class DeferredFormattingAsyncAppender extends AsyncAppender {
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+    private final FanOut fanOut = new FanOut();
+    private boolean fanOutAttached;
+
+    @Override
+    public void start() {
+        if (!appenders.iteratorForAppenders().hasNext()) {
+            addError("No attached appenders found.");
+            return;
+        }
+        if (!fanOutAttached) {
+            fanOut.setContext(getContext());
+            fanOut.setName(getName() + "-fan-out");
+            super.addAppender(fanOut);
+            fanOutAttached = true;
+        }
+        fanOut.start();
+        super.start();
+    }
+
+    @Override
+    protected void preprocess(final ILoggingEvent eventObject) {
+        eventObject.getThreadName();
+        eventObject.getMDCPropertyMap();
+        if (isIncludeCallerData()) {
+            eventObject.getCallerData();
+        }
+    }
+
+    @Override
+    public void addAppender(final Appender<ILoggingEvent> newAppender) {
+        addInfo("Attaching appender named [" + newAppender.getName() + "] to " + getName() + ".");
+        appenders.addAppender(newAppender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(final String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(final Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(final Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(final String name) {
+        return appenders.detachAppender(name);
+    }
+
+    /**
+     * The single appender of the base class, called on the worker thread: passes every event on to the
+     * attached appenders.
+     */
+    private final class FanOut extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+        @Override
+        protected void append(final ILoggingEvent eventObject) {
+            appenders.appendLoopOnAppenders(eventObject);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package edu.yacoubi.crm.logging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Logs request and response payloads as JSON, for debugging.
+ *
+ * <p>Payloads go to the logger {@value #LOGGER_NAME} at DEBUG level, which logback routes to a
+ * bounded asynchronous appender (see {@code logback-spring.xml}). The request path does not pay
+ * for the serialization:</p>
+ * <ul>
+ *     <li>nothing happens unless the payload logger is enabled for DEBUG and the call is sampled
+ *     ({@code crm.logging.payload.sample-rate}, 0.0 = never, 1.0 = always),</li>
+ *     <li>the payload is serialized lazily when the log event is formatted, which
+ *     {@link DeferredFormattingAsyncAppender} does on its worker thread, and not at all for events dropped
+ *     because the queue is full; the serialization stops after {@code crm.logging.payload.max-chars}
+ *     characters.</li>
+ * </ul>
+ *
+ * <p>Since the payload is serialized later, it must not be modified after logging it.</p>
+ *
+ * <p>Usage example:</p>
+ * <pre>{@code
+ * payloadLogger.log("::getAllCustomers", response);
+ * }</pre>
+ *
+ * @author A. El Yacoubi
+ */
+@Component
+public class PayloadLogger {
+    /**
+     * Name of the logger the payloads are written to.
+     */
+    public static final String LOGGER_NAME = "edu.yacoubi.crm.payload";
+
+    private static final Logger log = LoggerFactory.getLogger(LOGGER_NAME);
+
+    private final ObjectMapper objectMapper;
+    private final double sampleRate;
+    private final int maxChars;
+
+    public PayloadLogger(
+            final ObjectMapper objectMapper,
+            final @Value("${crm.logging.payload.sample-rate:0.0}") double sampleRate,
+            final @Value("${crm.logging.payload.max-chars:2048}") int maxChars) {
+        if (sampleRate < 0.0 || sampleRate > 1.0) {
+            throw new IllegalArgumentException("Payload sample rate must be between 0.0 and 1.0");
+        }
+        if (maxChars < 1) {
+            throw new IllegalArgumentException("Payload max chars must be positive");
+        }
+        this.objectMapper = objectMapper;
+        this.sampleRate = sampleRate;
+        this.maxChars = maxChars;
+    }
+
+    /**
+     * Logs the payload of an operation, if the payload logger is enabled and the call is sampled.
+     *
+     * @param operation the operation, e.g. {@code "::getAllCustomers"}
+     * @param payload   the request or response object
+     */
+    public void log(final String operation, final Object payload) {
+        if (!log.isDebugEnabled() || !isSampled()) {
+            return;
+        }
+        log.debug("{} payload: {}", operation, new LazyJson(payload));
+    }
+
+    private boolean isSampled() {
+        return sampleRate >= 1.0
+                || (sampleRate > 0.0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    /**
+     * Serializes the payload in {@link #toString()}, i.e. only when the log event is formatted.
+     */
+    private final class LazyJson {
+        private final Object payload;
+
+        private LazyJson(final Object payload) {
+            this.payload = payload;
+        }
+
+        @Override
+        public String toString() {
+            final CappedWriter writer = new CappedWriter(maxChars);
+            try {
+                objectMapper.writeValue(writer, payload);
+            } catch (IOException exception) {
+                if (!writer.isTruncated()) {
+                    return "<not serializable: " + exception.getMessage() + ">";
+                }
+            }
+            return writer.isTruncated()
+                    ? writer.content() + "... (truncated after " + maxChars + " chars)"
+                    : writer.content();
+        }
+    }
+
+    /**
+     * Writer that keeps the first {@code maxChars} characters and aborts the serialization after that.
+     */
+    private static final class CappedWriter extends Writer {
+        private final StringBuilder content = new StringBuilder();
+        private final int maxChars;
+        private boolean truncated;
+
+        private CappedWriter(final int maxChars) {
+            this.maxChars = maxChars;
+        }
+
+        @Override
+        public void write(final char[] buffer, final int offset, final int length) throws IOException {
+            final int remaining = maxChars - content.length();
+            if (length > remaining) {
+                content.append(buffer, offset, remaining);
+                truncated = true;
+                throw new IOException("Payload exceeds " + maxChars + " chars");
+            }
+            content.append(buffer, offset, length);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        private boolean isTruncated() {
+            return truncated;
+        }
+
+        private String content() {
+            return content.toString();
+        }
+    }
+}
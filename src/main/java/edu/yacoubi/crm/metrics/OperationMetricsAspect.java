@@ -0,0 +1,153 @@
+package edu.yacoubi.crm.metrics;
+
+import edu.yacoubi.crm.exception.PreconditionFailedException;
+import edu.yacoubi.crm.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolationException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every call of the service and repository layer.
+ *
+ * <p>Timers:</p>
+ * <ul>
+ *     <li>{@value #SERVICE_TIMER} - the services ({@code ICustomerService}, {@code IEmployeeService},
+ *     {@code INoteService}, {@code IEntityOrchestratorService}, {@code INoteOrchestratorService}),</li>
+ *     <li>{@value #REPOSITORY_TIMER} - the Spring Data repositories and the custom repositories.</li>
+ * </ul>
+ *
+ * <p>Both carry the tags {@code type} (the interface, e.g. {@code ICustomerService}), {@code operation}
+ * (the method) and {@code outcome} ({@code success}, {@code not-found}, {@code validation-error},
+ * {@code conflict} or {@code error}). Histogram buckets and SLOs are configured with the
+ * {@code management.metrics.distribution.*} properties.</p>
+ *
+ * <p>The timers are looked up once per method and outcome and cached, a call costs two clock reads and
+ * a map lookup.</p>
+ *
+ * @author A. El Yacoubi
+ */
+@Aspect
+@Component
+public class OperationMetricsAspect {
+    public static final String SERVICE_TIMER = "crm.service.operations";
+    public static final String REPOSITORY_TIMER = "crm.repository.operations";
+
+    private static final String BASE_PACKAGE = "edu.yacoubi.crm.";
+
+    private final MeterRegistry registry;
+    private final Map<Operation, Timer[]> timers = new ConcurrentHashMap<>();
+
+    public OperationMetricsAspect(final MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    private enum Outcome {
+        SUCCESS("success"),
+        NOT_FOUND("not-found"),
+        VALIDATION_ERROR("validation-error"),
+        CONFLICT("conflict"),
+        ERROR("error");
+
+        private final String tag;
+
+        Outcome(final String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private record Operation(String timer, Class<?> proxyClass, Method method) {
+    }
+
+    @Around("execution(public * *(..)) && ("
+            + "this(edu.yacoubi.crm.service.ICustomerService) || "
+            + "this(edu.yacoubi.crm.service.IEmployeeService) || "
+            + "this(edu.yacoubi.crm.service.INoteService) || "
+            + "this(edu.yacoubi.crm.service.IEntityOrchestratorService) || "
+            + "this(edu.yacoubi.crm.service.INoteOrchestratorService))")
+    public Object timeService(final ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(SERVICE_TIMER, joinPoint);
+    }
+
+    @Around("execution(public * *(..)) && ("
+            + "this(org.springframework.data.repository.Repository) || "
+            + "within(edu.yacoubi.crm.repository.impl..*))")
+    public Object timeRepository(final ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(REPOSITORY_TIMER, joinPoint);
+    }
+
+    private Object time(final String timer, final ProceedingJoinPoint joinPoint) throws Throwable {
+        final Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        if (method.getDeclaringClass() == Object.class) {
+            return joinPoint.proceed();
+        }
+
+        final long start = registry.config().clock().monotonicTime();
+        Outcome outcome = Outcome.ERROR;
+        try {
+            final Object result = joinPoint.proceed();
+            outcome = Outcome.SUCCESS;
+            return result;
+        } catch (Throwable throwable) {
+            outcome = outcome(throwable);
+            throw throwable;
+        } finally {
+            // the proxy, the target of a Spring Data repository is the shared SimpleJpaRepository
+            timer(new Operation(timer, joinPoint.getThis().getClass(), method), outcome)
+                    .record(registry.config().clock().monotonicTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static Outcome outcome(final Throwable throwable) {
+        if (throwable instanceof ResourceNotFoundException || throwable instanceof EntityNotFoundException) {
+            return Outcome.NOT_FOUND;
+        }
+        if (throwable instanceof IllegalArgumentException || throwable instanceof ConstraintViolationException) {
+            return Outcome.VALIDATION_ERROR;
+        }
+        if (throwable instanceof PreconditionFailedException
+                || throwable instanceof OptimisticLockingFailureException) {
+            return Outcome.CONFLICT;
+        }
+        return Outcome.ERROR;
+    }
+
+    private Timer timer(final Operation operation, final Outcome outcome) {
+        final Timer[] byOutcome = timers.computeIfAbsent(operation, key -> new Timer[Outcome.values().length]);
+        Timer timer = byOutcome[outcome.ordinal()];
+        if (timer == null) {
+            // racing threads get the same timer from the registry
+            timer = Timer.builder(operation.timer())
+                    .tag("type", type(operation.proxyClass()))
+                    .tag("operation", operation.method().getName())
+                    .tag("outcome", outcome.tag)
+                    .register(registry);
+            byOutcome[outcome.ordinal()] = timer;
+        }
+        return timer;
+    }
+
+    /**
+     * The first own interface of the proxy, e.g. {@code CustomerRepository} for a Spring Data repository.
+     */
+    private static String type(final Class<?> proxyClass) {
+        for (final Class<?> candidate : ClassUtils.getAllInterfacesForClassAsSet(proxyClass)) {
+            if (candidate.getName().startsWith(BASE_PACKAGE)) {
+                return candidate.getSimpleName();
+            }
+        }
+        return ClassUtils.getUserClass(proxyClass).getSimpleName();
+    }
+}
@@ -32,10 +32,18 @@ import java.util.List;
 @AllArgsConstructor
 public class Customer {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_seq")
+    @SequenceGenerator(name = "customer_seq", sequenceName = "customer_seq", allocationSize = 50)
     @Column(columnDefinition = "BIGINT")
     private Long id;
 
+    /**
+     * Optimistic lock, incremented on every update; exposed to the clients as ETag.
+     */
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     @NotBlank(message = "First name is mandatory")
     private String firstName;
 
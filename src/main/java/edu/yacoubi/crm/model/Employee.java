@@ -6,6 +6,8 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -23,15 +25,25 @@ import java.util.List;
  * @author A. El Yacoubi
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Employee {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employee_seq")
+    @SequenceGenerator(name = "employee_seq", sequenceName = "employee_seq", allocationSize = 50)
     private Long id;
 
+    /**
+     * Optimistic lock, incremented on every update; exposed to the clients as ETag.
+     */
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     @NotBlank(message = "First name is mandatory")
     @Size(min = 2, max = 50, message = "First name must be between 2 and 50 characters")
     private String firstName;
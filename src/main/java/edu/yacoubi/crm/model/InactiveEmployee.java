@@ -1,9 +1,11 @@
 package edu.yacoubi.crm.model;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -11,6 +13,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Entity representing an inactive employee in the CRM system.
@@ -20,13 +24,16 @@ import lombok.NoArgsConstructor;
  * @author A. El Yacoubi
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class InactiveEmployee {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inactive_employee_seq")
+    @SequenceGenerator(name = "inactive_employee_seq", sequenceName = "inactive_employee_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "First name is mandatory")
@@ -28,9 +28,17 @@ import java.time.LocalDate;
 public class Note {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "note_seq")
+    @SequenceGenerator(name = "note_seq", sequenceName = "note_seq", allocationSize = 50)
     private Long id;
 
+    /**
+     * Optimistic lock, incremented on every update; exposed to the clients as ETag.
+     */
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     @NotBlank(message = "Content is mandatory")
     @Size(max = 1000, message = "Content must be less than 1000 characters")
     @Column(nullable = false, length = 1000)
@@ -41,6 +41,7 @@ public class CustomCustomerRepositoryImpl implements CustomCustomerRepository {
         // Füge weitere Felder nach Bedarf hinzu
 
         if (hasUpdates) {
+            update.set(root.<Long>get("version"), cb.sum(root.<Long>get("version"), 1L));
             update.where(cb.equal(root.get("id"), id));
             entityManager.createQuery(update).executeUpdate();
             entityManager.flush();
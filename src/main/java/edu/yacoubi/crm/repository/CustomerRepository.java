@@ -1,15 +1,21 @@
 package edu.yacoubi.crm.repository;
 
+import edu.yacoubi.crm.dto.customer.CustomerOverviewRowDTO;
+import edu.yacoubi.crm.dto.customer.CustomerResponseDTO;
+import edu.yacoubi.crm.dto.customer.CustomerSearchFieldsDTO;
 import edu.yacoubi.crm.model.Customer;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.repository.query.QueryByExampleExecutor;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,6 +26,23 @@ public interface CustomerRepository extends
         CustomCustomerRepository {
     Optional<Customer> findByEmail(String email);
 
+    /**
+     * Retrieves the customers with one of the given emails, e.g. to upsert a chunk of a bulk upload.
+     *
+     * @param emails the emails to look up.
+     * @return the customers found, in no particular order.
+     */
+    List<Customer> findAllByEmailIn(Collection<String> emails);
+
+    /**
+     * Retrieves which of the given customer IDs exist, without loading the customers.
+     *
+     * @param customerIds the IDs to check.
+     * @return the existing IDs.
+     */
+    @Query("SELECT c.id FROM Customer c WHERE c.id IN :customerIds")
+    List<Long> findExistingIds(@Param("customerIds") Collection<Long> customerIds);
+
     @EntityGraph(attributePaths = {"notes", "employee", "employee.customers"})
     @Query("SELECT c FROM Customer c WHERE c.email = :email")
     Optional<Customer> findByEmailWithNotesAndEmployeeCustomers(@Param("email") String email);
@@ -34,6 +57,89 @@ public interface CustomerRepository extends
 
     List<Customer> findByEmployeeId(Long employeeId);
 
+    /**
+     * Retrieves a page of customers as response DTOs, selecting only their columns.
+     *
+     * <p>No entities are loaded, so the persistence context holds no instances or dirty-checking
+     * snapshots for them; the employee ID is read from the foreign key column without a join.</p>
+     *
+     * @param pageable the pagination information.
+     * @return a page of customer response DTOs.
+     */
+    @Query(value = "SELECT new edu.yacoubi.crm.dto.customer.CustomerResponseDTO("
+            + "c.id, c.firstName, c.lastName, c.email, c.phone, c.address, c.lastInteractionDate, c.employee.id) "
+            + "FROM Customer c",
+            countQuery = "SELECT COUNT(c) FROM Customer c")
+    Page<CustomerResponseDTO> findAllResponses(Pageable pageable);
+
+    /**
+     * Retrieves the customers of an employee as response DTOs, selecting only their columns.
+     *
+     * @param employeeId the ID of the employee.
+     * @return the customer response DTOs, ordered by ID.
+     */
+    @Query("SELECT new edu.yacoubi.crm.dto.customer.CustomerResponseDTO("
+            + "c.id, c.firstName, c.lastName, c.email, c.phone, c.address, c.lastInteractionDate, c.employee.id) "
+            + "FROM Customer c WHERE c.employee.id = :employeeId ORDER BY c.id")
+    List<CustomerResponseDTO> findResponsesByEmployeeId(@Param("employeeId") Long employeeId);
+
+    /**
+     * Retrieves the ID of the employee a customer is assigned to, without loading the customer.
+     *
+     * @param customerId the ID of the customer.
+     * @return the employee ID, or an empty Optional if the customer does not exist or is not assigned.
+     */
+    @Query("SELECT c.employee.id FROM Customer c WHERE c.id = :customerId")
+    Optional<Long> findEmployeeIdById(@Param("customerId") Long customerId);
+
+    /**
+     * Retrieves the version of a customer, without loading the customer.
+     *
+     * @param customerId the ID of the customer.
+     * @return the version, or an empty Optional if the customer does not exist.
+     */
+    @Query("SELECT c.version FROM Customer c WHERE c.id = :customerId")
+    Optional<Long> findVersionById(@Param("customerId") Long customerId);
+
+    /**
+     * Loads the columns of a customer and of its employee for the customer overview, in one row and
+     * without loading the entities.
+     *
+     * @param customerId the ID of the customer.
+     * @return the customer and employee columns, or an empty Optional if the customer does not exist.
+     */
+    @Query("SELECT new edu.yacoubi.crm.dto.customer.CustomerOverviewRowDTO("
+            + "c.id, c.version, c.firstName, c.lastName, c.email, c.phone, c.address, c.lastInteractionDate, "
+            + "e.id, e.firstName, e.lastName, e.email, e.department) "
+            + "FROM Customer c LEFT JOIN c.employee e WHERE c.id = :customerId")
+    Optional<CustomerOverviewRowDTO> findOverviewById(@Param("customerId") Long customerId);
+
+    /**
+     * Loads the searchable columns of the customers after the given ID, ordered by ID.
+     *
+     * <p>Used to build the in-memory search index in chunks without loading entities.</p>
+     *
+     * @param afterId the ID of the last customer of the previous chunk
+     * @param limit   the chunk size
+     * @return the searchable columns of the next customers
+     */
+    List<CustomerSearchFieldsDTO> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    /**
+     * Reassigns all customers of one employee to another employee with a single set-based UPDATE.
+     *
+     * <p>The persistence context is flushed before and cleared after the update, so no stale
+     * customer or employee instances (e.g. cached {@code Employee.customers} collections) survive it.
+     * The version of every reassigned customer is incremented.</p>
+     *
+     * @param oldEmployeeId the ID of the employee whose customers are reassigned.
+     * @param newEmployeeId the ID of the employee the customers are assigned to.
+     * @return the number of reassigned customers.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Customer c SET c.employee.id = :newEmployeeId, c.version = c.version + 1 WHERE c.employee.id = :oldEmployeeId")
+    int reassignEmployee(@Param("oldEmployeeId") Long oldEmployeeId, @Param("newEmployeeId") Long newEmployeeId);
+
     //@Query("SELECT c FROM Customer c WHERE c.employee.id = :employeeId")
     //List<Customer> findByEmployeeId(@Param("employeeId") Long employeeId);
 
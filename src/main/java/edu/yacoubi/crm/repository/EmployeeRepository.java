@@ -1,13 +1,19 @@
 package edu.yacoubi.crm.repository;
 
+import edu.yacoubi.crm.dto.employee.EmployeeDepartmentDTO;
+import edu.yacoubi.crm.dto.employee.EmployeeResponseDTO;
 import edu.yacoubi.crm.model.Employee;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,6 +31,20 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
      */
     Page<Employee> findAll(Pageable pageable);
 
+    /**
+     * Retrieves a page of employees as response DTOs, selecting only their columns.
+     *
+     * <p>No entities are loaded, neither from the database nor from the second-level cache, and the
+     * customers of the employees are never touched.</p>
+     *
+     * @param pageable the pagination information.
+     * @return a page of employee response DTOs.
+     */
+    @Query(value = "SELECT new edu.yacoubi.crm.dto.employee.EmployeeResponseDTO("
+            + "e.id, e.firstName, e.lastName, e.email, e.department) FROM Employee e",
+            countQuery = "SELECT COUNT(e) FROM Employee e")
+    Page<EmployeeResponseDTO> findAllResponses(Pageable pageable);
+
     /**
      * Finds an employee by their email.
      *
@@ -33,6 +53,14 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
      */
     Optional<Employee> findByEmail(String email);
 
+    /**
+     * Retrieves the employees with one of the given emails, e.g. to upsert a chunk of a bulk upload.
+     *
+     * @param emails the emails to look up.
+     * @return the employees found, in no particular order.
+     */
+    List<Employee> findAllByEmailIn(Collection<String> emails);
+
     /**
      * Finds employees whose first name contains the specified search string (case-insensitive).
      *
@@ -69,8 +97,24 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
      * @return an Optional containing a list of unique department names.
      */
     @Query("SELECT distinct e.department FROM Employee e")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "employee-departments")
+    })
     Optional<List<String>> findAllDepartments();
 
+    /**
+     * Retrieves the department and the number of assigned customers of every employee.
+     *
+     * @return one entry per employee.
+     */
+    @Query("""
+            SELECT new edu.yacoubi.crm.dto.employee.EmployeeDepartmentDTO(e.id, e.department, COUNT(c.id))
+            FROM Employee e LEFT JOIN e.customers c
+            GROUP BY e.id, e.department
+            """)
+    List<EmployeeDepartmentDTO> findAllEmployeeDepartments();
+
     /**
      * Checks if an employee has any assigned customers.
      * This query performs a join operation between the Employee and Customer tables.
@@ -97,4 +141,13 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
      */
     @Query("SELECT e FROM Employee e LEFT JOIN FETCH e.customers WHERE e.id = :employeeId")
     Optional<Employee> findByIdWithCustomers(@Param("employeeId") Long employeeId);
+
+    /**
+     * Retrieves the version of an employee, without loading the employee.
+     *
+     * @param employeeId the ID of the employee.
+     * @return the version, or an empty Optional if the employee does not exist.
+     */
+    @Query("SELECT e.version FROM Employee e WHERE e.id = :employeeId")
+    Optional<Long> findVersionById(@Param("employeeId") Long employeeId);
 }
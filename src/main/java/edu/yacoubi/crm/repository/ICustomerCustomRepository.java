@@ -1,7 +1,29 @@
 package edu.yacoubi.crm.repository;
 
 import edu.yacoubi.crm.dto.customer.CustomerPatchDTO;
+import edu.yacoubi.crm.model.Customer;
+import edu.yacoubi.crm.util.KeysetCursor;
+
+import java.util.List;
 
 public interface ICustomerCustomRepository {
-    void partialUpdateCustomer(Long customerId, CustomerPatchDTO customerPatchDTO);
+    /**
+     * Updates the non-null fields of the patch with a single UPDATE and increments the version.
+     *
+     * @param customerId        the ID of the customer
+     * @param customerPatchDTO  the fields to update
+     * @param expectedVersion the version the row must have, or null to update any version
+     * @return the number of updated rows, 0 if the customer does not exist or has another version
+     */
+    int partialUpdateCustomer(Long customerId, CustomerPatchDTO customerPatchDTO, Long expectedVersion);
+
+    /**
+     * Loads a keyset page of customers ordered by (lastName, id), without OFFSET and COUNT.
+     *
+     * @param search optional search term for the first name or email
+     * @param after  the position of the last row of the previous page, or null for the first page
+     * @param limit  the maximum number of rows to load
+     * @return the customers following the given position
+     */
+    List<Customer> findCustomersAfter(String search, KeysetCursor after, int limit);
 }
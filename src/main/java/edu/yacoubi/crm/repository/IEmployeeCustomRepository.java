@@ -1,7 +1,29 @@
 package edu.yacoubi.crm.repository;
 
 import edu.yacoubi.crm.dto.employee.EmployeePatchDTO;
+import edu.yacoubi.crm.model.Employee;
+import edu.yacoubi.crm.util.KeysetCursor;
+
+import java.util.List;
 
 public interface IEmployeeCustomRepository {
-    void partialUpdateEmployee(Long employeeId, EmployeePatchDTO employeePatchDTO);
+    /**
+     * Updates the non-null fields of the patch with a single UPDATE and increments the version.
+     *
+     * @param employeeId        the ID of the employee
+     * @param employeePatchDTO  the fields to update
+     * @param expectedVersion the version the row must have, or null to update any version
+     * @return the number of updated rows, 0 if the employee does not exist or has another version
+     */
+    int partialUpdateEmployee(Long employeeId, EmployeePatchDTO employeePatchDTO, Long expectedVersion);
+
+    /**
+     * Loads a keyset page of employees ordered by (lastName, id), without OFFSET and COUNT.
+     *
+     * @param search optional search term for the first name or department
+     * @param after  the position of the last row of the previous page, or null for the first page
+     * @param limit  the maximum number of rows to load
+     * @return the employees following the given position
+     */
+    List<Employee> findEmployeesAfter(String search, KeysetCursor after, int limit);
 }
@@ -1,7 +1,44 @@
 package edu.yacoubi.crm.repository;
 
 import edu.yacoubi.crm.dto.note.NotePatchDTO;
+import edu.yacoubi.crm.dto.note.NoteSummaryDTO;
+import edu.yacoubi.crm.model.InteractionType;
+import edu.yacoubi.crm.model.Note;
+import edu.yacoubi.crm.util.KeysetCursor;
+
+import java.util.List;
 
 public interface INoteCustomRepository {
-    void partialUpdateNote(Long noteId, NotePatchDTO notePatchDTO);
+    /**
+     * Updates the non-null fields of the patch with a single UPDATE and increments the version.
+     *
+     * @param noteId        the ID of the note
+     * @param notePatchDTO  the fields to update
+     * @param expectedVersion the version the row must have, or null to update any version
+     * @return the number of updated rows, 0 if the note does not exist or has another version
+     */
+    int partialUpdateNote(Long noteId, NotePatchDTO notePatchDTO, Long expectedVersion);
+
+    /**
+     * Loads a keyset page of notes ordered by (date, id), newest first, without OFFSET and COUNT.
+     *
+     * @param customerId optional ID of the customer whose notes are listed
+     * @param after      the position of the last row of the previous page, or null for the first page
+     * @param limit      the maximum number of rows to load
+     * @return the notes following the given position
+     */
+    List<Note> findNotesAfter(Long customerId, KeysetCursor after, int limit);
+
+    /**
+     * Loads a keyset page of the timeline of a customer ordered by (date, id), newest first, as DTOs.
+     *
+     * <p>Selects only the note columns, no entities; served by the index on (customer_id, date, id).</p>
+     *
+     * @param customerId      the ID of the customer whose notes are listed
+     * @param interactionType optional interaction type the notes must have
+     * @param after           the position of the last row of the previous page, or null for the first page
+     * @param limit           the maximum number of rows to load
+     * @return the notes following the given position
+     */
+    List<NoteSummaryDTO> findTimeline(Long customerId, InteractionType interactionType, KeysetCursor after, int limit);
 }
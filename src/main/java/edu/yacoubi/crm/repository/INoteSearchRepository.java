@@ -0,0 +1,39 @@
+package edu.yacoubi.crm.repository;
+
+import edu.yacoubi.crm.dto.note.NoteSearchCriteria;
+import edu.yacoubi.crm.model.Note;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Full-text search over the note content.
+ *
+ * <p>Results are ordered by rank and ID, both descending, and paged with a keyset on
+ * {@code (rank, id)}. The rank is rounded to 6 decimals so that it can be handed to
+ * clients in a cursor and compared exactly.</p>
+ *
+ * @author A. El Yacoubi
+ */
+public interface INoteSearchRepository {
+
+    /**
+     * A matching note with its rank.
+     *
+     * @param note the note
+     * @param rank the rank of the note for the query, higher is better
+     */
+    record RankedNote(Note note, BigDecimal rank) {
+    }
+
+    /**
+     * Searches notes.
+     *
+     * @param criteria  the query and the optional filters
+     * @param afterRank the rank of the last row of the previous page, or null for the first page
+     * @param afterId   the ID of the last row of the previous page, or null for the first page
+     * @param limit     the maximum number of rows to load
+     * @return the matching notes following the given position, best first
+     */
+    List<RankedNote> searchNotes(NoteSearchCriteria criteria, BigDecimal afterRank, Long afterId, int limit);
+}
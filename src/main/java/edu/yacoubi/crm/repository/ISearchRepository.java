@@ -0,0 +1,59 @@
+package edu.yacoubi.crm.repository;
+
+import edu.yacoubi.crm.model.Customer;
+import edu.yacoubi.crm.model.Employee;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Search backend for the customer and employee search boxes.
+ *
+ * <p>Both implementations match the same rows (case-insensitive substring match on the
+ * normalized columns); they only differ in how the database executes and ranks the search.</p>
+ *
+ * @author A. El Yacoubi
+ */
+public interface ISearchRepository {
+
+    /**
+     * Searches customers by first name, last name or email.
+     *
+     * @param term     the normalized (trimmed, lower case) search term
+     * @param pageable the page to load
+     * @return the matching customers, best matches first
+     */
+    Page<Customer> searchCustomers(String term, Pageable pageable);
+
+    /**
+     * Searches employees by first name, last name or department.
+     *
+     * @param term     the normalized (trimmed, lower case) search term
+     * @param pageable the page to load
+     * @return the matching employees, best matches first
+     */
+    Page<Employee> searchEmployees(String term, Pageable pageable);
+
+    /**
+     * Builds a LIKE pattern for a substring match, escaping the LIKE wildcards of the term.
+     *
+     * @param term the normalized search term
+     * @return the pattern, to be used with {@code ESCAPE '\'}
+     */
+    static String containsPattern(final String term) {
+        return "%" + escapeLike(term) + "%";
+    }
+
+    /**
+     * Builds a LIKE pattern for a prefix match, escaping the LIKE wildcards of the term.
+     *
+     * @param term the normalized search term
+     * @return the pattern, to be used with {@code ESCAPE '\'}
+     */
+    static String prefixPattern(final String term) {
+        return escapeLike(term) + "%";
+    }
+
+    private static String escapeLike(final String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -1,12 +1,58 @@
 package edu.yacoubi.crm.repository;
 
+import edu.yacoubi.crm.dto.note.InteractionTypeCountDTO;
+import edu.yacoubi.crm.dto.note.NoteResponseDTO;
+import edu.yacoubi.crm.dto.note.NoteSummaryDTO;
 import edu.yacoubi.crm.model.Note;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface NoteRepository extends JpaRepository<Note, Long> {
     List<Note> findAllByCustomerId(Long customerId);
+
+    /**
+     * Retrieves the notes of a customer as response DTOs, selecting only their columns.
+     *
+     * <p>No notes and no customers are loaded; the customer ID is read from the foreign key column.</p>
+     *
+     * @param customerId the ID of the customer.
+     * @return the note response DTOs, ordered by ID.
+     */
+    @Query("SELECT new edu.yacoubi.crm.dto.note.NoteResponseDTO("
+            + "n.id, n.content, n.date, n.interactionType, n.customer.id) "
+            + "FROM Note n WHERE n.customer.id = :customerId ORDER BY n.id")
+    List<NoteResponseDTO> findResponsesByCustomerId(@Param("customerId") Long customerId);
+
+    @Query("SELECT n.version FROM Note n WHERE n.id = :noteId")
+    Optional<Long> findVersionById(@Param("noteId") Long noteId);
+
+    /**
+     * Counts the notes of a customer per interaction type in the database, without loading the notes.
+     *
+     * @param customerId the ID of the customer.
+     * @return one count per interaction type the customer has notes of.
+     */
+    @Query("SELECT new edu.yacoubi.crm.dto.note.InteractionTypeCountDTO(n.interactionType, COUNT(n)) "
+            + "FROM Note n WHERE n.customer.id = :customerId GROUP BY n.interactionType")
+    List<InteractionTypeCountDTO> countByCustomerIdGroupByInteractionType(@Param("customerId") Long customerId);
+
+    /**
+     * Loads the latest notes of a customer, newest first, without loading the entities.
+     *
+     * <p>Notes of the same day are ordered by descending ID, so the order is stable.</p>
+     *
+     * @param customerId the ID of the customer.
+     * @param limit      the maximum number of notes.
+     * @return the latest notes.
+     */
+    @Query("SELECT new edu.yacoubi.crm.dto.note.NoteSummaryDTO(n.id, n.date, n.interactionType, n.content) "
+            + "FROM Note n WHERE n.customer.id = :customerId ORDER BY n.date DESC, n.id DESC")
+    List<NoteSummaryDTO> findLatestByCustomerId(@Param("customerId") Long customerId, Limit limit);
 }
@@ -0,0 +1,146 @@
+package edu.yacoubi.crm.repository.impl;
+
+import edu.yacoubi.crm.dto.note.NoteSearchCriteria;
+import edu.yacoubi.crm.model.Note;
+import edu.yacoubi.crm.repository.INoteSearchRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Shared part of the note search backends: filters, keyset on {@code (score, id)} and hydration.
+ *
+ * <p>The backends only provide the SQL for matching and scoring a note against the query text.
+ * The ranked IDs are loaded with one native query, the notes with one {@code IN} query.</p>
+ */
+@RequiredArgsConstructor
+@Slf4j
+abstract class AbstractNoteSearchRepository implements INoteSearchRepository {
+    protected final EntityManager entityManager;
+
+    /**
+     * SQL predicate on {@code note n} that is true if the note matches the query text.
+     */
+    protected abstract String matchExpression(String text);
+
+    /**
+     * SQL expression on {@code note n} with the score of the note, rounded to 6 decimals.
+     */
+    protected abstract String scoreExpression(String text);
+
+    /**
+     * Binds the parameters used by {@link #matchExpression} and {@link #scoreExpression}.
+     */
+    protected abstract void bindText(Query query, String text);
+
+    @Override
+    public List<RankedNote> searchNotes(
+            NoteSearchCriteria criteria, BigDecimal afterRank, Long afterId, int limit) {
+        log.info("{}::searchNotes execution start: criteria {}, afterRank {}, afterId {}, limit {}",
+                getClass().getSimpleName(), criteria, afterRank, afterId, limit);
+
+        String text = criteria.getQuery();
+        StringBuilder ranked = new StringBuilder()
+                .append("SELECT n.id AS id, ").append(scoreExpression(text)).append(" AS score")
+                .append(" FROM note n JOIN customer c ON c.id = n.customer_id")
+                .append(" WHERE ").append(matchExpression(text));
+        if (criteria.getInteractionType() != null) {
+            ranked.append(" AND n.interaction_type = :interactionType");
+        }
+        if (criteria.getFrom() != null) {
+            ranked.append(" AND n.date >= :from");
+        }
+        if (criteria.getTo() != null) {
+            ranked.append(" AND n.date <= :to");
+        }
+        if (criteria.getEmployeeId() != null) {
+            ranked.append(" AND c.employee_id = :employeeId");
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT r.id, r.score FROM (").append(ranked).append(") r");
+        if (afterRank != null) {
+            sql.append(" WHERE r.score < :afterRank OR (r.score = :afterRank AND r.id < :afterId)");
+        }
+        sql.append(" ORDER BY r.score DESC, r.id DESC");
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        bindText(query, text);
+        if (criteria.getInteractionType() != null) {
+            query.setParameter("interactionType", criteria.getInteractionType().name());
+        }
+        if (criteria.getFrom() != null) {
+            query.setParameter("from", criteria.getFrom());
+        }
+        if (criteria.getTo() != null) {
+            query.setParameter("to", criteria.getTo());
+        }
+        if (criteria.getEmployeeId() != null) {
+            query.setParameter("employeeId", criteria.getEmployeeId());
+        }
+        if (afterRank != null) {
+            query.setParameter("afterRank", afterRank);
+            query.setParameter("afterId", afterId);
+        }
+        query.setMaxResults(limit);
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+        List<RankedNote> result = hydrate(rows, criteria);
+
+        log.info("{}::searchNotes execution end", getClass().getSimpleName());
+        return result;
+    }
+
+    /**
+     * Loads the ranked notes; the date range of the criteria is repeated so that PostgreSQL only reads
+     * the note partitions of that range instead of looking up the IDs in every partition.
+     */
+    private List<RankedNote> hydrate(List<Object[]> rows, NoteSearchCriteria criteria) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = rows.stream().map(row -> ((Number) row[0]).longValue()).toList();
+        StringBuilder jpql = new StringBuilder("SELECT n FROM Note n WHERE n.id IN :ids");
+        if (criteria.getFrom() != null) {
+            jpql.append(" AND n.date >= :from");
+        }
+        if (criteria.getTo() != null) {
+            jpql.append(" AND n.date <= :to");
+        }
+
+        TypedQuery<Note> query = entityManager.createQuery(jpql.toString(), Note.class)
+                .setParameter("ids", ids);
+        if (criteria.getFrom() != null) {
+            query.setParameter("from", criteria.getFrom());
+        }
+        if (criteria.getTo() != null) {
+            query.setParameter("to", criteria.getTo());
+        }
+        Map<Long, Note> notesById = query
+                .getResultStream()
+                .collect(Collectors.toMap(Note::getId, Function.identity()));
+
+        List<RankedNote> result = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Note note = notesById.get(((Number) row[0]).longValue());
+            if (note != null) {
+                result.add(new RankedNote(note, toScore(row[1])));
+            }
+        }
+        return result;
+    }
+
+    private static BigDecimal toScore(Object value) {
+        BigDecimal score = value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+        return score.stripTrailingZeros();
+    }
+}
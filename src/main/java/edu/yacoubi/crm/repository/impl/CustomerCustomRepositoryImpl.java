@@ -3,26 +3,34 @@ package edu.yacoubi.crm.repository.impl;
 import edu.yacoubi.crm.dto.customer.CustomerPatchDTO;
 import edu.yacoubi.crm.model.Customer;
 import edu.yacoubi.crm.repository.ICustomerCustomRepository;
+import edu.yacoubi.crm.service.search.CustomerNgramIndex;
+import edu.yacoubi.crm.util.KeysetCursor;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Repository
 @RequiredArgsConstructor
 @Slf4j
 public class CustomerCustomRepositoryImpl implements ICustomerCustomRepository {
     private final EntityManager entityManager;
+    private final CustomerNgramIndex customerNgramIndex;
     //private final EntityValidator entityValidator;
 
     @Override
     @Transactional
-    public void partialUpdateCustomer(Long customerId, CustomerPatchDTO customerPatchDTO) {
-        log.info("CustomerCustomRepositoryImpl::partialUpdateCustomer execution start: customerId {}, customerPatchDTO {}", customerId, customerPatchDTO);
+    public int partialUpdateCustomer(Long customerId, CustomerPatchDTO customerPatchDTO, Long expectedVersion) {
+        log.info("CustomerCustomRepositoryImpl::partialUpdateCustomer execution start: customerId {}, customerPatchDTO {}, expectedVersion {}", customerId, customerPatchDTO, expectedVersion);
 
         // wird im service validiert
         // entityValidator.validateCustomerExists(customerId);
@@ -44,9 +52,60 @@ public class CustomerCustomRepositoryImpl implements ICustomerCustomRepository {
             update.set(root.get("address"), customerPatchDTO.getAddress());
         }
 
-        update.where(cb.equal(root.get("id"), customerId));
+        // Bulk-Update am Persistence Context vorbei, die Version wird daher explizit erhöht
+        update.set(root.<Long>get("version"), cb.sum(root.<Long>get("version"), 1L));
+        if (expectedVersion == null) {
+            update.where(cb.equal(root.get("id"), customerId));
+        } else {
+            // If-Match: nur die erwartete Version aktualisieren, sonst 0 Zeilen
+            update.where(cb.equal(root.get("id"), customerId), cb.equal(root.get("version"), expectedVersion));
+        }
 
-        entityManager.createQuery(update).executeUpdate();
+        int updatedRows = entityManager.createQuery(update).executeUpdate();
+        if (updatedRows > 0) {
+            // bypasses the persistence context, so the search index is updated explicitly
+            customerNgramIndex.applyPatch(customerId, customerPatchDTO);
+        }
         log.info("CustomerCustomRepositoryImpl::partialUpdateCustomer execution end");
+        return updatedRows;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Customer> findCustomersAfter(String search, KeysetCursor after, int limit) {
+        log.info("CustomerCustomRepositoryImpl::findCustomersAfter execution start: search {}, after {}, limit {}", search, after, limit);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Customer> query = cb.createQuery(Customer.class);
+        Root<Customer> root = query.from(Customer.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (search != null && !search.isEmpty()) {
+            String pattern = "%" + search.toLowerCase() + "%";
+            predicates.add(cb.or(
+                    cb.like(cb.lower(root.get("firstName")), pattern),
+                    cb.like(cb.lower(root.get("email")), pattern)
+            ));
+        }
+        if (after != null) {
+            // (lastName, id) > (:lastName, :id)
+            predicates.add(cb.or(
+                    cb.greaterThan(root.get("lastName"), after.sortKey()),
+                    cb.and(
+                            cb.equal(root.get("lastName"), after.sortKey()),
+                            cb.greaterThan(root.get("id"), after.id())
+                    )
+            ));
+        }
+
+        query.select(root)
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.asc(root.get("lastName")), cb.asc(root.get("id")));
+
+        List<Customer> customers = entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+        log.info("CustomerCustomRepositoryImpl::findCustomersAfter execution end");
+        return customers;
     }
 }
@@ -3,14 +3,20 @@ package edu.yacoubi.crm.repository.impl;
 import edu.yacoubi.crm.dto.employee.EmployeePatchDTO;
 import edu.yacoubi.crm.model.Employee;
 import edu.yacoubi.crm.repository.IEmployeeCustomRepository;
+import edu.yacoubi.crm.util.KeysetCursor;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Repository
 @RequiredArgsConstructor
 @Slf4j
@@ -18,8 +24,8 @@ public class EmployeeCustomRepositoryImpl implements IEmployeeCustomRepository {
     private final EntityManager entityManager;
 
     @Override
-    public void partialUpdateEmployee(Long employeeId, EmployeePatchDTO employeePatchDTO) {
-        log.info("EmployeeCustomRepositoryImpl::partialUpdateEmployee execution start: employeeId {}, employeePatchDTO {}", employeeId, employeePatchDTO);
+    public int partialUpdateEmployee(Long employeeId, EmployeePatchDTO employeePatchDTO, Long expectedVersion) {
+        log.info("EmployeeCustomRepositoryImpl::partialUpdateEmployee execution start: employeeId {}, employeePatchDTO {}, expectedVersion {}", employeeId, employeePatchDTO, expectedVersion);
 
         //entityValidator.validateEmployeeExists(employeeId);
 
@@ -39,10 +45,59 @@ public class EmployeeCustomRepositoryImpl implements IEmployeeCustomRepository {
         if (employeePatchDTO.getDepartment() != null) {
             update.set(root.get("department"), employeePatchDTO.getDepartment());
         }
-        update.where(cb.equal(root.get("id"), employeeId));
+        // Bulk-Update am Persistence Context vorbei, die Version wird daher explizit erhöht
+        update.set(root.<Long>get("version"), cb.sum(root.<Long>get("version"), 1L));
+        if (expectedVersion == null) {
+            update.where(cb.equal(root.get("id"), employeeId));
+        } else {
+            // If-Match: nur die erwartete Version aktualisieren, sonst 0 Zeilen
+            update.where(cb.equal(root.get("id"), employeeId), cb.equal(root.get("version"), expectedVersion));
+        }
 
-        entityManager.createQuery(update).executeUpdate();
+        // Bulk-Update am Second-Level-Cache vorbei: Hibernate entfernt dabei die Employee-Region und markiert
+        // die Tabelle in default-update-timestamps-region als geändert, wodurch gecachte Queries wie
+        // findAllDepartments veralten. Die Invalidierung erfolgt erst nach dem Commit (READ_WRITE).
+        int updatedRows = entityManager.createQuery(update).executeUpdate();
 
         log.info("EmployeeCustomRepositoryImpl::partialUpdateEmployee execution end");
+        return updatedRows;
+    }
+
+    @Override
+    public List<Employee> findEmployeesAfter(String search, KeysetCursor after, int limit) {
+        log.info("EmployeeCustomRepositoryImpl::findEmployeesAfter execution start: search {}, after {}, limit {}", search, after, limit);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Employee> query = cb.createQuery(Employee.class);
+        Root<Employee> root = query.from(Employee.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (search != null && !search.isEmpty()) {
+            String pattern = "%" + search.toLowerCase() + "%";
+            predicates.add(cb.or(
+                    cb.like(cb.lower(root.get("firstName")), pattern),
+                    cb.like(cb.lower(root.get("department")), pattern)
+            ));
+        }
+        if (after != null) {
+            // (lastName, id) > (:lastName, :id)
+            predicates.add(cb.or(
+                    cb.greaterThan(root.get("lastName"), after.sortKey()),
+                    cb.and(
+                            cb.equal(root.get("lastName"), after.sortKey()),
+                            cb.greaterThan(root.get("id"), after.id())
+                    )
+            ));
+        }
+
+        query.select(root)
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.asc(root.get("lastName")), cb.asc(root.get("id")));
+
+        List<Employee> employees = entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+        log.info("EmployeeCustomRepositoryImpl::findEmployeesAfter execution end");
+        return employees;
     }
 }
@@ -0,0 +1,41 @@
+package edu.yacoubi.crm.repository.impl;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+/**
+ * PostgreSQL note search on the generated {@code note.search_vector} tsvector column.
+ *
+ * <p>The query text is parsed with {@code websearch_to_tsquery} (words, "quoted phrases",
+ * {@code or}, {@code -excluded}); matching uses the GIN index from {@code search-postgresql.sql}
+ * and the score is {@code ts_rank}. The {@code simple} configuration is used because the notes
+ * are written in several languages.</p>
+ *
+ * @author A. El Yacoubi
+ */
+@Repository
+@Profile("prod")
+public class FullTextNoteSearchRepositoryImpl extends AbstractNoteSearchRepository {
+    private static final String TS_QUERY = "websearch_to_tsquery('simple', :query)";
+
+    public FullTextNoteSearchRepositoryImpl(EntityManager entityManager) {
+        super(entityManager);
+    }
+
+    @Override
+    protected String matchExpression(String text) {
+        return "n.search_vector @@ " + TS_QUERY;
+    }
+
+    @Override
+    protected String scoreExpression(String text) {
+        return "round(CAST(ts_rank(n.search_vector, " + TS_QUERY + ") AS numeric), 6)";
+    }
+
+    @Override
+    protected void bindText(Query query, String text) {
+        query.setParameter("query", text);
+    }
+}
@@ -0,0 +1,75 @@
+package edu.yacoubi.crm.repository.impl;
+
+import edu.yacoubi.crm.repository.ISearchRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Portable note search for databases without full-text support (H2 in the test profile).
+ *
+ * <p>Like {@link FullTextNoteSearchRepositoryImpl} with plain words, a note matches if it contains
+ * all words of the query (case-insensitive). The score is the number of occurrences of the words.
+ * Search operators of {@code websearch_to_tsquery} are not supported; their characters only
+ * separate words.</p>
+ *
+ * @author A. El Yacoubi
+ */
+@Repository
+@Profile("!prod")
+public class LikeNoteSearchRepositoryImpl extends AbstractNoteSearchRepository {
+
+    public LikeNoteSearchRepositoryImpl(EntityManager entityManager) {
+        super(entityManager);
+    }
+
+    @Override
+    protected String matchExpression(String text) {
+        List<String> words = words(text);
+        if (words.isEmpty()) {
+            return "1 = 0";
+        }
+        StringBuilder match = new StringBuilder();
+        for (int i = 0; i < words.size(); i++) {
+            match.append(i == 0 ? "" : " AND ").append("LOWER(n.content) LIKE :pattern").append(i).append(" ESCAPE '\\'");
+        }
+        return match.toString();
+    }
+
+    @Override
+    protected String scoreExpression(String text) {
+        List<String> words = words(text);
+        if (words.isEmpty()) {
+            return "CAST(0 AS DECIMAL(12, 6))";
+        }
+        // occurrences of a word: removed characters / word length
+        StringBuilder score = new StringBuilder("CAST(");
+        for (int i = 0; i < words.size(); i++) {
+            score.append(i == 0 ? "" : " + ")
+                    .append("(LENGTH(n.content) - LENGTH(REPLACE(LOWER(n.content), :word").append(i).append(", '')))")
+                    .append(" / ").append(words.get(i).length());
+        }
+        return score.append(" AS DECIMAL(12, 6))").toString();
+    }
+
+    @Override
+    protected void bindText(Query query, String text) {
+        List<String> words = words(text);
+        for (int i = 0; i < words.size(); i++) {
+            query.setParameter("pattern" + i, ISearchRepository.containsPattern(words.get(i)));
+            query.setParameter("word" + i, words.get(i));
+        }
+    }
+
+    private static List<String> words(String text) {
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .distinct()
+                .toList();
+    }
+}
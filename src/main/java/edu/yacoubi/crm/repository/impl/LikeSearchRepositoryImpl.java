@@ -0,0 +1,103 @@
+package edu.yacoubi.crm.repository.impl;
+
+import edu.yacoubi.crm.model.Customer;
+import edu.yacoubi.crm.model.Employee;
+import edu.yacoubi.crm.repository.ISearchRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Portable search backend for databases without pg_trgm (H2 in the test profile).
+ *
+ * <p>Matches the same rows as {@link TrigramSearchRepositoryImpl}. As there is no trigram
+ * similarity, results are ranked by exact match, then prefix match, then by ID.</p>
+ *
+ * @author A. El Yacoubi
+ */
+@Repository
+@Profile("!prod")
+@RequiredArgsConstructor
+@Slf4j
+public class LikeSearchRepositoryImpl implements ISearchRepository {
+    private static final String CUSTOMER_MATCH = """
+            FROM Customer c
+            WHERE LOWER(c.firstName) LIKE :pattern ESCAPE '\\'
+               OR LOWER(c.lastName) LIKE :pattern ESCAPE '\\'
+               OR LOWER(c.email) LIKE :pattern ESCAPE '\\'
+            """;
+
+    private static final String EMPLOYEE_MATCH = """
+            FROM Employee e
+            WHERE LOWER(e.firstName) LIKE :pattern ESCAPE '\\'
+               OR LOWER(e.lastName) LIKE :pattern ESCAPE '\\'
+               OR LOWER(e.department) LIKE :pattern ESCAPE '\\'
+            """;
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Page<Customer> searchCustomers(String term, Pageable pageable) {
+        log.info("LikeSearchRepositoryImpl::searchCustomers execution start: term {}, pageable {}", term, pageable);
+
+        TypedQuery<Customer> query = entityManager.createQuery("SELECT c " + CUSTOMER_MATCH + """
+                ORDER BY CASE
+                    WHEN LOWER(c.firstName) = :term OR LOWER(c.lastName) = :term OR LOWER(c.email) = :term THEN 0
+                    WHEN LOWER(c.firstName) LIKE :prefix ESCAPE '\\'
+                      OR LOWER(c.lastName) LIKE :prefix ESCAPE '\\'
+                      OR LOWER(c.email) LIKE :prefix ESCAPE '\\' THEN 1
+                    ELSE 2 END, c.id
+                """, Customer.class);
+        List<Customer> customers = page(query, term, pageable).getResultList();
+        long total = count("SELECT COUNT(c) " + CUSTOMER_MATCH, term, pageable, customers.size());
+
+        log.info("LikeSearchRepositoryImpl::searchCustomers execution end");
+        return new PageImpl<>(customers, pageable, total);
+    }
+
+    @Override
+    public Page<Employee> searchEmployees(String term, Pageable pageable) {
+        log.info("LikeSearchRepositoryImpl::searchEmployees execution start: term {}, pageable {}", term, pageable);
+
+        TypedQuery<Employee> query = entityManager.createQuery("SELECT e " + EMPLOYEE_MATCH + """
+                ORDER BY CASE
+                    WHEN LOWER(e.firstName) = :term OR LOWER(e.lastName) = :term OR LOWER(e.department) = :term THEN 0
+                    WHEN LOWER(e.firstName) LIKE :prefix ESCAPE '\\'
+                      OR LOWER(e.lastName) LIKE :prefix ESCAPE '\\'
+                      OR LOWER(e.department) LIKE :prefix ESCAPE '\\' THEN 1
+                    ELSE 2 END, e.id
+                """, Employee.class);
+        List<Employee> employees = page(query, term, pageable).getResultList();
+        long total = count("SELECT COUNT(e) " + EMPLOYEE_MATCH, term, pageable, employees.size());
+
+        log.info("LikeSearchRepositoryImpl::searchEmployees execution end");
+        return new PageImpl<>(employees, pageable, total);
+    }
+
+    private <T> TypedQuery<T> page(TypedQuery<T> query, String term, Pageable pageable) {
+        return query
+                .setParameter("term", term)
+                .setParameter("pattern", ISearchRepository.containsPattern(term))
+                .setParameter("prefix", ISearchRepository.prefixPattern(term))
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize());
+    }
+
+    private long count(String jpql, String term, Pageable pageable, int pageContentSize) {
+        // Erste, nicht volle Seite: die Gesamtzahl ist bekannt, keine COUNT-Abfrage nötig
+        if (pageable.getOffset() == 0 && pageContentSize < pageable.getPageSize()) {
+            return pageContentSize;
+        }
+        return entityManager.createQuery(jpql, Long.class)
+                .setParameter("pattern", ISearchRepository.containsPattern(term))
+                .getSingleResult();
+    }
+}
@@ -1,17 +1,26 @@
 package edu.yacoubi.crm.repository.impl;
 
 import edu.yacoubi.crm.dto.note.NotePatchDTO;
+import edu.yacoubi.crm.dto.note.NoteSummaryDTO;
+import edu.yacoubi.crm.model.InteractionType;
 import edu.yacoubi.crm.model.Note;
 import edu.yacoubi.crm.repository.INoteCustomRepository;
+import edu.yacoubi.crm.util.KeysetCursor;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
 @Repository
 @RequiredArgsConstructor
 @Slf4j
@@ -22,8 +31,8 @@ public class NoteCustomRepositoryImpl implements INoteCustomRepository {
 
     @Override
     @Transactional
-    public void partialUpdateNote(Long noteId, NotePatchDTO notePatchDTO) {
-        log.info("NoteCustomRepositoryImpl::partialUpdateNote execution start: noteId {}, notePatchDTO {}", noteId, notePatchDTO);
+    public int partialUpdateNote(Long noteId, NotePatchDTO notePatchDTO, Long expectedVersion) {
+        log.info("NoteCustomRepositoryImpl::partialUpdateNote execution start: noteId {}, notePatchDTO {}, expectedVersion {}", noteId, notePatchDTO, expectedVersion);
 
         // wird im service validiert
         //entityValidator.validateNoteExists(noteId);
@@ -42,9 +51,96 @@ public class NoteCustomRepositoryImpl implements INoteCustomRepository {
             update.set(root.get("interactionType"), notePatchDTO.getInteractionType());
         }
 
-        update.where(cb.equal(root.get("id"), noteId));
+        // Bulk-Update am Persistence Context vorbei, die Version wird daher explizit erhöht
+        update.set(root.<Long>get("version"), cb.sum(root.<Long>get("version"), 1L));
+        if (expectedVersion == null) {
+            update.where(cb.equal(root.get("id"), noteId));
+        } else {
+            // If-Match: nur die erwartete Version aktualisieren, sonst 0 Zeilen
+            update.where(cb.equal(root.get("id"), noteId), cb.equal(root.get("version"), expectedVersion));
+        }
 
-        entityManager.createQuery(update).executeUpdate();
+        int updatedRows = entityManager.createQuery(update).executeUpdate();
         log.info("NoteCustomRepositoryImpl::partialUpdateNote execution end");
+        return updatedRows;
+    }
+
+    @Override
+    public List<Note> findNotesAfter(Long customerId, KeysetCursor after, int limit) {
+        log.info("NoteCustomRepositoryImpl::findNotesAfter execution start: customerId {}, after {}, limit {}", customerId, after, limit);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Note> query = cb.createQuery(Note.class);
+        Root<Note> root = query.from(Note.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (customerId != null) {
+            predicates.add(cb.equal(root.get("customer").get("id"), customerId));
+        }
+        if (after != null) {
+            // absteigend: (date, id) < (:date, :id)
+            LocalDate date = after.sortKeyAsDate();
+            predicates.add(cb.or(
+                    cb.lessThan(root.get("date"), date),
+                    cb.and(
+                            cb.equal(root.get("date"), date),
+                            cb.lessThan(root.get("id"), after.id())
+                    )
+            ));
+        }
+
+        query.select(root)
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.desc(root.get("date")), cb.desc(root.get("id")));
+
+        List<Note> notes = entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+        log.info("NoteCustomRepositoryImpl::findNotesAfter execution end");
+        return notes;
+    }
+
+    @Override
+    public List<NoteSummaryDTO> findTimeline(Long customerId, InteractionType interactionType, KeysetCursor after, int limit) {
+        log.info("NoteCustomRepositoryImpl::findTimeline execution start: customerId {}, interactionType {}, after {}, limit {}",
+                customerId, interactionType, after, limit);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<NoteSummaryDTO> query = cb.createQuery(NoteSummaryDTO.class);
+        Root<Note> root = query.from(Note.class);
+
+        // customer.id liest die Fremdschlüsselspalte, ohne Join auf customer
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(root.get("customer").get("id"), customerId));
+        if (interactionType != null) {
+            predicates.add(cb.equal(root.get("interactionType"), interactionType));
+        }
+        if (after != null) {
+            // absteigend: (date, id) < (:date, :id)
+            LocalDate date = after.sortKeyAsDate();
+            predicates.add(cb.or(
+                    cb.lessThan(root.get("date"), date),
+                    cb.and(
+                            cb.equal(root.get("date"), date),
+                            cb.lessThan(root.get("id"), after.id())
+                    )
+            ));
+        }
+
+        query.select(cb.construct(
+                        NoteSummaryDTO.class,
+                        root.get("id"),
+                        root.get("date"),
+                        root.get("interactionType"),
+                        root.get("content")
+                ))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.desc(root.get("date")), cb.desc(root.get("id")));
+
+        List<NoteSummaryDTO> notes = entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+        log.info("NoteCustomRepositoryImpl::findTimeline execution end");
+        return notes;
     }
 }
@@ -0,0 +1,101 @@
+package edu.yacoubi.crm.repository.impl;
+
+import edu.yacoubi.crm.model.Customer;
+import edu.yacoubi.crm.model.Employee;
+import edu.yacoubi.crm.repository.ISearchRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * PostgreSQL search backend based on the pg_trgm extension.
+ *
+ * <p>The substring match {@code lower(col) LIKE '%term%'} is served by the GIN trigram
+ * indexes from {@code search-postgresql.sql} instead of a full table scan. Results are
+ * ranked by the best trigram similarity of the searched columns.</p>
+ *
+ * @author A. El Yacoubi
+ */
+@Repository
+@Profile("prod")
+@RequiredArgsConstructor
+@Slf4j
+public class TrigramSearchRepositoryImpl implements ISearchRepository {
+    private static final String CUSTOMER_MATCH = """
+            FROM customer c
+            WHERE lower(c.first_name) LIKE :pattern ESCAPE '\\'
+               OR lower(c.last_name) LIKE :pattern ESCAPE '\\'
+               OR lower(c.email) LIKE :pattern ESCAPE '\\'
+            """;
+
+    private static final String EMPLOYEE_MATCH = """
+            FROM employee e
+            WHERE lower(e.first_name) LIKE :pattern ESCAPE '\\'
+               OR lower(e.last_name) LIKE :pattern ESCAPE '\\'
+               OR lower(e.department) LIKE :pattern ESCAPE '\\'
+            """;
+
+    private final EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Page<Customer> searchCustomers(String term, Pageable pageable) {
+        log.info("TrigramSearchRepositoryImpl::searchCustomers execution start: term {}, pageable {}", term, pageable);
+
+        Query query = entityManager.createNativeQuery("SELECT c.* " + CUSTOMER_MATCH + """
+                ORDER BY greatest(
+                    similarity(lower(c.first_name), :term),
+                    similarity(lower(c.last_name), :term),
+                    similarity(lower(c.email), :term)) DESC, c.id
+                """, Customer.class);
+        List<Customer> customers = page(query, term, pageable).getResultList();
+        long total = count("SELECT count(*) " + CUSTOMER_MATCH, term, pageable, customers.size());
+
+        log.info("TrigramSearchRepositoryImpl::searchCustomers execution end");
+        return new PageImpl<>(customers, pageable, total);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Page<Employee> searchEmployees(String term, Pageable pageable) {
+        log.info("TrigramSearchRepositoryImpl::searchEmployees execution start: term {}, pageable {}", term, pageable);
+
+        Query query = entityManager.createNativeQuery("SELECT e.* " + EMPLOYEE_MATCH + """
+                ORDER BY greatest(
+                    similarity(lower(e.first_name), :term),
+                    similarity(lower(e.last_name), :term),
+                    similarity(lower(e.department), :term)) DESC, e.id
+                """, Employee.class);
+        List<Employee> employees = page(query, term, pageable).getResultList();
+        long total = count("SELECT count(*) " + EMPLOYEE_MATCH, term, pageable, employees.size());
+
+        log.info("TrigramSearchRepositoryImpl::searchEmployees execution end");
+        return new PageImpl<>(employees, pageable, total);
+    }
+
+    private Query page(Query query, String term, Pageable pageable) {
+        return query
+                .setParameter("term", term)
+                .setParameter("pattern", ISearchRepository.containsPattern(term))
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize());
+    }
+
+    private long count(String sql, String term, Pageable pageable, int pageContentSize) {
+        // Erste, nicht volle Seite: die Gesamtzahl ist bekannt, keine COUNT-Abfrage nötig
+        if (pageable.getOffset() == 0 && pageContentSize < pageable.getPageSize()) {
+            return pageContentSize;
+        }
+        return ((Number) entityManager.createNativeQuery(sql)
+                .setParameter("pattern", ISearchRepository.containsPattern(term))
+                .getSingleResult()).longValue();
+    }
+}
@@ -7,15 +7,48 @@ import edu.yacoubi.crm.model.Note;
 import edu.yacoubi.crm.service.ICustomerService;
 import edu.yacoubi.crm.service.IEmployeeService;
 import edu.yacoubi.crm.service.INoteOrchestratorService;
-import edu.yacoubi.crm.service.INoteService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDate;
-
-// @Component
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load generator over the CRM workflows (see {@link LoadScenario}).
+ *
+ * <p>Seeds employees and customers through the services, then runs {@code crm.load.workers} concurrent
+ * workers. Each worker draws scenarios from the weighted {@code crm.load.mix} until {@code crm.load.duration}
+ * has passed or, if {@code crm.load.operations} is set, until that many operations have been executed.
+ * Latencies are recorded per scenario in HDR histograms; the throughput and percentile report is logged
+ * and, if {@code crm.load.report-dir} is set, exported as CSV and {@code .hgrm} files.</p>
+ *
+ * <p>Runs against the embedded H2 database with the {@code loadtest} profile:</p>
+ * <pre>{@code
+ * mvn spring-boot:run -Dspring-boot.run.profiles=loadtest \
+ *     -Dspring-boot.run.arguments="--crm.load.workers=8 --crm.load.duration=2m --crm.load.report-dir=target/load"
+ * }</pre>
+ *
+ * @author A. El Yacoubi
+ */
+@Component
+@ConditionalOnProperty(name = "crm.load.enabled", havingValue = "true")
 @RequiredArgsConstructor
+@Slf4j
 public class CRMScenarioRunner implements CommandLineRunner {
 
     private final IEmployeeService employeeService;
@@ -24,182 +57,197 @@ public class CRMScenarioRunner implements CommandLineRunner {
 
     private final INoteOrchestratorService noteOrchestratorService;
 
-    private final INoteService noteService;
-
-    @Override
-    public void run(String... args) throws Exception {
-        setupEmployeesAndCustomers();
-        scenarioLoginAndInteraction();
-        scenarioCreateCustomerAndAssignEmployee();
-        scenarioUpdateCustomerDetails();
-        //scenarioAddNoteToExistingCustomer();
-        scenarioAddNoteToExistingCustomerFirstApproach();
-    }
+    @Value("${crm.load.workers:4}")
+    private int workers;
 
-    private void setupEmployeesAndCustomers() {
-        // Beispiel: Mitarbeiter hinzufügen
-        Employee employeeA = Employee.builder()
-                .firstName("EFirstname A")
-                .lastName("ELastname A")
-                .email("a.employeeA@gmail.com")
-                .department("Sales")
-                .build();
-        Employee savedEmployeeA = employeeService.createEmployee(employeeA);
-
-        // Beispiel: Kunde A hinzufügen
-        Customer customer = Customer.builder()
-                .firstName("EFirstname A")
-                .lastName("ELastname A")
-                .email("c.customerA@gmail.com")
-                .phone("1234567890")
-                .address("123 Main St")
-                .lastInteractionDate(LocalDate.now())
-                .employee(savedEmployeeA)
-                .build();
-        customerService.createCustomer(customer);
-
-        // Beispiel: Kunde B hinzufügen
-        Customer customerB = Customer.builder()
-                .firstName("EFirstname B")
-                .lastName("ELastname B")
-                .email("c.customerB@gmail.com")
-                .phone("9876543210")
-                .address("456 Oak St")
-                .lastInteractionDate(LocalDate.now())
-                .employee(savedEmployeeA)
-                .build();
-        customerService.createCustomer(customerB);
-    }
+    @Value("${crm.load.duration:60s}")
+    private Duration duration;
 
-    private void scenarioLoginAndInteraction() {
-        // Kunden anmelden
-        Customer customer = customerService
-                .getCustomerByEmail("c.customerA@gmail.com")
-                .orElseThrow(() -> new RuntimeException("Kunde nicht gefunden"));
+    @Value("${crm.load.operations:0}")
+    private long operations;
 
-        // Interaktionstyp auswählen
-        InteractionType interactionType = InteractionType.MEETING;
+    @Value("${crm.load.mix:log-interaction=6,update-customer=2,add-note-and-load=1,create-customer=1}")
+    private String mix;
 
-        // Notiz erstellen und speichern
-        Note note = Note.builder()
-                .interactionType(interactionType)
-                .content("Details zur Interaktion")
-                .date(LocalDate.now()).build();
+    @Value("${crm.load.employees:10}")
+    private int employeeCount;
 
-        noteOrchestratorService.createNoteForCustomer(note, customer.getId());
+    @Value("${crm.load.customers:200}")
+    private int customerCount;
 
-        System.out.println("Interaktion erfolgreich gespeichert.");
-    }
+    @Value("${crm.load.report-dir:}")
+    private String reportDir;
 
-    // Szenario zur Erstellung eines neuen Kunden und Zuweisung eines Mitarbeiters.
-    private void scenarioCreateCustomerAndAssignEmployee() {
-        Employee employee = employeeService
-                .getEmployeeByEmail("employeeB@example.com")
-                .orElseGet(() -> employeeService.createEmployee(
-                        Employee.builder()
-                                .firstName("BFirstname")
-                                .lastName("BLastname")
-                                .email("employeeB@example.com")
-                                .department("Support")
-                                .build())
-                );
-
-        Customer newCustomer = Customer.builder()
-                .firstName("CFIrstname")
-                .lastName("CLastname")
-                .email("new.customer@example.com")
-                .phone("1231231230")
-                .address("789 Elm St")
-                .lastInteractionDate(LocalDate.now())
-                .employee(employee)
-                .build();
+    // Präfix für eindeutige E-Mail-Adressen, auch bei mehreren Läufen gegen dieselbe Datenbank
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong customerSequence = new AtomicLong();
 
-        customerService.createCustomer(newCustomer);
+    private List<Employee> employees;
+    private List<String> customerEmails;
 
-        System.out.println("Neuer Kunde erfolgreich erstellt und Mitarbeiter zugewiesen.");
+    @Override
+    public void run(String... args) throws Exception {
+        final LatencyReport report = runLoad();
+
+        if (log.isInfoEnabled()) {
+            log.info("::run completed with: {} operations\n{}", report.totalOperations(), report.toTable());
+        }
+        if (!reportDir.isBlank()) {
+            report.writeTo(Path.of(reportDir));
+            if (log.isInfoEnabled()) {
+                log.info("::run report written to {}", Path.of(reportDir).toAbsolutePath());
+            }
+        }
     }
 
-    // Szenario zur Aktualisierung von Kundendaten
-    private void scenarioUpdateCustomerDetails() {
-        // Kunden finden
-        Customer customer = customerService.getCustomerByEmail("c.customerB@gmail.com")
-                .orElseThrow(() -> new RuntimeException("Kunde nicht gefunden"));
+    /**
+     * Seeds the data and runs the workers.
+     *
+     * @return the latency report of the run
+     * @throws IllegalArgumentException if the configuration is invalid
+     * @throws InterruptedException     if the calling thread is interrupted while waiting for the workers
+     * @throws ExecutionException       if a worker fails unexpectedly
+     */
+    public LatencyReport runLoad() throws InterruptedException, ExecutionException {
+        final ScenarioMix scenarioMix = ScenarioMix.parse(mix);
+        if (workers < 1 || employeeCount < 1 || customerCount < 1) {
+            throw new IllegalArgumentException("Workers, employees and customers must be positive");
+        }
+        if (log.isInfoEnabled()) {
+            log.info("::runLoad started with: workers {}, duration {}, operations {}, mix {}",
+                    workers, duration, operations, scenarioMix);
+        }
 
-        // Kundendaten aktualisieren
-        customer.setPhone("5556667777");
-        customer.setAddress("Updated Address");
+        setupEmployeesAndCustomers();
 
-        customerService.updateCustomer(customer.getId(), customer);
+        final LatencyReport report = new LatencyReport();
+        final AtomicLong remaining = new AtomicLong(operations);
+        final long start = System.nanoTime();
+        final long deadline = start + duration.toNanos();
+
+        final List<Callable<Void>> tasks = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            tasks.add(() -> {
+                final ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (operations > 0 ? remaining.getAndDecrement() > 0 : System.nanoTime() < deadline) {
+                    final LoadScenario scenario = scenarioMix.next(random);
+                    final long operationStart = System.nanoTime();
+                    boolean success = true;
+                    try {
+                        execute(scenario, random);
+                    } catch (RuntimeException exception) {
+                        success = false;
+                        log.warn("::runLoad scenario {} failed: {}", scenario.getKey(), exception.getMessage());
+                    }
+                    report.record(scenario, System.nanoTime() - operationStart, success);
+                }
+                return null;
+            });
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        report.finish(System.nanoTime() - start);
+
+        if (log.isInfoEnabled()) {
+            log.info("::runLoad completed successfully");
+        }
+        return report;
+    }
 
-        System.out.println("Kundendaten erfolgreich aktualisiert.");
+    private void execute(final LoadScenario scenario, final ThreadLocalRandom random) {
+        switch (scenario) {
+            case LOG_INTERACTION -> scenarioLogInteraction(random);
+            case CREATE_CUSTOMER -> scenarioCreateCustomerAndAssignEmployee(random);
+            case UPDATE_CUSTOMER -> scenarioUpdateCustomerDetails(random);
+            case ADD_NOTE_AND_LOAD -> scenarioAddNoteToExistingCustomer(random);
+        }
     }
 
-    // Szenario zum Hinzufügen einer Notiz zu einem bestehenden Kunden
-    private void scenarioAddNoteToExistingCustomer() {
-        // Kunden finden
-        Customer customer = customerService.getCustomerByEmail("c.customerB@gmail.com")
-                .orElseThrow(() -> new RuntimeException("Kunde nicht gefunden"));
+    private void setupEmployeesAndCustomers() {
+        employees = new ArrayList<>(employeeCount);
+        for (int i = 0; i < employeeCount; i++) {
+            employees.add(employeeService.createEmployee(Employee.builder()
+                    .firstName("EFirstname " + i)
+                    .lastName("ELastname " + i)
+                    .email("load-" + runId + ".employee" + i + "@example.com")
+                    .department(i % 2 == 0 ? "Sales" : "Support")
+                    .build()));
+        }
+
+        final List<String> emails = new ArrayList<>(customerCount);
+        for (int i = 0; i < customerCount; i++) {
+            emails.add(customerService.createCustomer(newCustomer(employees.get(i % employeeCount))).getEmail());
+        }
+        customerEmails = List.copyOf(emails);
+    }
 
-        // Neue Notiz erstellen
-        Note newNote = Note.builder()
-                .interactionType(InteractionType.EMAIL)
-                .content("Follow-up Email sent")
+    // Kunden anhand der E-Mail finden und eine Interaktion als Notiz speichern
+    private void scenarioLogInteraction(final ThreadLocalRandom random) {
+        final Customer customer = findCustomer(random);
+
+        final Note note = Note.builder()
+                .interactionType(InteractionType.MEETING)
+                .content("Details zur Interaktion")
                 .date(LocalDate.now())
                 .build();
 
-        noteOrchestratorService.createNoteForCustomer(newNote, customer.getId());
-
-        Customer customerF = customerService
-                .getCustomerByEmail("c.customerB@gmail.com")
-                .orElseThrow(() -> new RuntimeException("Kunde nicht gef"));
-
-        // Lazy loading problem
-        //System.out.println(customerF.getNotes());
+        noteOrchestratorService.createNoteForCustomer(note, customer.getId());
+    }
 
-        System.out.println("Neue Notiz erfolgreich hinzugefügt.");
+    // Neuen Kunden erstellen und einem Mitarbeiter zuweisen
+    private void scenarioCreateCustomerAndAssignEmployee(final ThreadLocalRandom random) {
+        customerService.createCustomer(newCustomer(employees.get(random.nextInt(employees.size()))));
     }
 
-    // Lazy loading umzugehen, first approach
-    // Erster Ansatz: JPQL mit @Transactional
-    private void scenarioAddNoteToExistingCustomerFirstApproach() {
-        // Kunden finden
-        Customer customer = customerService.getCustomerByEmail("c.customerB@gmail.com")
-                .orElseThrow(() -> new RuntimeException("Kunde nicht gefunden"));
-        // Neue Notiz erstellen
-        Note newNote = Note.builder()
-                .interactionType(InteractionType.EMAIL)
-                .content("Follow-up Email sent")
-                .date(LocalDate.now())
-                .build();
-        noteOrchestratorService.createNoteForCustomer(newNote, customer.getId());
+    // Kundendaten aktualisieren
+    private void scenarioUpdateCustomerDetails(final ThreadLocalRandom random) {
+        final Customer customer = findCustomer(random);
 
-        // Kunden und Notizen laden
-        Customer customerF = customerService
-                .getCustomerByEmailWithNotesAndEmployeeCustomers("c.customerB@gmail.com")
-                .orElseThrow(() -> new RuntimeException("Kunde nicht gefunden"));
+        customer.setPhone(String.format("555%07d", random.nextInt(10_000_000)));
+        customer.setAddress(random.nextInt(1000) + " Updated Address");
 
-        System.out.println(customerF.getNotes());
-        System.out.println("Neue Notiz erfolgreich hinzugefügt.");
+        customerService.updateCustomer(customer.getId(), customer);
     }
 
-    // Zweiter Ansatz: Lazy Loading mit @Transactional
-    private void scenarioAddNoteToExistingCustomerSecondApproach() {
-        // Kunden finden
-        Customer customer = customerService.getCustomerByEmail("c.customerB@gmail.com")
-                .orElseThrow(() -> new RuntimeException("Kunde nicht gefunden"));
+    // Notiz hinzufügen und den Kunden mit Notizen und den Kunden seines Mitarbeiters laden
+    private void scenarioAddNoteToExistingCustomer(final ThreadLocalRandom random) {
+        final Customer customer = findCustomer(random);
 
-        // Neue Notiz erstellen
-        Note newNote = Note.builder()
+        final Note newNote = Note.builder()
                 .interactionType(InteractionType.EMAIL)
                 .content("Follow-up Email sent")
                 .date(LocalDate.now())
                 .build();
         noteOrchestratorService.createNoteForCustomer(newNote, customer.getId());
 
-        // Kunden und Notizen laden mit Lazy Loading
-        Customer customerF = customerService.getCustomerWithNotes(customer.getId());
+        customerService
+                .getCustomerByEmailWithNotesAndEmployeeCustomers(customer.getEmail())
+                .orElseThrow(() -> new IllegalStateException("Kunde nicht gefunden: " + customer.getEmail()));
+    }
 
-        System.out.println(customerF.getNotes());
-        System.out.println("Neue Notiz erfolgreich hinzugefügt.");
+    private Customer findCustomer(final ThreadLocalRandom random) {
+        final String email = customerEmails.get(random.nextInt(customerEmails.size()));
+        return customerService.getCustomerByEmail(email)
+                .orElseThrow(() -> new IllegalStateException("Kunde nicht gefunden: " + email));
+    }
+
+    private Customer newCustomer(final Employee employee) {
+        final long number = customerSequence.incrementAndGet();
+        return Customer.builder()
+                .firstName("CFirstname " + number)
+                .lastName("CLastname " + number)
+                .email("load-" + runId + ".customer" + number + "@example.com")
+                .phone(String.format("0%09d", number))
+                .address(number + " Main St")
+                .lastInteractionDate(LocalDate.now())
+                .employee(employee)
+                .build();
     }
 }
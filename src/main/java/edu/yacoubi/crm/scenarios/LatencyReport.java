@@ -0,0 +1,166 @@
+package edu.yacoubi.crm.scenarios;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and errors of a load run, one HDR histogram per scenario.
+ *
+ * <p>Recording is thread-safe and wait-free ({@link Recorder}), so the workers can record
+ * concurrently without distorting the measurement. Latencies are recorded in nanoseconds
+ * with 3 significant digits and reported in milliseconds.</p>
+ *
+ * @author A. El Yacoubi
+ */
+public class LatencyReport {
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(10);
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final Map<LoadScenario, Recorder> recorders = new EnumMap<>(LoadScenario.class);
+    private final Map<LoadScenario, LongAdder> errors = new EnumMap<>(LoadScenario.class);
+    private final Map<LoadScenario, Histogram> histograms = new EnumMap<>(LoadScenario.class);
+    private long elapsedNanos;
+
+    public LatencyReport() {
+        for (LoadScenario scenario : LoadScenario.values()) {
+            recorders.put(scenario, new Recorder(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS));
+            errors.put(scenario, new LongAdder());
+        }
+    }
+
+    /**
+     * Records one execution of a scenario. Failed executions are counted, but not recorded as latency.
+     *
+     * @param scenario the executed scenario
+     * @param nanos    the duration of the execution
+     * @param success  whether the execution succeeded
+     */
+    public void record(final LoadScenario scenario, final long nanos, final boolean success) {
+        if (success) {
+            recorders.get(scenario).recordValue(Math.min(nanos, HIGHEST_TRACKABLE_NANOS));
+        } else {
+            errors.get(scenario).increment();
+        }
+    }
+
+    /**
+     * Ends the recording and takes the histograms.
+     *
+     * @param elapsedNanos the duration of the whole run, used for the throughput
+     */
+    public void finish(final long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+        recorders.forEach((scenario, recorder) -> histograms.put(scenario, recorder.getIntervalHistogram()));
+    }
+
+    /**
+     * Returns the latency histogram of a scenario, available after {@link #finish(long)}.
+     *
+     * @param scenario the scenario
+     * @return the histogram in nanoseconds
+     */
+    public Histogram histogram(final LoadScenario scenario) {
+        return histograms.get(scenario);
+    }
+
+    /**
+     * Returns the number of failed executions of a scenario.
+     *
+     * @param scenario the scenario
+     * @return the error count
+     */
+    public long errors(final LoadScenario scenario) {
+        return errors.get(scenario).sum();
+    }
+
+    /**
+     * Returns the total number of successful operations, available after {@link #finish(long)}.
+     *
+     * @return the number of operations
+     */
+    public long totalOperations() {
+        return histograms.values().stream().mapToLong(Histogram::getTotalCount).sum();
+    }
+
+    /**
+     * Formats the throughput and percentile report as table.
+     *
+     * @return the report
+     */
+    public String toTable() {
+        final StringBuilder table = new StringBuilder(String.format(Locale.ROOT,
+                "%-20s %10s %8s %10s %10s %10s %10s %10s %10s%n",
+                "scenario", "ops", "errors", "ops/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        final Histogram total = new Histogram(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+        long totalErrors = 0;
+        for (LoadScenario scenario : LoadScenario.values()) {
+            final Histogram histogram = histograms.get(scenario);
+            if (histogram.getTotalCount() == 0 && errors(scenario) == 0) {
+                continue;
+            }
+            total.add(histogram);
+            totalErrors += errors(scenario);
+            appendRow(table, scenario.getKey(), histogram, errors(scenario));
+        }
+        appendRow(table, "total", total, totalErrors);
+        return table.toString();
+    }
+
+    /**
+     * Writes the report to a directory: {@code load-report.csv} with one row per scenario and
+     * {@code <scenario>.hgrm} with the full percentile distribution (in milliseconds) of each scenario.
+     *
+     * @param directory the target directory, created if missing
+     * @throws IOException if a file cannot be written
+     */
+    public void writeTo(final Path directory) throws IOException {
+        Files.createDirectories(directory);
+
+        final StringBuilder csv = new StringBuilder(
+                "scenario,operations,errors,throughput_per_s,mean_ms,p50_ms,p90_ms,p99_ms,p999_ms,max_ms\n");
+        for (LoadScenario scenario : LoadScenario.values()) {
+            final Histogram histogram = histograms.get(scenario);
+            csv.append(String.format(Locale.ROOT, "%s,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f%n",
+                    scenario.getKey(), histogram.getTotalCount(), errors(scenario), throughput(histogram),
+                    histogram.getMean() / NANOS_PER_MILLI, millis(histogram, 50), millis(histogram, 90),
+                    millis(histogram, 99), millis(histogram, 99.9), histogram.getMaxValue() / NANOS_PER_MILLI));
+
+            if (histogram.getTotalCount() > 0) {
+                try (PrintStream out = new PrintStream(
+                        Files.newOutputStream(directory.resolve(scenario.getKey() + ".hgrm")),
+                        false, StandardCharsets.UTF_8)) {
+                    histogram.outputPercentileDistribution(out, NANOS_PER_MILLI);
+                }
+            }
+        }
+        Files.writeString(directory.resolve("load-report.csv"), csv, StandardCharsets.UTF_8);
+    }
+
+    private void appendRow(final StringBuilder table, final String name, final Histogram histogram, final long errorCount) {
+        table.append(String.format(Locale.ROOT,
+                "%-20s %10d %8d %10.1f %10.3f %10.3f %10.3f %10.3f %10.3f%n",
+                name, histogram.getTotalCount(), errorCount, throughput(histogram),
+                millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                histogram.getMaxValue() / NANOS_PER_MILLI));
+    }
+
+    private double throughput(final Histogram histogram) {
+        return elapsedNanos == 0 ? 0.0 : histogram.getTotalCount() * 1e9 / elapsedNanos;
+    }
+
+    private static double millis(final Histogram histogram, final double percentile) {
+        return histogram.getValueAtPercentile(percentile) / NANOS_PER_MILLI;
+    }
+}
@@ -0,0 +1,56 @@
+package edu.yacoubi.crm.scenarios;
+
+import java.util.Arrays;
+
+/**
+ * The workflows the load generator can execute, see {@link CRMScenarioRunner}.
+ *
+ * @author A. El Yacoubi
+ */
+public enum LoadScenario {
+    /**
+     * Looks up a customer by email and logs an interaction for it.
+     */
+    LOG_INTERACTION("log-interaction"),
+    /**
+     * Creates a new customer for an existing employee.
+     */
+    CREATE_CUSTOMER("create-customer"),
+    /**
+     * Looks up a customer by email and updates phone and address.
+     */
+    UPDATE_CUSTOMER("update-customer"),
+    /**
+     * Adds a note to a customer and loads the customer with notes and the employee's customers.
+     */
+    ADD_NOTE_AND_LOAD("add-note-and-load");
+
+    private final String key;
+
+    LoadScenario(final String key) {
+        this.key = key;
+    }
+
+    /**
+     * Returns the key used in the scenario mix, e.g. {@code log-interaction}.
+     *
+     * @return the key
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Returns the scenario for a key of the scenario mix.
+     *
+     * @param key the key
+     * @return the scenario
+     * @throws IllegalArgumentException if no scenario has this key
+     */
+    public static LoadScenario fromKey(final String key) {
+        return Arrays.stream(values())
+                .filter(scenario -> scenario.key.equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown scenario: " + key));
+    }
+}
@@ -0,0 +1,100 @@
+package edu.yacoubi.crm.scenarios;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Weighted mix of scenarios, e.g. {@code log-interaction=6,update-customer=2,create-customer=1}.
+ *
+ * <p>Each worker draws the next scenario with a probability proportional to its weight.
+ * Scenarios that are not listed are not executed.</p>
+ *
+ * @author A. El Yacoubi
+ */
+public final class ScenarioMix {
+    private final LoadScenario[] scenarios;
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+
+    private ScenarioMix(final Map<LoadScenario, Integer> weights) {
+        scenarios = new LoadScenario[weights.size()];
+        cumulativeWeights = new int[weights.size()];
+        int total = 0;
+        int index = 0;
+        for (Map.Entry<LoadScenario, Integer> entry : weights.entrySet()) {
+            total += entry.getValue();
+            scenarios[index] = entry.getKey();
+            cumulativeWeights[index] = total;
+            index++;
+        }
+        totalWeight = total;
+    }
+
+    /**
+     * Parses a mix of the form {@code key=weight,key=weight}.
+     *
+     * @param mix the mix
+     * @return the parsed mix
+     * @throws IllegalArgumentException if the mix is empty, contains an unknown scenario or a weight below 1
+     */
+    public static ScenarioMix parse(final String mix) {
+        if (mix == null || mix.isBlank()) {
+            throw new IllegalArgumentException("Scenario mix must not be blank");
+        }
+
+        final Map<LoadScenario, Integer> weights = new EnumMap<>(LoadScenario.class);
+        for (String part : mix.split(",")) {
+            final String[] keyAndWeight = part.split("=");
+            if (keyAndWeight.length != 2) {
+                throw new IllegalArgumentException("Invalid scenario mix entry: " + part.strip());
+            }
+            final LoadScenario scenario = LoadScenario.fromKey(keyAndWeight[0].strip());
+            final int weight;
+            try {
+                weight = Integer.parseInt(keyAndWeight[1].strip());
+            } catch (NumberFormatException exception) {
+                throw new IllegalArgumentException("Invalid scenario weight: " + part.strip(), exception);
+            }
+            if (weight < 1) {
+                throw new IllegalArgumentException("Scenario weight must be positive: " + part.strip());
+            }
+            weights.merge(scenario, weight, Integer::sum);
+        }
+        return new ScenarioMix(weights);
+    }
+
+    /**
+     * Draws the next scenario.
+     *
+     * @param random the random generator of the calling worker
+     * @return the scenario
+     */
+    public LoadScenario next(final RandomGenerator random) {
+        final int value = random.nextInt(totalWeight);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return scenarios[i];
+            }
+        }
+        throw new IllegalStateException("Weight out of range: " + value);
+    }
+
+    /**
+     * Returns the relative weights of the scenarios, in declaration order of {@link LoadScenario}.
+     *
+     * @return the weight of each scenario of the mix
+     */
+    public Map<LoadScenario, Integer> weights() {
+        final Map<LoadScenario, Integer> weights = new EnumMap<>(LoadScenario.class);
+        for (int i = 0; i < scenarios.length; i++) {
+            weights.put(scenarios[i], cumulativeWeights[i] - (i == 0 ? 0 : cumulativeWeights[i - 1]));
+        }
+        return weights;
+    }
+
+    @Override
+    public String toString() {
+        return weights().toString();
+    }
+}
@@ -0,0 +1,50 @@
+package edu.yacoubi.crm.service;
+
+import edu.yacoubi.crm.dto.BulkImportSummary;
+import edu.yacoubi.crm.dto.BulkLineResult;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Bulk creation of customers, employees and notes from NDJSON uploads (one JSON object per line).
+ *
+ * <p>The upload is read line by line and written in chunks, each chunk in its own transaction, so
+ * memory use does not depend on the size of the upload. The results of a chunk are handed to
+ * {@code results} in line order once the chunk is committed.</p>
+ */
+public interface IBulkImportService {
+
+    /**
+     * Creates the customers of an upload of {@code CustomerRequestDTO} lines for an employee.
+     *
+     * @param ndjson     the upload
+     * @param employeeId the ID of the employee the created customers are assigned to
+     * @param upsert     if true, customers whose email already exists are updated instead of created;
+     *                   they keep their employee
+     * @param results    receives the line results, chunk by chunk
+     * @return the totals of the upload
+     */
+    BulkImportSummary importCustomers(InputStream ndjson, Long employeeId, boolean upsert,
+                                      Consumer<List<BulkLineResult>> results);
+
+    /**
+     * Creates the employees of an upload of {@code EmployeeRequestDTO} lines.
+     *
+     * @param ndjson  the upload
+     * @param upsert  if true, employees whose email already exists are updated instead of created
+     * @param results receives the line results, chunk by chunk
+     * @return the totals of the upload
+     */
+    BulkImportSummary importEmployees(InputStream ndjson, boolean upsert, Consumer<List<BulkLineResult>> results);
+
+    /**
+     * Creates the notes of an upload of {@code NoteRequestDTO} lines, each with its {@code customerId}.
+     *
+     * @param ndjson  the upload
+     * @param results receives the line results, chunk by chunk
+     * @return the totals of the upload
+     */
+    BulkImportSummary importNotes(InputStream ndjson, Consumer<List<BulkLineResult>> results);
+}
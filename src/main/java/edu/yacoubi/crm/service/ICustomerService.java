@@ -1,7 +1,10 @@
 package edu.yacoubi.crm.service;
 
+import edu.yacoubi.crm.dto.CursorPage;
+import edu.yacoubi.crm.dto.customer.CustomerOverviewDTO;
 import edu.yacoubi.crm.dto.customer.CustomerPatchDTO;
 import edu.yacoubi.crm.dto.customer.CustomerRequestDTO;
+import edu.yacoubi.crm.dto.customer.CustomerResponseDTO;
 import edu.yacoubi.crm.model.Customer;
 import org.springframework.data.domain.Page;
 
@@ -12,6 +15,10 @@ import java.util.Optional;
  * Service interface for managing Customer entities.
  */
 public interface ICustomerService {
+    /**
+     * Largest number of latest notes a client may request in the customer overview.
+     */
+    int MAX_OVERVIEW_NOTES = 50;
 
     /**
      * Creates a new customer.
@@ -38,6 +45,24 @@ public interface ICustomerService {
      */
     Customer updateCustomer(Long customerId, Customer customer);
 
+    /**
+     * Updates an existing customer if it still has the expected version (If-Match).
+     *
+     * @param customerId      the ID of the customer to be updated.
+     * @param customer        the updated customer information.
+     * @param expectedVersion the version the client has seen, or null to update any version.
+     * @return the updated customer.
+     */
+    Customer updateCustomer(Long customerId, Customer customer, Long expectedVersion);
+
+    /**
+     * Retrieves the version of a customer without loading it, e.g. to answer If-None-Match.
+     *
+     * @param customerId the ID of the customer.
+     * @return the version, or empty if the customer does not exist.
+     */
+    Optional<Long> getCustomerVersion(Long customerId);
+
     /**
      * Deletes a customer by their ID.
      *
@@ -86,6 +111,16 @@ public interface ICustomerService {
      */
     Customer getCustomerWithNotes(Long customerId);
 
+    /**
+     * Retrieves the 360° overview of a customer with a fixed number of projection queries, without
+     * loading the customer, its employee or its notes as entities.
+     *
+     * @param customerId  the ID of the customer.
+     * @param latestNotes the number of latest notes to include, between 0 and {@link #MAX_OVERVIEW_NOTES}.
+     * @return the customer overview.
+     */
+    CustomerOverviewDTO getCustomerOverview(Long customerId, int latestNotes);
+
     /**
      * Partially updates an existing customer based on a patch DTO.
      *
@@ -94,6 +129,15 @@ public interface ICustomerService {
      */
     void partialUpdateCustomer(Long customerId, CustomerPatchDTO customerPatchDTO);
 
+    /**
+     * Partially updates an existing customer if it still has the expected version (If-Match).
+     *
+     * @param customerId       the ID of the customer to be partially updated.
+     * @param customerPatchDTO the partial update information.
+     * @param expectedVersion  the version the client has seen, or null to update any version.
+     */
+    void partialUpdateCustomer(Long customerId, CustomerPatchDTO customerPatchDTO, Long expectedVersion);
+
     /**
      * Retrieves customers by either their first name or email, in a paginated format.
      *
@@ -121,10 +165,46 @@ public interface ICustomerService {
      */
     List<Customer> getCustomersByEmployeeId(Long employeeId);
 
+    /**
+     * Retrieves customers in a paginated format as response DTOs, without loading the entities.
+     *
+     * @param page the page number to retrieve.
+     * @param size the number of customers per page.
+     * @return a page of customer response DTOs.
+     */
+    Page<CustomerResponseDTO> getCustomerResponsesWithPagination(int page, int size);
+
+    /**
+     * Retrieves the customers of an employee as response DTOs, without loading the entities.
+     *
+     * @param employeeId the ID of the employee.
+     * @return the customer response DTOs of the employee.
+     */
+    List<CustomerResponseDTO> getCustomerResponsesByEmployeeId(Long employeeId);
+
     /**
      * Updates a list of customers.
      *
      * @param customers the list of customers to be updated.
      */
     void updateCustomers(List<Customer> customers);
-}
\ No newline at end of file
+
+    /**
+     * Reassigns all customers of an employee to another employee in one bulk update.
+     *
+     * @param oldEmployeeId the ID of the employee whose customers are reassigned.
+     * @param newEmployeeId the ID of the employee the customers are assigned to.
+     * @return the number of reassigned customers.
+     */
+    int reassignAllCustomers(Long oldEmployeeId, Long newEmployeeId);
+
+    /**
+     * Retrieves customers with keyset (cursor) pagination, ordered by last name and ID.
+     *
+     * @param cursor the continuation token of the previous page, or null for the first page.
+     * @param size   the number of customers per page.
+     * @param search an optional search string for the first name or email.
+     * @return a page of customers without total count.
+     */
+    CursorPage<Customer> getCustomersAfterCursor(String cursor, int size, String search);
+}
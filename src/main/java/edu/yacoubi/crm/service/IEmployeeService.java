@@ -1,7 +1,10 @@
 package edu.yacoubi.crm.service;
 
+import edu.yacoubi.crm.dto.CursorPage;
 import edu.yacoubi.crm.dto.employee.EmployeePatchDTO;
+import edu.yacoubi.crm.dto.employee.EmployeeResponseDTO;
 import edu.yacoubi.crm.model.Employee;
+import edu.yacoubi.crm.service.registry.DepartmentRegistry;
 import org.springframework.data.domain.Page;
 
 import java.util.List;
@@ -36,6 +39,15 @@ public interface IEmployeeService {
      */
     Page<Employee> getEmployeesWithPagination(int page, int size);
 
+    /**
+     * Retrieves employees in a paginated format as response DTOs, without loading the entities.
+     *
+     * @param page the page number to retrieve.
+     * @param size the number of employees per page.
+     * @return a page of employee response DTOs.
+     */
+    Page<EmployeeResponseDTO> getEmployeeResponsesWithPagination(int page, int size);
+
     /**
      * Retrieves an employee by their ID.
      *
@@ -53,6 +65,24 @@ public interface IEmployeeService {
      */
     Employee updateEmployee(Long employeeId, Employee employee);
 
+    /**
+     * Updates an existing employee if it still has the expected version (If-Match).
+     *
+     * @param employeeId      the ID of the employee to be updated.
+     * @param employee        the updated employee information.
+     * @param expectedVersion the version the client has seen, or null to update any version.
+     * @return the updated employee.
+     */
+    Employee updateEmployee(Long employeeId, Employee employee, Long expectedVersion);
+
+    /**
+     * Retrieves the version of a employee without loading it, e.g. to answer If-None-Match.
+     *
+     * @param employeeId the ID of the employee.
+     * @return the version, or empty if the employee does not exist.
+     */
+    Optional<Long> getEmployeeVersion(Long employeeId);
+
     /**
      * Retrieves an employee by their email.
      *
@@ -69,6 +99,15 @@ public interface IEmployeeService {
      */
     void partialUpdateEmployee(Long employeeId, EmployeePatchDTO employeePatchDTO);
 
+    /**
+     * Partially updates an existing employee if it still has the expected version (If-Match).
+     *
+     * @param employeeId       the ID of the employee to be partially updated.
+     * @param employeePatchDTO the partial update information.
+     * @param expectedVersion  the version the client has seen, or null to update any version.
+     */
+    void partialUpdateEmployee(Long employeeId, EmployeePatchDTO employeePatchDTO, Long expectedVersion);
+
     /**
      * Retrieves employees by first name or department, in a paginated format.
      *
@@ -86,6 +125,13 @@ public interface IEmployeeService {
      */
     Optional<List<String>> getAllDepartments();
 
+    /**
+     * Retrieves the departments with their employee and customer counts, together with their ETags.
+     *
+     * @return the current snapshot of the departments.
+     */
+    DepartmentRegistry.Snapshot getDepartmentSnapshot();
+
     /**
      * Deletes an employee by their ID.
      * This method checks if the employee has any assigned customers and if the employee is archived before deletion.
@@ -95,4 +141,14 @@ public interface IEmployeeService {
     void deleteEmployee(Long employeeId);
 
     boolean hasCustomers(Long employeeId);
+
+    /**
+     * Retrieves employees with keyset (cursor) pagination, ordered by last name and ID.
+     *
+     * @param cursor the continuation token of the previous page, or null for the first page.
+     * @param size   the number of employees per page.
+     * @param search an optional search string for the first name or department.
+     * @return a page of employees without total count.
+     */
+    CursorPage<Employee> getEmployeesAfterCursor(String cursor, int size, String search);
 }
@@ -0,0 +1,35 @@
+package edu.yacoubi.crm.service;
+
+import edu.yacoubi.crm.dto.ExportFilter;
+import edu.yacoubi.crm.service.export.ExportFormat;
+
+import java.io.OutputStream;
+
+/**
+ * Streaming exports of customers and notes for the data warehouse.
+ *
+ * <p>The rows are read with a forward-only JDBC cursor and written to the target as they arrive, so
+ * memory use does not depend on the number of exported rows.</p>
+ */
+public interface IExportService {
+
+    /**
+     * Writes all customers matching the filter, ordered by ID.
+     *
+     * @param filter       the filter, lastInteractionDate is used for the date range
+     * @param format       the output format
+     * @param outputStream the target, not closed
+     * @return the number of exported customers
+     */
+    long exportCustomers(ExportFilter filter, ExportFormat format, OutputStream outputStream);
+
+    /**
+     * Writes all notes matching the filter, ordered by ID.
+     *
+     * @param filter       the filter, the note date is used for the date range
+     * @param format       the output format
+     * @param outputStream the target, not closed
+     * @return the number of exported notes
+     */
+    long exportNotes(ExportFilter filter, ExportFormat format, OutputStream outputStream);
+}
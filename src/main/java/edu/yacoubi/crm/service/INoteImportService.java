@@ -0,0 +1,24 @@
+package edu.yacoubi.crm.service;
+
+import edu.yacoubi.crm.dto.NoteImportReport;
+
+import java.io.InputStream;
+
+/**
+ * Import of historical interactions (notes) from CSV uploads.
+ *
+ * <p>The upload needs a header row with the columns {@code customerId}, {@code date} (ISO-8601),
+ * {@code interactionType} and {@code content}; other columns are ignored, so a note export can be
+ * imported again. Invalid rows and rows of unknown customers are rejected without aborting the load.</p>
+ */
+public interface INoteImportService {
+
+    /**
+     * Imports the notes of a CSV upload.
+     *
+     * @param csv the upload, UTF-8
+     * @return the totals and the rejected rows
+     * @throws IllegalArgumentException if the upload is empty or a required column is missing
+     */
+    NoteImportReport importNotes(InputStream csv);
+}
@@ -1,6 +1,11 @@
 package edu.yacoubi.crm.service;
 
+import edu.yacoubi.crm.dto.CursorPage;
 import edu.yacoubi.crm.dto.note.NotePatchDTO;
+import edu.yacoubi.crm.dto.note.NoteResponseDTO;
+import edu.yacoubi.crm.dto.note.NoteSearchCriteria;
+import edu.yacoubi.crm.dto.note.NoteSummaryDTO;
+import edu.yacoubi.crm.model.InteractionType;
 import edu.yacoubi.crm.model.Note;
 
 import java.util.List;
@@ -13,9 +18,23 @@ public interface INoteService {
 
     Note updateNote(Long noteId, Note note);
 
+    Note updateNote(Long noteId, Note note, Long expectedVersion);
+
+    Optional<Long> getNoteVersion(Long noteId);
+
     void deleteNote(Long noteId);
 
     List<Note> getNotesByCustomerId(Long customerId);
 
+    List<NoteResponseDTO> getNoteResponsesByCustomerId(Long customerId);
+
     void partialUpdateNote(Long noteId, NotePatchDTO notePatchDTO);
+
+    void partialUpdateNote(Long noteId, NotePatchDTO notePatchDTO, Long expectedVersion);
+
+    CursorPage<Note> getNotesAfterCursor(String cursor, int size, Long customerId);
+
+    CursorPage<NoteSummaryDTO> getNoteTimeline(Long customerId, InteractionType interactionType, String cursor, int size);
+
+    CursorPage<Note> searchNotes(NoteSearchCriteria criteria, String cursor, int size);
 }
@@ -0,0 +1,56 @@
+package edu.yacoubi.crm.service;
+
+import edu.yacoubi.crm.model.Customer;
+import edu.yacoubi.crm.model.Employee;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * Service for the customer and employee search boxes of the REST API and the views.
+ *
+ * <p>The search term is matched case-insensitively as substring of the searched columns;
+ * the best matches are returned first.</p>
+ *
+ * @author A. El Yacoubi
+ */
+public interface ISearchService {
+    /**
+     * Largest number of suggestions a client may request.
+     */
+    int MAX_SUGGESTIONS = 50;
+
+    /**
+     * Searches customers by first name, last name or email, in a paginated format.
+     *
+     * @param search the search string
+     * @param page   the page number to retrieve
+     * @param size   the number of customers per page
+     * @return a page of matching customers, best matches first
+     * @throws IllegalArgumentException if the search string is blank
+     */
+    Page<Customer> searchCustomers(String search, int page, int size);
+
+    /**
+     * Searches employees by first name, last name or department, in a paginated format.
+     *
+     * @param search the search string
+     * @param page   the page number to retrieve
+     * @param size   the number of employees per page
+     * @return a page of matching employees, best matches first
+     * @throws IllegalArgumentException if the search string is blank
+     */
+    Page<Employee> searchEmployees(String search, int page, int size);
+
+    /**
+     * Type-ahead suggestions for customers by first name, last name, email or phone.
+     *
+     * <p>Served from the in-memory n-gram index when it is enabled, otherwise from the database search.</p>
+     *
+     * @param search the search string
+     * @param limit  the maximum number of suggestions, between 1 and {@link #MAX_SUGGESTIONS}
+     * @return the matching customers, best matches first
+     * @throws IllegalArgumentException if the search string is blank or the limit is out of range
+     */
+    List<Customer> suggestCustomers(String search, int limit);
+}
@@ -0,0 +1,57 @@
+package edu.yacoubi.crm.service.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes the rows as RFC 4180 CSV (UTF-8, CRLF line breaks) with a header line of the column names.
+ * Values containing a comma, quote or line break are quoted; {@code null} is written as an empty field.
+ */
+class CsvRowWriter implements ExportRowWriter {
+    private static final String LINE_BREAK = "\r\n";
+
+    private final Writer writer;
+
+    CsvRowWriter(final List<String> columns, final OutputStream outputStream) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        row(columns.toArray());
+    }
+
+    @Override
+    public void row(final Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writeField(values[i].toString());
+            }
+        }
+        writer.write(LINE_BREAK);
+    }
+
+    private void writeField(final String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            final char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+}
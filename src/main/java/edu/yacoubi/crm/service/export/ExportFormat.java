@@ -0,0 +1,66 @@
+package edu.yacoubi.crm.service.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The formats of the streaming exports.
+ */
+public enum ExportFormat {
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+    CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv");
+
+    private final MediaType mediaType;
+    private final String fileExtension;
+
+    ExportFormat(final MediaType mediaType, final String fileExtension) {
+        this.mediaType = mediaType;
+        this.fileExtension = fileExtension;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public String fileExtension() {
+        return fileExtension;
+    }
+
+    /**
+     * Opens a writer of this format.
+     *
+     * @param objectMapper the mapper whose factory is used for NDJSON
+     * @param columns      the column names, in the order of the row values
+     * @param outputStream the target, not closed by the writer
+     * @return the writer
+     * @throws IOException if the header cannot be written
+     */
+    public ExportRowWriter open(final ObjectMapper objectMapper, final List<String> columns,
+                                final OutputStream outputStream) throws IOException {
+        return switch (this) {
+            case NDJSON -> new NdjsonRowWriter(objectMapper.getFactory(), columns, outputStream);
+            case CSV -> new CsvRowWriter(columns, outputStream);
+        };
+    }
+
+    /**
+     * Resolves the {@code format} request parameter, case-insensitive.
+     *
+     * @param format the parameter value
+     * @return the format
+     * @throws IllegalArgumentException if the format is not supported
+     */
+    public static ExportFormat fromParameter(final String format) {
+        try {
+            return valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException exception) {
+            throw new IllegalArgumentException("Unsupported export format: " + format + ", expected ndjson or csv");
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package edu.yacoubi.crm.service.export;
+
+import java.io.IOException;
+
+/**
+ * Writes the rows of an export one at a time, without buffering more than the current row.
+ */
+public interface ExportRowWriter {
+
+    /**
+     * Writes one row.
+     *
+     * @param values the values in column order; {@code null}, {@link Number}, {@link java.time.LocalDate}
+     *               or any value whose {@code toString()} is written as text
+     * @throws IOException if writing fails, e.g. because the client disconnected
+     */
+    void row(Object[] values) throws IOException;
+
+    /**
+     * Flushes the remaining buffered output; the underlying stream stays open.
+     *
+     * @throws IOException if writing fails
+     */
+    void finish() throws IOException;
+}
@@ -0,0 +1,49 @@
+package edu.yacoubi.crm.service.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Writes every row as one JSON object per line, with the column names as field names.
+ */
+class NdjsonRowWriter implements ExportRowWriter {
+    private final JsonGenerator generator;
+    private final String[] columns;
+
+    NdjsonRowWriter(final JsonFactory jsonFactory, final List<String> columns, final OutputStream outputStream)
+            throws IOException {
+        this.generator = jsonFactory.createGenerator(outputStream)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.generator.setRootValueSeparator(null);
+        this.columns = columns.toArray(String[]::new);
+    }
+
+    @Override
+    public void row(final Object[] values) throws IOException {
+        generator.writeStartObject();
+        for (int i = 0; i < columns.length; i++) {
+            generator.writeFieldName(columns[i]);
+            final Object value = values[i];
+            if (value == null) {
+                generator.writeNull();
+            } else if (value instanceof Long number) {
+                generator.writeNumber(number);
+            } else if (value instanceof Integer number) {
+                generator.writeNumber(number);
+            } else {
+                generator.writeString(value.toString());
+            }
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        generator.flush();
+    }
+}
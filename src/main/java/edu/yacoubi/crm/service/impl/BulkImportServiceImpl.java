@@ -0,0 +1,543 @@
+package edu.yacoubi.crm.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import edu.yacoubi.crm.dto.BulkImportSummary;
+import edu.yacoubi.crm.dto.BulkLineResult;
+import edu.yacoubi.crm.dto.ValidationError;
+import edu.yacoubi.crm.dto.customer.CustomerRequestDTO;
+import edu.yacoubi.crm.dto.employee.EmployeeRequestDTO;
+import edu.yacoubi.crm.dto.note.NoteRequestDTO;
+import edu.yacoubi.crm.model.Customer;
+import edu.yacoubi.crm.model.Employee;
+import edu.yacoubi.crm.model.Note;
+import edu.yacoubi.crm.repository.CustomerRepository;
+import edu.yacoubi.crm.repository.EmployeeRepository;
+import edu.yacoubi.crm.service.IBulkImportService;
+import edu.yacoubi.crm.service.registry.DepartmentRegistry;
+import edu.yacoubi.crm.service.search.CustomerNgramIndex;
+import edu.yacoubi.crm.service.validation.EntityValidator;
+import edu.yacoubi.crm.util.EntityTransformer;
+import edu.yacoubi.crm.util.TransformerUtil;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Service implementation for NDJSON bulk uploads.
+ *
+ * <p>Every line is parsed on its own with Jackson and validated with the constraints of its request DTO,
+ * so a malformed or invalid line is rejected without affecting its neighbours. Valid lines are persisted
+ * in chunks of {@code crm.bulk.chunk-size} lines, each chunk in its own transaction; Hibernate sends the
+ * inserts as JDBC batches ({@code hibernate.jdbc.batch_size}) with IDs from the pooled-lo sequences.
+ * The persistence context is flushed and cleared after every chunk, so neither the upload nor the
+ * created entities are held in memory.</p>
+ *
+ * <p>If the database refuses a chunk, the chunk is rolled back and its lines are retried one by one,
+ * so only the offending lines are reported as failed.</p>
+ *
+ * <p>Lines longer than {@code crm.bulk.max-line-chars} characters are rejected; only the first characters
+ * up to that limit are ever buffered, the rest of such a line is skipped while reading.</p>
+ *
+ * @author A. El Yacoubi
+ */
+@Service
+@Slf4j
+public class BulkImportServiceImpl implements IBulkImportService {
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final CustomerRepository customerRepository;
+    private final EmployeeRepository employeeRepository;
+    private final EntityValidator entityValidator;
+    private final CustomerNgramIndex customerNgramIndex;
+    private final DepartmentRegistry departmentRegistry;
+    private final int chunkSize;
+    private final int maxLineChars;
+
+    public BulkImportServiceImpl(
+            final ObjectMapper objectMapper,
+            final Validator validator,
+            final TransactionTemplate transactionTemplate,
+            final EntityManager entityManager,
+            final CustomerRepository customerRepository,
+            final EmployeeRepository employeeRepository,
+            final EntityValidator entityValidator,
+            final CustomerNgramIndex customerNgramIndex,
+            final DepartmentRegistry departmentRegistry,
+            @Value("${crm.bulk.chunk-size:500}") final int chunkSize,
+            @Value("${crm.bulk.max-line-chars:65536}") final int maxLineChars) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("crm.bulk.chunk-size must be positive");
+        }
+        if (maxLineChars < 1) {
+            throw new IllegalArgumentException("crm.bulk.max-line-chars must be positive");
+        }
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.customerRepository = customerRepository;
+        this.employeeRepository = employeeRepository;
+        this.entityValidator = entityValidator;
+        this.customerNgramIndex = customerNgramIndex;
+        this.departmentRegistry = departmentRegistry;
+        this.chunkSize = chunkSize;
+        this.maxLineChars = maxLineChars;
+    }
+
+    /**
+     * Persists the valid lines of one chunk inside the current transaction.
+     *
+     * @param <D> the request DTO type
+     */
+    @FunctionalInterface
+    private interface ChunkWriter<D> {
+        /**
+         * @param lines the valid lines of the chunk
+         * @return one result per line, in the order of {@code lines}
+         */
+        List<BulkLineResult> write(List<Line<D>> lines);
+    }
+
+    private record Line<D>(long number, D dto) {
+    }
+
+    @Override
+    public BulkImportSummary importCustomers(
+            final InputStream ndjson,
+            final Long employeeId,
+            final boolean upsert,
+            final Consumer<List<BulkLineResult>> results) {
+        if (log.isInfoEnabled()) {
+            log.info("::importCustomers started with: employeeId {}, upsert {}", employeeId, upsert);
+        }
+
+        entityValidator.validateEmployeeExists(employeeId);
+
+        final BulkImportSummary summary = importLines(ndjson, CustomerRequestDTO.class,
+                lines -> writeCustomers(lines, employeeId, upsert), results);
+
+        if (log.isInfoEnabled()) {
+            log.info("::importCustomers completed successfully with: {}", summary);
+        }
+        return summary;
+    }
+
+    @Override
+    public BulkImportSummary importEmployees(
+            final InputStream ndjson,
+            final boolean upsert,
+            final Consumer<List<BulkLineResult>> results) {
+        if (log.isInfoEnabled()) {
+            log.info("::importEmployees started with: upsert {}", upsert);
+        }
+
+        final BulkImportSummary summary = importLines(ndjson, EmployeeRequestDTO.class,
+                lines -> writeEmployees(lines, upsert), results);
+
+        if (log.isInfoEnabled()) {
+            log.info("::importEmployees completed successfully with: {}", summary);
+        }
+        return summary;
+    }
+
+    @Override
+    public BulkImportSummary importNotes(
+            final InputStream ndjson,
+            final Consumer<List<BulkLineResult>> results) {
+        if (log.isInfoEnabled()) {
+            log.info("::importNotes started");
+        }
+
+        final BulkImportSummary summary = importLines(ndjson, NoteRequestDTO.class, this::writeNotes, results);
+
+        if (log.isInfoEnabled()) {
+            log.info("::importNotes completed successfully with: {}", summary);
+        }
+        return summary;
+    }
+
+    private <D> BulkImportSummary importLines(
+            final InputStream ndjson,
+            final Class<D> type,
+            final ChunkWriter<D> writer,
+            final Consumer<List<BulkLineResult>> results) {
+        final ObjectReader reader = objectMapper.readerFor(type);
+        final Summary summary = new Summary();
+
+        // one slot per line of the chunk, null until the valid lines are written
+        final List<BulkLineResult> chunk = new ArrayList<>(chunkSize);
+        final List<Line<D>> validLines = new ArrayList<>(chunkSize);
+
+        try (LineReader lines = new LineReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8), maxLineChars)) {
+            long number = 0;
+            while (lines.next()) {
+                number++;
+                final BulkLineResult rejected;
+                if (lines.isTooLong()) {
+                    rejected = BulkLineResult.rejected(number, List.of(
+                            new ValidationError("Line", "Line longer than " + maxLineChars + " characters")));
+                } else {
+                    final String text = lines.line();
+                    if (text.isBlank()) {
+                        continue;
+                    }
+                    rejected = parse(reader, number, text, validLines);
+                }
+                chunk.add(rejected);
+                if (chunk.size() == chunkSize) {
+                    completeChunk(chunk, validLines, writer, results, summary);
+                }
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Reading the upload failed", exception);
+        }
+
+        if (!chunk.isEmpty()) {
+            completeChunk(chunk, validLines, writer, results, summary);
+        }
+        return summary.toSummary();
+    }
+
+    /**
+     * Parses and validates one line.
+     *
+     * @return the result of a rejected line, or null if the line was added to {@code validLines}
+     */
+    private <D> BulkLineResult parse(
+            final ObjectReader reader,
+            final long number,
+            final String text,
+            final List<Line<D>> validLines) {
+        final D dto;
+        try {
+            dto = reader.readValue(text);
+        } catch (JsonProcessingException exception) {
+            return BulkLineResult.rejected(number,
+                    List.of(new ValidationError("Line", "Malformed JSON: " + exception.getOriginalMessage())));
+        }
+        if (dto == null) {
+            return BulkLineResult.rejected(number, List.of(new ValidationError("Line", "Expected a JSON object")));
+        }
+
+        final Set<ConstraintViolation<D>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            return BulkLineResult.rejected(number, violations.stream()
+                    .map(violation -> new ValidationError(
+                            violation.getPropertyPath().toString(), violation.getMessage()))
+                    .sorted(Comparator.comparing(ValidationError::getField)
+                            .thenComparing(ValidationError::getErrorMessage))
+                    .toList());
+        }
+
+        validLines.add(new Line<>(number, dto));
+        return null;
+    }
+
+    private <D> void completeChunk(
+            final List<BulkLineResult> chunk,
+            final List<Line<D>> validLines,
+            final ChunkWriter<D> writer,
+            final Consumer<List<BulkLineResult>> results,
+            final Summary summary) {
+        final List<BulkLineResult> written = writeChunk(validLines, writer);
+
+        // fill the slots of the valid lines in line order
+        int next = 0;
+        for (int i = 0; i < chunk.size(); i++) {
+            if (chunk.get(i) == null) {
+                chunk.set(i, written.get(next++));
+            }
+            summary.count(chunk.get(i));
+        }
+
+        results.accept(List.copyOf(chunk));
+        chunk.clear();
+        validLines.clear();
+    }
+
+    private <D> List<BulkLineResult> writeChunk(final List<Line<D>> lines, final ChunkWriter<D> writer) {
+        if (lines.isEmpty()) {
+            return List.of();
+        }
+        try {
+            return transactionTemplate.execute(status -> writeAndClear(lines, writer));
+        } catch (RuntimeException exception) {
+            log.warn("::writeChunk failed for lines {} to {}, retrying line by line: {}",
+                    lines.get(0).number(), lines.get(lines.size() - 1).number(), rootMessage(exception));
+            entityManager.clear();
+        }
+
+        final List<BulkLineResult> results = new ArrayList<>(lines.size());
+        for (final Line<D> line : lines) {
+            try {
+                results.addAll(transactionTemplate.execute(status -> writeAndClear(List.of(line), writer)));
+            } catch (RuntimeException exception) {
+                entityManager.clear();
+                results.add(BulkLineResult.failed(line.number(), rootMessage(exception)));
+            }
+        }
+        return results;
+    }
+
+    private <D> List<BulkLineResult> writeAndClear(final List<Line<D>> lines, final ChunkWriter<D> writer) {
+        final List<BulkLineResult> results = writer.write(lines);
+        entityManager.flush();
+        entityManager.clear();
+        return results;
+    }
+
+    private List<BulkLineResult> writeCustomers(
+            final List<Line<CustomerRequestDTO>> lines,
+            final Long employeeId,
+            final boolean upsert) {
+        final Map<String, Customer> existingByEmail = upsert
+                ? byEmail(customerRepository.findAllByEmailIn(emails(lines, CustomerRequestDTO::getEmail)),
+                Customer::getEmail)
+                : new HashMap<>();
+        final Employee employee = entityManager.getReference(Employee.class, employeeId);
+
+        final List<BulkLineResult> results = new ArrayList<>(lines.size());
+        int created = 0;
+        for (final Line<CustomerRequestDTO> line : lines) {
+            final CustomerRequestDTO dto = line.dto();
+            Customer customer = existingByEmail.get(dto.getEmail());
+            if (customer != null) {
+                customer.setFirstName(dto.getFirstName());
+                customer.setLastName(dto.getLastName());
+                customer.setPhone(dto.getPhone());
+                customer.setAddress(dto.getAddress());
+                customer.setLastInteractionDate(dto.getLastInteractionDate());
+                results.add(BulkLineResult.updated(line.number(), customer.getId()));
+            } else {
+                customer = TransformerUtil.transform(EntityTransformer.customerRequestDtoToCustomer, dto);
+                customer.setEmployee(employee);
+                entityManager.persist(customer);
+                if (upsert) {
+                    existingByEmail.put(customer.getEmail(), customer);
+                }
+                created++;
+                results.add(BulkLineResult.created(line.number(), customer.getId()));
+            }
+            customerNgramIndex.upsert(customer);
+        }
+        departmentRegistry.customersChanged(employeeId, created);
+        return results;
+    }
+
+    private List<BulkLineResult> writeEmployees(final List<Line<EmployeeRequestDTO>> lines, final boolean upsert) {
+        final Map<String, Employee> existingByEmail = upsert
+                ? byEmail(employeeRepository.findAllByEmailIn(emails(lines, EmployeeRequestDTO::getEmail)),
+                Employee::getEmail)
+                : new HashMap<>();
+
+        final List<BulkLineResult> results = new ArrayList<>(lines.size());
+        for (final Line<EmployeeRequestDTO> line : lines) {
+            final EmployeeRequestDTO dto = line.dto();
+            Employee employee = existingByEmail.get(dto.getEmail());
+            if (employee != null) {
+                employee.setFirstName(dto.getFirstName());
+                employee.setLastName(dto.getLastName());
+                employee.setDepartment(dto.getDepartment());
+                results.add(BulkLineResult.updated(line.number(), employee.getId()));
+            } else {
+                employee = TransformerUtil.transform(EntityTransformer.employeeRequestDtoToEmployee, dto);
+                entityManager.persist(employee);
+                if (upsert) {
+                    existingByEmail.put(employee.getEmail(), employee);
+                }
+                results.add(BulkLineResult.created(line.number(), employee.getId()));
+            }
+            departmentRegistry.employeeSaved(employee);
+        }
+        return results;
+    }
+
+    private List<BulkLineResult> writeNotes(final List<Line<NoteRequestDTO>> lines) {
+        final Set<Long> customerIds = new HashSet<>();
+        for (final Line<NoteRequestDTO> line : lines) {
+            if (line.dto().getCustomerId() != null) {
+                customerIds.add(line.dto().getCustomerId());
+            }
+        }
+        final Set<Long> existingCustomerIds = customerIds.isEmpty()
+                ? Set.of()
+                : new HashSet<>(customerRepository.findExistingIds(customerIds));
+
+        final List<BulkLineResult> results = new ArrayList<>(lines.size());
+        for (final Line<NoteRequestDTO> line : lines) {
+            final Long customerId = line.dto().getCustomerId();
+            if (customerId == null) {
+                results.add(BulkLineResult.rejected(line.number(),
+                        List.of(new ValidationError("customerId", "Customer ID is mandatory"))));
+            } else if (!existingCustomerIds.contains(customerId)) {
+                results.add(BulkLineResult.rejected(line.number(),
+                        List.of(new ValidationError("customerId", "Customer not found with ID: " + customerId))));
+            } else {
+                final Note note = TransformerUtil.transform(EntityTransformer.noteRequestDtoToNote, line.dto());
+                note.setCustomer(entityManager.getReference(Customer.class, customerId));
+                entityManager.persist(note);
+                results.add(BulkLineResult.created(line.number(), note.getId()));
+            }
+        }
+        return results;
+    }
+
+    private static <D> Set<String> emails(final List<Line<D>> lines, final Function<D, String> email) {
+        final Set<String> emails = new HashSet<>();
+        for (final Line<D> line : lines) {
+            emails.add(email.apply(line.dto()));
+        }
+        return emails;
+    }
+
+    private static <T> Map<String, T> byEmail(final List<T> entities, final Function<T, String> email) {
+        final Map<String, T> byEmail = new HashMap<>();
+        for (final T entity : entities) {
+            byEmail.putIfAbsent(email.apply(entity), entity);
+        }
+        return byEmail;
+    }
+
+    private static String rootMessage(final Throwable exception) {
+        return Objects.requireNonNullElse(
+                NestedExceptionUtils.getMostSpecificCause(exception).getMessage(),
+                exception.getClass().getSimpleName());
+    }
+
+    /**
+     * Reads the upload line by line like {@link java.io.BufferedReader#readLine()} ({@code \n} or
+     * {@code \r\n} terminated), but buffers at most {@code maxLineChars} characters of a line: the rest of
+     * a longer line is skipped and the line is only marked as too long.
+     */
+    private static final class LineReader implements AutoCloseable {
+        private final Reader reader;
+        private final int maxLineChars;
+        private final char[] buffer = new char[8192];
+        private final StringBuilder line = new StringBuilder();
+        private int position;
+        private int limit;
+        private boolean tooLong;
+
+        private LineReader(final Reader reader, final int maxLineChars) {
+            this.reader = reader;
+            this.maxLineChars = maxLineChars;
+        }
+
+        /**
+         * Reads the next line.
+         *
+         * @return false at the end of the upload
+         */
+        private boolean next() throws IOException {
+            line.setLength(0);
+            tooLong = false;
+            boolean read = false;
+            while (true) {
+                if (position == limit) {
+                    limit = Math.max(reader.read(buffer, 0, buffer.length), 0);
+                    position = 0;
+                    if (limit == 0) {
+                        endOfLine();
+                        return read;
+                    }
+                }
+                read = true;
+                final int start = position;
+                while (position < limit && buffer[position] != '\n') {
+                    position++;
+                }
+                append(start, position);
+                if (position < limit) {
+                    position++;
+                    endOfLine();
+                    return true;
+                }
+            }
+        }
+
+        private void append(final int start, final int end) {
+            if (tooLong) {
+                return;
+            }
+            // one more than the limit for the \r of a \r\n line end
+            final int room = maxLineChars + 1 - line.length();
+            if (end - start > room) {
+                tooLong = true;
+                line.setLength(0);
+                return;
+            }
+            line.append(buffer, start, end - start);
+        }
+
+        private void endOfLine() {
+            if (!line.isEmpty() && line.charAt(line.length() - 1) == '\r') {
+                line.setLength(line.length() - 1);
+            }
+            if (line.length() > maxLineChars) {
+                tooLong = true;
+                line.setLength(0);
+            }
+        }
+
+        private boolean isTooLong() {
+            return tooLong;
+        }
+
+        private String line() {
+            return line.toString();
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    private static final class Summary {
+        private long lines;
+        private long created;
+        private long updated;
+        private long rejected;
+        private long failed;
+
+        private void count(final BulkLineResult result) {
+            lines++;
+            switch (result.status()) {
+                case CREATED -> created++;
+                case UPDATED -> updated++;
+                case REJECTED -> rejected++;
+                case FAILED -> failed++;
+            }
+        }
+
+        private BulkImportSummary toSummary() {
+            return new BulkImportSummary(lines, created, updated, rejected, failed);
+        }
+    }
+}
@@ -1,20 +1,37 @@
 package edu.yacoubi.crm.service.impl;
 
+import edu.yacoubi.crm.dto.CursorPage;
+import edu.yacoubi.crm.dto.customer.CustomerOverviewDTO;
+import edu.yacoubi.crm.dto.customer.CustomerOverviewRowDTO;
 import edu.yacoubi.crm.dto.customer.CustomerPatchDTO;
 import edu.yacoubi.crm.dto.customer.CustomerRequestDTO;
+import edu.yacoubi.crm.dto.customer.CustomerResponseDTO;
+import edu.yacoubi.crm.dto.employee.EmployeeSummaryDTO;
+import edu.yacoubi.crm.dto.note.InteractionTypeCountDTO;
+import edu.yacoubi.crm.dto.note.NoteSummaryDTO;
+import edu.yacoubi.crm.exception.ResourceNotFoundException;
 import edu.yacoubi.crm.model.Customer;
+import edu.yacoubi.crm.model.InteractionType;
 import edu.yacoubi.crm.model.Note;
 import edu.yacoubi.crm.repository.CustomerRepository;
+import edu.yacoubi.crm.repository.NoteRepository;
 import edu.yacoubi.crm.repository.ICustomerCustomRepository;
 import edu.yacoubi.crm.service.ICustomerService;
+import edu.yacoubi.crm.service.registry.DepartmentRegistry;
+import edu.yacoubi.crm.service.search.CustomerNgramIndex;
+import edu.yacoubi.crm.service.validation.EntityLookup;
 import edu.yacoubi.crm.service.validation.EntityValidator;
+import edu.yacoubi.crm.service.validation.VerifiedEntityIds;
+import edu.yacoubi.crm.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -31,8 +48,11 @@ import java.util.Optional;
 // TODO validate method parameters
 public class CustomerServiceImpl implements ICustomerService {
     private final CustomerRepository customerRepository;
+    private final NoteRepository noteRepository;
     private final ICustomerCustomRepository customerCustomRepository;
     private final EntityValidator entityValidator;
+    private final CustomerNgramIndex customerNgramIndex;
+    private final DepartmentRegistry departmentRegistry;
 
     /**
      * Creates a new customer.
@@ -48,6 +68,10 @@ public class CustomerServiceImpl implements ICustomerService {
 
         customer.setId(null);
         final Customer savedCustomer = customerRepository.save(customer);
+        customerNgramIndex.upsert(savedCustomer);
+        if (savedCustomer.getEmployee() != null) {
+            departmentRegistry.customersChanged(savedCustomer.getEmployee().getId(), 1);
+        }
 
         if (log.isInfoEnabled()) {
             log.info("::createCustomer completed successfully");
@@ -67,9 +91,10 @@ public class CustomerServiceImpl implements ICustomerService {
             log.info("::getCustomerById started with: customerId {}", customerId);
         }
 
-        entityValidator.validateCustomerExists(customerId);
-
-        final Optional<Customer> optionalCustomer = customerRepository.findById(customerId);
+        final Customer customer = EntityLookup.loadOrThrow(
+                customerRepository.findById(customerId), Customer.class, customerId
+        );
+        final Optional<Customer> optionalCustomer = Optional.of(customer);
 
         if (log.isInfoEnabled()) {
             log.info("::getCustomerById completed successfully");
@@ -77,6 +102,27 @@ public class CustomerServiceImpl implements ICustomerService {
         return optionalCustomer;
     }
 
+    /**
+     * Retrieves the version of a customer with a single-column query, without loading the customer.
+     *
+     * @param customerId the ID of the customer
+     * @return the version, or an empty Optional if the customer does not exist
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Long> getCustomerVersion(final Long customerId) {
+        if (log.isInfoEnabled()) {
+            log.info("::getCustomerVersion started with: customerId {}", customerId);
+        }
+
+        final Optional<Long> version = customerRepository.findVersionById(customerId);
+
+        if (log.isInfoEnabled()) {
+            log.info("::getCustomerVersion completed successfully");
+        }
+        return version;
+    }
+
     /**
      * Updates an existing customer by their ID.
      *
@@ -87,16 +133,31 @@ public class CustomerServiceImpl implements ICustomerService {
     @Override
     @Transactional
     public Customer updateCustomer(final Long customerId, final Customer customerRequest) {
+        return updateCustomer(customerId, customerRequest, null);
+    }
+
+    /**
+     * Updates an existing customer by their ID if it still has the expected version.
+     *
+     * @param customerId      the ID of the customer to update
+     * @param customerRequest the updated customer details
+     * @param expectedVersion the version the client has seen, or null to update any version
+     * @return the updated customer
+     */
+    @Override
+    @Transactional
+    public Customer updateCustomer(
+            final Long customerId, final Customer customerRequest, final Long expectedVersion) {
         if (log.isInfoEnabled()) {
-            log.info("::updateCustomer started with: customerId {}, customer {}",
-                    customerId, customerRequest);
+            log.info("::updateCustomer started with: customerId {}, customer {}, expectedVersion {}",
+                    customerId, customerRequest, expectedVersion);
         }
 
-        // Validate that the customer exists
-        entityValidator.validateCustomerExists(customerId);
-
-        // Load the existing customer
-        final Customer existingCustomer = customerRepository.findById(customerId).get();
+        // Load the existing customer, throws if it does not exist
+        final Customer existingCustomer = EntityLookup.loadOrThrow(
+                customerRepository.findById(customerId), Customer.class, customerId
+        );
+        EntityLookup.requireVersion(expectedVersion, existingCustomer.getVersion(), Customer.class, customerId);
 
         // Load the existing notes
         final List<Note> existingNotes = existingCustomer.getNotes();
@@ -105,8 +166,10 @@ public class CustomerServiceImpl implements ICustomerService {
         customerRequest.setId(customerId);
         customerRequest.setEmployee(existingCustomer.getEmployee());
         customerRequest.setNotes(existingNotes); // Set the existing notes
+        customerRequest.setVersion(existingCustomer.getVersion()); // merge instead of persist
 
         final Customer updatedCustomer = customerRepository.save(customerRequest);
+        customerNgramIndex.upsert(updatedCustomer);
 
         if (log.isInfoEnabled()) {
             log.info("::updateCustomer completed successfully");
@@ -127,7 +190,11 @@ public class CustomerServiceImpl implements ICustomerService {
 
         entityValidator.validateCustomerExists(customerId);
 
+        final Optional<Long> employeeId = customerRepository.findEmployeeIdById(customerId);
         customerRepository.deleteById(customerId);
+        customerNgramIndex.remove(customerId);
+        employeeId.ifPresent(id -> departmentRegistry.customersChanged(id, -1));
+        VerifiedEntityIds.evict(Customer.class, customerId);
 
         if (log.isInfoEnabled()) {
             log.info("::deleteCustomer completed successfully");
@@ -240,6 +307,7 @@ public class CustomerServiceImpl implements ICustomerService {
 
         final Customer updatedCustomer = customerRepository
                 .updateCustomerByExample(customerExample, customerId);
+        customerNgramIndex.upsert(updatedCustomer);
 
         if (log.isInfoEnabled()) {
             log.info("::updateCustomerByExample completed successfully");
@@ -283,9 +351,9 @@ public class CustomerServiceImpl implements ICustomerService {
             log.info("::getCustomerWithNotes started with: customerId {}", customerId);
         }
 
-        entityValidator.validateCustomerExists(customerId);
-
-        final Customer customer = customerRepository.findById(customerId).get();
+        final Customer customer = EntityLookup.loadOrThrow(
+                customerRepository.findById(customerId), Customer.class, customerId
+        );
         // Accessing notes to initialize them
         customer.getNotes().size();
 
@@ -295,6 +363,85 @@ public class CustomerServiceImpl implements ICustomerService {
         return customer;
     }
 
+    /**
+     * Retrieves the 360° overview of a customer.
+     *
+     * <p>At most three projection queries, independent of the number of notes: the customer with its
+     * employee in one row, the note counts grouped by interaction type and the latest notes (skipped if
+     * there are none). The notes are counted in the database; only the latest ones are transferred.</p>
+     *
+     * @param customerId  the ID of the customer
+     * @param latestNotes the number of latest notes to include
+     * @return the customer overview
+     * @throws IllegalArgumentException  if latestNotes is out of range
+     * @throws ResourceNotFoundException if the customer does not exist
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CustomerOverviewDTO getCustomerOverview(final Long customerId, final int latestNotes) {
+        if (log.isInfoEnabled()) {
+            log.info("::getCustomerOverview started with: customerId {}, latestNotes {}", customerId, latestNotes);
+        }
+
+        if (latestNotes < 0 || latestNotes > MAX_OVERVIEW_NOTES) {
+            throw new IllegalArgumentException("Number of notes must be between 0 and " + MAX_OVERVIEW_NOTES);
+        }
+
+        final CustomerOverviewRowDTO row = EntityLookup.projectionOrThrow(
+                customerRepository.findOverviewById(customerId), Customer.class, customerId
+        );
+
+        // every type is listed, so clients do not have to treat missing types as zero
+        final Map<InteractionType, Long> notesByType = new EnumMap<>(InteractionType.class);
+        for (final InteractionType type : InteractionType.values()) {
+            notesByType.put(type, 0L);
+        }
+        long totalNotes = 0;
+        for (final InteractionTypeCountDTO count : noteRepository.countByCustomerIdGroupByInteractionType(customerId)) {
+            notesByType.put(count.interactionType(), count.count());
+            totalNotes += count.count();
+        }
+
+        final List<NoteSummaryDTO> notes = latestNotes == 0 || totalNotes == 0
+                ? List.of()
+                : noteRepository.findLatestByCustomerId(customerId, Limit.of(latestNotes));
+
+        final CustomerOverviewDTO overview = new CustomerOverviewDTO(
+                toCustomerResponse(row), toEmployeeSummary(row), totalNotes, notesByType, notes
+        );
+
+        if (log.isInfoEnabled()) {
+            log.info("::getCustomerOverview completed successfully");
+        }
+        return overview;
+    }
+
+    private static CustomerResponseDTO toCustomerResponse(final CustomerOverviewRowDTO row) {
+        return CustomerResponseDTO.builder()
+                .id(row.id())
+                .firstName(row.firstName())
+                .lastName(row.lastName())
+                .email(row.email())
+                .phone(row.phone())
+                .address(row.address())
+                .lastInteractionDate(row.lastInteractionDate())
+                .employeeId(row.employeeId())
+                .build();
+    }
+
+    private static EmployeeSummaryDTO toEmployeeSummary(final CustomerOverviewRowDTO row) {
+        if (row.employeeId() == null) {
+            return null;
+        }
+        return new EmployeeSummaryDTO(
+                row.employeeId(),
+                row.employeeFirstName(),
+                row.employeeLastName(),
+                row.employeeEmail(),
+                row.employeeDepartment()
+        );
+    }
+
     /**
      * Partially updates a customer's details.
      *
@@ -306,15 +453,32 @@ public class CustomerServiceImpl implements ICustomerService {
     public void partialUpdateCustomer(
             final Long customerId,
             final CustomerPatchDTO customerPatchDTO) {
+        partialUpdateCustomer(customerId, customerPatchDTO, null);
+    }
+
+    /**
+     * Partially updates a customer's details if it still has the expected version.
+     *
+     * @param customerId       the ID of the customer to update
+     * @param customerPatchDTO the partial update details
+     * @param expectedVersion  the version the client has seen, or null to update any version
+     */
+    @Override
+    @Transactional
+    public void partialUpdateCustomer(
+            final Long customerId,
+            final CustomerPatchDTO customerPatchDTO,
+            final Long expectedVersion) {
         if (log.isInfoEnabled()) {
-            log.info("::partialUpdateCustomer started: customerId {}, customerPatchDTO {}",
-                    customerId, customerPatchDTO);
+            log.info("::partialUpdateCustomer started: customerId {}, customerPatchDTO {}, expectedVersion {}",
+                    customerId, customerPatchDTO, expectedVersion);
         }
 
-        entityValidator.validateCustomerExists(customerId);
-
-        // delegate
-        customerCustomRepository.partialUpdateCustomer(customerId, customerPatchDTO);
+        // delegate, the affected row count replaces a separate existence and version check
+        final int updatedRows = customerCustomRepository.partialUpdateCustomer(
+                customerId, customerPatchDTO, expectedVersion);
+        EntityLookup.requireUpdated(updatedRows, expectedVersion,
+                () -> customerRepository.findVersionById(customerId), Customer.class, customerId);
 
         if (log.isInfoEnabled()) {
             log.info("::partialUpdateCustomer completed successfully");
@@ -396,6 +560,56 @@ public class CustomerServiceImpl implements ICustomerService {
         return customers;
     }
 
+    /**
+     * Retrieves a paginated list of customers as response DTOs with a projection query.
+     *
+     * @param page the page number to retrieve
+     * @param size the number of customers per page
+     * @return a paginated list of customer response DTOs
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Page<CustomerResponseDTO> getCustomerResponsesWithPagination(
+            final int page,
+            final int size) {
+        if (log.isInfoEnabled()) {
+            log.info("::getCustomerResponsesWithPagination started with: page: {}, size: {}",
+                    page, size);
+        }
+
+        final Pageable pageable = PageRequest.of(page, size);
+        final Page<CustomerResponseDTO> customerPage = customerRepository.findAllResponses(pageable);
+
+        if (log.isInfoEnabled()) {
+            log.info("::getCustomerResponsesWithPagination completed successfully");
+        }
+        return customerPage;
+    }
+
+    /**
+     * Retrieves the customers of an employee as response DTOs with a projection query.
+     *
+     * @param employeeId the ID of the employee whose customers to retrieve
+     * @return the customer response DTOs of the employee
+     * @throws ResourceNotFoundException if the employee does not exist
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<CustomerResponseDTO> getCustomerResponsesByEmployeeId(final Long employeeId) {
+        if (log.isInfoEnabled()) {
+            log.info("::getCustomerResponsesByEmployeeId started with: employeeId: {}", employeeId);
+        }
+
+        entityValidator.validateEmployeeExists(employeeId);
+
+        final List<CustomerResponseDTO> customers = customerRepository.findResponsesByEmployeeId(employeeId);
+
+        if (log.isInfoEnabled()) {
+            log.info("::getCustomerResponsesByEmployeeId completed successfully");
+        }
+        return customers;
+    }
+
     /**
      * Updates a list of customers.
      *
@@ -422,10 +636,79 @@ public class CustomerServiceImpl implements ICustomerService {
             throw new IllegalArgumentException("All customers must have an assigned employee");
         }
 
-        customerRepository.saveAll(customers);
+        customerRepository.saveAll(customers).forEach(customerNgramIndex::upsert);
+        // the previous employees of the customers are not known
+        departmentRegistry.rebuildAfterCommit();
 
         if (log.isInfoEnabled()) {
             log.info("::updateCustomers completed successfully");
         }
     }
+
+    /**
+     * Reassigns all customers of an employee to another employee in one bulk update.
+     *
+     * <p>Instead of loading and merging every customer, a single
+     * {@code UPDATE customer SET employee_id = :new WHERE employee_id = :old} is issued.</p>
+     *
+     * @param oldEmployeeId the ID of the employee whose customers are reassigned
+     * @param newEmployeeId the ID of the employee the customers are assigned to
+     * @return the number of reassigned customers
+     * @throws ResourceNotFoundException if one of the employees does not exist
+     */
+    @Override
+    @Transactional
+    public int reassignAllCustomers(final Long oldEmployeeId, final Long newEmployeeId) {
+        if (log.isInfoEnabled()) {
+            log.info("::reassignAllCustomers started with: oldEmployeeId: {}, newEmployeeId: {}",
+                    oldEmployeeId, newEmployeeId);
+        }
+
+        entityValidator.validateEmployeeExists(oldEmployeeId);
+        entityValidator.validateEmployeeExists(newEmployeeId);
+
+        final int reassignedCustomers = customerRepository.reassignEmployee(oldEmployeeId, newEmployeeId);
+        departmentRegistry.customersChanged(oldEmployeeId, -reassignedCustomers);
+        departmentRegistry.customersChanged(newEmployeeId, reassignedCustomers);
+
+        if (log.isInfoEnabled()) {
+            log.info("::reassignAllCustomers completed successfully with: reassignedCustomers: {}",
+                    reassignedCustomers);
+        }
+        return reassignedCustomers;
+    }
+
+    /**
+     * Retrieves customers with keyset (cursor) pagination, ordered by last name and ID.
+     *
+     * <p>Loads one row more than requested to find out whether a next page exists,
+     * so neither OFFSET nor a COUNT query is needed.</p>
+     *
+     * @param cursor the continuation token of the previous page, or null for the first page
+     * @param size   the number of customers per page
+     * @param search an optional search string for the first name or email
+     * @return a page of customers without total count
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<Customer> getCustomersAfterCursor(final String cursor, final int size, final String search) {
+        if (log.isInfoEnabled()) {
+            log.info("::getCustomersAfterCursor started with: cursor {}, size {}, search {}", cursor, size, search);
+        }
+
+        CursorPage.validateSize(size);
+        final KeysetCursor after = KeysetCursor.decode(cursor);
+
+        final List<Customer> rows = customerCustomRepository.findCustomersAfter(search, after, size + 1);
+        final CursorPage<Customer> customerPage = CursorPage.of(
+                rows,
+                size,
+                customer -> KeysetCursor.of(customer.getLastName(), customer.getId()).encode()
+        );
+
+        if (log.isInfoEnabled()) {
+            log.info("::getCustomersAfterCursor completed successfully");
+        }
+        return customerPage;
+    }
 }
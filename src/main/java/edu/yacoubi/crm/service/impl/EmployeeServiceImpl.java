@@ -1,12 +1,18 @@
 package edu.yacoubi.crm.service.impl;
 
+import edu.yacoubi.crm.dto.CursorPage;
 import edu.yacoubi.crm.dto.employee.EmployeePatchDTO;
+import edu.yacoubi.crm.dto.employee.EmployeeResponseDTO;
 import edu.yacoubi.crm.exception.ResourceNotFoundException;
 import edu.yacoubi.crm.model.Employee;
 import edu.yacoubi.crm.repository.EmployeeRepository;
 import edu.yacoubi.crm.repository.IEmployeeCustomRepository;
 import edu.yacoubi.crm.service.IEmployeeService;
+import edu.yacoubi.crm.service.registry.DepartmentRegistry;
+import edu.yacoubi.crm.service.validation.EntityLookup;
 import edu.yacoubi.crm.service.validation.EntityValidator;
+import edu.yacoubi.crm.service.validation.VerifiedEntityIds;
+import edu.yacoubi.crm.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -34,6 +40,7 @@ public class EmployeeServiceImpl implements IEmployeeService {
     private final EmployeeRepository employeeRepository;
     private final IEmployeeCustomRepository employeeCustomRepository;
     private final EntityValidator entityValidator;
+    private final DepartmentRegistry departmentRegistry;
 
     /**
      * Creates a new employee.
@@ -58,6 +65,7 @@ public class EmployeeServiceImpl implements IEmployeeService {
 
         employee.setId(null);
         final Employee savedEmployee = employeeRepository.save(employee);
+        departmentRegistry.employeeSaved(savedEmployee);
 
         if (log.isInfoEnabled()) {
             log.info("::createEmployee completed successfully");
@@ -107,6 +115,29 @@ public class EmployeeServiceImpl implements IEmployeeService {
         return employeePage;
     }
 
+    /**
+     * Retrieves a paginated list of employees as response DTOs with a projection query.
+     *
+     * @param page the page number to retrieve
+     * @param size the number of employees per page
+     * @return a paginated list of employee response DTOs
+     */
+    @Override
+    public Page<EmployeeResponseDTO> getEmployeeResponsesWithPagination(
+            final int page, final int size) {
+        if (log.isInfoEnabled()) {
+            log.info("::getEmployeeResponsesWithPagination started with: page {}, size {}", page, size);
+        }
+
+        final Pageable pageable = PageRequest.of(page, size);
+        final Page<EmployeeResponseDTO> employeePage = employeeRepository.findAllResponses(pageable);
+
+        if (log.isInfoEnabled()) {
+            log.info("::getEmployeeResponsesWithPagination completed successfully");
+        }
+        return employeePage;
+    }
+
     /**
      * Retrieves an employee by its ID.
      *
@@ -126,9 +157,10 @@ public class EmployeeServiceImpl implements IEmployeeService {
             throw new IllegalArgumentException("Employee ID must not be null");
         }
 
-        entityValidator.validateEmployeeExists(employeeId);
-
-        final Optional<Employee> optionalEmployee = employeeRepository.findById(employeeId);
+        final Employee employee = EntityLookup.loadOrThrow(
+                employeeRepository.findById(employeeId), Employee.class, employeeId
+        );
+        final Optional<Employee> optionalEmployee = Optional.of(employee);
 
         if (log.isInfoEnabled()) {
             log.info("::getEmployeeById completed successfully");
@@ -136,6 +168,27 @@ public class EmployeeServiceImpl implements IEmployeeService {
         return optionalEmployee;
     }
 
+    /**
+     * Retrieves the version of an employee with a single-column query, without loading the employee.
+     *
+     * @param employeeId the ID of the employee
+     * @return the version, or an empty Optional if the employee does not exist
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Long> getEmployeeVersion(final Long employeeId) {
+        if (log.isInfoEnabled()) {
+            log.info("::getEmployeeVersion started with: employeeId {}", employeeId);
+        }
+
+        final Optional<Long> version = employeeRepository.findVersionById(employeeId);
+
+        if (log.isInfoEnabled()) {
+            log.info("::getEmployeeVersion completed successfully");
+        }
+        return version;
+    }
+
     /**
      * Updates an existing employee by their ID.
      *
@@ -146,14 +199,33 @@ public class EmployeeServiceImpl implements IEmployeeService {
     @Override
     @Transactional
     public Employee updateEmployee(final Long employeeId, final Employee employee) {
+        return updateEmployee(employeeId, employee, null);
+    }
+
+    /**
+     * Updates an existing employee by their ID if it still has the expected version.
+     *
+     * @param employeeId      the ID of the employee to update
+     * @param employee        the updated employee details
+     * @param expectedVersion the version the client has seen, or null to update any version
+     * @return the updated employee
+     */
+    @Override
+    @Transactional
+    public Employee updateEmployee(final Long employeeId, final Employee employee, final Long expectedVersion) {
         if (log.isInfoEnabled()) {
-            log.info("::updateEmployee started with: employee {}", employee);
+            log.info("::updateEmployee started with: employee {}, expectedVersion {}", employee, expectedVersion);
         }
 
-        entityValidator.validateEmployeeExists(employeeId);
+        final Employee existingEmployee = EntityLookup.loadOrThrow(
+                employeeRepository.findById(employeeId), Employee.class, employeeId
+        );
+        EntityLookup.requireVersion(expectedVersion, existingEmployee.getVersion(), Employee.class, employeeId);
 
         employee.setId(employeeId);
+        employee.setVersion(existingEmployee.getVersion());
         final Employee updatedEmployee = employeeRepository.save(employee);
+        departmentRegistry.employeeSaved(updatedEmployee);
 
         if (log.isInfoEnabled()) {
             log.info("::updateEmployee completed successfully");
@@ -191,14 +263,31 @@ public class EmployeeServiceImpl implements IEmployeeService {
     @Transactional
     public void partialUpdateEmployee(
             final Long employeeId, final EmployeePatchDTO employeePatchDTO) {
+        partialUpdateEmployee(employeeId, employeePatchDTO, null);
+    }
+
+    /**
+     * Partially updates an employee's details if it still has the expected version.
+     *
+     * @param employeeId       the ID of the employee to update
+     * @param employeePatchDTO the partial update details
+     * @param expectedVersion  the version the client has seen, or null to update any version
+     */
+    @Override
+    @Transactional
+    public void partialUpdateEmployee(
+            final Long employeeId, final EmployeePatchDTO employeePatchDTO, final Long expectedVersion) {
         if (log.isInfoEnabled()) {
-            log.info("::partialUpdateEmployee started with: employeeId {}, employeePatchDTO {}",
-                    employeeId, employeePatchDTO);
+            log.info("::partialUpdateEmployee started with: employeeId {}, employeePatchDTO {}, expectedVersion {}",
+                    employeeId, employeePatchDTO, expectedVersion);
         }
 
-        entityValidator.validateEmployeeExists(employeeId);
-
-        employeeCustomRepository.partialUpdateEmployee(employeeId, employeePatchDTO);
+        // the affected row count replaces a separate existence and version check
+        final int updatedRows = employeeCustomRepository.partialUpdateEmployee(
+                employeeId, employeePatchDTO, expectedVersion);
+        EntityLookup.requireUpdated(updatedRows, expectedVersion,
+                () -> employeeRepository.findVersionById(employeeId), Employee.class, employeeId);
+        departmentRegistry.departmentChanged(employeeId, employeePatchDTO.getDepartment());
 
         if (log.isInfoEnabled()) {
             log.info("::partialUpdateEmployee completed successfully");
@@ -239,6 +328,8 @@ public class EmployeeServiceImpl implements IEmployeeService {
     /**
      * Retrieves a list of all departments.
      *
+     * <p>Served from the {@link DepartmentRegistry}; only queried while the registry is not built yet.</p>
+     *
      * @return an Optional containing the list of all departments
      */
     @Override
@@ -247,8 +338,10 @@ public class EmployeeServiceImpl implements IEmployeeService {
             log.info("::getAllDepartments started");
         }
 
-        final Optional<List<String>> optionalDepartments =
-                employeeRepository.findAllDepartments();
+        final DepartmentRegistry.Snapshot snapshot = departmentRegistry.snapshot();
+        final Optional<List<String>> optionalDepartments = snapshot != null
+                ? Optional.of(snapshot.names())
+                : employeeRepository.findAllDepartments();
 
         if (log.isInfoEnabled()) {
             log.info("::getAllDepartments completed successfully");
@@ -256,6 +349,28 @@ public class EmployeeServiceImpl implements IEmployeeService {
         return optionalDepartments;
     }
 
+    /**
+     * Retrieves the departments with their employee and customer counts.
+     *
+     * @return the current snapshot of the department registry
+     */
+    @Override
+    public DepartmentRegistry.Snapshot getDepartmentSnapshot() {
+        if (log.isInfoEnabled()) {
+            log.info("::getDepartmentSnapshot started");
+        }
+
+        if (!departmentRegistry.isReady()) {
+            departmentRegistry.rebuild();
+        }
+        final DepartmentRegistry.Snapshot snapshot = departmentRegistry.snapshot();
+
+        if (log.isInfoEnabled()) {
+            log.info("::getDepartmentSnapshot completed successfully");
+        }
+        return snapshot;
+    }
+
     /**
      * Deletes an employee by their ID.
      *
@@ -286,6 +401,8 @@ public class EmployeeServiceImpl implements IEmployeeService {
         }
 
         employeeRepository.deleteById(employeeId);
+        VerifiedEntityIds.evict(Employee.class, employeeId);
+        departmentRegistry.employeeRemoved(employeeId);
 
         if (log.isInfoEnabled()) {
             log.info("::deleteEmployee completed successfully");
@@ -315,5 +432,38 @@ public class EmployeeServiceImpl implements IEmployeeService {
         }
         return hasCustomers;
     }
-}
 
+    /**
+     * Retrieves employees with keyset (cursor) pagination, ordered by last name and ID.
+     *
+     * <p>Loads one row more than requested to find out whether a next page exists,
+     * so neither OFFSET nor a COUNT query is needed.</p>
+     *
+     * @param cursor the continuation token of the previous page, or null for the first page
+     * @param size   the number of employees per page
+     * @param search an optional search string for the first name or department
+     * @return a page of employees without total count
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<Employee> getEmployeesAfterCursor(final String cursor, final int size, final String search) {
+        if (log.isInfoEnabled()) {
+            log.info("::getEmployeesAfterCursor started with: cursor {}, size {}, search {}", cursor, size, search);
+        }
+
+        CursorPage.validateSize(size);
+        final KeysetCursor after = KeysetCursor.decode(cursor);
+
+        final List<Employee> rows = employeeCustomRepository.findEmployeesAfter(search, after, size + 1);
+        final CursorPage<Employee> employeePage = CursorPage.of(
+                rows,
+                size,
+                employee -> KeysetCursor.of(employee.getLastName(), employee.getId()).encode()
+        );
+
+        if (log.isInfoEnabled()) {
+            log.info("::getEmployeesAfterCursor completed successfully");
+        }
+        return employeePage;
+    }
+}
@@ -14,7 +14,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.util.List;
 
 /**
  * Service implementation for orchestrating entities.
@@ -88,10 +87,13 @@ public class EntityOrchestratorServiceImpl implements IEntityOrchestratorService
     /**
      * Reassigns customers from an old employee to a new employee.
      *
+     * <p>The customers are not loaded; they are moved with a single bulk update.</p>
+     *
      * @param oldEmployeeId ID of the old employee
      * @param newEmployeeId ID of the new employee
      */
     @Override
+    @Transactional
     public void reassignCustomers(final Long oldEmployeeId, final Long newEmployeeId) {
         if (log.isInfoEnabled()) {
             log.info("::reassignCustomers started with: oldEmployeeId: {}, newEmployeeId: {}", oldEmployeeId, newEmployeeId);
@@ -109,19 +111,18 @@ public class EntityOrchestratorServiceImpl implements IEntityOrchestratorService
             throw new IllegalArgumentException(errorMessage);
         }
 
-        final List<Customer> customers = customerService.getCustomersByEmployeeId(oldEmployeeId);
-
-        if (customers.isEmpty()) {
+        // Validiert den alten Mitarbeiter, ohne seine Kunden zu laden
+        if (!employeeService.hasCustomers(oldEmployeeId)) {
             final String errorMessage = "No customers found for oldEmployee ID: " + oldEmployeeId;
             log.warn("::reassignCustomers entity warn: {}", errorMessage);
             throw new ResourceNotFoundException(errorMessage);
         }
 
-        final Employee newEmployee = employeeService.getEmployeeById(newEmployeeId).get();
-
-        handleCustomerReassignment(customers, newEmployee);
+        // Validierung des neuen Mitarbeiters im service
+        final int reassignedCustomers = customerService.reassignAllCustomers(oldEmployeeId, newEmployeeId);
 
         if (log.isInfoEnabled()) {
+            log.info("Reassigned {} customers to new employee ID: {}", reassignedCustomers, newEmployeeId);
             log.info("::reassignCustomers completed successfully");
         }
     }
@@ -152,24 +153,6 @@ public class EntityOrchestratorServiceImpl implements IEntityOrchestratorService
         return savedCustomer;
     }
 
-    /**
-     * Handles the reassignment of customers to a new employee.
-     *
-     * @param customers   the list of customers to be reassigned
-     * @param newEmployee the new employee to whom the customers will be assigned
-     */
-    private void handleCustomerReassignment(final List<Customer> customers, final Employee newEmployee) {
-        customers.forEach(customer -> {
-            log.info("Reassigning customer ID: {} to new employee ID: {}", customer.getId(), newEmployee.getId());
-            customer.setEmployee(newEmployee);
-        });
-
-        customerService.updateCustomers(customers);
-        if (log.isInfoEnabled()) {
-            log.info("Customers reassigned successfully");
-        }
-    }
-
     /**
      * Creates an action to delete an employee.
      *
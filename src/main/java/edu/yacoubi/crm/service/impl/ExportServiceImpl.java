@@ -0,0 +1,173 @@
+package edu.yacoubi.crm.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.yacoubi.crm.dto.ExportFilter;
+import edu.yacoubi.crm.service.IExportService;
+import edu.yacoubi.crm.service.export.ExportFormat;
+import edu.yacoubi.crm.service.export.ExportRowWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service implementation for the streaming exports.
+ *
+ * <p>The exports bypass JPA: a plain SQL query is executed with a forward-only, read-only cursor and a
+ * fetch size of {@code crm.export.fetch-size} rows, and every row is written to the target straight from
+ * the {@link ResultSet}. No entity is created, so the persistence context stays empty and the heap flat
+ * regardless of the number of rows.</p>
+ *
+ * <p>The query runs in a read-only transaction: PostgreSQL only honours the fetch size (i.e. streams
+ * through a server-side cursor instead of loading the whole result) with auto-commit disabled.</p>
+ *
+ * @author A. El Yacoubi
+ */
+@Service
+@Slf4j
+public class ExportServiceImpl implements IExportService {
+    private static final List<String> CUSTOMER_COLUMNS = List.of(
+            "id", "firstName", "lastName", "email", "phone", "address", "lastInteractionDate",
+            "employeeId", "department");
+    private static final String CUSTOMER_QUERY = """
+            SELECT c.id, c.first_name, c.last_name, c.email, c.phone, c.address, c.last_interaction_date,
+                   c.employee_id, e.department
+            FROM customer c
+            LEFT JOIN employee e ON e.id = c.employee_id
+            """;
+
+    private static final List<String> NOTE_COLUMNS = List.of(
+            "id", "customerId", "employeeId", "department", "date", "interactionType", "content");
+    private static final String NOTE_QUERY = """
+            SELECT n.id, n.customer_id, c.employee_id, e.department, n.date, n.interaction_type, n.content
+            FROM note n
+            JOIN customer c ON c.id = n.customer_id
+            LEFT JOIN employee e ON e.id = c.employee_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public ExportServiceImpl(
+            final JdbcTemplate jdbcTemplate,
+            final PlatformTransactionManager transactionManager,
+            final ObjectMapper objectMapper,
+            @Value("${crm.export.fetch-size:1000}") final int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public long exportCustomers(final ExportFilter filter, final ExportFormat format, final OutputStream outputStream) {
+        if (log.isInfoEnabled()) {
+            log.info("::exportCustomers started with: filter {}, format {}", filter, format);
+        }
+
+        final long rows = export(CUSTOMER_QUERY, "c.last_interaction_date", "c.id", CUSTOMER_COLUMNS,
+                filter, format, outputStream);
+
+        if (log.isInfoEnabled()) {
+            log.info("::exportCustomers completed successfully with: rows {}", rows);
+        }
+        return rows;
+    }
+
+    @Override
+    public long exportNotes(final ExportFilter filter, final ExportFormat format, final OutputStream outputStream) {
+        if (log.isInfoEnabled()) {
+            log.info("::exportNotes started with: filter {}, format {}", filter, format);
+        }
+
+        final long rows = export(NOTE_QUERY, "n.date", "n.id", NOTE_COLUMNS, filter, format, outputStream);
+
+        if (log.isInfoEnabled()) {
+            log.info("::exportNotes completed successfully with: rows {}", rows);
+        }
+        return rows;
+    }
+
+    private long export(
+            final String query,
+            final String dateColumn,
+            final String idColumn,
+            final List<String> columns,
+            final ExportFilter filter,
+            final ExportFormat format,
+            final OutputStream outputStream) {
+        final StringBuilder sql = new StringBuilder(query).append("WHERE 1 = 1");
+        final List<Object> args = new ArrayList<>(4);
+        if (filter.employeeId() != null) {
+            sql.append(" AND c.employee_id = ?");
+            args.add(filter.employeeId());
+        }
+        if (filter.department() != null) {
+            sql.append(" AND e.department = ?");
+            args.add(filter.department());
+        }
+        if (filter.from() != null) {
+            sql.append(" AND ").append(dateColumn).append(" >= ?");
+            args.add(Date.valueOf(filter.from()));
+        }
+        if (filter.to() != null) {
+            sql.append(" AND ").append(dateColumn).append(" <= ?");
+            args.add(Date.valueOf(filter.to()));
+        }
+        sql.append(" ORDER BY ").append(idColumn);
+
+        try {
+            final ExportRowWriter writer = format.open(objectMapper, columns, outputStream);
+            final long[] rows = {0};
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(
+                    connection -> {
+                        final PreparedStatement statement = connection.prepareStatement(
+                                sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                        statement.setFetchSize(fetchSize);
+                        for (int i = 0; i < args.size(); i++) {
+                            statement.setObject(i + 1, args.get(i));
+                        }
+                        return statement;
+                    },
+                    (RowCallbackHandler) resultSet -> {
+                        writeRow(writer, resultSet, columns.size());
+                        rows[0]++;
+                    }));
+            writer.finish();
+            return rows[0];
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Writing the export failed", exception);
+        }
+    }
+
+    private static void writeRow(final ExportRowWriter writer, final ResultSet resultSet, final int columnCount) {
+        try {
+            final Object[] values = new Object[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                final Object value = resultSet.getObject(i + 1);
+                values[i] = value instanceof Date date ? date.toLocalDate() : value;
+            }
+            writer.row(values);
+        } catch (IOException exception) {
+            // e.g. the client disconnected, ends the query and the transaction
+            throw new UncheckedIOException("Writing the export failed", exception);
+        } catch (java.sql.SQLException exception) {
+            throw new IllegalStateException("Reading the export row failed", exception);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package edu.yacoubi.crm.service.impl;
+
+import edu.yacoubi.crm.dto.BulkLineResult;
+import edu.yacoubi.crm.dto.NoteImportReport;
+import edu.yacoubi.crm.dto.ValidationError;
+import edu.yacoubi.crm.model.InteractionType;
+import edu.yacoubi.crm.service.INoteImportService;
+import edu.yacoubi.crm.service.importer.BatchInsertNoteLoader;
+import edu.yacoubi.crm.service.importer.NoteImportRow;
+import edu.yacoubi.crm.service.importer.NoteLoader;
+import edu.yacoubi.crm.service.importer.PostgresCopyNoteLoader;
+import edu.yacoubi.crm.util.CsvRecordReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.DatabaseMetaData;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+
+/**
+ * Service implementation for the CSV note import.
+ *
+ * <p>The upload is parsed record by record; rows that are malformed or carry an unknown interaction type
+ * are rejected here, the valid rows are streamed into a {@link NoteLoader}. On PostgreSQL the rows are
+ * loaded with {@code COPY} ({@link PostgresCopyNoteLoader}), on other databases with multi-row inserts
+ * ({@link BatchInsertNoteLoader}). Both resolve the customers set-based and reject rows of unknown
+ * customers.</p>
+ *
+ * <p>The notes are written with plain JDBC, bypassing the persistence context and the entity validation;
+ * the constraints of {@link edu.yacoubi.crm.model.Note} are therefore checked here.</p>
+ *
+ * @author A. El Yacoubi
+ */
+@Service
+@Slf4j
+public class NoteImportServiceImpl implements INoteImportService {
+    private static final String CUSTOMER_ID = "customerId";
+    private static final String DATE = "date";
+    private static final String INTERACTION_TYPE = "interactionType";
+    private static final String CONTENT = "content";
+    private static final int MAX_CONTENT_LENGTH = 1000;
+
+    private final DataSource dataSource;
+    private final PostgresCopyNoteLoader copyLoader;
+    private final BatchInsertNoteLoader batchLoader;
+    private final int maxReportedRejections;
+
+    private volatile NoteLoader loader;
+
+    public NoteImportServiceImpl(
+            final DataSource dataSource,
+            final PostgresCopyNoteLoader copyLoader,
+            final BatchInsertNoteLoader batchLoader,
+            @Value("${crm.import.notes.max-reported-rejections:1000}") final int maxReportedRejections) {
+        this.dataSource = dataSource;
+        this.copyLoader = copyLoader;
+        this.batchLoader = batchLoader;
+        this.maxReportedRejections = maxReportedRejections;
+    }
+
+    @Override
+    public NoteImportReport importNotes(final InputStream csv) {
+        if (log.isInfoEnabled()) {
+            log.info("::importNotes started");
+        }
+
+        final CsvRecordReader reader = new CsvRecordReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        final Rows rows = new Rows(reader, columns(readRecord(reader)));
+        final NoteLoader noteLoader = loader();
+        final long imported = noteLoader.load(rows, rows::reject);
+
+        rows.rejections.sort(Comparator.comparingLong(BulkLineResult::line));
+        final NoteImportReport report = new NoteImportReport(
+                noteLoader.method(), rows.count, imported, rows.rejected, List.copyOf(rows.rejections));
+
+        if (log.isInfoEnabled()) {
+            log.info("::importNotes completed successfully with: method {}, rows {}, imported {}, rejected {}",
+                    report.method(), report.rows(), report.imported(), report.rejected());
+        }
+        return report;
+    }
+
+    private NoteLoader loader() {
+        NoteLoader current = loader;
+        if (current == null) {
+            try {
+                final String product = JdbcUtils.extractDatabaseMetaData(
+                        dataSource, DatabaseMetaData::getDatabaseProductName);
+                current = "PostgreSQL".equalsIgnoreCase(product) ? copyLoader : batchLoader;
+            } catch (MetaDataAccessException exception) {
+                log.warn("::loader database product unknown, using batch inserts", exception);
+                current = batchLoader;
+            }
+            loader = current;
+        }
+        return current;
+    }
+
+    /**
+     * Maps the required columns to their index in the header.
+     *
+     * @return the indexes of customerId, date, interactionType and content
+     */
+    private static int[] columns(final List<String> header) {
+        if (header == null) {
+            throw new IllegalArgumentException("The upload is empty");
+        }
+        if (!header.isEmpty()) {
+            // byte order mark of files saved by spreadsheet applications
+            header.set(0, header.get(0).replace("\uFEFF", ""));
+        }
+        final String[] required = {CUSTOMER_ID, DATE, INTERACTION_TYPE, CONTENT};
+        final int[] columns = new int[required.length];
+        for (int i = 0; i < required.length; i++) {
+            columns[i] = header.indexOf(required[i]);
+            if (columns[i] < 0) {
+                throw new IllegalArgumentException("The header misses the column " + required[i]
+                        + ", required are " + Arrays.toString(required));
+            }
+        }
+        return columns;
+    }
+
+    private static List<String> readRecord(final CsvRecordReader reader) {
+        try {
+            return reader.next();
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Reading the upload failed", exception);
+        }
+    }
+
+    /**
+     * The valid rows of the upload, parsed on demand; invalid rows are counted and reported on the way.
+     */
+    private final class Rows implements Iterator<NoteImportRow> {
+        private final CsvRecordReader reader;
+        private final int[] columns;
+        private final int width;
+        private final List<BulkLineResult> rejections = new ArrayList<>();
+        private long count;
+        private long rejected;
+        private NoteImportRow next;
+        private boolean exhausted;
+
+        private Rows(final CsvRecordReader reader, final int[] columns) {
+            this.reader = reader;
+            this.columns = columns;
+            this.width = Arrays.stream(columns).max().orElse(0) + 1;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && !exhausted) {
+                final List<String> record = readRecord(reader);
+                if (record == null) {
+                    exhausted = true;
+                } else {
+                    count++;
+                    next = parse(reader.recordLine(), record);
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public NoteImportRow next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final NoteImportRow row = next;
+            next = null;
+            return row;
+        }
+
+        private void reject(final BulkLineResult result) {
+            rejected++;
+            if (rejections.size() < maxReportedRejections) {
+                rejections.add(result);
+            }
+        }
+
+        private NoteImportRow parse(final long line, final List<String> record) {
+            if (record.size() < width) {
+                reject(BulkLineResult.rejected(line, List.of(new ValidationError(
+                        "Line", "Expected at least " + width + " fields but found " + record.size()))));
+                return null;
+            }
+
+            final List<ValidationError> errors = new ArrayList<>(1);
+            Long customerId = null;
+            try {
+                customerId = Long.valueOf(record.get(columns[0]).trim());
+            } catch (NumberFormatException exception) {
+                errors.add(new ValidationError(CUSTOMER_ID, "Customer ID must be a number"));
+            }
+            LocalDate date = null;
+            try {
+                date = LocalDate.parse(record.get(columns[1]).trim());
+            } catch (DateTimeParseException exception) {
+                errors.add(new ValidationError(DATE, "Date must be an ISO-8601 date (yyyy-MM-dd)"));
+            }
+            InteractionType interactionType = null;
+            try {
+                interactionType = InteractionType.valueOf(record.get(columns[2]).trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException exception) {
+                errors.add(new ValidationError(INTERACTION_TYPE, "Interaction type must be one of "
+                        + Arrays.toString(InteractionType.values())));
+            }
+            final String content = record.get(columns[3]);
+            if (content.isBlank()) {
+                errors.add(new ValidationError(CONTENT, "Content is mandatory"));
+            } else if (content.length() > MAX_CONTENT_LENGTH) {
+                errors.add(new ValidationError(CONTENT, "Content must be less than 1000 characters"));
+            }
+
+            if (!errors.isEmpty()) {
+                reject(BulkLineResult.rejected(line, errors));
+                return null;
+            }
+            return new NoteImportRow(line, customerId, date, interactionType, content);
+        }
+    }
+}
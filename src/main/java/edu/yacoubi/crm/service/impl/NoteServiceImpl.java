@@ -1,16 +1,27 @@
 package edu.yacoubi.crm.service.impl;
 
+import edu.yacoubi.crm.dto.CursorPage;
 import edu.yacoubi.crm.dto.note.NotePatchDTO;
+import edu.yacoubi.crm.dto.note.NoteResponseDTO;
+import edu.yacoubi.crm.dto.note.NoteSearchCriteria;
+import edu.yacoubi.crm.dto.note.NoteSummaryDTO;
+import edu.yacoubi.crm.model.InteractionType;
 import edu.yacoubi.crm.model.Note;
 import edu.yacoubi.crm.repository.INoteCustomRepository;
+import edu.yacoubi.crm.repository.INoteSearchRepository;
+import edu.yacoubi.crm.repository.INoteSearchRepository.RankedNote;
 import edu.yacoubi.crm.repository.NoteRepository;
 import edu.yacoubi.crm.service.INoteService;
+import edu.yacoubi.crm.service.validation.EntityLookup;
 import edu.yacoubi.crm.service.validation.EntityValidator;
+import edu.yacoubi.crm.service.validation.VerifiedEntityIds;
+import edu.yacoubi.crm.util.KeysetCursor;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,6 +39,7 @@ import java.util.Optional;
 public class NoteServiceImpl implements INoteService {
     private final NoteRepository noteRepository;
     private final INoteCustomRepository noteCustomRepository;
+    private final INoteSearchRepository noteSearchRepository;
     private final EntityValidator entityValidator;
 
     /**
@@ -68,9 +80,8 @@ public class NoteServiceImpl implements INoteService {
             log.info("::getNoteById started with: noteId {}", noteId);
         }
 
-        entityValidator.validateNoteExists(noteId);
-
-        final Optional<Note> optionalNote = noteRepository.findById(noteId);
+        final Note note = EntityLookup.loadOrThrow(noteRepository.findById(noteId), Note.class, noteId);
+        final Optional<Note> optionalNote = Optional.of(note);
 
         if (log.isInfoEnabled()) {
             log.info("::getNoteById completed successfully");
@@ -78,21 +89,60 @@ public class NoteServiceImpl implements INoteService {
         return optionalNote;
     }
 
+    /**
+     * Retrieves the version of a note with a single-column query, without loading the note.
+     *
+     * @param noteId the ID of the note
+     * @return the version, or an empty Optional if the note does not exist
+     */
+    @Override
+    public Optional<Long> getNoteVersion(final Long noteId) {
+        if (log.isInfoEnabled()) {
+            log.info("::getNoteVersion started with: noteId {}", noteId);
+        }
+
+        final Optional<Long> version = noteRepository.findVersionById(noteId);
+
+        if (log.isInfoEnabled()) {
+            log.info("::getNoteVersion completed successfully");
+        }
+        return version;
+    }
+
     /**
      * Fully updates a note.
+     * The note keeps the customer it is currently assigned to.
      *
      * @param noteId the ID of the note to update
      * @param note   the updated note details
      * @return the updated note
      */
     @Override
+    @Transactional
     public Note updateNote(final Long noteId, final Note note) {
+        return updateNote(noteId, note, null);
+    }
+
+    /**
+     * Fully updates a note if it still has the expected version.
+     *
+     * @param noteId          the ID of the note to update
+     * @param note            the updated note details
+     * @param expectedVersion the version the client has seen, or null to update any version
+     * @return the updated note
+     */
+    @Override
+    @Transactional
+    public Note updateNote(final Long noteId, final Note note, final Long expectedVersion) {
         if (log.isInfoEnabled()) {
-            log.info("::updateNote started with: noteId {}, note {}", noteId, note);
+            log.info("::updateNote started with: noteId {}, note {}, expectedVersion {}", noteId, note, expectedVersion);
         }
 
-        entityValidator.validateNoteExists(noteId);
+        final Note existingNote = EntityLookup.loadOrThrow(noteRepository.findById(noteId), Note.class, noteId);
+        EntityLookup.requireVersion(expectedVersion, existingNote.getVersion(), Note.class, noteId);
         note.setId(noteId);
+        note.setVersion(existingNote.getVersion());
+        note.setCustomer(existingNote.getCustomer());
 
         final Note updatedNote = noteRepository.save(note);
 
@@ -116,6 +166,7 @@ public class NoteServiceImpl implements INoteService {
         entityValidator.validateNoteExists(noteId);
 
         noteRepository.deleteById(noteId);
+        VerifiedEntityIds.evict(Note.class, noteId);
 
         if (log.isInfoEnabled()) {
             log.info("::deleteNote completed successfully");
@@ -145,6 +196,29 @@ public class NoteServiceImpl implements INoteService {
         return notesByCustomerId;
     }
 
+    /**
+     * Retrieves the notes of a customer as response DTOs with a projection query, without loading
+     * the notes or the customer.
+     *
+     * @param customerId the ID of the customer whose notes to retrieve
+     * @return the note response DTOs of the customer
+     */
+    @Override
+    public List<NoteResponseDTO> getNoteResponsesByCustomerId(final Long customerId) {
+        if (log.isInfoEnabled()) {
+            log.info("::getNoteResponsesByCustomerId started with: customerId {}", customerId);
+        }
+
+        entityValidator.validateCustomerExists(customerId);
+
+        final List<NoteResponseDTO> notes = noteRepository.findResponsesByCustomerId(customerId);
+
+        if (log.isInfoEnabled()) {
+            log.info("::getNoteResponsesByCustomerId completed successfully");
+        }
+        return notes;
+    }
+
     /**
      * Partially updates a note's details.
      *
@@ -154,17 +228,166 @@ public class NoteServiceImpl implements INoteService {
     @Override
     @Transactional
     public void partialUpdateNote(final Long noteId, final NotePatchDTO notePatchDTO) {
+        partialUpdateNote(noteId, notePatchDTO, null);
+    }
+
+    /**
+     * Partially updates a note's details if it still has the expected version.
+     *
+     * @param noteId          the ID of the note to update
+     * @param notePatchDTO    the partial update details
+     * @param expectedVersion the version the client has seen, or null to update any version
+     */
+    @Override
+    @Transactional
+    public void partialUpdateNote(final Long noteId, final NotePatchDTO notePatchDTO, final Long expectedVersion) {
         if (log.isInfoEnabled()) {
-            log.info("::partialUpdateNote started with: noteId {}, notePatchDTO {}", noteId, notePatchDTO);
+            log.info("::partialUpdateNote started with: noteId {}, notePatchDTO {}, expectedVersion {}",
+                    noteId, notePatchDTO, expectedVersion);
         }
 
-        entityValidator.validateNoteExists(noteId);
-
-        // delegate
-        noteCustomRepository.partialUpdateNote(noteId, notePatchDTO);
+        // delegate, the affected row count replaces a separate existence and version check
+        final int updatedRows = noteCustomRepository.partialUpdateNote(noteId, notePatchDTO, expectedVersion);
+        EntityLookup.requireUpdated(updatedRows, expectedVersion,
+                () -> noteRepository.findVersionById(noteId), Note.class, noteId);
 
         if (log.isInfoEnabled()) {
             log.info("::partialUpdateNote completed successfully");
         }
     }
+
+    /**
+     * Retrieves notes with keyset (cursor) pagination, ordered by date and ID, newest first.
+     *
+     * <p>Loads one row more than requested to find out whether a next page exists,
+     * so neither OFFSET nor a COUNT query is needed.</p>
+     *
+     * @param cursor     the continuation token of the previous page, or null for the first page
+     * @param size       the number of notes per page
+     * @param customerId an optional customer ID to list only the notes of this customer
+     * @return a page of notes without total count
+     */
+    @Override
+    @Transactional
+    public CursorPage<Note> getNotesAfterCursor(final String cursor, final int size, final Long customerId) {
+        if (log.isInfoEnabled()) {
+            log.info("::getNotesAfterCursor started with: cursor {}, size {}, customerId {}", cursor, size, customerId);
+        }
+
+        CursorPage.validateSize(size);
+        final KeysetCursor after = KeysetCursor.decode(cursor);
+        if (after != null) {
+            // Fehlerhafte Tokens als 400 melden, nicht erst in der Query
+            after.sortKeyAsDate();
+        }
+        if (customerId != null) {
+            entityValidator.validateCustomerExists(customerId);
+        }
+
+        final List<Note> rows = noteCustomRepository.findNotesAfter(customerId, after, size + 1);
+        final CursorPage<Note> notePage = CursorPage.of(
+                rows,
+                size,
+                note -> KeysetCursor.of(note.getDate(), note.getId()).encode()
+        );
+
+        if (log.isInfoEnabled()) {
+            log.info("::getNotesAfterCursor completed successfully");
+        }
+        return notePage;
+    }
+
+    /**
+     * Retrieves the timeline of a customer with keyset (cursor) pagination, ordered by date and ID,
+     * newest first.
+     *
+     * <p>Loads only the note columns with one query of at most {@code size + 1} rows, no matter how many
+     * notes the customer has.</p>
+     *
+     * @param customerId      the ID of the customer whose notes to retrieve
+     * @param interactionType an optional interaction type to list only the notes of this type
+     * @param cursor          the continuation token of the previous page, or null for the first page
+     * @param size            the number of notes per page
+     * @return a page of notes without total count
+     * @throws IllegalArgumentException if the size is invalid or the cursor is malformed
+     */
+    @Override
+    public CursorPage<NoteSummaryDTO> getNoteTimeline(final Long customerId, final InteractionType interactionType,
+                                                      final String cursor, final int size) {
+        if (log.isInfoEnabled()) {
+            log.info("::getNoteTimeline started with: customerId {}, interactionType {}, cursor {}, size {}",
+                    customerId, interactionType, cursor, size);
+        }
+
+        CursorPage.validateSize(size);
+        final KeysetCursor after = KeysetCursor.decode(cursor);
+        if (after != null) {
+            // Fehlerhafte Tokens als 400 melden, nicht erst in der Query
+            after.sortKeyAsDate();
+        }
+        entityValidator.validateCustomerExists(customerId);
+
+        final List<NoteSummaryDTO> rows = noteCustomRepository.findTimeline(customerId, interactionType, after, size + 1);
+        final CursorPage<NoteSummaryDTO> timeline = CursorPage.of(
+                rows,
+                size,
+                note -> KeysetCursor.of(note.date(), note.id()).encode()
+        );
+
+        if (log.isInfoEnabled()) {
+            log.info("::getNoteTimeline completed successfully");
+        }
+        return timeline;
+    }
+
+    /**
+     * Searches notes by their content, best matches first, with keyset (cursor) pagination.
+     *
+     * <p>The filters are optional and combined with AND; the employee filter matches the notes
+     * of the customers assigned to the employee.</p>
+     *
+     * @param criteria the query and the optional filters
+     * @param cursor   the continuation token of the previous page, or null for the first page
+     * @param size     the number of notes per page
+     * @return a page of notes without total count
+     * @throws IllegalArgumentException if the query is blank, the date range is invalid or the cursor is malformed
+     */
+    @Override
+    @Transactional
+    public CursorPage<Note> searchNotes(final NoteSearchCriteria criteria, final String cursor, final int size) {
+        if (log.isInfoEnabled()) {
+            log.info("::searchNotes started with: criteria {}, cursor {}, size {}", criteria, cursor, size);
+        }
+
+        CursorPage.validateSize(size);
+        if (criteria.getQuery() == null || criteria.getQuery().isBlank()) {
+            throw new IllegalArgumentException("Search term must not be blank");
+        }
+        if (criteria.getFrom() != null && criteria.getTo() != null && criteria.getFrom().isAfter(criteria.getTo())) {
+            throw new IllegalArgumentException("Date 'from' must not be after 'to'");
+        }
+        final KeysetCursor after = KeysetCursor.decode(cursor);
+        // Fehlerhafte Tokens als 400 melden, nicht erst in der Query
+        final BigDecimal afterRank = after == null ? null : after.sortKeyAsDecimal();
+        if (criteria.getEmployeeId() != null) {
+            entityValidator.validateEmployeeExists(criteria.getEmployeeId());
+        }
+
+        final List<RankedNote> rows = noteSearchRepository.searchNotes(
+                criteria,
+                afterRank,
+                after == null ? null : after.id(),
+                size + 1
+        );
+        final CursorPage<Note> notePage = CursorPage.of(
+                rows,
+                size,
+                row -> KeysetCursor.of(row.rank().toPlainString(), row.note().getId()).encode()
+        ).map(RankedNote::note);
+
+        if (log.isInfoEnabled()) {
+            log.info("::searchNotes completed successfully");
+        }
+        return notePage;
+    }
 }
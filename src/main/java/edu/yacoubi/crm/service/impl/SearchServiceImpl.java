@@ -0,0 +1,147 @@
+package edu.yacoubi.crm.service.impl;
+
+import edu.yacoubi.crm.model.Customer;
+import edu.yacoubi.crm.model.Employee;
+import edu.yacoubi.crm.repository.CustomerRepository;
+import edu.yacoubi.crm.repository.ISearchRepository;
+import edu.yacoubi.crm.service.ISearchService;
+import edu.yacoubi.crm.service.search.CustomerNgramIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of the Search Service.
+ *
+ * <p>Normalizes the search term and delegates to the {@link ISearchRepository} of the active
+ * profile: pg_trgm backed in prod, plain LIKE on other databases.</p>
+ *
+ * @author A. El Yacoubi
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SearchServiceImpl implements ISearchService {
+    private final ISearchRepository searchRepository;
+    private final CustomerRepository customerRepository;
+    private final CustomerNgramIndex customerNgramIndex;
+
+    /**
+     * Searches customers by first name, last name or email.
+     *
+     * @param search the search string
+     * @param page   the page number to retrieve
+     * @param size   the number of customers per page
+     * @return a page of matching customers, best matches first
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Customer> searchCustomers(final String search, final int page, final int size) {
+        if (log.isInfoEnabled()) {
+            log.info("::searchCustomers started with: search: {}, page: {}, size: {}", search, page, size);
+        }
+
+        final Page<Customer> customerPage = searchRepository.searchCustomers(
+                normalize(search), PageRequest.of(page, size)
+        );
+
+        if (log.isInfoEnabled()) {
+            log.info("::searchCustomers completed successfully with: totalElements: {}",
+                    customerPage.getTotalElements());
+        }
+        return customerPage;
+    }
+
+    /**
+     * Searches employees by first name, last name or department.
+     *
+     * @param search the search string
+     * @param page   the page number to retrieve
+     * @param size   the number of employees per page
+     * @return a page of matching employees, best matches first
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Employee> searchEmployees(final String search, final int page, final int size) {
+        if (log.isInfoEnabled()) {
+            log.info("::searchEmployees started with: search: {}, page: {}, size: {}", search, page, size);
+        }
+
+        final Page<Employee> employeePage = searchRepository.searchEmployees(
+                normalize(search), PageRequest.of(page, size)
+        );
+
+        if (log.isInfoEnabled()) {
+            log.info("::searchEmployees completed successfully with: totalElements: {}",
+                    employeePage.getTotalElements());
+        }
+        return employeePage;
+    }
+
+    /**
+     * Type-ahead suggestions for customers.
+     *
+     * <p>With a ready n-gram index the matching IDs come from memory and are hydrated with one
+     * {@code IN} query; otherwise the first page of the database search is returned.</p>
+     *
+     * @param search the search string
+     * @param limit  the maximum number of suggestions
+     * @return the matching customers, best matches first
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Customer> suggestCustomers(final String search, final int limit) {
+        if (log.isInfoEnabled()) {
+            log.info("::suggestCustomers started with: search: {}, limit: {}", search, limit);
+        }
+
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+        final String term = normalize(search);
+
+        final List<Customer> customers;
+        if (customerNgramIndex.isReady()) {
+            final List<Long> ids = customerNgramIndex.search(term, limit);
+            final Map<Long, Customer> customersById = customerRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(Customer::getId, Function.identity()));
+            // keep the ranking of the index, customers deleted in the meantime are skipped
+            customers = ids.stream()
+                    .map(customersById::get)
+                    .filter(Objects::nonNull)
+                    .toList();
+        } else {
+            customers = searchRepository.searchCustomers(term, PageRequest.of(0, limit)).getContent();
+        }
+
+        if (log.isInfoEnabled()) {
+            log.info("::suggestCustomers completed successfully with: suggestions: {}, fromIndex: {}",
+                    customers.size(), customerNgramIndex.isReady());
+        }
+        return customers;
+    }
+
+    /**
+     * Normalizes a search term the same way the search indexes normalize the columns.
+     *
+     * @param search the search string
+     * @return the trimmed, lower case term with collapsed whitespace
+     * @throws IllegalArgumentException if the search string is blank
+     */
+    static String normalize(final String search) {
+        if (search == null || search.isBlank()) {
+            throw new IllegalArgumentException("Search term must not be blank");
+        }
+        return search.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,118 @@
+package edu.yacoubi.crm.service.importer;
+
+import edu.yacoubi.crm.dto.BulkLineResult;
+import edu.yacoubi.crm.dto.ValidationError;
+import edu.yacoubi.crm.repository.CustomerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Loads notes with multi-row {@code INSERT} statements, for databases without {@code COPY} (H2).
+ *
+ * <p>The rows are loaded in batches of {@code crm.import.notes.batch-size} rows, each in its own
+ * transaction: the customers of a batch are resolved with one query and the rows of existing customers are
+ * inserted with one statement.</p>
+ *
+ * @author A. El Yacoubi
+ */
+@Component
+@Slf4j
+public class BatchInsertNoteLoader implements NoteLoader {
+    private static final String INSERT_PREFIX =
+            "INSERT INTO note (id, version, interaction_type, content, date, customer_id) VALUES ";
+    private static final String INSERT_VALUES = "(?, 0, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CustomerRepository customerRepository;
+    private final int batchSize;
+
+    public BatchInsertNoteLoader(
+            final JdbcTemplate jdbcTemplate,
+            final TransactionTemplate transactionTemplate,
+            final CustomerRepository customerRepository,
+            @Value("${crm.import.notes.batch-size:1000}") final int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("crm.import.notes.batch-size must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.customerRepository = customerRepository;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public String method() {
+        return "BATCH";
+    }
+
+    @Override
+    public long load(final Iterator<NoteImportRow> rows, final Consumer<BulkLineResult> rejected) {
+        if (log.isInfoEnabled()) {
+            log.info("::load started with: batchSize {}", batchSize);
+        }
+
+        long imported = 0;
+        final List<NoteImportRow> batch = new ArrayList<>(batchSize);
+        while (rows.hasNext()) {
+            batch.add(rows.next());
+            if (batch.size() == batchSize || !rows.hasNext()) {
+                imported += transactionTemplate.execute(status -> insert(batch, rejected));
+                batch.clear();
+            }
+        }
+
+        if (log.isInfoEnabled()) {
+            log.info("::load completed successfully with: imported {}", imported);
+        }
+        return imported;
+    }
+
+    private long insert(final List<NoteImportRow> batch, final Consumer<BulkLineResult> rejected) {
+        final Set<Long> customerIds = new HashSet<>();
+        batch.forEach(row -> customerIds.add(row.customerId()));
+        final Set<Long> existing = new HashSet<>(customerRepository.findExistingIds(customerIds));
+
+        final List<NoteImportRow> known = new ArrayList<>(batch.size());
+        for (final NoteImportRow row : batch) {
+            if (existing.contains(row.customerId())) {
+                known.add(row);
+            } else {
+                rejected.accept(BulkLineResult.rejected(row.line(), List.of(new ValidationError(
+                        "customerId", "Customer not found with id: " + row.customerId()))));
+            }
+        }
+        if (known.isEmpty()) {
+            return 0;
+        }
+
+        final StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        final List<Object> args = new ArrayList<>(known.size() * 5);
+        long lo = 0;
+        for (int i = 0; i < known.size(); i++) {
+            if (i % ID_BLOCK_SIZE == 0) {
+                // one sequence value per block of IDs (pooled-lo)
+                lo = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR note_seq", Long.class);
+            }
+            final NoteImportRow row = known.get(i);
+            sql.append(i == 0 ? "" : ", ").append(INSERT_VALUES);
+            args.add(lo + i % ID_BLOCK_SIZE);
+            args.add(row.interactionType().name());
+            args.add(row.content());
+            args.add(Date.valueOf(row.date()));
+            args.add(row.customerId());
+        }
+        return jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+}
@@ -0,0 +1,22 @@
+package edu.yacoubi.crm.service.importer;
+
+import edu.yacoubi.crm.model.InteractionType;
+
+import java.time.LocalDate;
+
+/**
+ * A parsed and validated row of a note import; whether its customer exists is checked by the loader.
+ *
+ * @param line            the line of the row in the CSV upload
+ * @param customerId      the ID of the customer the note belongs to
+ * @param date            the date of the interaction
+ * @param interactionType the type of the interaction
+ * @param content         the content of the note
+ */
+public record NoteImportRow(
+        long line,
+        long customerId,
+        LocalDate date,
+        InteractionType interactionType,
+        String content) {
+}
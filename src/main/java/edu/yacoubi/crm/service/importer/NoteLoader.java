@@ -0,0 +1,37 @@
+package edu.yacoubi.crm.service.importer;
+
+import edu.yacoubi.crm.dto.BulkLineResult;
+
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * Writes the rows of a note import into the note table.
+ *
+ * <p>Rows of unknown customers are reported as rejected and skipped, the load itself continues.</p>
+ */
+public interface NoteLoader {
+
+    /**
+     * Number of IDs reserved by one value of {@code note_seq}, the {@code allocationSize} of
+     * {@link edu.yacoubi.crm.model.Note}. The loaders hand out IDs the way the pooled-lo optimizer does, so
+     * they never collide with the IDs Hibernate assigns.
+     */
+    int ID_BLOCK_SIZE = 50;
+
+    /**
+     * The name of the load method, reported to the client.
+     *
+     * @return e.g. {@code COPY} or {@code BATCH}
+     */
+    String method();
+
+    /**
+     * Loads the rows.
+     *
+     * @param rows     the valid rows, consumed once
+     * @param rejected receives the rows of unknown customers
+     * @return the number of imported notes
+     */
+    long load(Iterator<NoteImportRow> rows, Consumer<BulkLineResult> rejected);
+}
@@ -0,0 +1,142 @@
+package edu.yacoubi.crm.service.importer;
+
+import edu.yacoubi.crm.dto.BulkLineResult;
+import edu.yacoubi.crm.dto.ValidationError;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Loads notes into PostgreSQL with {@code COPY}.
+ *
+ * <p>The rows are streamed with the CopyManager of the driver into a temporary staging table; then the
+ * customers are resolved with one query and all rows of existing customers are inserted with one
+ * {@code INSERT ... SELECT}. The whole load is one transaction, three statements plus the copy, independent
+ * of the number of rows.</p>
+ *
+ * @author A. El Yacoubi
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PostgresCopyNoteLoader implements NoteLoader {
+    private static final int COPY_BUFFER_CHARS = 64 * 1024;
+
+    private static final String CREATE_STAGING = """
+            CREATE TEMPORARY TABLE note_import (
+                line BIGINT NOT NULL,
+                customer_id BIGINT NOT NULL,
+                date DATE NOT NULL,
+                interaction_type VARCHAR(50) NOT NULL,
+                content TEXT NOT NULL
+            ) ON COMMIT DROP
+            """;
+    private static final String COPY_STAGING =
+            "COPY note_import (line, customer_id, date, interaction_type, content) FROM STDIN (FORMAT csv)";
+    private static final String SELECT_UNKNOWN_CUSTOMERS = """
+            SELECT i.line, i.customer_id
+            FROM note_import i
+            WHERE NOT EXISTS (SELECT 1 FROM customer c WHERE c.id = i.customer_id)
+            ORDER BY i.line
+            """;
+    private static final String COUNT_KNOWN_CUSTOMERS = """
+            SELECT count(*) FROM note_import i JOIN customer c ON c.id = i.customer_id
+            """;
+    // every value of note_seq is the low end of a block of ID_BLOCK_SIZE IDs (pooled-lo)
+    private static final String INSERT_NOTES = """
+            INSERT INTO note (id, version, interaction_type, content, date, customer_id)
+            SELECT b.lo + v.rn %% %1$d, 0, v.interaction_type, v.content, v.date, v.customer_id
+            FROM (SELECT i.interaction_type, i.content, i.date, i.customer_id,
+                         row_number() OVER (ORDER BY i.line) - 1 AS rn
+                  FROM note_import i
+                  JOIN customer c ON c.id = i.customer_id) v
+            JOIN (SELECT nextval('note_seq') AS lo, row_number() OVER () - 1 AS block
+                  FROM generate_series(1, ?)) b ON b.block = v.rn / %1$d
+            """.formatted(ID_BLOCK_SIZE);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public String method() {
+        return "COPY";
+    }
+
+    @Override
+    public long load(final Iterator<NoteImportRow> rows, final Consumer<BulkLineResult> rejected) {
+        if (log.isInfoEnabled()) {
+            log.info("::load started");
+        }
+
+        final Long imported = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute(CREATE_STAGING);
+            final long staged = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> copy(
+                    connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_STAGING), rows));
+
+            jdbcTemplate.query(SELECT_UNKNOWN_CUSTOMERS, resultSet -> {
+                rejected.accept(BulkLineResult.rejected(resultSet.getLong(1), List.of(new ValidationError(
+                        "customerId", "Customer not found with id: " + resultSet.getLong(2)))));
+            });
+
+            final long known = jdbcTemplate.queryForObject(COUNT_KNOWN_CUSTOMERS, Long.class);
+            if (known == 0) {
+                return 0L;
+            }
+            final long blocks = (known + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE;
+            final long inserted = jdbcTemplate.update(INSERT_NOTES, blocks);
+
+            if (log.isDebugEnabled()) {
+                log.debug("::load staged {} rows, inserted {}", staged, inserted);
+            }
+            return inserted;
+        });
+
+        if (log.isInfoEnabled()) {
+            log.info("::load completed successfully with: imported {}", imported);
+        }
+        return imported;
+    }
+
+    private static long copy(final CopyIn copyIn, final Iterator<NoteImportRow> rows) throws SQLException {
+        final StringBuilder buffer = new StringBuilder(COPY_BUFFER_CHARS + 1024);
+        long staged = 0;
+        try {
+            while (rows.hasNext()) {
+                final NoteImportRow row = rows.next();
+                buffer.append(row.line()).append(',')
+                        .append(row.customerId()).append(',')
+                        .append(row.date()).append(',')
+                        .append(row.interactionType().name()).append(",\"")
+                        .append(row.content().replace("\"", "\"\"")).append("\"\n");
+                staged++;
+                if (buffer.length() >= COPY_BUFFER_CHARS) {
+                    write(copyIn, buffer);
+                }
+            }
+            write(copyIn, buffer);
+            copyIn.endCopy();
+            return staged;
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private static void write(final CopyIn copyIn, final StringBuilder buffer) throws SQLException {
+        final byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+}
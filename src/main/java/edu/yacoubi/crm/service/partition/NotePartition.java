@@ -0,0 +1,70 @@
+package edu.yacoubi.crm.service.partition;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+
+/**
+ * Monthly range partition of the {@code note} table: {@code note_pYYYY_MM} holds the notes with
+ * {@code from() <= date < to()}; once detached, the table is kept as {@code note_archive_pYYYY_MM}.
+ *
+ * @param month the month of the partition
+ * @author A. El Yacoubi
+ */
+public record NotePartition(YearMonth month) {
+    static final String PREFIX = "note_p";
+    static final String ARCHIVE_PREFIX = "note_archive_p";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    public static NotePartition of(final YearMonth month) {
+        return new NotePartition(month);
+    }
+
+    /**
+     * Partition of the given table name, empty if it is not the name of a monthly note partition.
+     */
+    public static Optional<NotePartition> parse(final String tableName) {
+        if (tableName == null || !tableName.startsWith(PREFIX)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(of(YearMonth.parse(tableName.substring(PREFIX.length()), SUFFIX)));
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+
+    public String name() {
+        return PREFIX + month.format(SUFFIX);
+    }
+
+    /**
+     * Name of the table after detaching, so that the partition name is free again for notes of this month.
+     */
+    public String archiveName() {
+        return ARCHIVE_PREFIX + month.format(SUFFIX);
+    }
+
+    /**
+     * Lower bound, inclusive.
+     */
+    public LocalDate from() {
+        return month.atDay(1);
+    }
+
+    /**
+     * Upper bound, exclusive.
+     */
+    public LocalDate to() {
+        return month.plusMonths(1).atDay(1);
+    }
+
+    /**
+     * {@code FOR VALUES} clause of the partition bound.
+     */
+    String bound() {
+        return "FOR VALUES FROM ('" + from() + "') TO ('" + to() + "')";
+    }
+}
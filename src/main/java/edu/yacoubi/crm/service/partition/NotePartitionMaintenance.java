@@ -0,0 +1,294 @@
+package edu.yacoubi.crm.service.partition;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Maintains the monthly partitions of the {@code note} table, which {@code note-partitioning-postgresql.sql}
+ * creates range-partitioned on {@code date} with a default partition (PostgreSQL, prod profile).
+ *
+ * <p>Runs in the background every {@code crm.note.partitioning.maintenance-interval}:</p>
+ * <ul>
+ *     <li>moves notes that landed in the default partition {@code note_default} (historical imports,
+ *     dates beyond the prepared months) into monthly partitions of their own;</li>
+ *     <li>creates the partitions of the current and the next {@code crm.note.partitioning.months-ahead}
+ *     months in advance;</li>
+ *     <li>detaches the partitions older than {@code crm.note.partitioning.retention-months} (0: keep all).
+ *     Detaching only changes the catalog, the table is renamed to {@code note_archive_pYYYY_MM} for archival
+ *     (with a suffix {@code _2}, {@code _3}, ... if the month was archived before), so that notes of that
+ *     month arriving later get a new partition.</li>
+ * </ul>
+ *
+ * <p>A table {@code note_pYYYY_MM} that exists but is not attached to {@code note} is never reused: creating
+ * or splitting that month fails until the table is renamed or dropped.</p>
+ *
+ * <p>Every step runs in its own transaction on the primary and is skipped while another instance holds
+ * the advisory lock. Reads and updates by ID ({@code NoteRepository}, {@code partialUpdateNote}) need no
+ * change; PostgreSQL moves a row to another partition when its date is updated. Queries with a date range
+ * only read the partitions of that range.</p>
+ *
+ * @author A. El Yacoubi
+ */
+@Component
+@ConditionalOnProperty(name = "crm.note.partitioning.enabled", havingValue = "true")
+@Slf4j
+public class NotePartitionMaintenance {
+    static final String TABLE = "note";
+    static final String DEFAULT_PARTITION = "note_default";
+    private static final String LOCK = "SELECT pg_try_advisory_xact_lock(hashtext('crm.note.partitioning'))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    @Autowired
+    public NotePartitionMaintenance(
+            final JdbcTemplate jdbcTemplate,
+            final PlatformTransactionManager transactionManager,
+            final @Value("${crm.note.partitioning.months-ahead:3}") int monthsAhead,
+            final @Value("${crm.note.partitioning.retention-months:0}") int retentionMonths) {
+        this(jdbcTemplate, transactionManager, Clock.systemDefaultZone(), monthsAhead, retentionMonths);
+    }
+
+    NotePartitionMaintenance(
+            final JdbcTemplate jdbcTemplate,
+            final PlatformTransactionManager transactionManager,
+            final Clock clock,
+            final int monthsAhead,
+            final int retentionMonths) {
+        if (monthsAhead < 0 || retentionMonths < 0) {
+            throw new IllegalArgumentException("months-ahead and retention-months must not be negative");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        // read-write: DDL always goes to the primary
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    /**
+     * Runs all maintenance steps; a failing step is logged and retried with the next run.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${crm.note.partitioning.maintenance-interval:PT6H}")
+    public void maintain() {
+        if (log.isInfoEnabled()) {
+            log.info("::maintain started");
+        }
+
+        step("splitDefaultPartition", this::splitDefaultPartition);
+        step("createPartitionsAhead", this::createPartitionsAhead);
+        step("detachExpiredPartitions", this::detachExpiredPartitions);
+
+        if (log.isInfoEnabled()) {
+            log.info("::maintain completed successfully");
+        }
+    }
+
+    private void step(final String name, final Runnable step) {
+        try {
+            step.run();
+        } catch (RuntimeException e) {
+            log.error("::maintain step {} failed: {}", name, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Moves the notes of the default partition into monthly partitions: a partition cannot be attached
+     * for a range the default partition still holds rows of.
+     */
+    void splitDefaultPartition() {
+        final List<LocalDate> months = jdbcTemplate.queryForList(
+                "SELECT DISTINCT date_trunc('month', date)::date FROM " + DEFAULT_PARTITION, LocalDate.class);
+        final List<NotePartition> partitions = months.stream()
+                .map(month -> NotePartition.of(YearMonth.from(month)))
+                .toList();
+        forEachPartition("split", partitions, partition ->
+                inLockedTransaction("split " + partition.name(), () -> {
+                    requireUnused(partition);
+                    final String columns = String.join(", ", copyableColumns(TABLE));
+                    jdbcTemplate.execute("CREATE TABLE " + partition.name() + " (LIKE " + TABLE
+                            + " INCLUDING DEFAULTS INCLUDING GENERATED INCLUDING CONSTRAINTS)");
+                    jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION
+                            + " WHERE date >= ? AND date < ? RETURNING " + columns + ")"
+                            + " INSERT INTO " + partition.name() + " (" + columns + ") SELECT " + columns + " FROM moved",
+                            partition.from(), partition.to());
+                    jdbcTemplate.execute("ALTER TABLE " + TABLE + " ATTACH PARTITION " + partition.name()
+                            + " " + partition.bound());
+                }));
+    }
+
+    /**
+     * Creates the missing partitions from the current month up to {@code months-ahead} months ahead.
+     */
+    void createPartitionsAhead() {
+        final List<NotePartition> attached = attachedPartitions();
+        final YearMonth current = YearMonth.now(clock);
+        final List<NotePartition> missing = new ArrayList<>();
+        for (int i = 0; i <= monthsAhead; i++) {
+            final NotePartition partition = NotePartition.of(current.plusMonths(i));
+            if (!attached.contains(partition)) {
+                missing.add(partition);
+            }
+        }
+        forEachPartition("create", missing, partition ->
+                inLockedTransaction("create " + partition.name(), () -> create(partition)));
+    }
+
+    /**
+     * Detaches the partitions older than {@code retention-months}, nothing if the retention is 0.
+     */
+    void detachExpiredPartitions() {
+        if (retentionMonths == 0) {
+            return;
+        }
+        final YearMonth oldestKept = YearMonth.now(clock).minusMonths(retentionMonths);
+        final List<NotePartition> expired = attachedPartitions().stream()
+                .filter(partition -> partition.month().isBefore(oldestKept))
+                .toList();
+        forEachPartition("detach", expired, partition -> detach(partition.month()));
+    }
+
+    /**
+     * Detaches the partition of the given month from {@code note} and renames it to
+     * {@code note_archive_pYYYY_MM}; its notes stay in that table and can be archived and dropped from there.
+     *
+     * @return {@code true} if the partition was detached
+     */
+    public boolean detach(final YearMonth month) {
+        if (log.isInfoEnabled()) {
+            log.info("::detach started with: month {}", month);
+        }
+
+        final NotePartition partition = NotePartition.of(month);
+        if (!attachedPartitions().contains(partition)) {
+            throw new IllegalArgumentException("No attached note partition for " + month);
+        }
+        // catalog change only; CONCURRENTLY is not allowed as long as a default partition exists
+        final boolean detached = inLockedTransaction("detach " + partition.name(), () -> {
+            final String archiveName = freeArchiveName(partition);
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + partition.name());
+            jdbcTemplate.execute("ALTER TABLE " + partition.name() + " RENAME TO " + archiveName);
+        });
+
+        if (log.isInfoEnabled()) {
+            log.info("::detach completed successfully");
+        }
+        return detached;
+    }
+
+    /**
+     * Monthly partitions currently attached to {@code note}, oldest first.
+     */
+    public List<NotePartition> attachedPartitions() {
+        return jdbcTemplate.queryForList("""
+                        SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+                        WHERE i.inhparent = to_regclass(?)
+                        """, String.class, TABLE).stream()
+                .map(NotePartition::parse)
+                .flatMap(Optional::stream)
+                .sorted(Comparator.comparing(NotePartition::month))
+                .toList();
+    }
+
+    private void create(final NotePartition partition) {
+        requireUnused(partition);
+        jdbcTemplate.execute("CREATE TABLE " + partition.name() + " PARTITION OF " + TABLE + " " + partition.bound());
+    }
+
+    /**
+     * Fails if a table with the name of the partition exists; only called for partitions that are not attached.
+     */
+    private void requireUnused(final NotePartition partition) {
+        if (exists(partition.name())) {
+            throw new IllegalStateException("Table " + partition.name()
+                    + " exists but is not attached to " + TABLE + ", rename or drop it");
+        }
+    }
+
+    /**
+     * {@code note_archive_pYYYY_MM}, or with the first free suffix {@code _2}, {@code _3}, ... if the month
+     * has been archived before.
+     */
+    private String freeArchiveName(final NotePartition partition) {
+        String archiveName = partition.archiveName();
+        for (int piece = 2; exists(archiveName); piece++) {
+            archiveName = partition.archiveName() + "_" + piece;
+        }
+        return archiveName;
+    }
+
+    private boolean exists(final String tableName) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                """
+                SELECT EXISTS (SELECT 1 FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace
+                               WHERE c.relname = ? AND n.nspname = current_schema())
+                """, Boolean.class, tableName));
+    }
+
+    /**
+     * Runs the action for every partition, so that one failing month does not hold up the others; fails
+     * afterwards if any of them failed.
+     */
+    private void forEachPartition(
+            final String action, final List<NotePartition> partitions, final Consumer<NotePartition> work) {
+        final List<String> failed = new ArrayList<>();
+        for (final NotePartition partition : partitions) {
+            try {
+                work.accept(partition);
+            } catch (RuntimeException e) {
+                log.error("::{} {} failed: {}", action, partition.name(), e.getMessage(), e);
+                failed.add(partition.name());
+            }
+        }
+        if (!failed.isEmpty()) {
+            throw new IllegalStateException("Could not " + action + " note partitions " + failed);
+        }
+    }
+
+    /**
+     * Columns that can be copied, i.e. without the generated ones (search_vector).
+     */
+    private List<String> copyableColumns(final String table) {
+        return jdbcTemplate.queryForList("""
+                SELECT column_name FROM information_schema.columns
+                WHERE table_schema = current_schema() AND table_name = ? AND is_generated = 'NEVER'
+                ORDER BY ordinal_position
+                """, String.class, table);
+    }
+
+    /**
+     * Runs the step in a transaction holding the maintenance advisory lock.
+     *
+     * @return {@code false} if another instance holds the lock and the step was skipped
+     */
+    private boolean inLockedTransaction(final String step, final Runnable work) {
+        final Boolean done = transactionTemplate.execute(status -> {
+            if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(LOCK, Boolean.class))) {
+                log.info("::inLockedTransaction skipped {}, maintenance runs on another instance", step);
+                return false;
+            }
+            work.run();
+            return true;
+        });
+        return Boolean.TRUE.equals(done);
+    }
+}
@@ -0,0 +1,318 @@
+package edu.yacoubi.crm.service.registry;
+
+import edu.yacoubi.crm.dto.employee.DepartmentHeadCountDTO;
+import edu.yacoubi.crm.dto.employee.EmployeeDepartmentDTO;
+import edu.yacoubi.crm.model.Employee;
+import edu.yacoubi.crm.repository.EmployeeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * In-memory registry of the departments with their employee and customer counts.
+ *
+ * <p>The registry is built at startup with one aggregate query and afterwards kept up to date by the
+ * employee write paths (create, update, partial update, delete) and the customer write paths that
+ * change the assignment of customers (create, delete, reassign). Changes are applied after the commit
+ * of the surrounding transaction; rolled back writes do not change the registry.</p>
+ *
+ * <p>Every change publishes an immutable {@link Snapshot}, so reads neither query the database nor take
+ * a lock. A snapshot carries a strong ETag per representation, derived from its content: identical
+ * content yields the same ETag on every instance and after a restart.</p>
+ *
+ * <p>Writes arriving during a {@link #rebuild()} are queued and applied on top of the new state. A
+ * customer change committed while the aggregate query runs may therefore be counted twice; rebuilding
+ * again resynchronizes the counts.</p>
+ *
+ * @author A. El Yacoubi
+ */
+@Component
+@Slf4j
+public class DepartmentRegistry {
+    private final EmployeeRepository employeeRepository;
+    private final List<Runnable> pendingWhileBuilding = new ArrayList<>();
+
+    // guarded by this
+    private Map<Long, Assignment> assignments = new HashMap<>();
+    private Map<String, HeadCount> headCounts = new TreeMap<>();
+    private boolean building;
+
+    private volatile Snapshot snapshot;
+
+    public DepartmentRegistry(final EmployeeRepository employeeRepository) {
+        this.employeeRepository = employeeRepository;
+    }
+
+    /**
+     * The departments at one point in time.
+     *
+     * @param departments     the departments with their counts, ordered by name
+     * @param names           the department names, ordered
+     * @param headCountsETag  the ETag of {@code departments}
+     * @param namesETag       the ETag of {@code names}, unchanged as long as only counts change
+     */
+    public record Snapshot(
+            List<DepartmentHeadCountDTO> departments,
+            List<String> names,
+            String headCountsETag,
+            String namesETag) {
+    }
+
+    /**
+     * Builds the registry once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    /**
+     * (Re)builds the registry from the database.
+     */
+    public void rebuild() {
+        rebuild(employeeRepository::findAllEmployeeDepartments);
+    }
+
+    /**
+     * Builds the registry from the department and customer count of every employee.
+     *
+     * @param loadEmployees loads one entry per employee
+     */
+    public void rebuild(final Supplier<List<EmployeeDepartmentDTO>> loadEmployees) {
+        if (log.isInfoEnabled()) {
+            log.info("::rebuild started");
+        }
+
+        synchronized (this) {
+            building = true;
+        }
+
+        final List<EmployeeDepartmentDTO> employees;
+        try {
+            employees = loadEmployees.get();
+        } catch (RuntimeException exception) {
+            synchronized (this) {
+                building = false;
+                pendingWhileBuilding.clear();
+            }
+            throw exception;
+        }
+
+        synchronized (this) {
+            assignments = new HashMap<>();
+            headCounts = new TreeMap<>();
+            for (final EmployeeDepartmentDTO employee : employees) {
+                final Assignment assignment = new Assignment(employee.department(), employee.customers());
+                assignments.put(employee.id(), assignment);
+                headCount(assignment.department).add(1, assignment.customers);
+            }
+            pendingWhileBuilding.forEach(Runnable::run);
+            pendingWhileBuilding.clear();
+            building = false;
+            publish();
+        }
+
+        if (log.isInfoEnabled()) {
+            log.info("::rebuild completed successfully with: employees: {}, departments: {}",
+                    employees.size(), snapshot.departments().size());
+        }
+    }
+
+    /**
+     * Rebuilds the registry after the commit of the current transaction, for writes whose effect on the
+     * counts is not known.
+     */
+    public void rebuildAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    rebuild();
+                }
+            });
+        } else {
+            rebuild();
+        }
+    }
+
+    /**
+     * Returns whether the registry is built, i.e. whether {@link #snapshot()} can be used.
+     *
+     * @return true if the registry can answer reads
+     */
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * Returns the current departments.
+     *
+     * @return the current snapshot, or null if the registry is not built yet
+     */
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Registers a created or updated employee in its (new) department, after the commit of the
+     * current transaction.
+     *
+     * @param employee the saved employee
+     */
+    public void employeeSaved(final Employee employee) {
+        if (employee == null || employee.getId() == null) {
+            return;
+        }
+        departmentChanged(employee.getId(), employee.getDepartment());
+    }
+
+    /**
+     * Moves an employee, together with their customers, to another department, after the commit of the
+     * current transaction. Unknown employees are added.
+     *
+     * @param employeeId the ID of the employee
+     * @param department the new department
+     */
+    public void departmentChanged(final Long employeeId, final String department) {
+        if (employeeId == null || department == null) {
+            return;
+        }
+        afterCommit(() -> {
+            final Assignment assignment = assignments.get(employeeId);
+            if (assignment == null) {
+                assignments.put(employeeId, new Assignment(department, 0));
+                headCount(department).add(1, 0);
+            } else if (!assignment.department.equals(department)) {
+                headCount(assignment.department).add(-1, -assignment.customers);
+                headCount(department).add(1, assignment.customers);
+                assignment.department = department;
+            }
+        });
+    }
+
+    /**
+     * Removes a deleted employee, after the commit of the current transaction.
+     *
+     * @param employeeId the ID of the deleted employee
+     */
+    public void employeeRemoved(final Long employeeId) {
+        afterCommit(() -> {
+            final Assignment assignment = assignments.remove(employeeId);
+            if (assignment != null) {
+                headCount(assignment.department).add(-1, -assignment.customers);
+            }
+        });
+    }
+
+    /**
+     * Changes the number of customers assigned to an employee, after the commit of the current transaction.
+     *
+     * @param employeeId the ID of the employee, ignored if null
+     * @param delta      the number of added (positive) or removed (negative) customers
+     */
+    public void customersChanged(final Long employeeId, final long delta) {
+        if (employeeId == null || delta == 0) {
+            return;
+        }
+        afterCommit(() -> {
+            final Assignment assignment = assignments.get(employeeId);
+            if (assignment != null) {
+                assignment.customers += delta;
+                headCount(assignment.department).add(0, delta);
+            }
+        });
+    }
+
+    private HeadCount headCount(final String department) {
+        return headCounts.computeIfAbsent(department, name -> new HeadCount());
+    }
+
+    private void afterCommit(final Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    private synchronized void apply(final Runnable change) {
+        if (building) {
+            pendingWhileBuilding.add(change);
+        } else if (snapshot != null) {
+            change.run();
+            publish();
+        }
+    }
+
+    // guarded by this
+    private void publish() {
+        headCounts.values().removeIf(headCount -> headCount.employees <= 0);
+
+        final List<DepartmentHeadCountDTO> departments = new ArrayList<>(headCounts.size());
+        final StringBuilder headCountsContent = new StringBuilder();
+        final StringBuilder namesContent = new StringBuilder();
+        headCounts.forEach((department, headCount) -> {
+            departments.add(new DepartmentHeadCountDTO(department, headCount.employees, headCount.customers));
+            headCountsContent.append(department).append('\u0000')
+                    .append(headCount.employees).append('\u0000')
+                    .append(headCount.customers).append('\n');
+            namesContent.append(department).append('\n');
+        });
+
+        snapshot = new Snapshot(
+                List.copyOf(departments),
+                List.copyOf(headCounts.keySet()),
+                eTag(headCountsContent),
+                eTag(namesContent)
+        );
+    }
+
+    private static String eTag(final CharSequence content) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(content.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 is not available", exception);
+        }
+    }
+
+    private static final class Assignment {
+        private String department;
+        private long customers;
+
+        private Assignment(final String department, final long customers) {
+            this.department = department;
+            this.customers = customers;
+        }
+    }
+
+    private static final class HeadCount {
+        private long employees;
+        private long customers;
+
+        private void add(final long employeeDelta, final long customerDelta) {
+            employees += employeeDelta;
+            customers += customerDelta;
+        }
+    }
+}
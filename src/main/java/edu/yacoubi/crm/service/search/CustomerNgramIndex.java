@@ -0,0 +1,597 @@
+package edu.yacoubi.crm.service.search;
+
+import edu.yacoubi.crm.dto.customer.CustomerPatchDTO;
+import edu.yacoubi.crm.dto.customer.CustomerSearchFieldsDTO;
+import edu.yacoubi.crm.model.Customer;
+import edu.yacoubi.crm.repository.CustomerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+
+/**
+ * Optional in-memory inverted n-gram index over first name, last name, email and phone of the customers.
+ *
+ * <p>Type-ahead queries are answered from memory and return customer IDs, which the caller hydrates
+ * with one {@code IN} query. Every field value (lower case) is indexed with its trigrams and, as
+ * separate keys, its first one, two and three characters:</p>
+ * <ul>
+ *     <li>terms with at least 3 characters match as substring of a field (intersection of the
+ *     posting lists, verified against the stored field values),</li>
+ *     <li>shorter terms match as prefix of a field.</li>
+ * </ul>
+ * <p>Matches at the start of a field come before other matches, each in index order (ID order after
+ * a build). As the posting lists are sorted, a query stops as soon as {@code limit} IDs are found
+ * instead of ranking every candidate.</p>
+ *
+ * <p>The index is built at startup from {@link CustomerRepository}: chunks are read by ID and
+ * tokenized in parallel. Afterwards it is kept in sync by the customer write paths (create, update,
+ * partial update, delete), which apply their change after the commit of the surrounding transaction.
+ * Customers deleted through other paths (e.g. cascades) are dropped by the hydration query.</p>
+ *
+ * <p>Disabled unless {@code crm.search.ngram-index.enabled=true}; all methods are no-ops then.</p>
+ *
+ * @author A. El Yacoubi
+ */
+@Component
+@Slf4j
+public class CustomerNgramIndex {
+    private static final int GRAM_LENGTH = 3;
+    private static final int BUILD_CHUNK_SIZE = 10_000;
+    private static final char FIELD_SEPARATOR = '\u0001';
+    private static final String FIELD_SEPARATOR_REGEX = "\u0001";
+
+    private final CustomerRepository customerRepository;
+    private final boolean enabled;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<Runnable> pendingWhileBuilding = new ArrayList<>();
+
+    // guarded by lock
+    private Documents index = new Documents();
+    private boolean building;
+    private volatile boolean ready;
+
+    public CustomerNgramIndex(
+            final CustomerRepository customerRepository,
+            @Value("${crm.search.ngram-index.enabled:false}") final boolean enabled) {
+        this.customerRepository = customerRepository;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Builds the index once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * (Re)builds the index from the database.
+     *
+     * <p>Writes arriving during the build are queued and applied on top of the new index.</p>
+     */
+    public void rebuild() {
+        rebuild(afterId -> customerRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(BUILD_CHUNK_SIZE)));
+    }
+
+    /**
+     * Returns whether the index is enabled and built, i.e. whether {@link #search} can be used.
+     *
+     * @return true if the index can answer queries
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Searches the index.
+     *
+     * @param term  the normalized (trimmed, lower case) search term
+     * @param limit the maximum number of IDs to return
+     * @return the IDs of the matching customers, matches at the start of a field first
+     */
+    public List<Long> search(final String term, final int limit) {
+        final List<Long> ids = new ArrayList<>(limit);
+        if (term.isEmpty() || term.indexOf(FIELD_SEPARATOR) >= 0) {
+            return ids;
+        }
+
+        lock.readLock().lock();
+        try {
+            final Postings prefixPostings = index.postings.get(prefixKey(term));
+            if (term.length() < GRAM_LENGTH) {
+                // short terms: the prefix key is the whole term, no verification needed
+                if (prefixPostings != null) {
+                    scan(List.of(prefixPostings), doc -> add(ids, doc, limit));
+                }
+                return ids;
+            }
+
+            final Set<String> grams = new HashSet<>();
+            addTrigrams(term, grams);
+            final List<Postings> gramPostings = new ArrayList<>(grams.size());
+            for (final String gram : grams) {
+                final Postings list = index.postings.get(gram);
+                if (list == null) {
+                    return ids;
+                }
+                gramPostings.add(list);
+            }
+
+            // 1. matches at the start of a field
+            if (prefixPostings != null) {
+                final List<Postings> lists = new ArrayList<>(gramPostings);
+                lists.add(prefixPostings);
+                scan(lists, doc -> matchAt(index.documents[doc], term) != MatchPosition.FIELD_START
+                        || add(ids, doc, limit));
+            }
+            // 2. other matches inside a field
+            if (ids.size() < limit) {
+                scan(gramPostings, doc -> matchAt(index.documents[doc], term) != MatchPosition.INSIDE_FIELD
+                        || add(ids, doc, limit));
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds or replaces a created or updated customer, after the commit of the current transaction.
+     *
+     * @param customer the saved customer
+     */
+    public void upsert(final Customer customer) {
+        if (!enabled || customer == null || customer.getId() == null) {
+            return;
+        }
+        final long customerId = customer.getId();
+        final String document = document(customer.getFirstName(), customer.getLastName(),
+                customer.getEmail(), customer.getPhone());
+        afterCommit(() -> index.put(customerId, document));
+    }
+
+    /**
+     * Applies the fields of a partial update, after the commit of the current transaction.
+     *
+     * @param customerId       the ID of the updated customer
+     * @param customerPatchDTO the applied changes, null fields are unchanged
+     */
+    public void applyPatch(final Long customerId, final CustomerPatchDTO customerPatchDTO) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> {
+            final Integer doc = index.docByCustomerId.get(customerId);
+            if (doc == null) {
+                return;
+            }
+            final String[] fields = index.documents[doc].split(FIELD_SEPARATOR_REGEX, -1);
+            index.put(customerId, document(
+                    customerPatchDTO.getFirstName() != null ? customerPatchDTO.getFirstName() : fields[0],
+                    customerPatchDTO.getLastName() != null ? customerPatchDTO.getLastName() : fields[1],
+                    customerPatchDTO.getEmail() != null ? customerPatchDTO.getEmail() : fields[2],
+                    fields[3]));
+        });
+    }
+
+    /**
+     * Removes a deleted customer, after the commit of the current transaction.
+     *
+     * @param customerId the ID of the deleted customer
+     */
+    public void remove(final Long customerId) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> index.remove(customerId));
+    }
+
+    /**
+     * Returns the number of indexed customers.
+     *
+     * @return the number of customers
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.docByCustomerId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of document slots, i.e. the indexed customers plus the free slots of removed ones.
+     *
+     * @return the number of slots
+     */
+    int slotCount() {
+        lock.readLock().lock();
+        try {
+            return index.count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of distinct keys (trigrams and field prefixes) in the index.
+     *
+     * @return the number of posting lists
+     */
+    public int keyCount() {
+        lock.readLock().lock();
+        try {
+            return index.postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Builds the index from chunks of customers ordered by ID.
+     *
+     * @param loadChunkAfter loads the next chunk after the given customer ID, empty when done
+     */
+    public void rebuild(final Function<Long, List<CustomerSearchFieldsDTO>> loadChunkAfter) {
+        if (log.isInfoEnabled()) {
+            log.info("::rebuild started");
+        }
+        final long start = System.nanoTime();
+
+        lock.writeLock().lock();
+        try {
+            building = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        // chunks are read sequentially and tokenized in parallel; finished chunks are appended
+        // in chunk order, so that the posting lists stay sorted by document number
+        final Documents built = new Documents();
+        final Deque<CompletableFuture<Documents>> inProgress = new ArrayDeque<>();
+        long afterId = Long.MIN_VALUE;
+        int docs = 0;
+        List<CustomerSearchFieldsDTO> chunk = loadChunkAfter.apply(afterId);
+        while (!chunk.isEmpty()) {
+            final int base = docs;
+            final List<CustomerSearchFieldsDTO> rows = chunk;
+            inProgress.add(CompletableFuture.supplyAsync(() -> Documents.tokenize(base, rows)));
+            docs += chunk.size();
+            afterId = chunk.get(chunk.size() - 1).id();
+
+            while (!inProgress.isEmpty() && inProgress.peek().isDone()) {
+                built.append(inProgress.poll().join());
+            }
+            chunk = loadChunkAfter.apply(afterId);
+        }
+        while (!inProgress.isEmpty()) {
+            built.append(inProgress.poll().join());
+        }
+        built.postings.values().forEach(Postings::trim);
+
+        lock.writeLock().lock();
+        try {
+            index = built;
+            pendingWhileBuilding.forEach(Runnable::run);
+            pendingWhileBuilding.clear();
+            building = false;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        if (log.isInfoEnabled()) {
+            log.info("::rebuild completed successfully with: customers: {}, keys: {}, durationMs: {}",
+                    docs, built.postings.size(), (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    private boolean add(final List<Long> ids, final int doc, final int limit) {
+        ids.add(index.customerIds[doc]);
+        return ids.size() < limit;
+    }
+
+    private void afterCommit(final Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    private void apply(final Runnable change) {
+        lock.writeLock().lock();
+        try {
+            if (building) {
+                pendingWhileBuilding.add(change);
+            } else if (ready) {
+                change.run();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private enum MatchPosition { FIELD_START, INSIDE_FIELD, NONE }
+
+    /**
+     * Where the term occurs in the document; the separators mark the field boundaries.
+     */
+    private static MatchPosition matchAt(final String document, final String term) {
+        MatchPosition position = MatchPosition.NONE;
+        int at = document.indexOf(term);
+        while (at >= 0) {
+            if (at == 0 || document.charAt(at - 1) == FIELD_SEPARATOR) {
+                return MatchPosition.FIELD_START;
+            }
+            position = MatchPosition.INSIDE_FIELD;
+            at = document.indexOf(term, at + 1);
+        }
+        return position;
+    }
+
+    /**
+     * Walks the document numbers contained in all lists in ascending order.
+     *
+     * @param lists  the posting lists to intersect
+     * @param action called per document number, returns false to stop
+     */
+    private static void scan(final List<Postings> lists, final IntPredicate action) {
+        // smallest list drives, the next smallest rejects most candidates first
+        final List<Postings> sorted = new ArrayList<>(lists);
+        sorted.sort(Comparator.comparingInt(list -> list.size));
+        final Postings smallest = sorted.get(0);
+        final int[] cursors = new int[sorted.size()];
+
+        for (int i = 0; i < smallest.size; i++) {
+            final int doc = smallest.docs[i];
+            boolean inAll = true;
+            for (int l = 1; l < sorted.size() && inAll; l++) {
+                final Postings other = sorted.get(l);
+                cursors[l] = other.seek(doc, cursors[l]);
+                if (cursors[l] == other.size) {
+                    return;
+                }
+                inAll = other.docs[cursors[l]] == doc;
+            }
+            if (inAll && !action.test(doc)) {
+                return;
+            }
+        }
+    }
+
+    private static String document(
+            final String firstName, final String lastName, final String email, final String phone) {
+        return normalize(firstName) + FIELD_SEPARATOR + normalize(lastName) + FIELD_SEPARATOR
+                + normalize(email) + FIELD_SEPARATOR + normalize(phone);
+    }
+
+    private static String normalize(final String value) {
+        return value == null ? "" : value.strip().toLowerCase(Locale.ROOT).replace(FIELD_SEPARATOR, ' ');
+    }
+
+    /**
+     * Key for the first (up to) {@link #GRAM_LENGTH} characters of a field, distinct from the trigram keys.
+     */
+    private static String prefixKey(final String value) {
+        return FIELD_SEPARATOR + value.substring(0, Math.min(value.length(), GRAM_LENGTH));
+    }
+
+    /**
+     * Calls the consumer with the field prefix keys and trigrams of every field; a key may repeat.
+     */
+    private static void forEachKey(final String document, final Consumer<String> consumer) {
+        int fieldStart = 0;
+        while (fieldStart <= document.length()) {
+            int fieldEnd = document.indexOf(FIELD_SEPARATOR, fieldStart);
+            if (fieldEnd < 0) {
+                fieldEnd = document.length();
+            }
+            for (int length = 1; length <= Math.min(fieldEnd - fieldStart, GRAM_LENGTH); length++) {
+                consumer.accept(FIELD_SEPARATOR + document.substring(fieldStart, fieldStart + length));
+            }
+            for (int i = fieldStart; i + GRAM_LENGTH <= fieldEnd; i++) {
+                consumer.accept(document.substring(i, i + GRAM_LENGTH));
+            }
+            fieldStart = fieldEnd + 1;
+        }
+    }
+
+    private static void addTrigrams(final String value, final Set<String> keys) {
+        for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+            keys.add(value.substring(i, i + GRAM_LENGTH));
+        }
+    }
+
+    /**
+     * The indexed documents: joined field values and customer ID per document number, plus the posting lists.
+     */
+    private static final class Documents {
+        private final Map<String, Postings> postings = new HashMap<>();
+        private final Map<Long, Integer> docByCustomerId = new HashMap<>();
+        private long[] customerIds = new long[16];
+        private String[] documents = new String[16];
+        private int count;
+        // slots of removed customers, reused by the next new ones
+        private int[] freeDocs = new int[4];
+        private int freeCount;
+
+        /**
+         * Tokenizes a chunk of customers into document numbers {@code base, base + 1, ...}.
+         */
+        static Documents tokenize(final int base, final List<CustomerSearchFieldsDTO> rows) {
+            final Documents chunk = new Documents();
+            chunk.customerIds = new long[rows.size()];
+            chunk.documents = new String[rows.size()];
+            for (final CustomerSearchFieldsDTO row : rows) {
+                final int doc = base + chunk.count;
+                final String document = document(row.firstName(), row.lastName(), row.email(), row.phone());
+                chunk.customerIds[chunk.count] = row.id();
+                chunk.documents[chunk.count++] = document;
+                forEachKey(document, key -> chunk.postings.computeIfAbsent(key, k -> new Postings()).add(doc));
+            }
+            return chunk;
+        }
+
+        /**
+         * Appends a tokenized chunk whose document numbers follow the ones of this index.
+         */
+        void append(final Documents chunk) {
+            chunk.postings.forEach((key, chunkPostings) ->
+                    postings.computeIfAbsent(key, k -> new Postings()).appendAll(chunkPostings));
+            ensureCapacity(count + chunk.count);
+            for (int i = 0; i < chunk.count; i++) {
+                customerIds[count] = chunk.customerIds[i];
+                documents[count] = chunk.documents[i];
+                docByCustomerId.put(chunk.customerIds[i], count++);
+            }
+        }
+
+        void put(final long customerId, final String document) {
+            Integer doc = docByCustomerId.get(customerId);
+            if (doc != null) {
+                removeKeys(doc);
+            } else if (freeCount > 0) {
+                doc = freeDocs[--freeCount];
+                customerIds[doc] = customerId;
+                docByCustomerId.put(customerId, doc);
+            } else {
+                doc = count++;
+                ensureCapacity(count);
+                customerIds[doc] = customerId;
+                docByCustomerId.put(customerId, doc);
+            }
+            documents[doc] = document;
+            final int added = doc;
+            forEachKey(document, key -> postings.computeIfAbsent(key, k -> new Postings()).add(added));
+        }
+
+        void remove(final long customerId) {
+            final Integer doc = docByCustomerId.remove(customerId);
+            if (doc != null) {
+                removeKeys(doc);
+                documents[doc] = null;
+                if (freeCount == freeDocs.length) {
+                    freeDocs = Arrays.copyOf(freeDocs, freeCount * 2);
+                }
+                freeDocs[freeCount++] = doc;
+            }
+        }
+
+        private void removeKeys(final int doc) {
+            forEachKey(documents[doc], key -> {
+                final Postings keyPostings = postings.get(key);
+                if (keyPostings != null && keyPostings.remove(doc) && keyPostings.size == 0) {
+                    postings.remove(key);
+                }
+            });
+        }
+
+        private void ensureCapacity(final int capacity) {
+            if (capacity > customerIds.length) {
+                final int newCapacity = Math.max(capacity, customerIds.length * 3 / 2);
+                customerIds = Arrays.copyOf(customerIds, newCapacity);
+                documents = Arrays.copyOf(documents, newCapacity);
+            }
+        }
+    }
+
+    /**
+     * Sorted list of document numbers, stored as primitive array.
+     */
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int size;
+
+        void add(final int doc) {
+            // fast path: documents are mostly added in ascending order
+            if (size == 0 || docs[size - 1] < doc) {
+                insertAt(size, doc);
+                return;
+            }
+            final int index = Arrays.binarySearch(docs, 0, size, doc);
+            if (index < 0) {
+                insertAt(-index - 1, doc);
+            }
+        }
+
+        boolean remove(final int doc) {
+            final int index = Arrays.binarySearch(docs, 0, size, doc);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(docs, index + 1, docs, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        void appendAll(final Postings other) {
+            ensureCapacity(size + other.size);
+            System.arraycopy(other.docs, 0, docs, size, other.size);
+            size += other.size;
+        }
+
+        /**
+         * Returns the index of the first document number {@code >= doc}, searching from {@code from}.
+         */
+        int seek(final int doc, final int from) {
+            // galloping: the documents are visited in ascending order, so the target is usually close
+            int bound = 1;
+            while (from + bound < size && docs[from + bound] < doc) {
+                bound <<= 1;
+            }
+            final int low = from + (bound >> 1);
+            final int high = Math.min(size, from + bound + 1);
+            final int index = Arrays.binarySearch(docs, low, high, doc);
+            return index >= 0 ? index : -index - 1;
+        }
+
+        void trim() {
+            docs = Arrays.copyOf(docs, size);
+        }
+
+        private void insertAt(final int index, final int doc) {
+            ensureCapacity(size + 1);
+            System.arraycopy(docs, index, docs, index + 1, size - index);
+            docs[index] = doc;
+            size++;
+        }
+
+        private void ensureCapacity(final int capacity) {
+            if (capacity > docs.length) {
+                docs = Arrays.copyOf(docs, Math.max(capacity, docs.length * 2));
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package edu.yacoubi.crm.service.validation;
+
+import edu.yacoubi.crm.exception.PreconditionFailedException;
+import edu.yacoubi.crm.exception.ResourceNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Helper for "load-or-404" lookups.
+ *
+ * <p>Instead of checking the existence of an entity with {@code existsById} and loading it
+ * afterwards with {@code findById}, services load the entity once and let this helper throw
+ * the same {@link ResourceNotFoundException} the {@link EntityValidator} would throw.</p>
+ *
+ * <p>Usage example:</p>
+ * <pre>{@code
+ * Customer customer = EntityLookup.loadOrThrow(customerRepository.findById(id), Customer.class, id);
+ * }</pre>
+ *
+ * @author A. El Yacoubi
+ */
+@Slf4j
+public final class EntityLookup {
+
+    private EntityLookup() {
+    }
+
+    /**
+     * Returns the loaded entity or throws if it was not found.
+     *
+     * @param candidate the result of the repository lookup
+     * @param type      the entity type, used for the error message
+     * @param id        the ID that was looked up
+     * @param <T>       the entity type
+     * @return the loaded entity
+     * @throws ResourceNotFoundException if the entity does not exist
+     */
+    public static <T> T loadOrThrow(final Optional<T> candidate, final Class<T> type, final Long id) {
+        if (candidate == null || candidate.isEmpty()) {
+            throw notFound(type, id);
+        }
+
+        VerifiedEntityIds.markVerified(type, id);
+        return candidate.get();
+    }
+
+    /**
+     * Returns a projection of an entity (e.g. a DTO loaded with a constructor expression) or throws
+     * if the entity was not found.
+     *
+     * @param candidate the result of the projection query
+     * @param type      the entity type the projection was loaded from, used for the error message
+     * @param id        the ID that was looked up
+     * @param <P>       the projection type
+     * @return the loaded projection
+     * @throws ResourceNotFoundException if the entity does not exist
+     */
+    public static <P> P projectionOrThrow(final Optional<P> candidate, final Class<?> type, final Long id) {
+        if (candidate == null || candidate.isEmpty()) {
+            throw notFound(type, id);
+        }
+
+        VerifiedEntityIds.markVerified(type, id);
+        return candidate.get();
+    }
+
+    /**
+     * Throws if a bulk update by ID did not touch any row, i.e. the entity does not exist.
+     *
+     * @param affectedRows the number of rows reported by the update
+     * @param type         the entity type, used for the error message
+     * @param id           the ID that was updated
+     * @throws ResourceNotFoundException if no row was affected
+     */
+    public static void requireUpdated(final int affectedRows, final Class<?> type, final Long id) {
+        if (affectedRows == 0) {
+            throw notFound(type, id);
+        }
+
+        VerifiedEntityIds.markVerified(type, id);
+    }
+
+    /**
+     * Throws if a bulk update by ID and expected version did not touch any row, distinguishing a
+     * missing entity from a stale version. The current version is only looked up in the failure case.
+     *
+     * @param affectedRows    the number of rows reported by the update
+     * @param expectedVersion the version the update was restricted to, or null
+     * @param currentVersion  looks up the current version of the entity
+     * @param type            the entity type, used for the error message
+     * @param id              the ID that was updated
+     * @throws ResourceNotFoundException   if the entity does not exist
+     * @throws PreconditionFailedException if the entity exists with another version
+     */
+    public static void requireUpdated(final int affectedRows, final Long expectedVersion,
+                                      final Supplier<Optional<Long>> currentVersion,
+                                      final Class<?> type, final Long id) {
+        if (affectedRows == 0 && expectedVersion != null) {
+            currentVersion.get().ifPresent(version -> requireVersion(expectedVersion, version, type, id));
+        }
+        requireUpdated(affectedRows, type, id);
+    }
+
+    /**
+     * Throws if the current version of an entity is not the version the client expects (If-Match).
+     *
+     * @param expectedVersion the expected version, or null to accept any version
+     * @param currentVersion  the current version of the entity
+     * @param type            the entity type, used for the error message
+     * @param id              the ID of the entity
+     * @throws PreconditionFailedException if the versions differ
+     */
+    public static void requireVersion(final Long expectedVersion, final Long currentVersion,
+                                      final Class<?> type, final Long id) {
+        if (expectedVersion != null && !expectedVersion.equals(currentVersion)) {
+            final String errorMessage = type.getSimpleName() + " with ID " + id + " has version " + currentVersion
+                    + ", expected " + expectedVersion;
+            log.warn("::requireVersion failed: {}", errorMessage);
+            throw new PreconditionFailedException(errorMessage);
+        }
+    }
+
+    private static ResourceNotFoundException notFound(final Class<?> type, final Long id) {
+        final String errorMessage = type.getSimpleName() + " not found with ID: " + id;
+        log.error("::loadOrThrow error: {}", errorMessage);
+        return new ResourceNotFoundException(errorMessage);
+    }
+}
@@ -1,6 +1,9 @@
 package edu.yacoubi.crm.service.validation;
 
 import edu.yacoubi.crm.exception.ResourceNotFoundException;
+import edu.yacoubi.crm.model.Customer;
+import edu.yacoubi.crm.model.Employee;
+import edu.yacoubi.crm.model.Note;
 import edu.yacoubi.crm.repository.CustomerRepository;
 import edu.yacoubi.crm.repository.EmployeeRepository;
 import edu.yacoubi.crm.repository.InactiveEmployeeRepository;
@@ -11,7 +14,9 @@ import org.springframework.stereotype.Component;
 
 /**
  * Validator for entities in the system.
- * <p>This class provides methods to validate the existence of various entities.</p>
+ * <p>This class provides methods to validate the existence of various entities.
+ * IDs already verified in the current transaction are not checked again,
+ * see {@link VerifiedEntityIds}.</p>
  *
  * @author A. El Yacoubi
  */
@@ -36,11 +41,19 @@ public class EntityValidator {
             log.info("::validateEmployeeExists started with: employeeId {}", employeeId);
         }
 
+        if (VerifiedEntityIds.isVerified(Employee.class, employeeId)) {
+            if (log.isInfoEnabled()) {
+                log.info("::validateEmployeeExists already verified in current transaction");
+            }
+            return;
+        }
+
         if (!employeeRepository.existsById(employeeId)) {
             String errorMessage = "Employee not found with ID: " + employeeId;
             log.error("::validateEmployeeExists error: {}", errorMessage);
             throw new ResourceNotFoundException(errorMessage);
         }
+        VerifiedEntityIds.markVerified(Employee.class, employeeId);
 
         if (log.isInfoEnabled()) {
             log.info("::validateEmployeeExists completed successfully");
@@ -58,11 +71,19 @@ public class EntityValidator {
             log.info("::validateNoteExists started with: noteId {}", noteId);
         }
 
+        if (VerifiedEntityIds.isVerified(Note.class, noteId)) {
+            if (log.isInfoEnabled()) {
+                log.info("::validateNoteExists already verified in current transaction");
+            }
+            return;
+        }
+
         if (!noteRepository.existsById(noteId)) {
             String errorMessage = "Note not found with ID: " + noteId;
             log.error("::validateNoteExists error: {}", errorMessage);
             throw new ResourceNotFoundException(errorMessage);
         }
+        VerifiedEntityIds.markVerified(Note.class, noteId);
 
         if (log.isInfoEnabled()) {
             log.info("::validateNoteExists completed successfully");
@@ -80,11 +101,19 @@ public class EntityValidator {
             log.info("::validateCustomerExists started with: customerId {}", customerId);
         }
 
+        if (VerifiedEntityIds.isVerified(Customer.class, customerId)) {
+            if (log.isInfoEnabled()) {
+                log.info("::validateCustomerExists already verified in current transaction");
+            }
+            return;
+        }
+
         if (!customerRepository.existsById(customerId)) {
             String errorMessage = "Customer not found with ID: " + customerId;
             log.error("::validateCustomerExists error: {}", errorMessage);
             throw new ResourceNotFoundException(errorMessage);
         }
+        VerifiedEntityIds.markVerified(Customer.class, customerId);
 
         if (log.isInfoEnabled()) {
             log.info("::validateCustomerExists completed successfully");
@@ -0,0 +1,101 @@
+package edu.yacoubi.crm.service.validation;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Transaction-bound memo of entity IDs whose existence has already been verified.
+ *
+ * <p>Orchestrated flows (e.g. reassigning customers and deleting the old employee) pass the
+ * same IDs through several services. Once an ID was loaded or checked inside a transaction,
+ * further existence checks for it are answered from this memo instead of the database.</p>
+ *
+ * <p>The memo lives as long as the surrounding transaction and is discarded on commit or
+ * rollback. Outside a transaction nothing is remembered, so every check hits the database.</p>
+ *
+ * @author A. El Yacoubi
+ */
+public final class VerifiedEntityIds {
+    private static final Object RESOURCE_KEY = VerifiedEntityIds.class;
+
+    private VerifiedEntityIds() {
+    }
+
+    /**
+     * Checks whether the ID of the given entity type was already verified in the current transaction.
+     *
+     * @param type the entity type
+     * @param id   the ID of the entity
+     * @return true if the ID was verified before, false otherwise
+     */
+    public static boolean isVerified(final Class<?> type, final Long id) {
+        final Map<Class<?>, Set<Long>> memo = currentMemo(false);
+        return memo != null && memo.getOrDefault(type, Set.of()).contains(id);
+    }
+
+    /**
+     * Remembers that the ID of the given entity type exists for the rest of the current transaction.
+     *
+     * @param type the entity type
+     * @param id   the ID of the entity
+     */
+    public static void markVerified(final Class<?> type, final Long id) {
+        final Map<Class<?>, Set<Long>> memo = currentMemo(true);
+        if (memo != null && id != null) {
+            memo.computeIfAbsent(type, key -> new HashSet<>()).add(id);
+        }
+    }
+
+    /**
+     * Forgets a previously verified ID, e.g. after the entity has been deleted.
+     *
+     * @param type the entity type
+     * @param id   the ID of the entity
+     */
+    public static void evict(final Class<?> type, final Long id) {
+        final Map<Class<?>, Set<Long>> memo = currentMemo(false);
+        if (memo != null && memo.containsKey(type)) {
+            memo.get(type).remove(id);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Class<?>, Set<Long>> currentMemo(final boolean create) {
+        Map<Class<?>, Set<Long>> memo =
+                (Map<Class<?>, Set<Long>>) TransactionSynchronizationManager.getResource(RESOURCE_KEY);
+
+        if (memo != null || !create || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return memo;
+        }
+
+        memo = new HashMap<>();
+        TransactionSynchronizationManager.bindResource(RESOURCE_KEY, memo);
+        TransactionSynchronizationManager.registerSynchronization(new MemoSynchronization(memo));
+        return memo;
+    }
+
+    /**
+     * Keeps the memo bound to its own transaction, also across suspended (REQUIRES_NEW) transactions.
+     */
+    private record MemoSynchronization(Map<Class<?>, Set<Long>> memo) implements TransactionSynchronization {
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResourceIfPossible(RESOURCE_KEY);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(RESOURCE_KEY, memo);
+        }
+
+        @Override
+        public void afterCompletion(final int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(RESOURCE_KEY);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package edu.yacoubi.crm.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the records of an RFC 4180 CSV document one at a time.
+ *
+ * <p>Fields are separated by commas and may be enclosed in double quotes; quoted fields may contain
+ * commas, line breaks and doubled quotes. Records end with CRLF, LF or CR. Blank lines are skipped.
+ * Only the current record is held in memory.</p>
+ *
+ * @author A. El Yacoubi
+ */
+public final class CsvRecordReader {
+    private static final int NONE = -2;
+
+    private final Reader reader;
+    private int lookahead = NONE;
+    private long line = 1;
+    private long recordLine;
+
+    public CsvRecordReader(final Reader reader) {
+        this.reader = reader instanceof BufferedReader ? reader : new BufferedReader(reader);
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return the fields of the record, or null at the end of the document
+     * @throws IOException if the document cannot be read
+     */
+    public List<String> next() throws IOException {
+        final List<String> fields = new ArrayList<>();
+        final StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean started = false;
+        recordLine = line;
+
+        while (true) {
+            final int c = read();
+            if (c == -1) {
+                if (!started) {
+                    return null;
+                }
+                // an unterminated quote ends with the document
+                fields.add(field.toString());
+                return fields;
+            }
+            if (quoted) {
+                if (c == '"') {
+                    final int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        lookahead = next;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+                started = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                started = true;
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r') {
+                    final int next = read();
+                    if (next != '\n') {
+                        lookahead = next;
+                    }
+                }
+                line++;
+                if (!started) {
+                    // blank line
+                    recordLine = line;
+                    continue;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+                started = true;
+            }
+        }
+    }
+
+    /**
+     * Returns the line the record returned last starts on.
+     *
+     * @return the line number, starting with 1
+     */
+    public long recordLine() {
+        return recordLine;
+    }
+
+    private int read() throws IOException {
+        if (lookahead != NONE) {
+            final int c = lookahead;
+            lookahead = NONE;
+            return c;
+        }
+        return reader.read();
+    }
+}
@@ -147,10 +147,6 @@ public class EntityTransformer {
      */
     public static String jsonAsString(Object obj) {
         try {
-            if (log.isInfoEnabled()) {
-                log.info("Converting object to JSON string: {}", obj);
-            }
-
             return objectMapper.writeValueAsString(obj);
         } catch (JsonProcessingException e) {
             log.error("Error converting object to JSON string", e);
@@ -0,0 +1,105 @@
+package edu.yacoubi.crm.util;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a keyset (cursor) page.
+ *
+ * <p>Keyset pagination orders results by a stable {@code (sortKey, id)} pair and continues
+ * "after" the last row of the previous page instead of skipping rows with an OFFSET.
+ * The position is handed to clients as an opaque, URL-safe token.</p>
+ *
+ * <p>Usage example:</p>
+ * <pre>{@code
+ * String token = KeysetCursor.of(customer.getLastName(), customer.getId()).encode();
+ * KeysetCursor cursor = KeysetCursor.decode(token);
+ * }</pre>
+ *
+ * @param sortKey the sort key of the last row, as string
+ * @param id      the ID of the last row, used as tie-breaker
+ * @author A. El Yacoubi
+ */
+public record KeysetCursor(String sortKey, Long id) {
+    private static final String SEPARATOR = ":";
+
+    /**
+     * Creates a cursor for the given sort key and ID.
+     *
+     * @param sortKey the sort key of the last row (its {@code toString()} is stored)
+     * @param id      the ID of the last row
+     * @return the cursor
+     */
+    public static KeysetCursor of(final Object sortKey, final Long id) {
+        return new KeysetCursor(String.valueOf(sortKey), id);
+    }
+
+    /**
+     * Returns the sort key as date, for cursors over date-ordered results.
+     *
+     * @return the sort key as date
+     * @throws IllegalArgumentException if the sort key is not an ISO date
+     */
+    public LocalDate sortKeyAsDate() {
+        try {
+            return LocalDate.parse(sortKey);
+        } catch (DateTimeParseException exception) {
+            throw new IllegalArgumentException("Invalid cursor sort key: " + sortKey, exception);
+        }
+    }
+
+    /**
+     * Returns the sort key as decimal, for cursors over score-ordered results.
+     *
+     * @return the sort key as decimal
+     * @throws IllegalArgumentException if the sort key is not a decimal number
+     */
+    public BigDecimal sortKeyAsDecimal() {
+        try {
+            return new BigDecimal(sortKey);
+        } catch (NumberFormatException exception) {
+            throw new IllegalArgumentException("Invalid cursor sort key: " + sortKey, exception);
+        }
+    }
+
+    /**
+     * Encodes this cursor as opaque token.
+     *
+     * @return the URL-safe token
+     */
+    public String encode() {
+        final String raw = id + SEPARATOR + sortKey;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token created by {@link #encode()}.
+     *
+     * @param token the token sent by the client, may be null or blank for the first page
+     * @return the cursor, or null if no token was given
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static KeysetCursor decode(final String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+
+        try {
+            final String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            final int separatorIndex = raw.indexOf(SEPARATOR);
+            if (separatorIndex < 1) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            return new KeysetCursor(
+                    raw.substring(separatorIndex + 1),
+                    Long.valueOf(raw.substring(0, separatorIndex))
+            );
+        } catch (IllegalArgumentException exception) {
+            // NumberFormatException ist ebenfalls eine IllegalArgumentException
+            throw new IllegalArgumentException("Invalid cursor: " + token, exception);
+        }
+    }
+}
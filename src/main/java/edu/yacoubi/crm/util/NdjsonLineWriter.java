@@ -0,0 +1,60 @@
+package edu.yacoubi.crm.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Streams values as NDJSON (one JSON document per line) into a servlet response and flushes after
+ * every batch, so the client sees the results while the request is still being processed.
+ *
+ * <p>The content type is set with the first batch; until then the response is untouched and an
+ * exception can still be answered with a regular error response.</p>
+ *
+ * @param <T> the type of the written values
+ * @author A. El Yacoubi
+ */
+public final class NdjsonLineWriter<T> implements Consumer<List<T>> {
+    private static final byte NEWLINE = '\n';
+
+    private final ObjectMapper objectMapper;
+    private final HttpServletResponse response;
+    private OutputStream outputStream;
+
+    public NdjsonLineWriter(final ObjectMapper objectMapper, final HttpServletResponse response) {
+        this.objectMapper = objectMapper;
+        this.response = response;
+    }
+
+    @Override
+    public void accept(final List<T> values) {
+        try {
+            if (outputStream == null) {
+                response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+                response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+                outputStream = response.getOutputStream();
+            }
+            for (final T value : values) {
+                outputStream.write(objectMapper.writeValueAsBytes(value));
+                outputStream.write(NEWLINE);
+            }
+            outputStream.flush();
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Writing the NDJSON response failed", exception);
+        }
+    }
+
+    /**
+     * Sets the content type if nothing was written, e.g. for an empty upload.
+     */
+    public void finish() {
+        accept(List.of());
+    }
+}
@@ -0,0 +1,81 @@
+package edu.yacoubi.crm.util;
+
+import edu.yacoubi.crm.exception.PreconditionFailedException;
+
+/**
+ * Maps the optimistic lock version of an entity to a strong ETag and back.
+ *
+ * <p>The ETag of an entity is its version in quotes, e.g. {@code "3"}. It changes with every update of
+ * the entity row, so the version alone decides whether a client's copy is current.</p>
+ *
+ * <p>Usage example:</p>
+ * <pre>{@code
+ * if (VersionETags.matches(ifNoneMatch, currentVersion)) {
+ *     return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(VersionETags.of(currentVersion)).build();
+ * }
+ * Long expectedVersion = VersionETags.parseIfMatch(ifMatch);
+ * }</pre>
+ *
+ * @author A. El Yacoubi
+ */
+public final class VersionETags {
+    private static final String ANY = "*";
+    private static final String WEAK_PREFIX = "W/";
+
+    private VersionETags() {
+    }
+
+    /**
+     * Returns the ETag of a version.
+     *
+     * @param version the entity version
+     * @return the quoted version
+     */
+    public static String of(final Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Checks an {@code If-None-Match} header against the current version (weak comparison).
+     *
+     * @param ifNoneMatch the header value, may be null
+     * @param version     the current version of the entity
+     * @return true if the client's copy is current, i.e. 304 Not Modified can be answered
+     */
+    public static boolean matches(final String ifNoneMatch, final Long version) {
+        if (ifNoneMatch == null || version == null) {
+            return false;
+        }
+        final String current = of(version);
+        for (final String candidate : ifNoneMatch.split(",")) {
+            final String tag = candidate.trim();
+            if (tag.equals(ANY) || tag.equals(current)
+                    || (tag.startsWith(WEAK_PREFIX) && tag.substring(WEAK_PREFIX.length()).equals(current))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Extracts the expected version from an {@code If-Match} header (strong comparison).
+     *
+     * @param ifMatch the header value, may be null
+     * @return the expected version, or null if the header is absent or {@code *}
+     * @throws PreconditionFailedException if the header does not contain exactly one strong version ETag
+     */
+    public static Long parseIfMatch(final String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals(ANY)) {
+            return null;
+        }
+        final String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.valueOf(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException exception) {
+                // fall through, no version of this API
+            }
+        }
+        throw new PreconditionFailedException("If-Match does not match the current version: " + tag);
+    }
+}
@@ -1,31 +1,31 @@
 -- Create Employees
-INSERT INTO employee (first_name, last_name, email, department) VALUES
-('John', 'Doe', 'john.doe@example.com', 'Sales'),
-('Jane', 'Smith', 'jane.smith@example.com', 'Support'),
-('Alice', 'Johnson', 'alice.johnson@example.com', 'Marketing');
+INSERT INTO employee (id, first_name, last_name, email, department) VALUES
+(1, 'John', 'Doe', 'john.doe@example.com', 'Sales'),
+(2, 'Jane', 'Smith', 'jane.smith@example.com', 'Support'),
+(3, 'Alice', 'Johnson', 'alice.johnson@example.com', 'Marketing');
 
 -- Create Customers
-INSERT INTO customer (first_name, last_name, email, phone, address, last_interaction_date, employee_id) VALUES
-('Max', 'Mustermann', 'max.mustermann@example.com', '1234567890', '123 Main St', '2024-10-22', 1),
-('Erika', 'Musterfrau', 'erika.musterfrau@example.com', '2345678901', '456 Oak St', '2024-10-22', 1),
-('Hans', 'Hansen', 'hans.hansen@example.com', '3456789012', '789 Pine St', '2024-10-22', 1),
-('Petra', 'Petersen', 'petra.petersen@example.com', '4567890123', '101 Maple St', '2024-10-22', 2),
-('Klaus', 'Klaussen', 'klaus.klaussen@example.com', '5678901234', '202 Birch St', '2024-10-22', 2),
-('Lisa', 'Larsen', 'lisa.larsen@example.com', '6789012345', '303 Cedar St', '2024-10-22', 2),
-('Frank', 'Franken', 'frank.franken@example.com', '7890123456', '404 Spruce St', '2024-10-22', 3),
-('Sandra', 'Sanders', 'sandra.sanders@example.com', '8901234567', '505 Elm St', '2024-10-22', 3),
-('Gerd', 'Gerdsen', 'gerd.gerdsen@example.com', '9012345678', '606 Fir St', '2024-10-22', 3),
-('Ute', 'Utens', 'ute.utens@example.com', '0123456789', '707 Walnut St', '2024-10-22', 3);
+INSERT INTO customer (id, first_name, last_name, email, phone, address, last_interaction_date, employee_id) VALUES
+(1, 'Max', 'Mustermann', 'max.mustermann@example.com', '1234567890', '123 Main St', '2024-10-22', 1),
+(2, 'Erika', 'Musterfrau', 'erika.musterfrau@example.com', '2345678901', '456 Oak St', '2024-10-22', 1),
+(3, 'Hans', 'Hansen', 'hans.hansen@example.com', '3456789012', '789 Pine St', '2024-10-22', 1),
+(4, 'Petra', 'Petersen', 'petra.petersen@example.com', '4567890123', '101 Maple St', '2024-10-22', 2),
+(5, 'Klaus', 'Klaussen', 'klaus.klaussen@example.com', '5678901234', '202 Birch St', '2024-10-22', 2),
+(6, 'Lisa', 'Larsen', 'lisa.larsen@example.com', '6789012345', '303 Cedar St', '2024-10-22', 2),
+(7, 'Frank', 'Franken', 'frank.franken@example.com', '7890123456', '404 Spruce St', '2024-10-22', 3),
+(8, 'Sandra', 'Sanders', 'sandra.sanders@example.com', '8901234567', '505 Elm St', '2024-10-22', 3),
+(9, 'Gerd', 'Gerdsen', 'gerd.gerdsen@example.com', '9012345678', '606 Fir St', '2024-10-22', 3),
+(10, 'Ute', 'Utens', 'ute.utens@example.com', '0123456789', '707 Walnut St', '2024-10-22', 3);
 
 -- Create Notes
-INSERT INTO note (interaction_type, content, date, customer_id) VALUES
-('MEETING', 'Meeting with Max', '2024-10-22', 1),
-('PHONE_CALL', 'Call with Erika', '2024-10-22', 2),
-('EMAIL', 'Email to Hans', '2024-10-22', 3),
-('MEETING', 'Meeting with Petra', '2024-10-22', 4),
-('PHONE_CALL', 'Call with Klaus', '2024-10-22', 5),
-('EMAIL', 'Email to Lisa', '2024-10-22', 6),
-('MEETING', 'Meeting with Frank', '2024-10-22', 7),
-('PHONE_CALL', 'Call with Sandra', '2024-10-22', 8),
-('EMAIL', 'Email to Gerd', '2024-10-22', 9),
-('MEETING', 'Meeting with Ute', '2024-10-22', 10);
+INSERT INTO note (id, interaction_type, content, date, customer_id) VALUES
+(1, 'MEETING', 'Meeting with Max', '2024-10-22', 1),
+(2, 'PHONE_CALL', 'Call with Erika', '2024-10-22', 2),
+(3, 'EMAIL', 'Email to Hans', '2024-10-22', 3),
+(4, 'MEETING', 'Meeting with Petra', '2024-10-22', 4),
+(5, 'PHONE_CALL', 'Call with Klaus', '2024-10-22', 5),
+(6, 'EMAIL', 'Email to Lisa', '2024-10-22', 6),
+(7, 'MEETING', 'Meeting with Frank', '2024-10-22', 7),
+(8, 'PHONE_CALL', 'Call with Sandra', '2024-10-22', 8),
+(9, 'EMAIL', 'Email to Gerd', '2024-10-22', 9),
+(10, 'MEETING', 'Meeting with Ute', '2024-10-22', 10);
@@ -0,0 +1,14 @@
+-- Version 2: indexes matched to the repository queries (version 1 is the baseline schema.sql).
+-- Idempotent, so it can be applied to existing databases and after schema.sql on every start.
+-- EXPLAIN-checked by QueryPlanRegressionTest.
+
+-- findByEmployeeId, findResponsesByEmployeeId (ORDER BY id), hasCustomers, reassignEmployee,
+-- the lazy Employee.customers collection and the customer counts of findAllEmployeeDepartments
+CREATE INDEX IF NOT EXISTS idx_customer_employee_id_id ON customer (employee_id, id);
+
+-- findAllByCustomerId, findResponsesByCustomerId, the note counts and latest notes of the customer
+-- overview, the note timeline (ORDER BY date DESC, id DESC) and the lazy Customer.notes collection
+CREATE INDEX IF NOT EXISTS idx_note_customer_date_id ON note (customer_id, date, id);
+
+-- existsByOriginalEmployeeId (deactivating an employee)
+CREATE INDEX IF NOT EXISTS idx_inactive_employee_original_employee_id ON inactive_employee (original_employee_id);
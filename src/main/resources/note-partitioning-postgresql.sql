@@ -0,0 +1,28 @@
+-- PostgreSQL-only (prod profile), executed after schema.sql and before the versioned migrations, which then
+-- create their note indexes on the partitioned table (and with it on every partition).
+-- Replaces the plain note table of schema.sql with a table range-partitioned by month on date. The monthly
+-- partitions note_pYYYY_MM are created, split off the default partition and detached by NotePartitionMaintenance.
+--
+-- PostgreSQL requires the partition key in every primary key and unique constraint, so the primary key is
+-- (id, date): note.id is NO LONGER UNIQUE at the database level, only within one date. IDs stay unique as long
+-- as they come from note_seq (Hibernate); rows inserted with an explicit id are not checked against the other
+-- partitions. date is part of the primary key and therefore NOT NULL.
+
+drop table IF EXISTS note;
+
+create TABLE note (
+    id BIGINT NOT NULL,
+    interaction_type VARCHAR(50),
+    content TEXT,
+    date DATE NOT NULL,
+    customer_id BIGINT,
+    version BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT note_id_date_pkey PRIMARY KEY (id, date),
+    FOREIGN KEY (customer_id) REFERENCES customer(id)
+) PARTITION BY RANGE (date);
+
+-- Notes of months without a partition of their own (historical imports, dates beyond the prepared months)
+create TABLE note_default PARTITION OF note DEFAULT;
+
+-- Index for keyset pagination: ORDER BY (date, id), as in schema.sql
+create INDEX idx_note_date_id ON note (date, id);
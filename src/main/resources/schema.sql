@@ -7,11 +7,22 @@ drop table IF EXISTS users;
 drop table IF EXISTS customer;
 drop table IF EXISTS employee;
 drop table IF EXISTS inactive_employee;
+drop sequence IF EXISTS inactive_employee_seq;
+drop sequence IF EXISTS employee_seq;
+drop sequence IF EXISTS customer_seq;
+drop sequence IF EXISTS note_seq;
 
 --
 
+-- Sequences for the pooled-lo ID generators (INCREMENT BY must match allocationSize of the entities).
+-- They start at 1000 so that the IDs of the sample data in data.sql stay free.
+create SEQUENCE inactive_employee_seq START WITH 1000 INCREMENT BY 50;
+create SEQUENCE employee_seq START WITH 1000 INCREMENT BY 50;
+create SEQUENCE customer_seq START WITH 1000 INCREMENT BY 50;
+create SEQUENCE note_seq START WITH 1000 INCREMENT BY 50;
+
 Create Table inactive_employee (
-    id SERIAL PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     first_name VARCHAR(50),
     last_name VARCHAR(50),
     email VARCHAR(100) UNIQUE,
@@ -21,16 +32,17 @@ Create Table inactive_employee (
 
 -- Create Employee Table
 create TABLE employee (
-    id SERIAL PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     first_name VARCHAR(50),
     last_name VARCHAR(50),
     email VARCHAR(100) UNIQUE,
-    department VARCHAR(50)
+    department VARCHAR(50),
+    version BIGINT NOT NULL DEFAULT 0
 );
 
 -- Create Customer Table
 create TABLE customer (
-    id SERIAL PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     first_name VARCHAR(50),
     last_name VARCHAR(50),
     email VARCHAR(100) UNIQUE,
@@ -38,19 +50,27 @@ create TABLE customer (
     address VARCHAR(255),
     last_interaction_date DATE,
     employee_id BIGINT,
+    version BIGINT NOT NULL DEFAULT 0,
     FOREIGN KEY (employee_id) REFERENCES employee(id)
 );
 
 -- Create Note Table
 create TABLE note (
-    id SERIAL PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     interaction_type VARCHAR(50),
     content TEXT,
     date DATE,
     customer_id BIGINT,
+    version BIGINT NOT NULL DEFAULT 0,
     FOREIGN KEY (customer_id) REFERENCES customer(id)
 );
 
+-- Indexes for keyset pagination: ORDER BY (sort key, id)
+create INDEX idx_customer_last_name_id ON customer (last_name, id);
+create INDEX idx_employee_last_name_id ON employee (last_name, id);
+create INDEX idx_note_date_id ON note (date, id);
+-- Indexes for the filtered repository queries: db/migration/V2__query_workload_indexes.sql
+
 create TABLE users (
     id SERIAL PRIMARY KEY,
     username VARCHAR(50) UNIQUE NOT NULL,
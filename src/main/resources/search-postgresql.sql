@@ -0,0 +1,20 @@
+-- PostgreSQL-only search indexes (prod profile), executed after schema.sql.
+-- pg_trgm GIN indexes on the normalized (lower case) search columns serve the
+-- lower(col) LIKE '%term%' queries of TrigramSearchRepositoryImpl without a full table scan.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_customer_first_name_trgm ON customer USING gin (lower(first_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_customer_last_name_trgm ON customer USING gin (lower(last_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_customer_email_trgm ON customer USING gin (lower(email) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_employee_first_name_trgm ON employee USING gin (lower(first_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_employee_last_name_trgm ON employee USING gin (lower(last_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_employee_department_trgm ON employee USING gin (lower(department) gin_trgm_ops);
+
+-- Full-text note search (FullTextNoteSearchRepositoryImpl): generated tsvector with the
+-- 'simple' configuration (no stemming, notes are written in several languages) and a GIN index.
+ALTER TABLE note ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (to_tsvector('simple', coalesce(content, ''))) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_note_search_vector ON note USING gin (search_vector);
@@ -0,0 +1,187 @@
+package edu.yacoubi.crm.benchmark;
+
+import edu.yacoubi.crm.model.Customer;
+import edu.yacoubi.crm.model.Employee;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Bulk insert benchmark: 100k customers with IDENTITY-style inserts vs. pooled-lo sequence IDs and JDBC batching.
+ *
+ * <ul>
+ *     <li>IDENTITY: mimics what Hibernate does for {@code GenerationType.IDENTITY}. Every row is inserted on its
+ *     own and the generated key is read back, so no batching is possible.</li>
+ *     <li>pooled-lo JDBC: one {@code customer_seq} call per 50 IDs, rows sent as JDBC batches. Isolates the
+ *     effect of the ID strategy from the JPA overhead.</li>
+ *     <li>pooled-lo JPA: persists {@link Customer} entities end to end (incl. bean validation), flushing and
+ *     clearing the persistence context per batch.</li>
+ * </ul>
+ *
+ * <p>Opt-in, run with:</p>
+ * <pre>{@code
+ * mvn test -Dspring.profiles.active=test -Dcrm.benchmark=true -Dtest=CustomerBulkInsertBenchmark
+ * }</pre>
+ */
+@Slf4j
+@SpringBootTest
+@EnabledIfSystemProperty(named = "crm.benchmark", matches = "true")
+class CustomerBulkInsertBenchmark {
+    private static final int ROWS = 100_000;
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void itShouldInsertCustomersWithIdentityAndPooledIds() {
+        // Given
+        final Long employeeId = transactionTemplate.execute(status -> {
+            final Employee employee = Employee.builder()
+                    .firstName("Bench")
+                    .lastName("Mark")
+                    .email("bench.mark@example.com")
+                    .department("Sales")
+                    .build();
+            entityManager.persist(employee);
+            return employee.getId();
+        });
+        jdbcTemplate.execute("DROP TABLE IF EXISTS customer_identity_bench");
+        jdbcTemplate.execute("""
+                CREATE TABLE customer_identity_bench (
+                    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                    first_name VARCHAR(50), last_name VARCHAR(50), email VARCHAR(100),
+                    phone VARCHAR(20), address VARCHAR(255), last_interaction_date DATE, employee_id BIGINT)
+                """);
+
+        // When
+        final long identityNanos = time(() -> insertWithIdentity(employeeId));
+        final long pooledJdbcNanos = time(() -> insertWithPooledJdbcBatches(employeeId));
+        final long pooledJpaNanos = time(() -> insertWithPooledIds(employeeId));
+
+        // Then
+        assertEquals(ROWS, count("customer_identity_bench"));
+        assertEquals(2L * ROWS, count("customer"));
+        report("IDENTITY (row by row)", identityNanos);
+        report("pooled-lo JDBC (batch_size " + BATCH_SIZE + ")", pooledJdbcNanos);
+        report("pooled-lo JPA (batch_size " + BATCH_SIZE + ")", pooledJpaNanos);
+
+        jdbcTemplate.execute("DROP TABLE customer_identity_bench");
+    }
+
+    private void insertWithIdentity(final Long employeeId) {
+        final String sql = "INSERT INTO customer_identity_bench "
+                + "(first_name, last_name, email, phone, address, last_interaction_date, employee_id) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < ROWS; i++) {
+                final int index = i;
+                jdbcTemplate.update(connection -> {
+                    final PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+                    ps.setString(1, "First" + index);
+                    ps.setString(2, "Last" + index);
+                    ps.setString(3, "identity" + index + "@example.com");
+                    ps.setString(4, "0123456789");
+                    ps.setString(5, "Main St " + index);
+                    ps.setObject(6, LocalDate.now());
+                    ps.setLong(7, employeeId);
+                    return ps;
+                }, new GeneratedKeyHolder());
+            }
+        });
+    }
+
+    private void insertWithPooledJdbcBatches(final Long employeeId) {
+        final String sql = "INSERT INTO customer "
+                + "(id, first_name, last_name, email, phone, address, last_interaction_date, employee_id, version) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int offset = 0; offset < ROWS; offset += BATCH_SIZE) {
+                // pooled-lo: der Sequenzwert ist die untere Grenze des reservierten Blocks
+                final long lo = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR customer_seq", Long.class);
+                final int first = offset;
+                jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(final PreparedStatement ps, final int i) throws SQLException {
+                        final int index = first + i;
+                        ps.setLong(1, lo + i);
+                        ps.setString(2, "First" + index);
+                        ps.setString(3, "Last" + index);
+                        ps.setString(4, "jdbc" + index + "@example.com");
+                        ps.setString(5, "0123456789");
+                        ps.setString(6, "Main St " + index);
+                        ps.setObject(7, LocalDate.now());
+                        ps.setLong(8, employeeId);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return Math.min(BATCH_SIZE, ROWS - first);
+                    }
+                });
+            }
+        });
+    }
+
+    private void insertWithPooledIds(final Long employeeId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            final Employee employee = entityManager.getReference(Employee.class, employeeId);
+            for (int i = 0; i < ROWS; i++) {
+                entityManager.persist(Customer.builder()
+                        .firstName("First" + i)
+                        .lastName("Last" + i)
+                        .email("pooled" + i + "@example.com")
+                        .phone("0123456789")
+                        .address("Main St " + i)
+                        .lastInteractionDate(LocalDate.now())
+                        .employee(employee)
+                        .build());
+
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+        });
+    }
+
+    private static void report(final String variant, final long nanos) {
+        log.info("{}: {} rows in {} ms, {} rows/s", variant, ROWS, nanos / 1_000_000, rowsPerSecond(nanos));
+    }
+
+    private long count(final String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+
+    private static long time(final Runnable runnable) {
+        final long start = System.nanoTime();
+        runnable.run();
+        return System.nanoTime() - start;
+    }
+
+    private static long rowsPerSecond(final long nanos) {
+        return ROWS * 1_000_000_000L / Math.max(nanos, 1);
+    }
+}
@@ -0,0 +1,133 @@
+package edu.yacoubi.crm.benchmark;
+
+import edu.yacoubi.crm.dto.customer.CustomerSearchFieldsDTO;
+import edu.yacoubi.crm.repository.CustomerRepository;
+import edu.yacoubi.crm.service.search.CustomerNgramIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Memory footprint and query latency of the in-memory n-gram index for 1M customers.
+ *
+ * <p>The customers are generated in memory and fed to {@link CustomerNgramIndex#rebuild} in chunks of
+ * 10k, like the startup build reads them from the database. The footprint is the difference of the used
+ * heap after a GC before and after the build, so it is an approximation.</p>
+ *
+ * <p>Opt-in, run with:</p>
+ * <pre>{@code
+ * mvn test -Dspring.profiles.active=test -Dcrm.benchmark=true -Dtest=CustomerNgramIndexBenchmark
+ * }</pre>
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "crm.benchmark", matches = "true")
+class CustomerNgramIndexBenchmark {
+    private static final int CUSTOMERS = 1_000_000;
+    private static final int CHUNK_SIZE = 10_000;
+    private static final int QUERIES = 20_000;
+    private static final int LIMIT = 10;
+
+    private static final String[] FIRST_NAMES = {
+            "John", "Jane", "Michael", "Anna", "Peter", "Maria", "Thomas", "Laura", "Ahmed", "Sofia",
+            "Lukas", "Emma", "David", "Lea", "Jonas", "Mia", "Felix", "Hannah", "Paul", "Lina"
+    };
+    private static final String[] LAST_NAMES = {
+            "Doe", "Smith", "Jordan", "Müller", "Schmidt", "Schneider", "Fischer", "Weber", "Meyer", "Wagner",
+            "Becker", "Schulz", "Hoffmann", "Koch", "Richter", "Klein", "Wolf", "Neumann", "Schwarz", "Yacoubi"
+    };
+
+    @Test
+    void itShouldMeasureFootprintAndQueryLatencyFor1MCustomers() {
+        // Given
+        final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        final CustomerNgramIndex index = new CustomerNgramIndex(mock(CustomerRepository.class), true);
+        final long heapBefore = usedHeapAfterGc(memory);
+
+        // When
+        final long buildStart = System.nanoTime();
+        index.rebuild(afterId -> chunkAfter(afterId == Long.MIN_VALUE ? 0 : afterId));
+        final long buildNanos = System.nanoTime() - buildStart;
+        final long heapAfter = usedHeapAfterGc(memory);
+
+        final Random random = new Random(42);
+        final List<String> terms = new ArrayList<>(QUERIES);
+        for (int i = 0; i < QUERIES; i++) {
+            terms.add(randomTerm(random));
+        }
+        // warm-up
+        terms.forEach(term -> index.search(term, LIMIT));
+
+        final long[] latencies = new long[QUERIES];
+        int hits = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            final long start = System.nanoTime();
+            hits += index.search(terms.get(i), LIMIT).size();
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+
+        // Then
+        assertEquals(CUSTOMERS, index.size());
+        assertFalse(index.search("customer999999@", LIMIT).isEmpty());
+        log.info("build: {} customers, {} keys in {} ms (parallel tokenizing)",
+                index.size(), index.keyCount(), buildNanos / 1_000_000);
+        log.info("footprint: ~{} MB, ~{} bytes per customer",
+                (heapAfter - heapBefore) / (1024 * 1024), (heapAfter - heapBefore) / CUSTOMERS);
+        log.info("query latency over {} queries (limit {}, {} hits): p50 {} us, p90 {} us, p99 {} us, max {} us",
+                QUERIES, LIMIT, hits, micros(latencies, 0.50), micros(latencies, 0.90),
+                micros(latencies, 0.99), latencies[QUERIES - 1] / 1_000);
+    }
+
+    private static List<CustomerSearchFieldsDTO> chunkAfter(final long afterId) {
+        final List<CustomerSearchFieldsDTO> chunk = new ArrayList<>(CHUNK_SIZE);
+        for (long id = afterId + 1; id <= Math.min(afterId + CHUNK_SIZE, CUSTOMERS); id++) {
+            final String firstName = FIRST_NAMES[(int) (id % FIRST_NAMES.length)];
+            final String lastName = LAST_NAMES[(int) ((id / FIRST_NAMES.length) % LAST_NAMES.length)];
+            chunk.add(new CustomerSearchFieldsDTO(
+                    id,
+                    firstName,
+                    lastName + (id % 97 == 0 ? "-" + firstName : ""),
+                    "customer" + id + "@" + lastName.toLowerCase() + ".example.com",
+                    String.format("0%09d", id * 7919 % 1_000_000_000L)
+            ));
+        }
+        return chunk;
+    }
+
+    /**
+     * Mix of type-ahead inputs: 1-2 character prefixes, name fragments, email and phone fragments.
+     */
+    private static String randomTerm(final Random random) {
+        final String name = random.nextBoolean()
+                ? FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]
+                : LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        return switch (random.nextInt(4)) {
+            case 0 -> name.substring(0, 1 + random.nextInt(2)).toLowerCase();
+            case 1 -> name.substring(0, Math.min(name.length(), 3 + random.nextInt(3))).toLowerCase();
+            case 2 -> "customer" + (1 + random.nextInt(CUSTOMERS)) + "@";
+            default -> String.valueOf(100_000 + random.nextInt(900_000));
+        };
+    }
+
+    private static long micros(final long[] sortedNanos, final double percentile) {
+        return sortedNanos[(int) Math.min(sortedNanos.length - 1, sortedNanos.length * percentile)] / 1_000;
+    }
+
+    private static long usedHeapAfterGc(final MemoryMXBean memory) {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,160 @@
+package edu.yacoubi.crm.benchmark;
+
+import edu.yacoubi.crm.model.Customer;
+import edu.yacoubi.crm.model.Employee;
+import edu.yacoubi.crm.model.InteractionType;
+import edu.yacoubi.crm.model.Note;
+import edu.yacoubi.crm.repository.CustomerRepository;
+import edu.yacoubi.crm.repository.EmployeeRepository;
+import edu.yacoubi.crm.repository.NoteRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Throughput of the list endpoints, served end to end through MockMvc (H2, JSON serialization, logging).
+ *
+ * <p>Used to compare the controller overhead, e.g. the payload logging, between two builds:
+ * 5000 customers are listed in pages of 1000, 200 employees in pages of 100 and 5000 notes
+ * scrolled in pages of 100.</p>
+ *
+ * <p>Opt-in, run with:</p>
+ * <pre>{@code
+ * mvn test -Dspring.profiles.active=test -Dcrm.benchmark=true -Dtest=ListEndpointThroughputBenchmark
+ * }</pre>
+ */
+@Slf4j
+@SpringBootTest
+@AutoConfigureMockMvc
+@EnabledIfSystemProperty(named = "crm.benchmark", matches = "true")
+class ListEndpointThroughputBenchmark {
+    private static final int EMPLOYEES = 200;
+    private static final int CUSTOMERS = 5_000;
+    private static final int NOTES = 5_000;
+    private static final int WARM_UP_ROUNDS = 20;
+    private static final int ROUNDS = 50;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @BeforeEach
+    public void setUp() {
+        noteRepository.deleteAll();
+        customerRepository.deleteAll();
+        employeeRepository.deleteAll();
+
+        final List<Employee> employees = new ArrayList<>(EMPLOYEES);
+        for (int i = 0; i < EMPLOYEES; i++) {
+            employees.add(Employee.builder()
+                    .firstName("First" + i).lastName("Last" + i)
+                    .email("employee" + i + "@example.com").department("Sales")
+                    .build());
+        }
+        final List<Employee> savedEmployees = employeeRepository.saveAll(employees);
+
+        final List<Customer> customers = new ArrayList<>(CUSTOMERS);
+        for (int i = 0; i < CUSTOMERS; i++) {
+            customers.add(Customer.builder()
+                    .firstName("First" + i).lastName("Last" + i)
+                    .email("customer" + i + "@example.com").phone("0123456789")
+                    .address("Main St " + i).lastInteractionDate(LocalDate.now())
+                    .employee(savedEmployees.get(i % EMPLOYEES))
+                    .build());
+        }
+        final List<Customer> savedCustomers = customerRepository.saveAll(customers);
+
+        final List<Note> notes = new ArrayList<>(NOTES);
+        for (int i = 0; i < NOTES; i++) {
+            notes.add(Note.builder()
+                    .content("Follow-up call number " + i + " about the current offer")
+                    .date(LocalDate.now().minusDays(i % 365))
+                    .interactionType(InteractionType.PHONE_CALL)
+                    .customer(savedCustomers.get(i))
+                    .build());
+        }
+        noteRepository.saveAll(notes);
+    }
+
+    @Test
+    void itShouldMeasureListEndpointThroughput() throws Exception {
+        // When
+        for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+            listCustomers();
+            listEmployees();
+            scrollNotes();
+        }
+        final long customerNanos = time(this::listCustomers);
+        final long employeeNanos = time(this::listEmployees);
+        final long noteNanos = time(this::scrollNotes);
+
+        // Then
+        report("GET /api/customers?size=1000", CUSTOMERS / 1000, customerNanos);
+        report("GET /api/employees?size=100", EMPLOYEES / 100, employeeNanos);
+        report("GET /api/notes/scroll?size=100", NOTES / 100, noteNanos);
+    }
+
+    private void listCustomers() throws Exception {
+        for (int page = 0; page < CUSTOMERS / 1000; page++) {
+            mockMvc.perform(get("/api/customers").param("page", String.valueOf(page)).param("size", "1000"))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    private void listEmployees() throws Exception {
+        for (int page = 0; page < EMPLOYEES / 100; page++) {
+            mockMvc.perform(get("/api/employees").param("page", String.valueOf(page)).param("size", "100"))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    private void scrollNotes() throws Exception {
+        String cursor = "";
+        for (int page = 0; page < NOTES / 100; page++) {
+            final String body = mockMvc.perform(get("/api/notes/scroll").param("cursor", cursor).param("size", "100"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            final int start = body.indexOf("\"nextCursor\":\"");
+            cursor = start < 0 ? "" : body.substring(start + 14, body.indexOf('"', start + 14));
+        }
+    }
+
+    private long time(final ThrowingRunnable round) throws Exception {
+        final long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            round.run();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static void report(final String endpoint, final int requestsPerRound, final long nanos) {
+        final double requests = (double) requestsPerRound * ROUNDS;
+        log.info("{}: {} requests in {} ms, {} req/s",
+                endpoint, (long) requests, nanos / 1_000_000, String.format("%.1f", requests * 1e9 / nanos));
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,97 @@
+package edu.yacoubi.crm.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.threads.virtual.enabled=true",
+        "crm.db.bulkhead.max-wait=100ms"
+})
+class DatabaseBulkheadIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor applicationTaskExecutor;
+
+    private MockMvc mockMvc;
+
+    private DatabaseBulkhead bulkhead;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        bulkhead = dataSource.unwrap(BulkheadDataSource.class).bulkhead();
+    }
+
+    @Test
+    public void itShouldSizeTheBulkheadToThePool() throws Exception {
+        assertEquals(dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize(), bulkhead.maxPermits());
+        assertEquals(bulkhead.maxPermits(), bulkhead.availablePermits());
+    }
+
+    @Test
+    public void itShouldRunAsyncWorkOnVirtualThreads() throws Exception {
+        assertTrue(applicationTaskExecutor.submit(() -> Thread.currentThread().isVirtual())
+                .get().booleanValue());
+    }
+
+    @Test
+    public void itShouldPassRequestsThroughTheBulkhead() throws Exception {
+        // Given
+        long waitsBefore = meterRegistry.get("crm.db.bulkhead.wait").timer().count();
+
+        // When
+        mockMvc.perform(get("/api/customers"))
+                .andExpect(status().isOk());
+
+        // Then
+        assertTrue(meterRegistry.get("crm.db.bulkhead.wait").timer().count() > waitsBefore);
+        assertEquals(bulkhead.maxPermits(), bulkhead.availablePermits());
+    }
+
+    @Test
+    public void itShouldAnswerServiceUnavailableWhenAllPermitsAreTaken() throws Exception {
+        // Given
+        double rejectionsBefore = meterRegistry.get("crm.db.bulkhead.rejections")
+                .tag("reason", "timeout").counter().count();
+        for (int i = 0; i < bulkhead.maxPermits(); i++) {
+            bulkhead.acquire();
+        }
+
+        // When & Then
+        try {
+            mockMvc.perform(get("/api/customers"))
+                    .andExpect(status().isServiceUnavailable());
+        } finally {
+            for (int i = 0; i < bulkhead.maxPermits(); i++) {
+                bulkhead.release();
+            }
+        }
+        assertEquals(rejectionsBefore + 1, meterRegistry.get("crm.db.bulkhead.rejections")
+                .tag("reason", "timeout").counter().count());
+    }
+}
@@ -0,0 +1,87 @@
+package edu.yacoubi.crm.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DatabaseBulkheadTest {
+
+    private MeterRegistry registry;
+
+    @BeforeEach
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    public void itShouldLetAsManyThreadsThroughAsThereArePermits() throws Exception {
+        // Given
+        DatabaseBulkhead bulkhead = new DatabaseBulkhead(2, Duration.ofMillis(50), 10);
+        bulkhead.bindTo(registry);
+
+        // When
+        bulkhead.acquire();
+        bulkhead.acquire();
+
+        // Then
+        assertEquals(0, bulkhead.availablePermits());
+        assertThrows(SQLTransientConnectionException.class, bulkhead::acquire);
+        assertEquals(1.0, registry.get("crm.db.bulkhead.rejections").tag("reason", "timeout").counter().count());
+        assertEquals(3, registry.get("crm.db.bulkhead.wait").timer().count());
+
+        bulkhead.release();
+        bulkhead.acquire();
+        assertEquals(0.0, registry.get("crm.db.bulkhead.permits.available").gauge().value());
+    }
+
+    @Test
+    public void itShouldHandOverReleasedPermitToWaitingThread() throws Exception {
+        // Given
+        DatabaseBulkhead bulkhead = new DatabaseBulkhead(1, Duration.ofSeconds(10), 10);
+        bulkhead.acquire();
+        CountDownLatch acquired = new CountDownLatch(1);
+        Thread waiting = Thread.ofVirtual().start(() -> {
+            try {
+                bulkhead.acquire();
+                acquired.countDown();
+            } catch (SQLTransientConnectionException exception) {
+                fail(exception);
+            }
+        });
+
+        // When
+        while (bulkhead.queued() == 0) {
+            Thread.onSpinWait();
+        }
+        bulkhead.release();
+
+        // Then
+        assertTrue(acquired.await(5, TimeUnit.SECONDS));
+        waiting.join();
+        assertEquals(0, bulkhead.queued());
+    }
+
+    @Test
+    public void itShouldRejectImmediatelyWhenQueueIsFull() throws Exception {
+        // Given
+        DatabaseBulkhead bulkhead = new DatabaseBulkhead(1, Duration.ofSeconds(10), 0);
+        bulkhead.bindTo(registry);
+        bulkhead.acquire();
+
+        // When
+        long start = System.nanoTime();
+        assertThrows(SQLTransientConnectionException.class, bulkhead::acquire);
+
+        // Then
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        assertEquals(1.0, registry.get("crm.db.bulkhead.rejections").tag("reason", "queue-full").counter().count());
+    }
+}
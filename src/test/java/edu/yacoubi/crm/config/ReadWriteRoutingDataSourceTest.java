@@ -0,0 +1,212 @@
+package edu.yacoubi.crm.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReadWriteRoutingDataSourceTest {
+
+    private MeterRegistry registry;
+    private JdbcTemplate replica;
+    private MutableClock clock;
+    private ReplicaLagMonitor lagMonitor;
+    private JdbcTemplate routed;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    public void setUp() {
+        // two separate embedded databases, each knows which one it is
+        DataSource primaryDataSource = database("primary");
+        DataSource replicaDataSource = database("replica");
+        replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("CREATE TABLE replica_status (lag_seconds DOUBLE PRECISION)");
+        replica.update("INSERT INTO replica_status VALUES (0)");
+
+        registry = new SimpleMeterRegistry();
+        clock = new MutableClock();
+        lagMonitor = new ReplicaLagMonitor(replicaDataSource, "SELECT lag_seconds FROM replica_status",
+                Duration.ofSeconds(5), Duration.ofSeconds(5), Duration.ofSeconds(1), clock);
+        lagMonitor.bindTo(registry);
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(
+                primaryDataSource, replicaDataSource, lagMonitor);
+        routingDataSource.afterPropertiesSet();
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        routed = new JdbcTemplate(dataSource);
+        // the lazy proxy borrows one connection to read the default auto-commit and isolation level
+        routed.execute((ConnectionCallback<Object>) connection -> null);
+        routingDataSource.bindTo(registry);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @Test
+    public void itShouldSendReadOnlyTransactionsToTheReplica() {
+        // Given
+        lagMonitor.check();
+
+        // When & Then
+        assertEquals("replica", readOnly.execute(status -> database()));
+        assertEquals("primary", readWrite.execute(status -> database()));
+        assertEquals("primary", database());
+
+        assertEquals(1.0, connections("replica", "read-only"));
+        assertEquals(2.0, connections("primary", "read-write"));
+        assertEquals(1.0, registry.get("crm.db.replica.usable").gauge().value());
+    }
+
+    @Test
+    public void itShouldUseThePrimaryUntilTheReplicaHasBeenChecked() {
+        // When & Then
+        assertEquals(ReplicaLagMonitor.State.UNKNOWN, lagMonitor.state());
+        assertEquals("primary", readOnly.execute(status -> database()));
+        assertEquals(1.0, connections("primary", "replica-unchecked"));
+    }
+
+    @Test
+    public void itShouldFallBackToThePrimaryWhileTheReplicaLags() {
+        // Given
+        replica.update("UPDATE replica_status SET lag_seconds = 30");
+        lagMonitor.check();
+
+        // When & Then
+        assertEquals(ReplicaLagMonitor.State.LAGGING, lagMonitor.state());
+        assertEquals("primary", readOnly.execute(status -> database()));
+        assertEquals(1.0, connections("primary", "replica-lagging"));
+        assertEquals(30.0, registry.get("crm.db.replica.lag").gauge().value());
+        assertEquals(0.0, registry.get("crm.db.replica.usable").gauge().value());
+
+        // caught up again
+        replica.update("UPDATE replica_status SET lag_seconds = 1.5");
+        lagMonitor.check();
+        assertEquals("replica", readOnly.execute(status -> database()));
+    }
+
+    @Test
+    public void itShouldFallBackToThePrimaryWhileTheReplicaIsUnavailable() {
+        // Given
+        replica.execute("DROP TABLE replica_status");
+        lagMonitor.check();
+
+        // When & Then
+        assertEquals(ReplicaLagMonitor.State.UNAVAILABLE, lagMonitor.state());
+        assertEquals("primary", readOnly.execute(status -> database()));
+        assertEquals(1.0, connections("primary", "replica-unavailable"));
+        assertTrue(Double.isNaN(registry.get("crm.db.replica.lag").gauge().value()));
+    }
+
+    @Test
+    public void itShouldUseThePrimaryOnceTheLastCheckIsStale() {
+        // Given
+        lagMonitor.check();
+        assertEquals(ReplicaLagMonitor.State.USABLE, lagMonitor.state());
+
+        // When: no check for longer than 2 * interval + timeout
+        clock.advance(Duration.ofSeconds(12));
+
+        // Then
+        assertEquals(ReplicaLagMonitor.State.UNKNOWN, lagMonitor.state());
+        assertEquals("primary", readOnly.execute(status -> database()));
+        assertEquals(1.0, connections("primary", "replica-unchecked"));
+        assertEquals(0.0, registry.get("crm.db.replica.usable").gauge().value());
+
+        // checked again
+        lagMonitor.check();
+        assertEquals("replica", readOnly.execute(status -> database()));
+    }
+
+    @Test
+    public void itShouldStopWaitingForABusyReplicaPool() throws Exception {
+        // Given: a replica pool of one connection, which is in use
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:replica-pool-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        config.setMaximumPoolSize(1);
+        config.setConnectionTimeout(30_000);
+        try (HikariDataSource replicaPool = new HikariDataSource(config)) {
+            new JdbcTemplate(replicaPool).execute("CREATE TABLE replica_status AS SELECT 0 AS lag_seconds");
+            ReplicaLagMonitor monitor = new ReplicaLagMonitor(replicaPool, "SELECT lag_seconds FROM replica_status",
+                    Duration.ofSeconds(5), Duration.ofSeconds(5), Duration.ofMillis(500));
+            try {
+                try (Connection busy = replicaPool.getConnection()) {
+                    // When
+                    long started = System.nanoTime();
+                    monitor.check();
+
+                    // Then
+                    assertTrue(Duration.ofNanos(System.nanoTime() - started).compareTo(Duration.ofSeconds(5)) < 0);
+                    assertEquals(ReplicaLagMonitor.State.UNAVAILABLE, monitor.state());
+                }
+
+                // the abandoned wait has been interrupted, the next check gets the connection
+                monitor.check();
+                assertEquals(ReplicaLagMonitor.State.USABLE, monitor.state());
+            } finally {
+                monitor.close();
+            }
+        }
+    }
+
+    private String database() {
+        return routed.queryForObject("SELECT name FROM database_marker", String.class);
+    }
+
+    private double connections(String route, String reason) {
+        return registry.get("crm.db.routing.connections").tag("route", route).tag("reason", reason)
+                .counter().count();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE database_marker (name VARCHAR(20))");
+        jdbcTemplate.update("INSERT INTO database_marker VALUES (?)", name);
+        return dataSource;
+    }
+}
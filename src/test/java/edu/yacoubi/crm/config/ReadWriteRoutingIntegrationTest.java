@@ -0,0 +1,154 @@
+package edu.yacoubi.crm.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import edu.yacoubi.crm.model.Customer;
+import edu.yacoubi.crm.model.Employee;
+import edu.yacoubi.crm.repository.CustomerRepository;
+import edu.yacoubi.crm.repository.EmployeeRepository;
+import edu.yacoubi.crm.repository.NoteRepository;
+import edu.yacoubi.crm.service.ICustomerService;
+import edu.yacoubi.crm.util.TestDataUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.search.Search;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:crm-primary;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "crm.datasource.replica.enabled=true",
+        "crm.datasource.replica.url=jdbc:h2:mem:crm-replica;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "crm.datasource.replica.username=sa",
+        "crm.datasource.replica.hikari.maximum-pool-size=3",
+        "crm.datasource.replica.lag-query=SELECT lag_seconds FROM replica_status",
+        "crm.datasource.replica.lag-check-interval=PT1H"
+})
+class ReadWriteRoutingIntegrationTest {
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replicaDataSource;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    private ICustomerService customerService;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private JdbcTemplate replica;
+    private Customer customer;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        noteRepository.deleteAll();
+        customerRepository.deleteAll();
+        employeeRepository.deleteAll();
+        Employee employee = employeeRepository.save(TestDataUtil.createEmployeeA());
+        customer = customerRepository.save(TestDataUtil.createCustomerA(employee));
+
+        // "replicate" the primary: copy schema and data into the replica database
+        replica = new JdbcTemplate(replicaDataSource);
+        Path script = Files.createTempFile("crm-replica", ".sql");
+        try {
+            new JdbcTemplate(primaryDataSource).execute("SCRIPT TO '" + script + "'");
+            replica.execute("DROP ALL OBJECTS");
+            replica.execute("RUNSCRIPT FROM '" + script + "'");
+        } finally {
+            Files.deleteIfExists(script);
+        }
+        replica.execute("CREATE TABLE replica_status (lag_seconds DOUBLE PRECISION)");
+        replica.update("INSERT INTO replica_status VALUES (0)");
+        replicaLagMonitor.check();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        replica.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    public void itShouldConfigureOnePoolPerRoute() {
+        assertEquals("primary", primaryDataSource.getPoolName());
+        assertEquals("replica", replicaDataSource.getPoolName());
+        assertTrue(replicaDataSource.isReadOnly());
+        assertEquals(3, replicaDataSource.getMaximumPoolSize());
+    }
+
+    @Test
+    public void itShouldReadFromTheReplicaInReadOnlyTransactions() {
+        // Given
+        assertEquals(ReplicaLagMonitor.State.USABLE, replicaLagMonitor.state());
+        rename("Changed");
+        double replicaReadsBefore = connections("replica", "read-only");
+
+        // When
+        Customer fromReplica = customerService.getCustomerWithNotes(customer.getId());
+        Customer fromPrimary = new TransactionTemplate(transactionManager).execute(
+                status -> customerRepository.findById(customer.getId()).orElseThrow());
+
+        // Then
+        assertEquals(TestDataUtil.createCustomerA(null).getFirstName(), fromReplica.getFirstName());
+        assertEquals("Changed", fromPrimary.getFirstName());
+        assertEquals(replicaReadsBefore + 1, connections("replica", "read-only"));
+        assertTrue(connections("primary", "read-write") > 0);
+    }
+
+    @Test
+    public void itShouldReadFromThePrimaryWhileTheReplicaLags() {
+        // Given
+        replica.update("UPDATE replica_status SET lag_seconds = 60");
+        replicaLagMonitor.check();
+        rename("Changed");
+        double fallbacksBefore = connections("primary", "replica-lagging");
+
+        // When
+        Customer customerWithNotes = customerService.getCustomerWithNotes(customer.getId());
+
+        // Then
+        assertEquals("Changed", customerWithNotes.getFirstName());
+        assertEquals(fallbacksBefore + 1, connections("primary", "replica-lagging"));
+        assertEquals(60.0, meterRegistry.get("crm.db.replica.lag").gauge().value());
+    }
+
+    private void rename(String firstName) {
+        Customer changed = customerRepository.findById(customer.getId()).orElseThrow();
+        changed.setFirstName(firstName);
+        customerRepository.save(changed);
+    }
+
+    private double connections(String route, String reason) {
+        return Search.in(meterRegistry).name("crm.db.routing.connections")
+                .tag("route", route).tag("reason", reason)
+                .counters().stream().mapToDouble(counter -> counter.count()).sum();
+    }
+}
@@ -0,0 +1,224 @@
+package edu.yacoubi.crm.controllers.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.yacoubi.crm.model.Customer;
+import edu.yacoubi.crm.model.Employee;
+import edu.yacoubi.crm.repository.CustomerRepository;
+import edu.yacoubi.crm.repository.EmployeeRepository;
+import edu.yacoubi.crm.repository.NoteRepository;
+import edu.yacoubi.crm.service.registry.DepartmentRegistry;
+import edu.yacoubi.crm.util.TestDataUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// small chunks, so that the uploads span several chunks
+@SpringBootTest(properties = {"crm.bulk.chunk-size=2", "crm.bulk.max-line-chars=" + BulkImportIntegrationTest.MAX_LINE_CHARS})
+class BulkImportIntegrationTest {
+    static final int MAX_LINE_CHARS = 256;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private DepartmentRegistry departmentRegistry;
+
+    private MockMvc mockMvc;
+
+    private Employee employee;
+
+    @BeforeEach
+    public void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        noteRepository.deleteAll();
+        customerRepository.deleteAll();
+        employeeRepository.deleteAll();
+
+        employee = employeeRepository.save(TestDataUtil.createEmployeeA());
+        departmentRegistry.rebuild();
+    }
+
+    @Test
+    public void itShouldCreateCustomersAndReportEveryLine() throws Exception {
+        // Given
+        String upload = String.join("\n",
+                customerLine("Ada", "ada@example.com"),
+                customerLine("Alan", "not-an-email"),
+                "",
+                "{\"firstName\": \"Grace\",",
+                customerLine("Grace", "grace@example.com"));
+
+        // When
+        List<JsonNode> results = postBulk("/api/customers/bulk?employeeId=" + employee.getId(), upload);
+
+        // Then
+        assertEquals(4, results.size());
+        assertLine(results.get(0), 1, "CREATED");
+        assertLine(results.get(1), 2, "REJECTED");
+        assertEquals("email", results.get(1).get("errors").get(0).get("field").asText());
+        assertLine(results.get(2), 4, "REJECTED");
+        assertLine(results.get(3), 5, "CREATED");
+
+        Customer ada = customerRepository.findById(results.get(0).get("id").asLong()).orElseThrow();
+        assertEquals("ada@example.com", ada.getEmail());
+        assertEquals(2, customerRepository.count());
+        assertEquals(2, departmentRegistry.snapshot().departments().get(0).customers());
+    }
+
+    @Test
+    public void itShouldUpsertCustomersByEmail() throws Exception {
+        // Given
+        Customer existing = customerRepository.save(TestDataUtil.createCustomerA(employee));
+        String upload = String.join("\n",
+                customerLine("Johnny", existing.getEmail()),
+                customerLine("Ada", "ada@example.com"),
+                customerLine("Ada", "ada@example.com"));
+
+        // When
+        List<JsonNode> results = postBulk(
+                "/api/customers/bulk?employeeId=" + employee.getId() + "&upsert=true", upload);
+
+        // Then
+        assertLine(results.get(0), 1, "UPDATED");
+        assertEquals(existing.getId(), results.get(0).get("id").asLong());
+        assertLine(results.get(1), 2, "CREATED");
+        assertLine(results.get(2), 3, "UPDATED");
+        assertEquals(results.get(1).get("id").asLong(), results.get(2).get("id").asLong());
+
+        assertEquals(2, customerRepository.count());
+        assertEquals("Johnny", customerRepository.findById(existing.getId()).orElseThrow().getFirstName());
+    }
+
+    @Test
+    public void itShouldCreateEmployeesAndUpdateTheDepartments() throws Exception {
+        // Given
+        String upload = String.join("\n",
+                "{\"firstName\":\"Ada\",\"lastName\":\"Lovelace\",\"email\":\"ada@example.com\",\"department\":\"Research\"}",
+                "{\"firstName\":\"Alan\",\"lastName\":\"Turing\",\"email\":\"alan@example.com\",\"department\":\"Research\"}",
+                "{\"firstName\":\"Jane\",\"lastName\":\"Smith\",\"email\":\"" + employee.getEmail()
+                        + "\",\"department\":\"Support\"}");
+
+        // When
+        List<JsonNode> results = postBulk("/api/employees/bulk?upsert=true", upload);
+
+        // Then
+        assertLine(results.get(0), 1, "CREATED");
+        assertLine(results.get(1), 2, "CREATED");
+        assertLine(results.get(2), 3, "UPDATED");
+        assertEquals(employee.getId(), results.get(2).get("id").asLong());
+        assertEquals(List.of("Research", "Support"), departmentRegistry.snapshot().names());
+    }
+
+    @Test
+    public void itShouldRejectNotesOfUnknownCustomers() throws Exception {
+        // Given
+        Customer customer = customerRepository.save(TestDataUtil.createCustomerA(employee));
+        String upload = String.join("\n",
+                noteLine(customer.getId()),
+                noteLine(customer.getId() + 1000),
+                "{\"content\":\"Call\",\"date\":\"2024-05-01\",\"interactionType\":\"PHONE_CALL\"}");
+
+        // When
+        List<JsonNode> results = postBulk("/api/notes/bulk", upload);
+
+        // Then
+        assertLine(results.get(0), 1, "CREATED");
+        assertLine(results.get(1), 2, "REJECTED");
+        assertLine(results.get(2), 3, "REJECTED");
+        assertEquals(1, noteRepository.findAllByCustomerId(customer.getId()).size());
+    }
+
+    @Test
+    public void itShouldRejectTooLongLinesAndContinueWithTheNextLine() throws Exception {
+        // Given
+        String upload = String.join("\r\n",
+                customerLine("Ada", "ada@example.com"),
+                "x".repeat(MAX_LINE_CHARS),
+                "x".repeat(MAX_LINE_CHARS + 1),
+                "{\"firstName\":\"" + "x".repeat(1_000_000) + "\"}",
+                customerLine("Grace", "grace@example.com"));
+
+        // When
+        List<JsonNode> results = postBulk("/api/customers/bulk?employeeId=" + employee.getId(), upload);
+
+        // Then
+        assertEquals(5, results.size());
+        assertLine(results.get(0), 1, "CREATED");
+        assertLine(results.get(1), 2, "REJECTED");
+        assertTrue(results.get(1).get("errors").get(0).get("errorMessage").asText().startsWith("Malformed JSON"));
+        assertLine(results.get(2), 3, "REJECTED");
+        assertEquals("Line longer than 256 characters",
+                results.get(2).get("errors").get(0).get("errorMessage").asText());
+        assertLine(results.get(3), 4, "REJECTED");
+        assertEquals("Line longer than 256 characters",
+                results.get(3).get("errors").get(0).get("errorMessage").asText());
+        assertLine(results.get(4), 5, "CREATED");
+        assertEquals(2, customerRepository.count());
+    }
+
+    @Test
+    public void itShouldReturnNotFoundForUnknownEmployee() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/customers/bulk?employeeId=" + (employee.getId() + 1000))
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(customerLine("Ada", "ada@example.com")))
+                .andExpect(status().isNotFound());
+        assertEquals(0, customerRepository.count());
+    }
+
+    private List<JsonNode> postBulk(String url, String upload) throws Exception {
+        String body = mockMvc.perform(post(url)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(upload))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        List<JsonNode> results = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            results.add(objectMapper.readTree(line));
+        }
+        return results;
+    }
+
+    private static void assertLine(JsonNode result, long line, String status) {
+        assertEquals(line, result.get("line").asLong());
+        assertEquals(status, result.get("status").asText());
+    }
+
+    private static String customerLine(String firstName, String email) {
+        return "{\"firstName\":\"" + firstName + "\",\"lastName\":\"Doe\",\"email\":\"" + email
+                + "\",\"phone\":\"1234567890\",\"address\":\"1 Main St\",\"lastInteractionDate\":\"2024-05-01\"}";
+    }
+
+    private static String noteLine(Long customerId) {
+        return "{\"content\":\"Call\",\"date\":\"2024-05-01\",\"interactionType\":\"PHONE_CALL\",\"customerId\":"
+                + customerId + "}";
+    }
+}
@@ -0,0 +1,215 @@
+package edu.yacoubi.crm.controllers.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.yacoubi.crm.model.Customer;
+import edu.yacoubi.crm.model.Employee;
+import edu.yacoubi.crm.model.InteractionType;
+import edu.yacoubi.crm.model.Note;
+import edu.yacoubi.crm.repository.CustomerRepository;
+import edu.yacoubi.crm.repository.EmployeeRepository;
+import edu.yacoubi.crm.repository.NoteRepository;
+import edu.yacoubi.crm.util.TestDataUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pages through the keyset paginated {@code /scroll} endpoints with page boundaries inside runs of equal sort
+ * keys, where only the ID tie-breaker keeps the pages apart.
+ */
+@SpringBootTest
+class CursorScrollIntegrationTest {
+    private static final int PAGE_SIZE = 3;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        noteRepository.deleteAll();
+        customerRepository.deleteAll();
+        employeeRepository.deleteAll();
+    }
+
+    @Test
+    public void itShouldScrollThroughEmployeesWithTheSameLastName() throws Exception {
+        // Given
+        List<Employee> employees = new ArrayList<>();
+        employees.add(employeeRepository.save(employee("Anna", "Adams", "Sales")));
+        for (int i = 0; i < 8; i++) {
+            employees.add(employeeRepository.save(employee("Jon" + i, "Wayne", i % 2 == 0 ? "Sales" : "Finance")));
+        }
+        employees.add(employeeRepository.save(employee("Zoe", "Young", "Sales")));
+        List<Long> expected = employees.stream()
+                .sorted(Comparator.comparing(Employee::getLastName).thenComparing(Employee::getId))
+                .map(Employee::getId)
+                .toList();
+
+        // When
+        List<Long> scrolled = scroll("/api/v2/employees/scroll", request -> request, 4);
+
+        // Then
+        assertEquals(expected, scrolled);
+    }
+
+    @Test
+    public void itShouldScrollThroughTheSearchResultsOfEmployees() throws Exception {
+        // Given
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Employee employee = employeeRepository.save(employee("Jon" + i, "Wayne", i % 2 == 0 ? "Sales" : "Finance"));
+            if (i % 2 == 0) {
+                expected.add(employee.getId());
+            }
+        }
+        expected.sort(null);
+
+        // When
+        List<Long> scrolled = scroll("/api/v2/employees/scroll", request -> request.param("search", "sales"), 2);
+
+        // Then
+        assertEquals(expected, scrolled);
+    }
+
+    @Test
+    public void itShouldScrollThroughNotesOfTheSameDateNewestFirst() throws Exception {
+        // Given
+        Employee employee = employeeRepository.save(TestDataUtil.createEmployeeA());
+        Customer customer = customerRepository.save(TestDataUtil.createCustomerA(employee));
+        List<Note> notes = notes(customer, 10);
+        List<Long> expected = notes.stream()
+                .sorted(Comparator.comparing(Note::getDate).thenComparing(Note::getId).reversed())
+                .map(Note::getId)
+                .toList();
+
+        // When
+        List<Long> scrolled = scroll("/api/notes/scroll", request -> request, 4);
+
+        // Then
+        assertEquals(expected, scrolled);
+    }
+
+    @Test
+    public void itShouldScrollThroughTheNotesOfOneCustomer() throws Exception {
+        // Given
+        Employee employee = employeeRepository.save(TestDataUtil.createEmployeeA());
+        Customer customer = customerRepository.save(TestDataUtil.createCustomerA(employee));
+        Customer other = customerRepository.save(TestDataUtil.createCustomerB(employee));
+        // saved alternately, so that the IDs of both customers interleave on every date
+        List<Note> notes = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            notes.addAll(notes(customer, 1, i));
+            notes(other, 1, i);
+        }
+        List<Long> expected = notes.stream()
+                .sorted(Comparator.comparing(Note::getDate).thenComparing(Note::getId).reversed())
+                .map(Note::getId)
+                .toList();
+
+        // When
+        List<Long> scrolled = scroll(
+                "/api/notes/scroll", request -> request.param("customerId", String.valueOf(customer.getId())), 3);
+
+        // Then
+        assertEquals(expected, scrolled);
+    }
+
+    /**
+     * Follows {@code nextCursor} until {@code hasNext} is false, checking that every page but the last is full.
+     *
+     * @return the IDs of all pages in order
+     */
+    private List<Long> scroll(
+            String path, UnaryOperator<MockHttpServletRequestBuilder> filter, int expectedPages) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        boolean hasNext;
+        do {
+            MockHttpServletRequestBuilder request = filter.apply(get(path)).param("size", String.valueOf(PAGE_SIZE));
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            String body = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode page = objectMapper.readTree(body).get("data");
+            pages++;
+
+            hasNext = page.get("hasNext").asBoolean();
+            JsonNode content = page.get("content");
+            content.forEach(row -> ids.add(row.get("id").asLong()));
+            if (hasNext) {
+                assertEquals(PAGE_SIZE, content.size());
+                cursor = page.get("nextCursor").asText();
+            } else {
+                assertTrue(page.get("nextCursor").isNull());
+            }
+            assertTrue(pages <= expectedPages, "more pages than expected");
+        } while (hasNext);
+
+        assertEquals(expectedPages, pages);
+        assertEquals(ids.size(), ids.stream().distinct().count(), "duplicates: " + ids);
+        return ids;
+    }
+
+    private Employee employee(String firstName, String lastName, String department) {
+        return Employee.builder()
+                .firstName(firstName)
+                .lastName(lastName)
+                .email(firstName.toLowerCase() + "." + lastName.toLowerCase() + "@example.com")
+                .department(department)
+                .build();
+    }
+
+    private List<Note> notes(Customer customer, int count) {
+        return notes(customer, count, 0);
+    }
+
+    /**
+     * Notes on two dates only, so that every date spans several pages.
+     */
+    private List<Note> notes(Customer customer, int count, int offset) {
+        List<Note> notes = new ArrayList<>();
+        for (int i = offset; i < offset + count; i++) {
+            notes.add(noteRepository.save(Note.builder()
+                    .content("Note " + i)
+                    .date(LocalDate.of(2024, 5, 1).plusDays(i % 2))
+                    .interactionType(InteractionType.EMAIL)
+                    .customer(customer)
+                    .build()));
+        }
+        return notes;
+    }
+}
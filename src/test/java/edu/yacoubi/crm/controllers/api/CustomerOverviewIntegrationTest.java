@@ -0,0 +1,145 @@
+package edu.yacoubi.crm.controllers.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.yacoubi.crm.model.Customer;
+import edu.yacoubi.crm.model.Employee;
+import edu.yacoubi.crm.model.InteractionType;
+import edu.yacoubi.crm.model.Note;
+import edu.yacoubi.crm.repository.CustomerRepository;
+import edu.yacoubi.crm.repository.EmployeeRepository;
+import edu.yacoubi.crm.repository.NoteRepository;
+import edu.yacoubi.crm.util.TestDataUtil;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+class CustomerOverviewIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private MockMvc mockMvc;
+
+    private Employee employee;
+    private Customer customer;
+
+    @BeforeEach
+    public void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        noteRepository.deleteAll();
+        customerRepository.deleteAll();
+        employeeRepository.deleteAll();
+
+        employee = employeeRepository.save(TestDataUtil.createEmployeeA());
+        customer = customerRepository.save(TestDataUtil.createCustomerA(employee));
+    }
+
+    @Test
+    public void itShouldReturnTheOverviewWithAFixedNumberOfQueries() throws Exception {
+        // Given
+        LocalDate start = LocalDate.of(2024, 5, 1);
+        for (int i = 0; i < 30; i++) {
+            InteractionType type = i % 3 == 0 ? InteractionType.MEETING : InteractionType.EMAIL;
+            noteRepository.save(note(start.plusDays(i / 2), type, "Note " + i));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When
+        JsonNode overview = getOverview("?notes=3");
+
+        // Then
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getCollectionLoadCount());
+
+        assertEquals(customer.getId(), overview.get("customer").get("id").asLong());
+        assertEquals(customer.getEmail(), overview.get("customer").get("email").asText());
+        assertEquals(employee.getId(), overview.get("employee").get("id").asLong());
+        assertEquals("Sales", overview.get("employee").get("department").asText());
+        assertFalse(overview.get("employee").has("customers"));
+
+        assertEquals(30, overview.get("totalNotes").asLong());
+        assertEquals(10, overview.get("notesByType").get("MEETING").asLong());
+        assertEquals(20, overview.get("notesByType").get("EMAIL").asLong());
+        assertEquals(0, overview.get("notesByType").get("PHONE_CALL").asLong());
+
+        JsonNode latest = overview.get("latestNotes");
+        assertEquals(3, latest.size());
+        assertEquals("Note 29", latest.get(0).get("content").asText());
+        assertEquals("Note 28", latest.get(1).get("content").asText());
+        assertEquals("Note 27", latest.get(2).get("content").asText());
+        assertEquals(start.plusDays(14).toString(), latest.get(0).get("date").asText());
+    }
+
+    @Test
+    public void itShouldReturnAnEmptyOverviewForCustomerWithoutNotes() throws Exception {
+        // When
+        JsonNode overview = getOverview("");
+
+        // Then
+        assertEquals(0, overview.get("totalNotes").asLong());
+        assertEquals(0, overview.get("latestNotes").size());
+        assertEquals(InteractionType.values().length, overview.get("notesByType").size());
+    }
+
+    @Test
+    public void itShouldReturnNotFoundForUnknownCustomer() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/customers/" + (customer.getId() + 1000) + "/overview"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void itShouldRejectTooManyNotes() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/customers/" + customer.getId() + "/overview?notes=51"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private Note note(LocalDate date, InteractionType type, String content) {
+        return Note.builder()
+                .content(content)
+                .date(date)
+                .interactionType(type)
+                .customer(customer)
+                .build();
+    }
+
+    private JsonNode getOverview(String query) throws Exception {
+        String body = mockMvc.perform(get("/api/customers/" + customer.getId() + "/overview" + query))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("data");
+    }
+}
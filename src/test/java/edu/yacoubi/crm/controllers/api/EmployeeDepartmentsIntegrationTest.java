@@ -0,0 +1,111 @@
+package edu.yacoubi.crm.controllers.api;
+
+import edu.yacoubi.crm.dto.employee.EmployeePatchDTO;
+import edu.yacoubi.crm.model.Employee;
+import edu.yacoubi.crm.repository.CustomerRepository;
+import edu.yacoubi.crm.repository.EmployeeRepository;
+import edu.yacoubi.crm.repository.NoteRepository;
+import edu.yacoubi.crm.service.ICustomerService;
+import edu.yacoubi.crm.service.IEmployeeService;
+import edu.yacoubi.crm.service.registry.DepartmentRegistry;
+import edu.yacoubi.crm.util.TestDataUtil;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+class EmployeeDepartmentsIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private IEmployeeService employeeService;
+
+    @Autowired
+    private ICustomerService customerService;
+
+    @Autowired
+    private DepartmentRegistry departmentRegistry;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        noteRepository.deleteAll();
+        customerRepository.deleteAll();
+        employeeRepository.deleteAll();
+        departmentRegistry.rebuild();
+    }
+
+    @Test
+    public void itShouldRevalidateTheDepartmentsWithTheETag() throws Exception {
+        // Given
+        Employee employee = employeeService.createEmployee(TestDataUtil.createEmployeeA());
+        String eTag = mockMvc.perform(get("/api/employees/departments"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0]").value("Sales"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When
+        int notModified = mockMvc.perform(get("/api/employees/departments")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andReturn().getResponse().getStatus();
+        employeeService.partialUpdateEmployee(employee.getId(), EmployeePatchDTO.builder().department("Support").build());
+
+        // Then
+        assertNotNull(eTag);
+        assertFalse(eTag.startsWith("W/"));
+        assertEquals(304, notModified);
+        mockMvc.perform(get("/api/employees/departments").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, Matchers.not(eTag)))
+                .andExpect(jsonPath("$.data[0]").value("Support"));
+        mockMvc.perform(get("/api/v2/employees/departments").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0]").value("Support"));
+    }
+
+    @Test
+    public void itShouldCountEmployeesAndCustomersPerDepartment() throws Exception {
+        // Given
+        Employee sales = employeeService.createEmployee(TestDataUtil.createEmployeeA());
+        Employee marketing = employeeService.createEmployee(TestDataUtil.createEmployeeB());
+        customerService.createCustomer(TestDataUtil.createCustomerA(sales));
+        Long customerId = customerService.createCustomer(TestDataUtil.createCustomerB(sales)).getId();
+
+        // When
+        customerService.reassignAllCustomers(sales.getId(), marketing.getId());
+        customerService.deleteCustomer(customerId);
+
+        // Then
+        mockMvc.perform(get("/api/employees/departments/head-counts"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.data[0].department").value("Marketing"))
+                .andExpect(jsonPath("$.data[0].employees").value(1))
+                .andExpect(jsonPath("$.data[0].customers").value(1))
+                .andExpect(jsonPath("$.data[1].department").value("Sales"))
+                .andExpect(jsonPath("$.data[1].customers").value(0));
+    }
+}
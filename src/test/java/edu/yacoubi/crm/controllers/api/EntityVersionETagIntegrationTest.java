@@ -0,0 +1,154 @@
+package edu.yacoubi.crm.controllers.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.yacoubi.crm.dto.customer.CustomerPatchDTO;
+import edu.yacoubi.crm.dto.employee.EmployeeRequestDTO;
+import edu.yacoubi.crm.model.Customer;
+import edu.yacoubi.crm.model.Employee;
+import edu.yacoubi.crm.repository.CustomerRepository;
+import edu.yacoubi.crm.repository.EmployeeRepository;
+import edu.yacoubi.crm.repository.NoteRepository;
+import edu.yacoubi.crm.service.registry.DepartmentRegistry;
+import edu.yacoubi.crm.util.TestDataUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+class EntityVersionETagIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private DepartmentRegistry departmentRegistry;
+
+    private MockMvc mockMvc;
+
+    private Employee employee;
+
+    private Customer customer;
+
+    @BeforeEach
+    public void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        noteRepository.deleteAll();
+        customerRepository.deleteAll();
+        employeeRepository.deleteAll();
+        departmentRegistry.rebuild();
+
+        employee = employeeRepository.save(TestDataUtil.createEmployeeA());
+        customer = customerRepository.save(TestDataUtil.createCustomerA(employee));
+    }
+
+    @Test
+    public void itShouldAnswerIfNoneMatchWithNotModified() throws Exception {
+        // Given
+        String eTag = mockMvc.perform(get("/api/customers/" + customer.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When & Then
+        mockMvc.perform(get("/api/customers/" + customer.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    public void itShouldPatchWithCurrentIfMatchAndReturnNewETag() throws Exception {
+        // Given
+        String body = objectMapper.writeValueAsString(CustomerPatchDTO.builder().lastName("Dorian").build());
+
+        // When & Then
+        mockMvc.perform(patch("/api/customers/" + customer.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.data.lastName").value("Dorian"));
+
+        // the old ETag is stale now
+        mockMvc.perform(get("/api/customers/" + customer.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+    }
+
+    @Test
+    public void itShouldRejectPatchWithStaleIfMatch() throws Exception {
+        // Given
+        String body = objectMapper.writeValueAsString(CustomerPatchDTO.builder().lastName("Dorian").build());
+        mockMvc.perform(patch("/api/customers/" + customer.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk());
+
+        // When & Then
+        mockMvc.perform(patch("/api/customers/" + customer.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(CustomerPatchDTO.builder().lastName("Gray").build())))
+                .andExpect(status().isPreconditionFailed());
+
+        assertEquals("Dorian", customerRepository.findById(customer.getId()).orElseThrow().getLastName());
+    }
+
+    @Test
+    public void itShouldRejectPutWithStaleIfMatch() throws Exception {
+        // Given
+        EmployeeRequestDTO request = EmployeeRequestDTO.builder()
+                .firstName("Jane")
+                .lastName("Smith")
+                .email("jane.smith@example.com")
+                .department("Support")
+                .build();
+        String eTag = mockMvc.perform(put("/api/employees/" + employee.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When & Then
+        assertEquals("\"1\"", eTag);
+        mockMvc.perform(put("/api/employees/" + employee.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isPreconditionFailed());
+        request.setDepartment("Marketing");
+        mockMvc.perform(put("/api/employees/" + employee.getId())
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""));
+    }
+}
@@ -0,0 +1,157 @@
+package edu.yacoubi.crm.controllers.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.yacoubi.crm.model.Customer;
+import edu.yacoubi.crm.model.Employee;
+import edu.yacoubi.crm.model.Note;
+import edu.yacoubi.crm.repository.CustomerRepository;
+import edu.yacoubi.crm.repository.EmployeeRepository;
+import edu.yacoubi.crm.repository.NoteRepository;
+import edu.yacoubi.crm.util.TestDataUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// small fetch size, so that the cursor is advanced several times
+@SpringBootTest(properties = "crm.export.fetch-size=2")
+class ExportIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    private MockMvc mockMvc;
+
+    private Employee sales;
+    private Customer john;
+    private Customer jane;
+    private Customer michael;
+
+    @BeforeEach
+    public void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        noteRepository.deleteAll();
+        customerRepository.deleteAll();
+        employeeRepository.deleteAll();
+
+        sales = employeeRepository.save(TestDataUtil.createEmployeeA());
+        final Employee marketing = employeeRepository.save(TestDataUtil.createEmployeeB());
+        john = customerRepository.save(TestDataUtil.createCustomerA(sales));
+        jane = customerRepository.save(TestDataUtil.createCustomerB(sales));
+        michael = customerRepository.save(TestDataUtil.createCustomerC(marketing));
+        noteRepository.save(TestDataUtil.createNoteA(john));
+        noteRepository.save(TestDataUtil.createNoteB(john));
+        noteRepository.save(TestDataUtil.createNoteC(michael));
+    }
+
+    @Test
+    public void itShouldExportAllCustomersAsNdjson() throws Exception {
+        // When
+        MvcResult result = export("/api/customers/export");
+
+        // Then
+        assertTrue(result.getResponse().getContentType().startsWith(MediaType.APPLICATION_NDJSON_VALUE));
+        List<JsonNode> rows = ndjson(result);
+        assertEquals(3, rows.size());
+        assertEquals(john.getId(), rows.get(0).get("id").asLong());
+        assertEquals("john.doe@example.com", rows.get(0).get("email").asText());
+        assertEquals(LocalDate.now().toString(), rows.get(0).get("lastInteractionDate").asText());
+        assertEquals(sales.getId(), rows.get(0).get("employeeId").asLong());
+        assertEquals("Sales", rows.get(0).get("department").asText());
+        assertEquals(michael.getId(), rows.get(2).get("id").asLong());
+    }
+
+    @Test
+    public void itShouldFilterCustomersByDepartmentAndDate() throws Exception {
+        // When
+        List<JsonNode> rows = ndjson(export("/api/customers/export?department=Sales&from="
+                + LocalDate.now().minusDays(1) + "&to=" + LocalDate.now().minusDays(1)));
+
+        // Then
+        assertEquals(1, rows.size());
+        assertEquals(jane.getId(), rows.get(0).get("id").asLong());
+    }
+
+    @Test
+    public void itShouldExportNotesOfAnEmployeeAsCsv() throws Exception {
+        // Given
+        Note quoted = TestDataUtil.createNoteA(jane);
+        quoted.setContent("Said \"maybe\", call again");
+        noteRepository.save(quoted);
+
+        // When
+        MvcResult result = export("/api/notes/export?format=csv&employeeId=" + sales.getId());
+
+        // Then
+        assertTrue(result.getResponse().getContentType().startsWith("text/csv"));
+        assertTrue(result.getResponse().getHeader(HttpHeaders.CONTENT_DISPOSITION).contains("notes.csv"));
+        String[] lines = result.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(4, lines.length);
+        assertEquals("id,customerId,employeeId,department,date,interactionType,content", lines[0]);
+        assertTrue(lines[1].endsWith(",Sales," + LocalDate.now() + ",EMAIL,First interaction"));
+        assertTrue(lines[3].endsWith(",EMAIL,\"Said \"\"maybe\"\", call again\""));
+    }
+
+    @Test
+    public void itShouldRejectUnknownFormat() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/customers/export?format=xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void itShouldRejectReversedDateRange() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/notes/export?from=2024-05-02&to=2024-05-01"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private MvcResult export(String url) throws Exception {
+        MvcResult started = mockMvc.perform(get(url))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.CONTENT_DISPOSITION))
+                .andReturn();
+    }
+
+    private List<JsonNode> ndjson(MvcResult result) throws Exception {
+        List<JsonNode> rows = new ArrayList<>();
+        for (String line : result.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n")) {
+            rows.add(objectMapper.readTree(line));
+        }
+        return rows;
+    }
+}
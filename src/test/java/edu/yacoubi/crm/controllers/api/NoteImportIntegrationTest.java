@@ -0,0 +1,144 @@
+package edu.yacoubi.crm.controllers.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.yacoubi.crm.model.Customer;
+import edu.yacoubi.crm.model.Employee;
+import edu.yacoubi.crm.model.InteractionType;
+import edu.yacoubi.crm.model.Note;
+import edu.yacoubi.crm.repository.CustomerRepository;
+import edu.yacoubi.crm.repository.EmployeeRepository;
+import edu.yacoubi.crm.repository.NoteRepository;
+import edu.yacoubi.crm.util.TestDataUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// small batches, so that the upload spans several batches and ID blocks
+@SpringBootTest(properties = "crm.import.notes.batch-size=2")
+class NoteImportIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    private MockMvc mockMvc;
+
+    private Customer customer;
+
+    @BeforeEach
+    public void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        noteRepository.deleteAll();
+        customerRepository.deleteAll();
+        employeeRepository.deleteAll();
+
+        Employee employee = employeeRepository.save(TestDataUtil.createEmployeeA());
+        customer = customerRepository.save(TestDataUtil.createCustomerA(employee));
+    }
+
+    @Test
+    public void itShouldImportValidRowsAndReportRejectedOnes() throws Exception {
+        // Given
+        long id = customer.getId();
+        String upload = String.join("\r\n",
+                "id,customerId,date,interactionType,content",
+                "7," + id + ",2021-03-01,EMAIL,Welcome mail",
+                "," + (id + 1000) + ",2021-03-02,EMAIL,Unknown customer",
+                "," + id + ",2021-03-03,FAX,Unknown type",
+                "," + id + ",03/04/2021,MEETING,Bad date",
+                "",
+                "," + id + ",2021-03-05,phone_call,\"Said \"\"call me\"\", then\nhung up\"",
+                "," + id + ",2021-03-06,MEETING,Kick-off");
+
+        // When
+        JsonNode report = importNotes(upload);
+
+        // Then
+        assertEquals("BATCH", report.get("method").asText());
+        assertEquals(6, report.get("rows").asLong());
+        assertEquals(3, report.get("imported").asLong());
+        assertEquals(3, report.get("rejected").asLong());
+
+        JsonNode rejections = report.get("rejections");
+        assertEquals(3, rejections.get(0).get("line").asLong());
+        assertEquals("customerId", rejections.get(0).get("errors").get(0).get("field").asText());
+        assertEquals(4, rejections.get(1).get("line").asLong());
+        assertEquals("interactionType", rejections.get(1).get("errors").get(0).get("field").asText());
+        assertEquals(5, rejections.get(2).get("line").asLong());
+        assertEquals("date", rejections.get(2).get("errors").get(0).get("field").asText());
+
+        List<Note> notes = noteRepository.findAllByCustomerId(id).stream()
+                .sorted(Comparator.comparing(Note::getDate))
+                .toList();
+        assertEquals(3, notes.size());
+        assertEquals("Welcome mail", notes.get(0).getContent());
+        assertEquals(InteractionType.PHONE_CALL, notes.get(1).getInteractionType());
+        assertEquals("Said \"call me\", then\nhung up", notes.get(1).getContent());
+        assertEquals(LocalDate.of(2021, 3, 6), notes.get(2).getDate());
+    }
+
+    @Test
+    public void itShouldNotCollideWithIdsAssignedByHibernate() throws Exception {
+        // Given
+        Note before = noteRepository.save(TestDataUtil.createNoteA(customer));
+        StringBuilder upload = new StringBuilder("customerId,date,interactionType,content\n");
+        for (int i = 0; i < 60; i++) {
+            upload.append(customer.getId()).append(",2021-03-01,EMAIL,Imported ").append(i).append('\n');
+        }
+
+        // When
+        JsonNode report = importNotes(upload.toString());
+        Note after = noteRepository.save(TestDataUtil.createNoteB(customer));
+
+        // Then
+        assertEquals(60, report.get("imported").asLong());
+        List<Note> notes = noteRepository.findAllByCustomerId(customer.getId());
+        assertEquals(62, notes.size());
+        assertEquals(62, new HashSet<>(notes.stream().map(Note::getId).toList()).size());
+        assertNotEquals(before.getId(), after.getId());
+    }
+
+    @Test
+    public void itShouldRejectUploadWithoutRequiredColumn() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/notes/import")
+                        .contentType("text/csv")
+                        .content("customerId,date,content\n" + customer.getId() + ",2021-03-01,Call\n"))
+                .andExpect(status().isBadRequest());
+        assertEquals(0, noteRepository.findAllByCustomerId(customer.getId()).size());
+    }
+
+    private JsonNode importNotes(String upload) throws Exception {
+        String body = mockMvc.perform(post("/api/notes/import")
+                        .contentType("text/csv")
+                        .content(upload))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("data");
+    }
+}
@@ -0,0 +1,105 @@
+package edu.yacoubi.crm.health;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class DatabaseHealthIndicatorTest {
+
+    private DataSource dataSource;
+    private MutableClock clock;
+    private DatabaseHealthIndicator indicator;
+
+    @BeforeEach
+    public void setUp() {
+        dataSource = mock(DataSource.class);
+        clock = new MutableClock(Instant.parse("2024-05-01T10:00:00Z"));
+        indicator = new DatabaseHealthIndicator(dataSource, Duration.ofSeconds(1),
+                new CachedHealth(clock, Duration.ofSeconds(60)));
+    }
+
+    @Test
+    public void itShouldNotTouchTheDataSourceWhenServingHealth() throws Exception {
+        // Given
+        Connection connection = mock(Connection.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.isValid(1)).thenReturn(true);
+        indicator.refresh();
+
+        // When
+        clock.advance(Duration.ofSeconds(5));
+        indicator.health();
+
+        // Then
+        assertEquals(Status.UP, indicator.health().getStatus());
+        assertEquals(5000L, indicator.health().getDetails().get("ageMs"));
+        verify(dataSource, times(1)).getConnection();
+        verify(connection).close();
+    }
+
+    @Test
+    public void itShouldReportDownWhenNoConnectionIsAvailable() throws Exception {
+        // Given
+        when(dataSource.getConnection()).thenThrow(new SQLTransientConnectionException("timeout"));
+
+        // When
+        indicator.refresh();
+
+        // Then
+        assertEquals(Status.DOWN, indicator.health().getStatus());
+    }
+
+    @Test
+    public void itShouldReportDownWhenTheLastCheckIsStale() throws Exception {
+        // Given
+        Connection connection = mock(Connection.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.isValid(1)).thenReturn(true);
+        indicator.refresh();
+
+        // When
+        clock.advance(Duration.ofSeconds(61));
+
+        // Then
+        assertEquals(Status.DOWN, indicator.health().getStatus());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
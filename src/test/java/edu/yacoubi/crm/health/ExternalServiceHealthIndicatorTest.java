@@ -0,0 +1,101 @@
+package edu.yacoubi.crm.health;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+
+import java.net.InetSocketAddress;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExternalServiceHealthIndicatorTest {
+
+    private HttpServer stub;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger status = new AtomicInteger(200);
+    private final AtomicLong delayMs = new AtomicLong();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stub.createContext("/posts", exchange -> {
+            requests.incrementAndGet();
+            try {
+                Thread.sleep(delayMs.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(status.get(), -1);
+            exchange.close();
+        });
+        stub.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        stub.stop(0);
+    }
+
+    @Test
+    public void itShouldServeTheLastResultWithoutCallingTheService() {
+        // Given
+        ExternalServiceHealthIndicator indicator = indicator(Duration.ofSeconds(2));
+        assertEquals(Status.UNKNOWN, indicator.health().getStatus());
+
+        // When
+        indicator.refresh();
+        Health first = indicator.health();
+        Health second = indicator.health();
+
+        // Then
+        assertEquals(Status.UP, first.getStatus());
+        assertEquals(Status.UP, second.getStatus());
+        assertNotNull(first.getDetails().get("checkedAt"));
+        assertNotNull(first.getDetails().get("ageMs"));
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void itShouldReportDownOnErrorStatus() {
+        // Given
+        ExternalServiceHealthIndicator indicator = indicator(Duration.ofSeconds(2));
+        status.set(503);
+
+        // When
+        indicator.refresh();
+
+        // Then
+        assertEquals(Status.DOWN, indicator.health().getStatus());
+    }
+
+    @Test
+    public void itShouldGiveUpOnSlowServiceAfterTheTimeout() {
+        // Given
+        ExternalServiceHealthIndicator indicator = indicator(Duration.ofMillis(200));
+        delayMs.set(3000);
+
+        // When
+        long start = System.nanoTime();
+        indicator.refresh();
+
+        // Then
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(2)) < 0);
+        assertEquals(Status.DOWN, indicator.health().getStatus());
+    }
+
+    private ExternalServiceHealthIndicator indicator(Duration timeout) {
+        return new ExternalServiceHealthIndicator(
+                new RestTemplateBuilder(),
+                "http://127.0.0.1:" + stub.getAddress().getPort() + "/posts",
+                timeout,
+                new CachedHealth(Clock.systemUTC(), Duration.ofMinutes(1)));
+    }
+}
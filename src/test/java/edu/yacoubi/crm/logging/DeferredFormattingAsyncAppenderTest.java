@@ -0,0 +1,168 @@
+package edu.yacoubi.crm.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.AppenderBase;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeferredFormattingAsyncAppenderTest {
+    private final PayloadLogger payloadLogger = new PayloadLogger(new ObjectMapper(), 1.0, 2048);
+
+    private Logger logger;
+    private Level previousLevel;
+    private Appender<ILoggingEvent> configured;
+    private DeferredFormattingAsyncAppender underTest;
+
+    @BeforeEach
+    void setUp() {
+        logger = (Logger) LoggerFactory.getLogger(PayloadLogger.LOGGER_NAME);
+        previousLevel = logger.getLevel();
+        logger.setLevel(Level.DEBUG);
+        // only the appender under test sees the events
+        configured = logger.getAppender("ASYNC_PAYLOAD");
+        if (configured != null) {
+            logger.detachAppender(configured);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        underTest.stop();
+        logger.detachAppender(underTest);
+        logger.setLevel(previousLevel);
+        if (configured != null) {
+            logger.addAppender(configured);
+        }
+    }
+
+    @Test
+    void itShouldSerializeThePayloadOnTheWorkerThread() {
+        // Given
+        final FormattingAppender written = new FormattingAppender(new CountDownLatch(0));
+        start(1024, written);
+        final SerializingPayload payload = new SerializingPayload();
+
+        // When
+        payloadLogger.log("::getCustomerById", payload);
+        underTest.stop();
+
+        // Then
+        assertEquals(List.of("::getCustomerById payload: {\"value\":1}"), written.messages);
+        assertEquals(List.of(Thread.currentThread().getName()), written.threadNames);
+        assertEquals(1, payload.serializedBy.size());
+        assertNotEquals(Thread.currentThread().getName(), payload.serializedBy.get(0));
+    }
+
+    @Test
+    void itShouldNeverSerializeOnTheLoggingThreadEvenWhenTheQueueIsFull() throws InterruptedException {
+        // Given
+        final CountDownLatch release = new CountDownLatch(1);
+        final FormattingAppender written = new FormattingAppender(release);
+        start(1, written);
+        final SerializingPayload payload = new SerializingPayload();
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            payloadLogger.log("::getAllCustomers", payload);
+        }
+
+        // Then
+        assertTrue(written.entered.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(), payload.serializedBy);
+        release.countDown();
+        underTest.stop();
+        assertTrue(written.messages.size() < 5, "the full queue must drop events");
+        assertEquals(written.messages.size(), payload.serializedBy.size());
+        assertFalse(payload.serializedBy.contains(Thread.currentThread().getName()));
+    }
+
+    @Test
+    void itShouldWriteEveryEventToAllAttachedAppendersSerializingOnce() {
+        // Given
+        final FormattingAppender console = new FormattingAppender(new CountDownLatch(0));
+        final FormattingAppender file = new FormattingAppender(new CountDownLatch(0));
+        file.setName("file");
+        start(1024, console, file);
+        final SerializingPayload payload = new SerializingPayload();
+
+        // When
+        payloadLogger.log("::getCustomerById", payload);
+        payloadLogger.log("::getCustomerById", payload);
+        underTest.stop();
+
+        // Then
+        assertEquals(2, console.messages.size());
+        assertEquals(console.messages, file.messages);
+        assertEquals(2, payload.serializedBy.size());
+        assertSame(file, underTest.getAppender("file"));
+    }
+
+    @SafeVarargs
+    private void start(int queueSize, AppenderBase<ILoggingEvent>... delegates) {
+        final LoggerContext context = logger.getLoggerContext();
+        underTest = new DeferredFormattingAsyncAppender();
+        underTest.setContext(context);
+        underTest.setQueueSize(queueSize);
+        underTest.setDiscardingThreshold(0);
+        underTest.setNeverBlock(true);
+        for (AppenderBase<ILoggingEvent> delegate : delegates) {
+            delegate.setContext(context);
+            delegate.start();
+            underTest.addAppender(delegate);
+        }
+        underTest.start();
+        logger.addAppender(underTest);
+    }
+
+    /**
+     * Records the threads it is serialized on.
+     */
+    public static class SerializingPayload {
+        private final List<String> serializedBy = new CopyOnWriteArrayList<>();
+
+        public int getValue() {
+            serializedBy.add(Thread.currentThread().getName());
+            return 1;
+        }
+    }
+
+    /**
+     * Formats the events on the worker thread, holding it on the first event until released.
+     */
+    private static class FormattingAppender extends AppenderBase<ILoggingEvent> {
+        private final CountDownLatch release;
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final List<String> messages = new CopyOnWriteArrayList<>();
+        private final List<String> threadNames = new CopyOnWriteArrayList<>();
+
+        private FormattingAppender(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            messages.add(event.getFormattedMessage());
+            threadNames.add(event.getThreadName());
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package edu.yacoubi.crm.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.yacoubi.crm.util.TestAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PayloadLoggerTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private TestAppender testAppender;
+    private Level previousLevel;
+
+    @BeforeEach
+    void setUp() {
+        final Logger logger = (Logger) LoggerFactory.getLogger(PayloadLogger.LOGGER_NAME);
+        previousLevel = logger.getLevel();
+        logger.setLevel(Level.DEBUG);
+        testAppender = new TestAppender();
+        testAppender.start();
+        logger.addAppender(testAppender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        final Logger logger = (Logger) LoggerFactory.getLogger(PayloadLogger.LOGGER_NAME);
+        logger.detachAppender(testAppender);
+        logger.setLevel(previousLevel);
+        testAppender.stop();
+    }
+
+    @Test
+    void itShouldLogThePayloadAsJsonWhenSampled() {
+        // Given
+        final PayloadLogger underTest = new PayloadLogger(objectMapper, 1.0, 2048);
+
+        // When
+        underTest.log("::getCustomerById", Map.of("id", 1));
+
+        // Then
+        assertTrue(testAppender.contains("::getCustomerById payload: {\"id\":1}", "DEBUG"));
+    }
+
+    @Test
+    void itShouldNotSerializeThePayloadWhenNotSampled() {
+        // Given
+        final PayloadLogger underTest = new PayloadLogger(objectMapper, 0.0, 2048);
+
+        // When
+        underTest.log("::getCustomerById", new Object() {
+            @Override
+            public String toString() {
+                throw new AssertionError("must not be called");
+            }
+        });
+
+        // Then
+        assertTrue(testAppender.events.isEmpty());
+    }
+
+    @Test
+    void itShouldNotLogWhenThePayloadLoggerIsNotEnabledForDebug() {
+        // Given
+        ((Logger) LoggerFactory.getLogger(PayloadLogger.LOGGER_NAME)).setLevel(Level.INFO);
+        final PayloadLogger underTest = new PayloadLogger(objectMapper, 1.0, 2048);
+
+        // When
+        underTest.log("::getCustomerById", Map.of("id", 1));
+
+        // Then
+        assertTrue(testAppender.events.isEmpty());
+    }
+
+    @Test
+    void itShouldTruncateLargePayloads() {
+        // Given
+        final PayloadLogger underTest = new PayloadLogger(objectMapper, 1.0, 10);
+
+        // When
+        underTest.log("::getAllCustomers", Map.of("content", "x".repeat(10_000)));
+
+        // Then
+        final String message = testAppender.events.get(0).getFormattedMessage();
+        assertEquals("::getAllCustomers payload: {\"content\"... (truncated after 10 chars)", message);
+    }
+
+    @Test
+    void itShouldRejectAnInvalidSampleRate() {
+        // When
+        final IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> new PayloadLogger(objectMapper, 1.5, 2048)
+        );
+
+        // Then
+        assertEquals("Payload sample rate must be between 0.0 and 1.0", exception.getMessage());
+    }
+}
@@ -0,0 +1,101 @@
+package edu.yacoubi.crm.metrics;
+
+import edu.yacoubi.crm.exception.ResourceNotFoundException;
+import edu.yacoubi.crm.model.Customer;
+import edu.yacoubi.crm.model.Employee;
+import edu.yacoubi.crm.repository.CustomerRepository;
+import edu.yacoubi.crm.repository.EmployeeRepository;
+import edu.yacoubi.crm.repository.NoteRepository;
+import edu.yacoubi.crm.service.ICustomerService;
+import edu.yacoubi.crm.util.TestDataUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class OperationMetricsAspectIntegrationTest {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ICustomerService customerService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    private Customer customer;
+
+    @BeforeEach
+    public void setUp() {
+        noteRepository.deleteAll();
+        customerRepository.deleteAll();
+        employeeRepository.deleteAll();
+
+        Employee employee = employeeRepository.save(TestDataUtil.createEmployeeA());
+        customer = customerRepository.save(TestDataUtil.createCustomerA(employee));
+    }
+
+    @Test
+    public void itShouldTimeServiceCallsByOutcome() {
+        // Given
+        long successBefore = count(OperationMetricsAspect.SERVICE_TIMER, "ICustomerService", "getCustomerById", "success");
+        long notFoundBefore = count(OperationMetricsAspect.SERVICE_TIMER, "ICustomerService", "getCustomerById", "not-found");
+
+        // When
+        customerService.getCustomerById(customer.getId());
+        assertThrows(ResourceNotFoundException.class, () -> customerService.getCustomerById(customer.getId() + 1000));
+
+        // Then
+        assertEquals(successBefore + 1,
+                count(OperationMetricsAspect.SERVICE_TIMER, "ICustomerService", "getCustomerById", "success"));
+        assertEquals(notFoundBefore + 1,
+                count(OperationMetricsAspect.SERVICE_TIMER, "ICustomerService", "getCustomerById", "not-found"));
+    }
+
+    @Test
+    public void itShouldTimeRepositoryCallsWithSloBuckets() {
+        // Given
+        long before = count(OperationMetricsAspect.REPOSITORY_TIMER, "CustomerRepository", "findById", "success");
+
+        // When
+        customerRepository.findById(customer.getId());
+
+        // Then
+        assertEquals(before + 1,
+                count(OperationMetricsAspect.REPOSITORY_TIMER, "CustomerRepository", "findById", "success"));
+        Timer timer = meterRegistry.get(OperationMetricsAspect.REPOSITORY_TIMER)
+                .tags("type", "CustomerRepository", "operation", "findById", "outcome", "success")
+                .timer();
+        assertTrue(timer.takeSnapshot().histogramCounts().length > 0);
+    }
+
+    @Test
+    public void itShouldExportHibernateStatistics() {
+        // When
+        customerRepository.findAll();
+
+        // Then
+        assertTrue(meterRegistry.get("hibernate.query.executions").functionCounter().count() > 0);
+        assertNotNull(meterRegistry.find("hibernate.entities.loads").functionCounter());
+        assertNotNull(meterRegistry.find("hibernate.flushes").functionCounter());
+    }
+
+    private long count(String name, String type, String operation, String outcome) {
+        Timer timer = meterRegistry.find(name)
+                .tags("type", type, "operation", operation, "outcome", outcome)
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
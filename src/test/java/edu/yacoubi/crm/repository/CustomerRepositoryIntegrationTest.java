@@ -2,15 +2,20 @@ package edu.yacoubi.crm.repository;
 
 import edu.yacoubi.crm.util.TestDataUtil;
 import edu.yacoubi.crm.dto.customer.CustomerRequestDTO;
+import edu.yacoubi.crm.dto.customer.CustomerResponseDTO;
 import edu.yacoubi.crm.model.Customer;
 import edu.yacoubi.crm.model.Employee;
 import edu.yacoubi.crm.model.Note;
 import jakarta.transaction.Transactional;
 import jakarta.validation.ConstraintViolationException;
+import org.hibernate.Session;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -29,6 +34,9 @@ class CustomerRepositoryIntegrationTest {
     @Autowired
     private NoteRepository noteRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
     @Test
     public void itShouldPerformAllCRUDOperations() {
         // Given
@@ -65,7 +73,7 @@ class CustomerRepositoryIntegrationTest {
         // When
         // This should throw an exception because the employee is missing
         DataIntegrityViolationException exception = assertThrows(
-                DataIntegrityViolationException.class, () -> underTest.save(customer));
+                DataIntegrityViolationException.class, () -> underTest.saveAndFlush(customer));
 
         // Then
         String expectedMessage = "NULL not allowed for column";
@@ -190,7 +198,7 @@ class CustomerRepositoryIntegrationTest {
 
         // When & Then
         assertThrows(ConstraintViolationException.class, () -> {
-            underTest.save(invalidCustomer);
+            underTest.saveAndFlush(invalidCustomer);
         });
     }
 
@@ -204,7 +212,7 @@ class CustomerRepositoryIntegrationTest {
 
         // When & Then
         assertThrows(ConstraintViolationException.class, () -> {
-            underTest.save(invalidCustomer);
+            underTest.saveAndFlush(invalidCustomer);
         });
     }
 
@@ -218,7 +226,7 @@ class CustomerRepositoryIntegrationTest {
 
         // When & Then
         assertThrows(ConstraintViolationException.class, () -> {
-            underTest.save(invalidCustomer);
+            underTest.saveAndFlush(invalidCustomer);
         });
     }
 
@@ -250,7 +258,7 @@ class CustomerRepositoryIntegrationTest {
 
         // When & Then
         assertThrows(ConstraintViolationException.class, () -> {
-            underTest.save(invalidCustomer);
+            underTest.saveAndFlush(invalidCustomer);
         });
     }
 
@@ -264,7 +272,7 @@ class CustomerRepositoryIntegrationTest {
 
         // When & Then
         ConstraintViolationException exception = assertThrows(ConstraintViolationException.class, () -> {
-            underTest.save(invalidCustomer);
+            underTest.saveAndFlush(invalidCustomer);
         });
         String expectedMessage = "Phone number must be between 10 and 15 characters";
         assertTrue(exception.getMessage().contains(expectedMessage), expectedMessage);
@@ -280,7 +288,7 @@ class CustomerRepositoryIntegrationTest {
 
         // When & Then
         ConstraintViolationException exception = assertThrows(ConstraintViolationException.class, () -> {
-            underTest.save(invalidCustomer);
+            underTest.saveAndFlush(invalidCustomer);
         });
         String expectedMessage = "Phone number must be between 10 and 15 characters";
         assertTrue(exception.getMessage().contains(expectedMessage), expectedMessage);
@@ -302,4 +310,49 @@ class CustomerRepositoryIntegrationTest {
         assertNotNull(foundCustomer);
         assertEquals("1234567890", foundCustomer.getPhone());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void itShouldReassignAllCustomersOfAnEmployeeWithOneUpdate() {
+        // Given
+        Employee oldEmployee = employeeRepository.save(TestDataUtil.createEmployeeA());
+        Employee newEmployee = employeeRepository.save(TestDataUtil.createEmployeeB());
+        underTest.save(TestDataUtil.createCustomerA(oldEmployee));
+        underTest.save(TestDataUtil.createCustomerB(oldEmployee));
+
+        // When
+        int reassignedCustomers = underTest.reassignEmployee(oldEmployee.getId(), newEmployee.getId());
+
+        // Then
+        assertEquals(2, reassignedCustomers);
+        assertTrue(underTest.findByEmployeeId(oldEmployee.getId()).isEmpty());
+        assertEquals(2, underTest.findByEmployeeId(newEmployee.getId()).size());
+    }
+
+    @Test
+    public void itShouldLoadCustomerResponsesWithoutEntities() {
+        // Given
+        Employee sales = employeeRepository.save(TestDataUtil.createEmployeeA());
+        Employee marketing = employeeRepository.save(TestDataUtil.createEmployeeB());
+        Customer john = underTest.save(TestDataUtil.createCustomerA(sales));
+        underTest.save(TestDataUtil.createCustomerB(sales));
+        underTest.save(TestDataUtil.createCustomerC(marketing));
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        Page<CustomerResponseDTO> page = underTest.findAllResponses(PageRequest.of(0, 2));
+        List<CustomerResponseDTO> ofSales = underTest.findResponsesByEmployeeId(sales.getId());
+
+        // Then
+        assertEquals(3, page.getTotalElements());
+        assertEquals(2, page.getContent().size());
+        assertEquals(2, ofSales.size());
+        CustomerResponseDTO first = ofSales.get(0);
+        assertEquals(john.getId(), first.getId());
+        assertEquals(john.getEmail(), first.getEmail());
+        assertEquals(john.getPhone(), first.getPhone());
+        assertEquals(john.getLastInteractionDate(), first.getLastInteractionDate());
+        assertEquals(sales.getId(), first.getEmployeeId());
+        assertEquals(0, entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount());
+    }
+}
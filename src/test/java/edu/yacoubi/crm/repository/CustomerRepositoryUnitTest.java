@@ -56,7 +56,7 @@ class CustomerRepositoryUnitTest {
         // When & Then
         DataIntegrityViolationException exception =
                 assertThrows(DataIntegrityViolationException.class, () -> {
-                            underTest.save(customer);
+                            underTest.saveAndFlush(customer);
                         }
                 );
         String expectedMessage = "NULL not allowed for column \"EMPLOYEE_ID\"";
@@ -1,18 +1,22 @@
 package edu.yacoubi.crm.repository;
 
+import edu.yacoubi.crm.dto.employee.EmployeeResponseDTO;
 import edu.yacoubi.crm.model.Customer;
 import edu.yacoubi.crm.model.Employee;
 import edu.yacoubi.crm.util.TestDataUtil;
 import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
+import org.hibernate.Session;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
@@ -64,6 +68,9 @@ class EmployeeRepositoryIntegrationTest {
     @Autowired
     private EmployeeRepository underTest;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
     /**
      * Testet, ob Mitarbeiter gefunden werden, deren Vorname oder Abteilung
      * den angegebenen Suchstring (unabhängig von Groß- und Kleinschreibung) enthält.
@@ -287,6 +294,32 @@ class EmployeeRepositoryIntegrationTest {
         employeeWithCustomers.getCustomers().forEach(customer -> System.out.println("Customer: " + customer));
     }
 
+    /**
+     * Testet, ob eine Seite von Mitarbeitern direkt als Response-DTOs geladen wird,
+     * ohne Entitäten in den Persistence Context zu laden.
+     */
+    @Test
+    void itShouldLoadEmployeeResponsesWithoutEntities() {
+        // Given
+        final Employee employeeA = underTest.save(TestDataUtil.createEmployeeA());
+        underTest.save(TestDataUtil.createEmployeeB());
+        underTest.save(TestDataUtil.createEmployeeC());
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        final Page<EmployeeResponseDTO> page = underTest.findAllResponses(PageRequest.of(0, 2, Sort.by("id")));
+
+        // Then
+        assertEquals(3, page.getTotalElements());
+        assertEquals(2, page.getContent().size());
+        final EmployeeResponseDTO first = page.getContent().get(0);
+        assertEquals(employeeA.getId(), first.getId());
+        assertEquals(employeeA.getEmail(), first.getEmail());
+        assertEquals(employeeA.getDepartment(), first.getDepartment());
+        assertEquals(0, entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
     // BasisKlasse NamedObject
     @AllArgsConstructor
     @Getter
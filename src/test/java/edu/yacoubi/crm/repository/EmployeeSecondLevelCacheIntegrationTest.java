@@ -0,0 +1,120 @@
+package edu.yacoubi.crm.repository;
+
+import edu.yacoubi.crm.dto.employee.EmployeePatchDTO;
+import edu.yacoubi.crm.model.Employee;
+import edu.yacoubi.crm.service.IEmployeeService;
+import edu.yacoubi.crm.util.TestDataUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Second-Level-Cache für Employee und die Abteilungsliste: Treffer, Invalidierung nach dem
+ * Bulk-Update in partialUpdateEmployee und die Metriken je Region.
+ */
+@SpringBootTest
+class EmployeeSecondLevelCacheIntegrationTest {
+    private static final String EMPLOYEE_REGION = Employee.class.getName();
+    private static final String DEPARTMENTS_REGION = "employee-departments";
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private IEmployeeService employeeService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        noteRepository.deleteAll();
+        customerRepository.deleteAll();
+        employeeRepository.deleteAll();
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void itShouldServeRepeatedLookupsFromTheCache() {
+        // Given
+        Employee employee = employeeRepository.save(TestDataUtil.createEmployeeA());
+        CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(EMPLOYEE_REGION);
+
+        // When
+        employeeRepository.findById(employee.getId());
+        long hitsAfterFirstLookup = region.getHitCount();
+        employeeRepository.findById(employee.getId());
+
+        // Then
+        assertEquals(hitsAfterFirstLookup + 1, region.getHitCount());
+        assertTrue(meterRegistry.find("hibernate.second.level.cache.requests")
+                .tags("region", EMPLOYEE_REGION, "result", "hit")
+                .functionCounter()
+                .count() > 0);
+    }
+
+    @Test
+    public void itShouldNotServeStaleEmployeesAfterPartialUpdate() {
+        // Given
+        Employee employee = employeeRepository.save(TestDataUtil.createEmployeeA());
+        employeeRepository.findById(employee.getId());
+
+        // When
+        employeeService.partialUpdateEmployee(
+                employee.getId(),
+                EmployeePatchDTO.builder().firstName("Johnny").build()
+        );
+        Employee reloaded = employeeRepository.findById(employee.getId()).orElseThrow();
+
+        // Then
+        assertEquals("Johnny", reloaded.getFirstName());
+    }
+
+    @Test
+    public void itShouldCacheDepartmentsUntilAnEmployeeChanges() {
+        // Given
+        Employee employee = employeeRepository.save(TestDataUtil.createEmployeeA());
+        employeeRepository.save(TestDataUtil.createEmployeeB());
+
+        // When
+        List<String> first = employeeRepository.findAllDepartments().orElseThrow();
+        List<String> second = employeeRepository.findAllDepartments().orElseThrow();
+        CacheRegionStatistics region = statistics.getQueryRegionStatistics(DEPARTMENTS_REGION);
+        long hitsBeforeUpdate = region.getHitCount();
+        employeeService.partialUpdateEmployee(
+                employee.getId(),
+                EmployeePatchDTO.builder().department("Support").build()
+        );
+        List<String> afterUpdate = employeeRepository.findAllDepartments().orElseThrow();
+
+        // Then
+        assertEquals(1, hitsBeforeUpdate);
+        assertEquals(first, second);
+        assertEquals(hitsBeforeUpdate, region.getHitCount());
+        assertTrue(afterUpdate.contains("Support"));
+        assertFalse(afterUpdate.contains("Sales"));
+    }
+}
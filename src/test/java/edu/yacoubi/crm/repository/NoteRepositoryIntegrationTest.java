@@ -1,14 +1,17 @@
 package edu.yacoubi.crm.repository;
 
+import edu.yacoubi.crm.dto.note.NoteResponseDTO;
 import edu.yacoubi.crm.util.TestDataUtil;
 import edu.yacoubi.crm.model.Customer;
 import edu.yacoubi.crm.model.Employee;
 import edu.yacoubi.crm.model.InteractionType;
 import edu.yacoubi.crm.model.Note;
 import jakarta.validation.ConstraintViolationException;
+import org.hibernate.Session;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
 
@@ -26,6 +29,8 @@ class NoteRepositoryIntegrationTest {
     CustomerRepository customerRepository;
     @Autowired
     private NoteRepository underTest;
+    @Autowired
+    private TestEntityManager entityManager;
 
     @Test
     public void itShouldPerformAllCRUDOperations() {
@@ -62,7 +67,7 @@ class NoteRepositoryIntegrationTest {
 
         // When
         DataIntegrityViolationException exception = assertThrows(
-                DataIntegrityViolationException.class, () -> underTest.save(note));
+                DataIntegrityViolationException.class, () -> underTest.saveAndFlush(note));
 
         // Then
         String expectedMessage = "NULL not allowed for column \"CUSTOMER_ID\"; SQL statement:";
@@ -139,7 +144,7 @@ class NoteRepositoryIntegrationTest {
         note.setDate(null);
         // When
         ConstraintViolationException exception = assertThrows(
-                ConstraintViolationException.class, () -> underTest.save(note));
+                ConstraintViolationException.class, () -> underTest.saveAndFlush(note));
 
         // Then
         String expectedMessage = "Date is mandatory";
@@ -158,10 +163,36 @@ class NoteRepositoryIntegrationTest {
         note.setInteractionType(null);
         // When
         ConstraintViolationException exception = assertThrows(
-                ConstraintViolationException.class, () -> underTest.save(note));
+                ConstraintViolationException.class, () -> underTest.saveAndFlush(note));
 
         // Then
         String expectedMessage = "Interaction type is mandatory";
         assertTrue(exception.getMessage().contains(expectedMessage), expectedMessage);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void itShouldLoadNoteResponsesOfCustomerWithoutEntities() {
+        // Given
+        Employee employee = employeeRepository.save(TestDataUtil.createEmployeeA());
+        Customer customer = customerRepository.save(TestDataUtil.createCustomerA(employee));
+        Customer other = customerRepository.save(TestDataUtil.createCustomerB(employee));
+        Note first = underTest.save(TestDataUtil.createNoteA(customer));
+        Note second = underTest.save(TestDataUtil.createNoteB(customer));
+        underTest.save(TestDataUtil.createNoteC(other));
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        List<NoteResponseDTO> notes = underTest.findResponsesByCustomerId(customer.getId());
+
+        // Then
+        assertEquals(2, notes.size());
+        assertEquals(first.getId(), notes.get(0).getId());
+        assertEquals(first.getContent(), notes.get(0).getContent());
+        assertEquals(first.getDate(), notes.get(0).getDate());
+        assertEquals(InteractionType.EMAIL, notes.get(0).getInteractionType());
+        assertEquals(customer.getId(), notes.get(0).getCustomerId());
+        assertEquals(second.getId(), notes.get(1).getId());
+        assertEquals(0, entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount());
+    }
+}
@@ -0,0 +1,235 @@
+package edu.yacoubi.crm.repository;
+
+import edu.yacoubi.crm.model.Customer;
+import edu.yacoubi.crm.model.Employee;
+import edu.yacoubi.crm.model.InactiveEmployee;
+import edu.yacoubi.crm.model.InteractionType;
+import edu.yacoubi.crm.model.Note;
+import edu.yacoubi.crm.util.KeysetCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs EXPLAIN for the SQL of the filtered repository queries against seeded data and fails as soon as
+ * a table is read with a full scan instead of an index lookup, e.g. because an index of
+ * {@code db/migration} was dropped or a query no longer matches it.
+ *
+ * <p>H2 marks every table access in the plan with a comment: {@code PUBLIC.NOTE.tableScan} or an index
+ * without condition ({@code PUBLIC.PRIMARY_KEY_2}) read the whole table, an index lookup carries its
+ * condition ({@code PUBLIC.IDX_NOTE_CUSTOMER_DATE_ID: CUSTOMER_ID = ?1}).</p>
+ *
+ * <p>H2 indexes foreign key columns implicitly and prefers these indexes in its plans, PostgreSQL does
+ * not create them; {@link #itShouldDeclareTheIndexesPostgreSqlDoesNotCreateImplicitly} checks that the
+ * filtered foreign key columns lead an index of their own.</p>
+ *
+ * <p>Text searches ({@code LIKE '%term%'}) are not covered: H2 cannot serve them from an index, on
+ * PostgreSQL the trigram and full-text indexes of {@code search-postgresql.sql} do.</p>
+ */
+@SpringBootTest(properties = {
+        // own database with the schema as deployed: schema.sql and db/migration, not generated by Hibernate
+        "spring.datasource.url=jdbc:h2:mem:crm-query-plans;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "edu.yacoubi.crm.repository.CapturingStatementInspector"
+})
+class QueryPlanRegressionTest {
+
+    private static final Pattern FULL_SCAN = Pattern.compile("/\\*\\s*(PUBLIC\\.[A-Za-z0-9_.]+)\\s*\\*/");
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private InactiveEmployeeRepository inactiveEmployeeRepository;
+
+    @Autowired
+    private INoteCustomRepository noteCustomRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Employee employee;
+    private Customer customer;
+
+    @BeforeEach
+    public void setUp() {
+        noteRepository.deleteAll();
+        customerRepository.deleteAll();
+        employeeRepository.deleteAll();
+        inactiveEmployeeRepository.deleteAll();
+
+        List<Employee> employees = new ArrayList<>();
+        for (int e = 0; e < 10; e++) {
+            employees.add(Employee.builder()
+                    .firstName("First" + e).lastName("Last" + e).email("employee" + e + "@example.com")
+                    .department("Department" + e % 3)
+                    .build());
+        }
+        employees = employeeRepository.saveAll(employees);
+
+        List<Customer> customers = new ArrayList<>();
+        for (int c = 0; c < 100; c++) {
+            customers.add(Customer.builder()
+                    .firstName("First" + c).lastName("Last" + c).email("customer" + c + "@example.com")
+                    .phone("0123456789").lastInteractionDate(LocalDate.of(2024, 1, 1))
+                    .employee(employees.get(c % employees.size()))
+                    .build());
+        }
+        customers = customerRepository.saveAll(customers);
+
+        List<Note> notes = new ArrayList<>();
+        for (Customer each : customers) {
+            for (int n = 0; n < 5; n++) {
+                notes.add(Note.builder()
+                        .content("Note " + n).date(LocalDate.of(2024, 1, 1).plusDays(n))
+                        .interactionType(InteractionType.values()[n % InteractionType.values().length])
+                        .customer(each)
+                        .build());
+            }
+        }
+        noteRepository.saveAll(notes);
+
+        List<InactiveEmployee> inactiveEmployees = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            inactiveEmployees.add(InactiveEmployee.builder()
+                    .firstName("Former" + i).lastName("Last" + i).email("former" + i + "@example.com")
+                    .department("Department" + i % 3).originalEmployeeId(10_000L + i)
+                    .build());
+        }
+        inactiveEmployeeRepository.saveAll(inactiveEmployees);
+
+        // selectivity statistics for the optimizer, like autovacuum/ANALYZE on PostgreSQL
+        jdbcTemplate.execute("ANALYZE");
+        employee = employees.get(0);
+        customer = customers.get(0);
+    }
+
+    @Test
+    public void itShouldReadTheCustomersOfAnEmployeeByIndex() {
+        assertIndexLookups(() -> customerRepository.findByEmployeeId(employee.getId()));
+        assertIndexLookups(() -> customerRepository.findResponsesByEmployeeId(employee.getId()));
+        assertIndexLookups(() -> employeeRepository.hasCustomers(employee.getId()));
+        assertIndexLookups(() -> employeeRepository.findByIdWithCustomers(employee.getId()));
+    }
+
+    @Test
+    public void itShouldReadTheNotesOfACustomerByIndex() {
+        KeysetCursor after = KeysetCursor.of(LocalDate.of(2024, 1, 3), Long.MAX_VALUE);
+
+        assertIndexLookups(() -> noteRepository.findAllByCustomerId(customer.getId()));
+        assertIndexLookups(() -> noteRepository.findResponsesByCustomerId(customer.getId()));
+        assertIndexLookups(() -> noteRepository.countByCustomerIdGroupByInteractionType(customer.getId()));
+        assertIndexLookups(() -> noteRepository.findLatestByCustomerId(customer.getId(), Limit.of(3)));
+        assertIndexLookups(() -> noteCustomRepository.findTimeline(customer.getId(), null, null, 3));
+        assertIndexLookups(() -> noteCustomRepository.findTimeline(customer.getId(), InteractionType.EMAIL, after, 3));
+        assertIndexLookups(() -> noteCustomRepository.findNotesAfter(customer.getId(), after, 3));
+    }
+
+    @Test
+    public void itShouldCheckForAnInactiveEmployeeByIndex() {
+        assertIndexLookups(() -> inactiveEmployeeRepository.existsByOriginalEmployeeId(10_005L));
+        assertIndexLookups(() -> inactiveEmployeeRepository.findByEmail("former5@example.com"));
+    }
+
+    @Test
+    public void itShouldLookUpSingleRowsByKeyOrUniqueColumn() {
+        assertIndexLookups(() -> customerRepository.findByEmail("customer5@example.com"));
+        assertIndexLookups(() -> customerRepository.findOverviewById(customer.getId()));
+        assertIndexLookups(() -> customerRepository.findEmployeeIdById(customer.getId()));
+        assertIndexLookups(() -> customerRepository.findVersionById(customer.getId()));
+        assertIndexLookups(() -> employeeRepository.findByEmail("employee5@example.com"));
+        assertIndexLookups(() -> noteRepository.findVersionById(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void itShouldDeclareTheIndexesPostgreSqlDoesNotCreateImplicitly() {
+        assertEquals(List.of("IDX_CUSTOMER_EMPLOYEE_ID_ID"), declaredIndexesLedBy("CUSTOMER", "EMPLOYEE_ID"));
+        assertEquals(List.of("IDX_NOTE_CUSTOMER_DATE_ID"), declaredIndexesLedBy("NOTE", "CUSTOMER_ID"));
+        assertEquals(List.of("IDX_INACTIVE_EMPLOYEE_ORIGINAL_EMPLOYEE_ID"),
+                declaredIndexesLedBy("INACTIVE_EMPLOYEE", "ORIGINAL_EMPLOYEE_ID"));
+    }
+
+    @Test
+    public void itShouldDetectAFullScan() {
+        // Given
+        String plan = explain("SELECT * FROM note WHERE content = ?");
+
+        // When & Then
+        assertEquals(List.of("PUBLIC.NOTE.tableScan"), fullScans(plan));
+    }
+
+    private void assertIndexLookups(Runnable repositoryCall) {
+        CapturingStatementInspector.clear();
+        repositoryCall.run();
+        List<String> queries = CapturingStatementInspector.statements().stream()
+                .filter(sql -> sql.stripLeading().regionMatches(true, 0, "select", 0, 6))
+                .toList();
+
+        assertFalse(queries.isEmpty(), "No query executed");
+        for (String sql : queries) {
+            String plan = explain(sql);
+            List<String> scans = fullScans(plan);
+            assertTrue(scans.isEmpty(), () -> "Full scan of " + scans + " in plan:\n" + plan);
+        }
+    }
+
+    /**
+     * EXPLAIN with unbound parameters: H2 plans a prepared statement before its values are known, as for
+     * the repository call itself.
+     */
+    private String explain(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setObject(i, null);
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getString(1);
+                }
+            }
+        });
+    }
+
+    private List<String> declaredIndexesLedBy(String table, String column) {
+        // IS_GENERATED: primary key, unique and foreign key constraint indexes created by H2
+        return jdbcTemplate.queryForList("""
+                SELECT i.index_name FROM information_schema.indexes i
+                JOIN information_schema.index_columns c
+                  ON c.index_schema = i.index_schema AND c.index_name = i.index_name
+                WHERE i.table_schema = 'PUBLIC' AND i.table_name = ? AND NOT i.is_generated
+                  AND c.column_name = ? AND c.ordinal_position = 1
+                """, String.class, table, column);
+    }
+
+    private static List<String> fullScans(String plan) {
+        List<String> scans = new ArrayList<>();
+        Matcher matcher = FULL_SCAN.matcher(plan);
+        while (matcher.find()) {
+            scans.add(matcher.group(1));
+        }
+        return scans;
+    }
+}
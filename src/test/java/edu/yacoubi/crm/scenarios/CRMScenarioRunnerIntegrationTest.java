@@ -0,0 +1,57 @@
+package edu.yacoubi.crm.scenarios;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "crm.load.enabled=true",
+        "crm.load.workers=2",
+        "crm.load.operations=40",
+        "crm.load.employees=2",
+        "crm.load.customers=5"
+})
+class CRMScenarioRunnerIntegrationTest {
+
+    @Autowired
+    private CRMScenarioRunner underTest;
+
+    @TempDir
+    private Path reportDir;
+
+    @Test
+    void itShouldExecuteTheConfiguredNumberOfOperationsWithoutErrors() throws Exception {
+        // When
+        LatencyReport report = underTest.runLoad();
+
+        // Then
+        assertEquals(40, report.totalOperations());
+        for (LoadScenario scenario : LoadScenario.values()) {
+            assertEquals(0, report.errors(scenario), scenario.getKey());
+        }
+        assertTrue(report.histogram(LoadScenario.LOG_INTERACTION).getTotalCount() > 0);
+        assertTrue(report.toTable().contains("total"));
+    }
+
+    @Test
+    void itShouldExportTheReportAsCsvAndHistograms() throws Exception {
+        // Given
+        LatencyReport report = underTest.runLoad();
+
+        // When
+        report.writeTo(reportDir);
+
+        // Then
+        List<String> csv = Files.readAllLines(reportDir.resolve("load-report.csv"));
+        assertEquals(1 + LoadScenario.values().length, csv.size());
+        assertTrue(csv.get(0).startsWith("scenario,operations,errors,throughput_per_s"));
+        assertTrue(Files.exists(reportDir.resolve("log-interaction.hgrm")));
+    }
+}
@@ -0,0 +1,58 @@
+package edu.yacoubi.crm.scenarios;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScenarioMixTest {
+
+    @Test
+    void itShouldParseTheWeightsOfTheMix() {
+        // When
+        ScenarioMix mix = ScenarioMix.parse(" log-interaction=3, create-customer = 1 ");
+
+        // Then
+        assertEquals(
+                Map.of(LoadScenario.LOG_INTERACTION, 3, LoadScenario.CREATE_CUSTOMER, 1),
+                mix.weights()
+        );
+    }
+
+    @Test
+    void itShouldDrawScenariosProportionallyToTheirWeights() {
+        // Given
+        ScenarioMix mix = ScenarioMix.parse("log-interaction=3,update-customer=1");
+        Random random = new Random(42);
+        Map<LoadScenario, Integer> counts = new EnumMap<>(LoadScenario.class);
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            counts.merge(mix.next(random), 1, Integer::sum);
+        }
+
+        // Then
+        assertEquals(2, counts.size());
+        assertEquals(7_500, counts.get(LoadScenario.LOG_INTERACTION), 250);
+        assertEquals(2_500, counts.get(LoadScenario.UPDATE_CUSTOMER), 250);
+    }
+
+    @Test
+    void itShouldRejectUnknownScenariosAndInvalidWeights() {
+        // When
+        IllegalArgumentException unknown = assertThrows(
+                IllegalArgumentException.class, () -> ScenarioMix.parse("delete-everything=1"));
+        IllegalArgumentException zero = assertThrows(
+                IllegalArgumentException.class, () -> ScenarioMix.parse("log-interaction=0"));
+        IllegalArgumentException blank = assertThrows(
+                IllegalArgumentException.class, () -> ScenarioMix.parse(" "));
+
+        // Then
+        assertEquals("Unknown scenario: delete-everything", unknown.getMessage());
+        assertEquals("Scenario weight must be positive: log-interaction=0", zero.getMessage());
+        assertEquals("Scenario mix must not be blank", blank.getMessage());
+    }
+}
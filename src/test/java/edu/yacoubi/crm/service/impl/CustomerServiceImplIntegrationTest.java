@@ -1,5 +1,6 @@
 package edu.yacoubi.crm.service.impl;
 
+import edu.yacoubi.crm.dto.CursorPage;
 import edu.yacoubi.crm.dto.customer.CustomerRequestDTO;
 import edu.yacoubi.crm.exception.ResourceNotFoundException;
 import edu.yacoubi.crm.model.Customer;
@@ -13,6 +14,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -166,4 +168,44 @@ class CustomerServiceImplIntegrationTest {
         assertTrue(foundCustomers.contains(customerA));
         assertTrue(foundCustomers.contains(customerB));
     }
+
+    @Test
+    public void itShouldWalkThroughAllCustomersWithCursorPagination() {
+        // Given
+        Employee savedEmployee = employeeRepository.save(TestDataUtil.createEmployeeA());
+        // gleiche Nachnamen, damit die ID als Tie-Breaker greift
+        for (int i = 0; i < 5; i++) {
+            Customer customer = TestDataUtil.createCustomerA(savedEmployee);
+            customer.setLastName(i < 3 ? "Doe" : "Adams");
+            customer.setEmail("customer" + i + "@example.com");
+            underTest.createCustomer(customer);
+        }
+
+        // When
+        List<Customer> visited = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<Customer> page = underTest.getCustomersAfterCursor(cursor, 2, null);
+            visited.addAll(page.getContent());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        // Then
+        assertEquals(3, pages);
+        assertEquals(5, visited.size());
+        assertEquals(5, visited.stream().map(Customer::getId).distinct().count());
+        assertEquals(List.of("Adams", "Adams", "Doe", "Doe", "Doe"),
+                visited.stream().map(Customer::getLastName).toList());
+    }
+
+    @Test
+    public void itShouldRejectMalformedCursor() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> underTest.getCustomersAfterCursor("not-a-cursor", 10, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> underTest.getCustomersAfterCursor(null, 0, null));
+    }
 }
@@ -4,6 +4,8 @@ import edu.yacoubi.crm.exception.ResourceNotFoundException;
 import edu.yacoubi.crm.model.Customer;
 import edu.yacoubi.crm.model.Employee;
 import edu.yacoubi.crm.repository.CustomerRepository;
+import edu.yacoubi.crm.service.registry.DepartmentRegistry;
+import edu.yacoubi.crm.service.search.CustomerNgramIndex;
 import edu.yacoubi.crm.service.validation.EntityValidator;
 import edu.yacoubi.crm.util.TestDataUtil;
 import org.junit.jupiter.api.BeforeEach;
@@ -27,6 +29,12 @@ class CustomerServiceImplUnitTest {
     @Mock
     private EntityValidator entityValidator;
 
+    @Mock
+    private CustomerNgramIndex customerNgramIndex;
+
+    @Mock
+    private DepartmentRegistry departmentRegistry;
+
     @InjectMocks
     private CustomerServiceImpl underTest;
 
@@ -47,6 +55,7 @@ class CustomerServiceImplUnitTest {
         // Then
         assertNotNull(savedCustomer);
         verify(customerRepository, times(1)).save(customer);
+        verify(customerNgramIndex, times(1)).upsert(customer);
     }
 
     @Test
@@ -180,4 +189,40 @@ class CustomerServiceImplUnitTest {
         //assertEquals(customers, foundCustomers); // Wenn Reihenfolge eine Rolle spielt
         verify(customerRepository, times(1)).findByEmployeeId(employeeId);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void itShouldReassignAllCustomersWithOneBulkUpdate() {
+        // Given
+        Long oldEmployeeId = 1L;
+        Long newEmployeeId = 2L;
+        doNothing().when(entityValidator).validateEmployeeExists(anyLong());
+        when(customerRepository.reassignEmployee(oldEmployeeId, newEmployeeId)).thenReturn(3);
+
+        // When
+        int reassignedCustomers = underTest.reassignAllCustomers(oldEmployeeId, newEmployeeId);
+
+        // Then
+        assertEquals(3, reassignedCustomers);
+        verify(entityValidator, times(1)).validateEmployeeExists(oldEmployeeId);
+        verify(entityValidator, times(1)).validateEmployeeExists(newEmployeeId);
+        verify(customerRepository, never()).findByEmployeeId(anyLong());
+        verify(customerRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    public void itShouldThrowExceptionWhenNewEmployeeDoesNotExistByCallingReassignAllCustomers() {
+        // Given
+        Long oldEmployeeId = 1L;
+        Long newEmployeeId = 999L;
+        doThrow(new ResourceNotFoundException("Employee not found with ID: " + newEmployeeId))
+                .when(entityValidator).validateEmployeeExists(newEmployeeId);
+
+        // When
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
+                () -> underTest.reassignAllCustomers(oldEmployeeId, newEmployeeId));
+
+        // Then
+        assertEquals("Employee not found with ID: " + newEmployeeId, exception.getMessage());
+        verify(customerRepository, never()).reassignEmployee(anyLong(), anyLong());
+    }
+}
@@ -449,18 +449,11 @@ class EntityOrchestratorServiceImplIntegrationTest {
                     "Customer should be reassigned to new employee"
             );
         });
-        final String expectedReassigningMsg = "Reassigning customer ID: %d to new employee ID: %d";
-        newEmployeeCustomers.forEach(
-                customer -> assertTrue(
-                        testAppender.contains(
-                                String.format(expectedReassigningMsg, customer.getId(), newEmployeeId),
-                                "INFO"
-                        ),
-                        String.format(
-                                INFO_SUPPLIED_MSG,
-                                String.format(expectedReassigningMsg, customer.getId(), newEmployeeId)
-                        )
-                )
+        final String expectedReassignedMsg = String.format("Reassigned %d customers to new employee ID: %d",
+                newEmployeeCustomers.size(), newEmployeeId);
+        assertTrue(
+                testAppender.contains(expectedReassignedMsg, "INFO"),
+                String.format(INFO_SUPPLIED_MSG, expectedReassignedMsg)
         );
 
         // Logger info entry & exit messages
@@ -18,9 +18,6 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
 import java.util.Optional;
 
 import static edu.yacoubi.crm.util.Constants.*;
@@ -262,8 +259,8 @@ class EntityOrchestratorServiceImplUnitTest {
         final String expectedExitLogMsg = String.format(INFO_LOG_REASSIGN_CUSTOMERS_EXIT_POINT,
                 oldEmployeeId, newEmployeeId);
 
-        when(customerService.getCustomersByEmployeeId(oldEmployeeId))
-                .thenReturn(new ArrayList<>());
+        when(employeeService.hasCustomers(oldEmployeeId))
+                .thenReturn(false);
 
         // When
         final ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> {
@@ -305,7 +302,7 @@ class EntityOrchestratorServiceImplUnitTest {
                 oldEmployeeId, newEmployeeId);
 
         doThrow(new ResourceNotFoundException(errorMessage))
-                .when(customerService).getCustomersByEmployeeId(oldEmployeeId);
+                .when(employeeService).hasCustomers(oldEmployeeId);
 
         // When
         final ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> {
@@ -341,8 +338,8 @@ class EntityOrchestratorServiceImplUnitTest {
         final String expectedExitLogMsg = String.format(INFO_LOG_REASSIGN_CUSTOMERS_EXIT_POINT,
                 oldEmployeeId, newEmployeeId);
 
-        when(customerService.getCustomersByEmployeeId(oldEmployeeId))
-                .thenReturn(Collections.emptyList());
+        when(employeeService.hasCustomers(oldEmployeeId))
+                .thenReturn(false);
 
         // When
         final ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> {
@@ -386,9 +383,9 @@ class EntityOrchestratorServiceImplUnitTest {
                 oldEmployeeId, newEmployeeId);
 
         doThrow(new ResourceNotFoundException(errorMessage))
-                .when(employeeService).getEmployeeById(anyLong());
-        when(customerService.getCustomersByEmployeeId(oldEmployeeId))
-                .thenReturn(List.of(new Customer()));
+                .when(customerService).reassignAllCustomers(oldEmployeeId, newEmployeeId);
+        when(employeeService.hasCustomers(oldEmployeeId))
+                .thenReturn(true);
 
         // When
         final ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> {
@@ -423,34 +420,26 @@ class EntityOrchestratorServiceImplUnitTest {
         final String expectedExitLogMsg = String.format(INFO_LOG_REASSIGN_CUSTOMERS_EXIT_POINT,
                 oldEmployeeId, newEmployeeId);
 
-        final List<Customer> customers = List.of(
-                Customer.builder().id(111L).build(),
-                Customer.builder().id(222L).build()
-        );
-
-        when(customerService.getCustomersByEmployeeId(oldEmployeeId))
-                .thenReturn(customers);
-        final Employee newEmployee = Employee.builder().id(newEmployeeId).build();
-        when(employeeService.getEmployeeById(newEmployeeId))
-                .thenReturn(Optional.of(newEmployee));
-        doNothing().when(customerService).updateCustomers(anyList());
+        when(employeeService.hasCustomers(oldEmployeeId))
+                .thenReturn(true);
+        when(customerService.reassignAllCustomers(oldEmployeeId, newEmployeeId))
+                .thenReturn(2);
 
         // When
         underTest.reassignCustomers(oldEmployeeId, newEmployeeId);
 
         // Then / Verify
+        // Customers are moved with one bulk update instead of being loaded and saved one by one
+        verify(customerService, times(1)).reassignAllCustomers(oldEmployeeId, newEmployeeId);
+        verify(customerService, never()).getCustomersByEmployeeId(anyLong());
+        verify(customerService, never()).updateCustomers(anyList());
+
         // Logger info entry & exit & assignment messages
-        final String expectedReassigningMsg = "Reassigning customer ID: %d to new employee ID: %d";
-        customers.forEach(
-                customer -> assertTrue(
-                        testAppender.contains(
-                                String.format(expectedReassigningMsg, customer.getId(), newEmployeeId),
-                                "INFO"
-                        ),
-                        String.format(
-                                INFO_SUPPLIED_MSG,
-                                String.format(expectedReassigningMsg, customer.getId(), newEmployeeId)
-                        ))
+        final String expectedReassignedMsg = String.format("Reassigned %d customers to new employee ID: %d",
+                2, newEmployeeId);
+        assertTrue(
+                testAppender.contains(expectedReassignedMsg, "INFO"),
+                String.format(INFO_SUPPLIED_MSG, expectedReassignedMsg)
         );
         assertTrue(
                 testAppender.contains(expectedEntryLogMsg, "INFO"),
@@ -0,0 +1,157 @@
+package edu.yacoubi.crm.service.impl;
+
+import edu.yacoubi.crm.dto.CursorPage;
+import edu.yacoubi.crm.dto.note.NoteSearchCriteria;
+import edu.yacoubi.crm.model.Customer;
+import edu.yacoubi.crm.model.Employee;
+import edu.yacoubi.crm.model.InteractionType;
+import edu.yacoubi.crm.model.Note;
+import edu.yacoubi.crm.repository.CustomerRepository;
+import edu.yacoubi.crm.repository.EmployeeRepository;
+import edu.yacoubi.crm.repository.NoteRepository;
+import edu.yacoubi.crm.util.TestDataUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against the H2 fallback of the note search (LikeNoteSearchRepositoryImpl).
+ */
+@SpringBootTest
+class NoteSearchIntegrationTest {
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private NoteServiceImpl underTest;
+
+    private Employee tony;
+    private Note callWithOffer;
+    private Note offerOffer;
+    private Note meetingOffer;
+    private Note otherCustomerOffer;
+
+    @BeforeEach
+    public void setUp() {
+        noteRepository.deleteAll();
+        customerRepository.deleteAll();
+        employeeRepository.deleteAll();
+        tony = employeeRepository.save(TestDataUtil.createEmployeeA());
+        Employee peter = employeeRepository.save(TestDataUtil.createEmployeeB());
+        Customer john = customerRepository.save(TestDataUtil.createCustomerA(tony));
+        Customer jane = customerRepository.save(TestDataUtil.createCustomerB(peter));
+
+        LocalDate today = LocalDate.now();
+        callWithOffer = noteRepository.save(note(john, InteractionType.PHONE_CALL, today.minusDays(10),
+                "Called about the new offer"));
+        offerOffer = noteRepository.save(note(john, InteractionType.EMAIL, today.minusDays(5),
+                "Sent the Offer, second offer follows next week"));
+        meetingOffer = noteRepository.save(note(john, InteractionType.MEETING, today,
+                "Meeting: offer discussed"));
+        otherCustomerOffer = noteRepository.save(note(jane, InteractionType.EMAIL, today,
+                "Offer declined"));
+        noteRepository.save(note(john, InteractionType.EMAIL, today, "Invoice sent"));
+    }
+
+    @Test
+    public void itShouldRankNotesByTheNumberOfMatches() {
+        // When
+        CursorPage<Note> result = underTest.searchNotes(criteria("OFFER").build(), null, 10);
+
+        // Then
+        List<Long> ids = result.getContent().stream().map(Note::getId).toList();
+        assertEquals(offerOffer.getId(), ids.get(0));
+        assertEquals(4, ids.size());
+        assertFalse(result.isHasNext());
+    }
+
+    @Test
+    public void itShouldRequireAllWordsOfTheQuery() {
+        // When
+        CursorPage<Note> result = underTest.searchNotes(criteria("offer discussed").build(), null, 10);
+
+        // Then
+        assertEquals(List.of(meetingOffer.getId()), result.getContent().stream().map(Note::getId).toList());
+    }
+
+    @Test
+    public void itShouldFilterByInteractionTypeDateRangeAndEmployee() {
+        // When
+        CursorPage<Note> byType = underTest.searchNotes(
+                criteria("offer").interactionType(InteractionType.PHONE_CALL).build(), null, 10);
+        CursorPage<Note> byDate = underTest.searchNotes(
+                criteria("offer").from(LocalDate.now().minusDays(5)).to(LocalDate.now().minusDays(1)).build(), null, 10);
+        CursorPage<Note> byEmployee = underTest.searchNotes(
+                criteria("offer").employeeId(tony.getId()).build(), null, 10);
+
+        // Then
+        assertEquals(List.of(callWithOffer.getId()), byType.getContent().stream().map(Note::getId).toList());
+        assertEquals(List.of(offerOffer.getId()), byDate.getContent().stream().map(Note::getId).toList());
+        assertFalse(byEmployee.getContent().stream().map(Note::getId).toList().contains(otherCustomerOffer.getId()));
+        assertEquals(3, byEmployee.getContent().size());
+    }
+
+    @Test
+    public void itShouldWalkAllResultsWithTheCursor() {
+        // Given
+        List<Long> all = underTest.searchNotes(criteria("offer").build(), null, 10)
+                .getContent().stream().map(Note::getId).toList();
+        List<Long> walked = new ArrayList<>();
+        String cursor = null;
+
+        // When
+        do {
+            CursorPage<Note> page = underTest.searchNotes(criteria("offer").build(), cursor, 1);
+            page.getContent().forEach(note -> walked.add(note.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        // Then
+        assertEquals(all, walked);
+    }
+
+    @Test
+    public void itShouldThrowExceptionWhenQueryIsBlankOrDateRangeIsInvalid() {
+        // When
+        IllegalArgumentException blank = assertThrows(
+                IllegalArgumentException.class,
+                () -> underTest.searchNotes(criteria(" ").build(), null, 10)
+        );
+        IllegalArgumentException dateRange = assertThrows(
+                IllegalArgumentException.class,
+                () -> underTest.searchNotes(
+                        criteria("offer").from(LocalDate.now()).to(LocalDate.now().minusDays(1)).build(), null, 10)
+        );
+
+        // Then
+        assertEquals("Search term must not be blank", blank.getMessage());
+        assertEquals("Date 'from' must not be after 'to'", dateRange.getMessage());
+    }
+
+    private static NoteSearchCriteria.NoteSearchCriteriaBuilder criteria(String query) {
+        return NoteSearchCriteria.builder().query(query);
+    }
+
+    private static Note note(Customer customer, InteractionType type, LocalDate date, String content) {
+        return Note.builder()
+                .content(content)
+                .date(date)
+                .interactionType(type)
+                .customer(customer)
+                .build();
+    }
+}
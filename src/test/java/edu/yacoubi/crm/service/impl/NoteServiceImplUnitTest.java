@@ -87,7 +87,7 @@ class NoteServiceImplUnitTest {
         Long noteId = 1L;
         Note note = TestDataUtil.createNoteA(null);
         note.setId(noteId);
-        when(noteRepository.existsById(noteId)).thenReturn(true);
+        when(noteRepository.findById(noteId)).thenReturn(Optional.of(note));
         when(noteRepository.save(any(Note.class))).thenReturn(note);
         doNothing().when(entityValidator).validateNoteExists(anyLong());
 
@@ -0,0 +1,150 @@
+package edu.yacoubi.crm.service.impl;
+
+import edu.yacoubi.crm.dto.CursorPage;
+import edu.yacoubi.crm.dto.note.NoteSummaryDTO;
+import edu.yacoubi.crm.exception.ResourceNotFoundException;
+import edu.yacoubi.crm.model.Customer;
+import edu.yacoubi.crm.model.Employee;
+import edu.yacoubi.crm.model.InteractionType;
+import edu.yacoubi.crm.model.Note;
+import edu.yacoubi.crm.repository.CustomerRepository;
+import edu.yacoubi.crm.repository.EmployeeRepository;
+import edu.yacoubi.crm.repository.NoteRepository;
+import edu.yacoubi.crm.util.TestDataUtil;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class NoteTimelineIntegrationTest {
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private NoteServiceImpl underTest;
+
+    private Customer john;
+    private List<Note> notesOfJohn;
+
+    @BeforeEach
+    public void setUp() {
+        noteRepository.deleteAll();
+        customerRepository.deleteAll();
+        employeeRepository.deleteAll();
+        Employee tony = employeeRepository.save(TestDataUtil.createEmployeeA());
+        john = customerRepository.save(TestDataUtil.createCustomerA(tony));
+        Customer jane = customerRepository.save(TestDataUtil.createCustomerB(tony));
+
+        // several notes per day, so the ID decides the order within a day
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        notesOfJohn = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            InteractionType type = i % 5 == 0 ? InteractionType.MEETING : InteractionType.EMAIL;
+            notesOfJohn.add(noteRepository.save(note(john, type, start.plusDays(i / 3), "Note " + i)));
+        }
+        noteRepository.save(note(jane, InteractionType.MEETING, start, "Other customer"));
+    }
+
+    @Test
+    public void itShouldWalkTheTimelineNewestFirstWithTheCursor() {
+        // Given
+        List<Long> expected = notesOfJohn.stream()
+                .sorted(Comparator.comparing(Note::getDate).thenComparing(Note::getId).reversed())
+                .map(Note::getId)
+                .toList();
+        List<Long> walked = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+
+        // When
+        do {
+            CursorPage<NoteSummaryDTO> page = underTest.getNoteTimeline(john.getId(), null, cursor, 4);
+            page.getContent().forEach(note -> walked.add(note.id()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        // Then
+        assertEquals(expected, walked);
+        assertEquals(7, pages);
+    }
+
+    @Test
+    public void itShouldFilterTheTimelineByInteractionType() {
+        // When
+        CursorPage<NoteSummaryDTO> meetings = underTest.getNoteTimeline(john.getId(), InteractionType.MEETING, null, 10);
+
+        // Then
+        assertEquals(5, meetings.getContent().size());
+        assertFalse(meetings.isHasNext());
+        assertTrue(meetings.getContent().stream().allMatch(note -> note.interactionType() == InteractionType.MEETING));
+        assertEquals("Note 20", meetings.getContent().get(0).content());
+    }
+
+    @Test
+    public void itShouldLoadAPageWithoutLoadingEntities() {
+        // Given
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When
+        CursorPage<NoteSummaryDTO> page = underTest.getNoteTimeline(john.getId(), null, null, 10);
+
+        // Then
+        assertEquals(10, page.getContent().size());
+        assertTrue(page.isHasNext());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    public void itShouldThrowExceptionWhenCustomerDoesNotExist() {
+        // When & Then
+        assertThrows(
+                ResourceNotFoundException.class,
+                () -> underTest.getNoteTimeline(-1L, null, null, 10)
+        );
+    }
+
+    @Test
+    public void itShouldThrowExceptionWhenCursorOrSizeIsInvalid() {
+        // When & Then
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> underTest.getNoteTimeline(john.getId(), null, "not-a-cursor", 10)
+        );
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> underTest.getNoteTimeline(john.getId(), null, null, CursorPage.MAX_SIZE + 1)
+        );
+    }
+
+    private static Note note(Customer customer, InteractionType type, LocalDate date, String content) {
+        return Note.builder()
+                .content(content)
+                .date(date)
+                .interactionType(type)
+                .customer(customer)
+                .build();
+    }
+}
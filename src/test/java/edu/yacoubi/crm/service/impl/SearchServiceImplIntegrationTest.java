@@ -0,0 +1,134 @@
+package edu.yacoubi.crm.service.impl;
+
+import edu.yacoubi.crm.model.Customer;
+import edu.yacoubi.crm.model.Employee;
+import edu.yacoubi.crm.repository.CustomerRepository;
+import edu.yacoubi.crm.repository.EmployeeRepository;
+import edu.yacoubi.crm.repository.NoteRepository;
+import edu.yacoubi.crm.util.TestDataUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against the H2 fallback of the search (LikeSearchRepositoryImpl).
+ */
+@SpringBootTest
+class SearchServiceImplIntegrationTest {
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private SearchServiceImpl underTest;
+
+    private Employee employee;
+
+    @BeforeEach
+    public void setUp() {
+        noteRepository.deleteAll();
+        customerRepository.deleteAll();
+        employeeRepository.deleteAll();
+        employee = employeeRepository.save(TestDataUtil.createEmployeeA());
+    }
+
+    @Test
+    public void itShouldSearchCustomersByLastNameIgnoringCaseAndWhitespace() {
+        // Given
+        Customer john = customerRepository.save(TestDataUtil.createCustomerA(employee));
+        customerRepository.save(TestDataUtil.createCustomerB(employee));
+
+        // When
+        Page<Customer> result = underTest.searchCustomers("  DOE ", 0, 10);
+
+        // Then
+        assertEquals(1, result.getTotalElements());
+        assertEquals(john.getId(), result.getContent().get(0).getId());
+    }
+
+    @Test
+    public void itShouldRankExactMatchesBeforePartialMatches() {
+        // Given
+        Customer jordan = TestDataUtil.createCustomerC(employee);
+        jordan.setEmail("john.jordan@example.com");
+        Customer savedJordan = customerRepository.save(jordan);
+        Customer savedJohn = customerRepository.save(TestDataUtil.createCustomerA(employee));
+
+        // When
+        Page<Customer> result = underTest.searchCustomers("John", 0, 10);
+
+        // Then
+        List<Long> ids = result.getContent().stream().map(Customer::getId).toList();
+        assertEquals(List.of(savedJohn.getId(), savedJordan.getId()), ids);
+    }
+
+    @Test
+    public void itShouldTreatLikeWildcardsAsLiterals() {
+        // Given
+        customerRepository.save(TestDataUtil.createCustomerA(employee));
+        customerRepository.save(TestDataUtil.createCustomerB(employee));
+
+        // When
+        Page<Customer> percent = underTest.searchCustomers("%", 0, 10);
+        Page<Customer> underscore = underTest.searchCustomers("j_hn", 0, 10);
+
+        // Then
+        assertTrue(percent.isEmpty());
+        assertTrue(underscore.isEmpty());
+    }
+
+    @Test
+    public void itShouldPageCustomerSearchResults() {
+        // Given
+        customerRepository.save(TestDataUtil.createCustomerA(employee));
+        customerRepository.save(TestDataUtil.createCustomerB(employee));
+        customerRepository.save(TestDataUtil.createCustomerC(employee));
+
+        // When
+        Page<Customer> result = underTest.searchCustomers("example.com", 1, 2);
+
+        // Then
+        assertEquals(3, result.getTotalElements());
+        assertEquals(2, result.getTotalPages());
+        assertEquals(1, result.getNumberOfElements());
+    }
+
+    @Test
+    public void itShouldSearchEmployeesByLastNameOrDepartment() {
+        // Given
+        Employee peter = employeeRepository.save(TestDataUtil.createEmployeeB());
+        employeeRepository.save(TestDataUtil.createEmployeeC());
+
+        // When
+        Page<Employee> byDepartment = underTest.searchEmployees("market", 0, 10);
+        Page<Employee> byLastName = underTest.searchEmployees("wayne", 0, 10);
+
+        // Then
+        assertEquals(List.of(peter.getId()), byDepartment.getContent().stream().map(Employee::getId).toList());
+        assertEquals(List.of(employee.getId()), byLastName.getContent().stream().map(Employee::getId).toList());
+    }
+
+    @Test
+    public void itShouldThrowExceptionWhenSearchTermIsBlank() {
+        // When
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> underTest.searchCustomers("   ", 0, 10)
+        );
+
+        // Then
+        assertEquals("Search term must not be blank", exception.getMessage());
+    }
+}
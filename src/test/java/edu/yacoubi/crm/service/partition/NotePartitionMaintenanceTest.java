@@ -0,0 +1,298 @@
+package edu.yacoubi.crm.service.partition;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalMatchers.and;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class NotePartitionMaintenanceTest {
+    private static final String COLUMNS = "id, interaction_type, content, date, customer_id, version";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final Clock clock = Clock.fixed(
+            LocalDate.of(2024, 10, 18).atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(jdbcTemplate.queryForObject(startsWith("SELECT pg_try_advisory_xact_lock"), eq(Boolean.class)))
+                .thenReturn(true);
+        when(jdbcTemplate.queryForList(contains("information_schema.columns"), eq(String.class), eq("note")))
+                .thenReturn(List.of(COLUMNS.split(", ")));
+    }
+
+    @Test
+    public void itShouldNameAndBoundPartitionsByMonth() {
+        // Given
+        NotePartition partition = NotePartition.of(YearMonth.of(2024, 12));
+
+        // When & Then
+        assertEquals("note_p2024_12", partition.name());
+        assertEquals("note_archive_p2024_12", partition.archiveName());
+        assertEquals(LocalDate.of(2024, 12, 1), partition.from());
+        assertEquals(LocalDate.of(2025, 1, 1), partition.to());
+        assertEquals(Optional.of(partition), NotePartition.parse("note_p2024_12"));
+        assertEquals(Optional.empty(), NotePartition.parse("note_default"));
+        assertEquals(Optional.empty(), NotePartition.parse("note_p2024_13"));
+        assertEquals(Optional.empty(), NotePartition.parse("note_archive_p2024_12"));
+    }
+
+    @Test
+    public void itShouldSkipTheMaintenanceWhileAnotherInstanceHoldsTheLock() {
+        // Given
+        NotePartitionMaintenance underTest = maintenance(3, 3);
+        attached("note_default", "note_p2024_05");
+        when(jdbcTemplate.queryForList(contains("FROM note_default"), eq(LocalDate.class)))
+                .thenReturn(List.of(LocalDate.of(2019, 2, 1)));
+        when(jdbcTemplate.queryForObject(startsWith("SELECT pg_try_advisory_xact_lock"), eq(Boolean.class)))
+                .thenReturn(false);
+
+        // When
+        underTest.maintain();
+
+        // Then
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    public void itShouldCreateOnlyTheMissingPartitionsAhead() {
+        // Given
+        NotePartitionMaintenance underTest = maintenance(2, 0);
+        attached("note_default", "note_p2024_10");
+
+        // When
+        underTest.createPartitionsAhead();
+
+        // Then
+        verify(jdbcTemplate).execute("CREATE TABLE note_p2024_11 PARTITION OF note"
+                + " FOR VALUES FROM ('2024-11-01') TO ('2024-12-01')");
+        verify(jdbcTemplate).execute("CREATE TABLE note_p2024_12 PARTITION OF note"
+                + " FOR VALUES FROM ('2024-12-01') TO ('2025-01-01')");
+        verify(jdbcTemplate, times(2)).execute(anyString());
+    }
+
+    @Test
+    public void itShouldMoveTheNotesOfTheDefaultPartitionIntoMonthlyPartitions() {
+        // Given
+        NotePartitionMaintenance underTest = maintenance(3, 0);
+        when(jdbcTemplate.queryForList(contains("FROM note_default"), eq(LocalDate.class)))
+                .thenReturn(List.of(LocalDate.of(2019, 2, 1)));
+
+        // When
+        underTest.splitDefaultPartition();
+
+        // Then
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).execute(startsWith("CREATE TABLE note_p2019_02 (LIKE note"));
+        inOrder.verify(jdbcTemplate).update(
+                and(startsWith("WITH moved AS (DELETE FROM note_default"), contains("INSERT INTO note_p2019_02")),
+                eq(LocalDate.of(2019, 2, 1)), eq(LocalDate.of(2019, 3, 1)));
+        inOrder.verify(jdbcTemplate).execute("ALTER TABLE note ATTACH PARTITION note_p2019_02"
+                + " FOR VALUES FROM ('2019-02-01') TO ('2019-03-01')");
+    }
+
+    @Test
+    public void itShouldDetachOnlyTheExpiredPartitions() {
+        // Given
+        NotePartitionMaintenance underTest = maintenance(3, 3);
+        attached("note_default", "note_p2024_05", "note_p2024_07", "note_p2024_10");
+
+        // When
+        underTest.detachExpiredPartitions();
+
+        // Then
+        verify(jdbcTemplate).execute("ALTER TABLE note DETACH PARTITION note_p2024_05");
+        verify(jdbcTemplate).execute("ALTER TABLE note_p2024_05 RENAME TO note_archive_p2024_05");
+        verify(jdbcTemplate, times(2)).execute(anyString());
+    }
+
+    @Test
+    public void itShouldKeepAllPartitionsWithoutRetention() {
+        // Given
+        NotePartitionMaintenance underTest = maintenance(3, 0);
+        attached("note_p2010_01");
+
+        // When
+        underTest.detachExpiredPartitions();
+
+        // Then
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    public void itShouldThrowExceptionWhenThePartitionIsNotAttached() {
+        // Given
+        NotePartitionMaintenance underTest = maintenance(3, 0);
+        attached("note_p2024_10");
+
+        // When & Then
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> underTest.detach(YearMonth.of(2024, 9))
+        );
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    public void itShouldGiveNotesOfADetachedMonthANewPartition() {
+        // Given
+        NotePartitionMaintenance underTest = maintenance(1, 3);
+        Catalog catalog = new Catalog("note_p2024_05", "note_p2024_06", "note_p2024_07", "note_p2024_10");
+
+        // When: May and June expire, then a historical note for May arrives in the default partition
+        underTest.maintain();
+        catalog.noteArrives(LocalDate.of(2024, 5, 20));
+        underTest.maintain();
+
+        // Then: May got a new partition, which expired again and was archived under the next free name
+        verify(jdbcTemplate).execute("CREATE TABLE note_p2024_11 PARTITION OF note"
+                + " FOR VALUES FROM ('2024-11-01') TO ('2024-12-01')");
+        verify(jdbcTemplate).execute(startsWith("CREATE TABLE note_p2024_05 (LIKE note"));
+        verify(jdbcTemplate).execute("ALTER TABLE note ATTACH PARTITION note_p2024_05"
+                + " FOR VALUES FROM ('2024-05-01') TO ('2024-06-01')");
+        assertEquals(List.of("note_p2024_07", "note_p2024_10", "note_p2024_11"), catalog.attached);
+        assertTrue(catalog.tables.containsAll(List.of(
+                "note_archive_p2024_05", "note_archive_p2024_05_2", "note_archive_p2024_06")));
+        assertFalse(catalog.tables.contains("note_p2024_05"));
+        assertTrue(catalog.defaultMonths.isEmpty());
+    }
+
+    @Test
+    public void itShouldFailLoudlyWhenAnUnattachedTableHasThePartitionName() {
+        // Given
+        NotePartitionMaintenance underTest = maintenance(2, 0);
+        Catalog catalog = new Catalog("note_p2024_10");
+        catalog.tables.add("note_p2024_11");
+        catalog.tables.add("note_p2024_03");
+        catalog.noteArrives(LocalDate.of(2024, 3, 2));
+
+        // When & Then
+        IllegalStateException created = assertThrows(
+                IllegalStateException.class,
+                underTest::createPartitionsAhead
+        );
+        IllegalStateException split = assertThrows(
+                IllegalStateException.class,
+                underTest::splitDefaultPartition
+        );
+        assertEquals("Could not create note partitions [note_p2024_11]", created.getMessage());
+        assertEquals("Could not split note partitions [note_p2024_03]", split.getMessage());
+        // the other months are not held up
+        assertEquals(List.of("note_p2024_10", "note_p2024_12"), catalog.attached);
+        verify(jdbcTemplate, never()).execute(startsWith("CREATE TABLE note_p2024_11"));
+        verify(jdbcTemplate, never()).execute(startsWith("CREATE TABLE note_p2024_03"));
+    }
+
+    private NotePartitionMaintenance maintenance(int monthsAhead, int retentionMonths) {
+        return new NotePartitionMaintenance(jdbcTemplate, transactionManager, clock, monthsAhead, retentionMonths);
+    }
+
+    private void attached(String... tableNames) {
+        when(jdbcTemplate.queryForList(contains("pg_inherits"), eq(String.class), eq("note")))
+                .thenReturn(List.of(tableNames));
+    }
+
+    /**
+     * Minimal PostgreSQL catalog behind the mocked JdbcTemplate: tables, attached partitions and the months
+     * the default partition holds notes of. The DDL fails like PostgreSQL does for existing names.
+     */
+    private class Catalog {
+        private static final Pattern CREATE_PARTITION = Pattern.compile("CREATE TABLE (\\w+) PARTITION OF note FOR VALUES.*");
+        private static final Pattern CREATE_TABLE = Pattern.compile("CREATE TABLE (\\w+) \\(LIKE note .*");
+        private static final Pattern ATTACH = Pattern.compile("ALTER TABLE note ATTACH PARTITION (\\w+) .*");
+        private static final Pattern DETACH = Pattern.compile("ALTER TABLE note DETACH PARTITION (\\w+)");
+        private static final Pattern RENAME = Pattern.compile("ALTER TABLE (\\w+) RENAME TO (\\w+)");
+
+        private final Set<String> tables = new TreeSet<>();
+        private final List<String> attached = new ArrayList<>();
+        private final Set<LocalDate> defaultMonths = new TreeSet<>();
+
+        private Catalog(String... partitions) {
+            tables.add("note_default");
+            tables.addAll(List.of(partitions));
+            attached.addAll(List.of(partitions));
+            when(jdbcTemplate.queryForList(contains("pg_inherits"), eq(String.class), eq("note")))
+                    .thenAnswer(invocation -> {
+                        List<String> children = new ArrayList<>(attached);
+                        children.add("note_default");
+                        return children;
+                    });
+            when(jdbcTemplate.queryForObject(contains("pg_class c"), eq(Boolean.class), anyString()))
+                    .thenAnswer(invocation -> tables.contains(invocation.<String>getArgument(2)));
+            when(jdbcTemplate.queryForList(contains("FROM note_default"), eq(LocalDate.class)))
+                    .thenAnswer(invocation -> new ArrayList<>(defaultMonths));
+            when(jdbcTemplate.update(startsWith("WITH moved AS (DELETE FROM note_default"), any(LocalDate.class), any(LocalDate.class)))
+                    .thenAnswer(invocation -> {
+                        defaultMonths.remove(invocation.<LocalDate>getArgument(1));
+                        return 1;
+                    });
+            doAnswer(invocation -> {
+                execute(invocation.getArgument(0));
+                return null;
+            }).when(jdbcTemplate).execute(anyString());
+        }
+
+        private void noteArrives(LocalDate date) {
+            defaultMonths.add(date.withDayOfMonth(1));
+        }
+
+        private void execute(String sql) {
+            Matcher matcher;
+            if ((matcher = CREATE_PARTITION.matcher(sql)).matches()) {
+                create(matcher.group(1));
+                attach(matcher.group(1));
+            } else if ((matcher = CREATE_TABLE.matcher(sql)).matches()) {
+                create(matcher.group(1));
+            } else if ((matcher = ATTACH.matcher(sql)).matches()) {
+                attach(matcher.group(1));
+            } else if ((matcher = DETACH.matcher(sql)).matches()) {
+                assertTrue(attached.remove(matcher.group(1)), "not attached: " + matcher.group(1));
+            } else if ((matcher = RENAME.matcher(sql)).matches()) {
+                assertTrue(tables.remove(matcher.group(1)), "does not exist: " + matcher.group(1));
+                create(matcher.group(2));
+            } else {
+                fail("unexpected DDL: " + sql);
+            }
+        }
+
+        private void create(String table) {
+            if (!tables.add(table)) {
+                throw new IllegalStateException("relation \"" + table + "\" already exists");
+            }
+        }
+
+        private void attach(String table) {
+            NotePartition partition = NotePartition.parse(table).orElseThrow();
+            if (defaultMonths.contains(partition.from())) {
+                throw new IllegalStateException("updated partition constraint for default partition would be violated");
+            }
+            attached.add(table);
+            attached.sort(null);
+        }
+    }
+}
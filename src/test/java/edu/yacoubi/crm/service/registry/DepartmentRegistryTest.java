@@ -0,0 +1,79 @@
+package edu.yacoubi.crm.service.registry;
+
+import edu.yacoubi.crm.dto.employee.DepartmentHeadCountDTO;
+import edu.yacoubi.crm.dto.employee.EmployeeDepartmentDTO;
+import edu.yacoubi.crm.model.Employee;
+import edu.yacoubi.crm.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DepartmentRegistryTest {
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    private DepartmentRegistry underTest;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        underTest = new DepartmentRegistry(employeeRepository);
+        underTest.rebuild(() -> List.of(
+                new EmployeeDepartmentDTO(1L, "Sales", 3L),
+                new EmployeeDepartmentDTO(2L, "Sales", 0L),
+                new EmployeeDepartmentDTO(3L, "Marketing", 2L)
+        ));
+    }
+
+    @Test
+    public void itShouldAggregateTheEmployeesByDepartment() {
+        // When
+        DepartmentRegistry.Snapshot snapshot = underTest.snapshot();
+
+        // Then
+        assertTrue(underTest.isReady());
+        assertEquals(List.of("Marketing", "Sales"), snapshot.names());
+        assertEquals(List.of(
+                new DepartmentHeadCountDTO("Marketing", 1, 2),
+                new DepartmentHeadCountDTO("Sales", 2, 3)
+        ), snapshot.departments());
+    }
+
+    @Test
+    public void itShouldMoveEmployeesWithTheirCustomers() {
+        // When
+        underTest.departmentChanged(1L, "Support");
+        underTest.employeeSaved(Employee.builder().id(4L).department("Support").build());
+        underTest.customersChanged(4L, 1);
+        underTest.employeeRemoved(3L);
+
+        // Then
+        assertEquals(List.of(
+                new DepartmentHeadCountDTO("Sales", 1, 0),
+                new DepartmentHeadCountDTO("Support", 2, 4)
+        ), underTest.snapshot().departments());
+    }
+
+    @Test
+    public void itShouldDeriveTheETagsFromTheContent() {
+        // Given
+        DepartmentRegistry.Snapshot before = underTest.snapshot();
+
+        // When
+        underTest.customersChanged(1L, 1);
+        DepartmentRegistry.Snapshot countsChanged = underTest.snapshot();
+        underTest.customersChanged(1L, -1);
+        DepartmentRegistry.Snapshot reverted = underTest.snapshot();
+
+        // Then
+        assertNotEquals(before.headCountsETag(), countsChanged.headCountsETag());
+        assertEquals(before.namesETag(), countsChanged.namesETag());
+        assertEquals(before.headCountsETag(), reverted.headCountsETag());
+        assertNotEquals(before.namesETag(), before.headCountsETag());
+    }
+}
@@ -0,0 +1,83 @@
+package edu.yacoubi.crm.service.search;
+
+import edu.yacoubi.crm.dto.customer.CustomerPatchDTO;
+import edu.yacoubi.crm.model.Customer;
+import edu.yacoubi.crm.model.Employee;
+import edu.yacoubi.crm.repository.CustomerRepository;
+import edu.yacoubi.crm.repository.EmployeeRepository;
+import edu.yacoubi.crm.repository.NoteRepository;
+import edu.yacoubi.crm.service.ICustomerService;
+import edu.yacoubi.crm.service.ISearchService;
+import edu.yacoubi.crm.util.TestDataUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "crm.search.ngram-index.enabled=true")
+class CustomerNgramIndexIntegrationTest {
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ICustomerService customerService;
+
+    @Autowired
+    private ISearchService searchService;
+
+    @Autowired
+    private CustomerNgramIndex underTest;
+
+    private Employee employee;
+
+    @BeforeEach
+    public void setUp() {
+        noteRepository.deleteAll();
+        customerRepository.deleteAll();
+        employeeRepository.deleteAll();
+        employee = employeeRepository.save(TestDataUtil.createEmployeeA());
+        customerRepository.save(TestDataUtil.createCustomerB(employee));
+        underTest.rebuild();
+    }
+
+    @Test
+    public void itShouldServeSuggestionsFromTheIndexBuiltFromTheDatabase() {
+        // When
+        List<Customer> result = searchService.suggestCustomers("Smi", 10);
+
+        // Then
+        assertTrue(underTest.isReady());
+        assertEquals(1, underTest.size());
+        assertEquals(List.of("jane.smith@example.com"), result.stream().map(Customer::getEmail).toList());
+    }
+
+    @Test
+    public void itShouldKeepTheIndexInSyncWithCreatePartialUpdateAndDelete() {
+        // Given
+        Customer created = customerService.createCustomer(TestDataUtil.createCustomerA(employee));
+
+        // When
+        List<Customer> afterCreate = searchService.suggestCustomers("doe", 10);
+        customerService.partialUpdateCustomer(created.getId(), CustomerPatchDTO.builder().lastName("Dorian").build());
+        List<Customer> afterPatch = searchService.suggestCustomers("dorian", 10);
+        customerService.deleteCustomer(created.getId());
+        List<Customer> afterDelete = searchService.suggestCustomers("john", 10);
+
+        // Then
+        assertEquals(List.of(created.getId()), afterCreate.stream().map(Customer::getId).toList());
+        assertEquals(List.of(created.getId()), afterPatch.stream().map(Customer::getId).toList());
+        assertTrue(afterDelete.isEmpty());
+        assertEquals(1, underTest.size());
+    }
+}
@@ -0,0 +1,157 @@
+package edu.yacoubi.crm.service.search;
+
+import edu.yacoubi.crm.dto.customer.CustomerPatchDTO;
+import edu.yacoubi.crm.dto.customer.CustomerSearchFieldsDTO;
+import edu.yacoubi.crm.model.Customer;
+import edu.yacoubi.crm.repository.CustomerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class CustomerNgramIndexTest {
+    @Mock
+    private CustomerRepository customerRepository;
+
+    private CustomerNgramIndex underTest;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        underTest = new CustomerNgramIndex(customerRepository, true);
+
+        // two chunks, so that the segments are merged
+        List<List<CustomerSearchFieldsDTO>> chunks = List.of(
+                List.of(
+                        new CustomerSearchFieldsDTO(1L, "John", "Doe", "john.doe@example.com", "1234567890"),
+                        new CustomerSearchFieldsDTO(2L, "Jane", "Smith", "jane.smith@example.com", "9876543210")
+                ),
+                List.of(
+                        new CustomerSearchFieldsDTO(3L, "Michael", "Jordan", "john.jordan@example.com", "0987654321")
+                )
+        );
+        underTest.rebuild(afterId -> afterId == Long.MIN_VALUE ? chunks.get(0)
+                : afterId == 2L ? chunks.get(1)
+                : List.of());
+    }
+
+    @Test
+    public void itShouldBuildTheIndexFromAllChunks() {
+        // Then
+        assertTrue(underTest.isReady());
+        assertEquals(3, underTest.size());
+    }
+
+    @Test
+    public void itShouldFindSubstringsAndRankFieldPrefixesFirst() {
+        // When
+        List<Long> john = underTest.search("john", 10);
+        List<Long> phone = underTest.search("5432", 10);
+
+        // Then
+        assertEquals(List.of(1L, 3L), john);
+        assertEquals(List.of(2L, 3L), phone);
+    }
+
+    @Test
+    public void itShouldMatchShortTermsAsPrefix() {
+        // When
+        List<Long> result = underTest.search("sm", 10);
+        List<Long> noPrefix = underTest.search("mi", 10);
+
+        // Then
+        assertEquals(List.of(2L), result);
+        assertEquals(List.of(3L), noPrefix);
+    }
+
+    @Test
+    public void itShouldRejectTrigramFalsePositives() {
+        // Given
+        underTest.upsert(Customer.builder().id(5L).firstName("Anna").lastName("Banana").build());
+
+        // When
+        // all trigrams of "nanan" (nan, ana) occur in "banana", the term itself does not
+        List<Long> falsePositive = underTest.search("nanan", 10);
+        List<Long> match = underTest.search("anana", 10);
+
+        // Then
+        assertTrue(falsePositive.isEmpty());
+        assertEquals(List.of(5L), match);
+    }
+
+    @Test
+    public void itShouldLimitTheResults() {
+        // When
+        List<Long> result = underTest.search("example.com", 2);
+
+        // Then
+        assertEquals(List.of(1L, 2L), result);
+    }
+
+    @Test
+    public void itShouldKeepTheIndexInSyncWithWrites() {
+        // Given
+        Customer created = Customer.builder()
+                .id(4L).firstName("Peter").lastName("Parker")
+                .email("peter.parker@example.com").phone("5555555555")
+                .build();
+
+        // When
+        underTest.upsert(created);
+        underTest.applyPatch(1L, CustomerPatchDTO.builder().lastName("Dorian").build());
+        underTest.remove(2L);
+
+        // Then
+        assertEquals(List.of(4L), underTest.search("parker", 10));
+        assertEquals(List.of(1L), underTest.search("dorian", 10));
+        assertEquals(List.of(1L), underTest.search("john.doe", 10));
+        assertTrue(underTest.search("doe", 10).contains(1L));
+        assertTrue(underTest.search("smith", 10).isEmpty());
+        assertEquals(3, underTest.size());
+    }
+
+    @Test
+    public void itShouldReuseTheSlotsOfRemovedCustomers() {
+        // When: customers come and go, e.g. short-lived leads
+        for (long id = 10; id < 1_000; id++) {
+            underTest.upsert(Customer.builder()
+                    .id(id).firstName("Lead" + id).lastName("Temp")
+                    .email("lead" + id + "@example.org").phone("5555555555")
+                    .build());
+            underTest.remove(id);
+        }
+        underTest.remove(2L);
+        underTest.upsert(Customer.builder()
+                .id(1_000L).firstName("Peter").lastName("Parker")
+                .email("peter.parker@example.com").phone("5555555555")
+                .build());
+
+        // Then
+        assertEquals(4, underTest.slotCount());
+        assertEquals(3, underTest.size());
+        assertTrue(underTest.search("temp", 10).isEmpty());
+        assertTrue(underTest.search("smith", 10).isEmpty());
+        assertEquals(List.of(1_000L), underTest.search("parker", 10));
+        assertEquals(List.of(1L, 1_000L, 3L), underTest.search("example.com", 10));
+    }
+
+    @Test
+    public void itShouldIgnoreWritesWhenDisabled() {
+        // Given
+        CustomerNgramIndex disabled = new CustomerNgramIndex(customerRepository, false);
+
+        // When
+        disabled.buildOnStartup();
+        disabled.upsert(Customer.builder().id(1L).firstName("John").build());
+
+        // Then
+        assertFalse(disabled.isReady());
+        assertEquals(0, disabled.size());
+        verifyNoInteractions(customerRepository);
+    }
+}
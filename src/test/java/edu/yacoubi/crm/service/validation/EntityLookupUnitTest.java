@@ -0,0 +1,117 @@
+package edu.yacoubi.crm.service.validation;
+
+import edu.yacoubi.crm.exception.ResourceNotFoundException;
+import edu.yacoubi.crm.model.Customer;
+import edu.yacoubi.crm.model.Employee;
+import edu.yacoubi.crm.repository.EmployeeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class EntityLookupUnitTest {
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    @InjectMocks
+    private EntityValidator entityValidator;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        // Simuliert eine laufende Transaktion
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void itShouldReturnLoadedEntity() {
+        // Given
+        final Customer customer = Customer.builder().id(1L).build();
+
+        // When
+        final Customer result = EntityLookup.loadOrThrow(Optional.of(customer), Customer.class, 1L);
+
+        // Then
+        assertSame(customer, result);
+        assertTrue(VerifiedEntityIds.isVerified(Customer.class, 1L));
+    }
+
+    @Test
+    void itShouldThrowExceptionWhenEntityIsMissing() {
+        // When
+        final ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
+                () -> EntityLookup.loadOrThrow(Optional.empty(), Customer.class, 7L));
+
+        // Then
+        assertEquals("Customer not found with ID: 7", exception.getMessage());
+        assertFalse(VerifiedEntityIds.isVerified(Customer.class, 7L));
+    }
+
+    @Test
+    void itShouldThrowExceptionWhenBulkUpdateAffectedNoRow() {
+        // When
+        final ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
+                () -> EntityLookup.requireUpdated(0, Employee.class, 3L));
+
+        // Then
+        assertEquals("Employee not found with ID: 3", exception.getMessage());
+    }
+
+    @Test
+    void itShouldCheckEmployeeExistenceOnlyOncePerTransaction() {
+        // Given
+        final Long employeeId = 1L;
+        when(employeeRepository.existsById(employeeId)).thenReturn(true);
+
+        // When
+        entityValidator.validateEmployeeExists(employeeId);
+        entityValidator.validateEmployeeExists(employeeId);
+
+        // Then
+        verify(employeeRepository, times(1)).existsById(employeeId);
+    }
+
+    @Test
+    void itShouldCheckEmployeeExistenceAgainAfterEviction() {
+        // Given
+        final Long employeeId = 1L;
+        when(employeeRepository.existsById(employeeId)).thenReturn(true);
+        entityValidator.validateEmployeeExists(employeeId);
+
+        // When
+        VerifiedEntityIds.evict(Employee.class, employeeId);
+        entityValidator.validateEmployeeExists(employeeId);
+
+        // Then
+        verify(employeeRepository, times(2)).existsById(employeeId);
+    }
+
+    @Test
+    void itShouldForgetVerifiedIdsWhenTransactionCompletes() {
+        // Given
+        VerifiedEntityIds.markVerified(Customer.class, 5L);
+
+        // When
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        // Then
+        assertFalse(VerifiedEntityIds.isVerified(Customer.class, 5L));
+    }
+}
@@ -0,0 +1,34 @@
+package edu.yacoubi.crm.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvRecordReaderTest {
+
+    @Test
+    public void itShouldReadQuotedFieldsAcrossLines() throws Exception {
+        // Given
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(
+                "a,b,c\r\n1,\"x, \"\"y\"\"\nz\",\r\n\n2,,last"));
+
+        // When & Then
+        assertEquals(List.of("a", "b", "c"), reader.next());
+        assertEquals(1, reader.recordLine());
+        assertEquals(List.of("1", "x, \"y\"\nz", ""), reader.next());
+        assertEquals(2, reader.recordLine());
+        // the blank line is skipped, the last record has no line break
+        assertEquals(List.of("2", "", "last"), reader.next());
+        assertEquals(5, reader.recordLine());
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void itShouldReturnNullForEmptyDocument() throws Exception {
+        assertNull(new CsvRecordReader(new StringReader("")).next());
+        assertNull(new CsvRecordReader(new StringReader("\r\n\n")).next());
+    }
+}
@@ -0,0 +1,47 @@
+package edu.yacoubi.crm.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KeysetCursorTest {
+
+    @Test
+    public void itShouldEncodeAndDecodeCursor() {
+        // Given
+        KeysetCursor cursor = KeysetCursor.of("O'Neil: Jr.", 42L);
+
+        // When
+        String token = cursor.encode();
+        KeysetCursor decoded = KeysetCursor.decode(token);
+
+        // Then
+        // the token is opaque and URL-safe, the separator inside the sort key survives
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+        assertEquals(cursor, decoded);
+    }
+
+    @Test
+    public void itShouldReturnNullForMissingToken() {
+        assertNull(KeysetCursor.decode(null));
+        assertNull(KeysetCursor.decode(" "));
+    }
+
+    @Test
+    public void itShouldRejectMalformedToken() {
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("%%%"));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(KeysetCursor.of("x", null).encode()));
+    }
+
+    @Test
+    public void itShouldParseDateSortKey() {
+        // Given
+        KeysetCursor cursor = KeysetCursor.of(LocalDate.of(2024, 10, 22), 7L);
+
+        // When & Then
+        assertEquals(LocalDate.of(2024, 10, 22), KeysetCursor.decode(cursor.encode()).sortKeyAsDate());
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.of("Doe", 7L).sortKeyAsDate());
+    }
+}